@@ -0,0 +1,101 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of each addressing mode. The program repeats the LDA instruction
+ * with the selected addressing mode. Score is in million instructions per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AddressingModeBenchmark {
+
+    private static final int INSTRUCTIONS = 10_000;
+    private static final int LOOP_ADDRESS = 0x0204;
+
+    @Param
+    public AddressingMode addressingMode;
+
+    @Param({"OPERATION_CODE_TABLE", "SWITCH", "BLOCK_CACHE"})
+    public ExecutionEngine executionEngine;
+
+    private MOS6502Processor processor;
+
+    @Setup
+    public void setup() {
+
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+
+        // Pointer used by indirect addressing modes: $0010 -> $3000
+        memory.load(0x0010, new byte[]{0x00, 0x30});
+
+        // LDX #$00, LDY #$00
+        memory.load(0x0200, new byte[]{(byte) 0xA2, 0x00, (byte) 0xA0, 0x00});
+
+        // 32 x LDA, JMP loop
+        int address = LOOP_ADDRESS;
+        for (int idx = 0; idx < 32; idx += 1) {
+            memory.load(address, this.addressingMode.instruction);
+            address += this.addressingMode.instruction.length;
+        }
+        memory.load(address, new byte[]{0x4C, (byte) LOOP_ADDRESS, (byte) (LOOP_ADDRESS >> 8)});
+
+        this.processor = new MOS6502Processor(Collections.singletonList(memory), this.executionEngine);
+        this.processor.reset(0x0200);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSTRUCTIONS)
+    public long addressing() {
+
+        long cycles = 0;
+        for (int idx = 0; idx < INSTRUCTIONS; idx += 1) {
+            cycles += this.processor.step();
+        }
+
+        return cycles;
+    }
+
+    /**
+     * Addressing modes, with the matching LDA instruction.
+     */
+    public enum AddressingMode {
+
+        IMMEDIATE(0xA9, 0x42),
+        ZERO_PAGE(0xA5, 0x20),
+        ZERO_PAGE_INDEXED_X(0xB5, 0x20),
+        ABSOLUTE(0xAD, 0x00, 0x30),
+        ABSOLUTE_INDEXED_X(0xBD, 0x00, 0x30),
+        ABSOLUTE_INDEXED_Y(0xB9, 0x00, 0x30),
+        ZERO_PAGE_INDEXED_X_INDIRECT(0xA1, 0x10),
+        ZERO_PAGE_INDIRECT_INDEXED_Y(0xB1, 0x10);
+
+        private final byte[] instruction;
+
+        AddressingMode(final int... instruction) {
+
+            this.instruction = new byte[instruction.length];
+            for (int idx = 0; idx < instruction.length; idx += 1) {
+                this.instruction[idx] = (byte) instruction[idx];
+            }
+        }
+    }
+}
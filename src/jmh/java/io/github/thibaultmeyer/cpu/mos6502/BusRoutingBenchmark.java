@@ -0,0 +1,123 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the memory access routing cost according to the number of bus units
+ * sharing the address space. The program reads memory spread over the whole address
+ * space, so every bus unit is hit. Score is in million instructions per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BusRoutingBenchmark {
+
+    private static final int INSTRUCTIONS = 10_000;
+
+    @Param({"1", "4", "16"})
+    public int busUnitCount;
+
+    @Param({"GENERIC", "ARRAY_MEMORY"})
+    public String busUnitType;
+
+    private MOS6502Processor processor;
+
+    @Setup
+    public void setup() {
+
+        final int busUnitSize = 0x10000 / this.busUnitCount;
+        final List<BusUnit> busUnitList = new ArrayList<>();
+        for (int idx = 0; idx < this.busUnitCount; idx += 1) {
+            busUnitList.add("GENERIC".equals(this.busUnitType)
+                ? new GenericMemory(idx * busUnitSize, busUnitSize)
+                : ArrayMemory.createRAM(idx * busUnitSize, busUnitSize));
+        }
+
+        // 63 x LDA $xx80 (one read every 1KB), JMP $0200
+        final int[] program = new int[63 * 3 + 3];
+        for (int idx = 0; idx < 63; idx += 1) {
+            program[idx * 3] = 0xAD;
+            program[idx * 3 + 1] = 0x80;
+            program[idx * 3 + 2] = (idx + 1) << 2;
+        }
+        program[189] = 0x4C;
+        program[190] = 0x00;
+        program[191] = 0x02;
+
+        for (int idx = 0; idx < program.length; idx += 1) {
+            busUnitList.get(0).write(0x0200 + idx, program[idx]);
+        }
+
+        this.processor = new MOS6502Processor(busUnitList);
+        this.processor.reset(0x0200);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSTRUCTIONS)
+    public long routing() {
+
+        long cycles = 0;
+        for (int idx = 0; idx < INSTRUCTIONS; idx += 1) {
+            cycles += this.processor.step();
+        }
+
+        return cycles;
+    }
+
+    /**
+     * Memory not recognized by the processor, always accessed through {@link BusUnit} methods.
+     */
+    private static final class GenericMemory implements BusUnit {
+
+        private final int mappingAddressMin;
+        private final int[] internalMemory;
+
+        private GenericMemory(final int mappingAddressMin, final int size) {
+
+            this.mappingAddressMin = mappingAddressMin;
+            this.internalMemory = new int[size];
+        }
+
+        @Override
+        public int mappingAddressMin() {
+
+            return this.mappingAddressMin;
+        }
+
+        @Override
+        public int mappingAddressMax() {
+
+            return this.mappingAddressMin + this.internalMemory.length - 1;
+        }
+
+        @Override
+        public int read(final int address) {
+
+            return this.internalMemory[address - this.mappingAddressMin];
+        }
+
+        @Override
+        public void write(final int address, final int value) {
+
+            this.internalMemory[address - this.mappingAddressMin] = value;
+        }
+    }
+}
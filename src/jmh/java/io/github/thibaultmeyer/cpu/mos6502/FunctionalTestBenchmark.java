@@ -0,0 +1,76 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the first cycles of the Klaus Dormann functional test. As each operation is a
+ * single emulated cycle and the output unit is the microsecond, the score is directly
+ * the emulated frequency in MHz.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FunctionalTestBenchmark {
+
+    private static final int CYCLES = 10_000_000;
+
+    @Param({"OPERATION_CODE_TABLE", "SWITCH", "BLOCK_CACHE", "DYNAMIC_RECOMPILER"})
+    public ExecutionEngine executionEngine;
+
+    private byte[] binary;
+    private MOS6502Processor processor;
+
+    @Setup(Level.Trial)
+    public void loadBinary() throws IOException {
+
+        try (final InputStream inputStream = this.getClass().getResourceAsStream("/6502_functional_test.bin")) {
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+
+            int length;
+            while ((length = inputStream.read(buffer)) > 0) {
+                outputStream.write(buffer, 0, length);
+            }
+
+            this.binary = outputStream.toByteArray();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setup() {
+
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+        memory.load(0x0000, this.binary);
+
+        this.processor = new MOS6502Processor(Collections.singletonList(memory), this.executionEngine);
+        this.processor.reset(0x400);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CYCLES)
+    public long functionalTest() {
+
+        return this.processor.run(CYCLES);
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the opcode dispatch cost. The program only uses instructions working on
+ * registers, so the score (million instructions per second) is dominated by the
+ * fetch, decode and dispatch sequence.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OperationCodeDispatchBenchmark {
+
+    private static final int INSTRUCTIONS = 10_000;
+
+    @Param({"OPERATION_CODE_TABLE", "SWITCH", "BLOCK_CACHE"})
+    public ExecutionEngine executionEngine;
+
+    private MOS6502Processor processor;
+
+    @Setup
+    public void setup() {
+
+        // INX, DEY, TAX, TYA, CLC, SEC, NOP, INY, DEX, TXA, TAY, JMP $0200
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+        memory.load(0x0200, new byte[]{
+            (byte) 0xE8, (byte) 0x88, (byte) 0xAA, (byte) 0x98, 0x18, 0x38, (byte) 0xEA,
+            (byte) 0xC8, (byte) 0xCA, (byte) 0x8A, (byte) 0xA8, 0x4C, 0x00, 0x02});
+
+        this.processor = new MOS6502Processor(Collections.singletonList(memory), this.executionEngine);
+        this.processor.reset(0x0200);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INSTRUCTIONS)
+    public long dispatch() {
+
+        long cycles = 0;
+        for (int idx = 0; idx < INSTRUCTIONS; idx += 1) {
+            cycles += this.processor.step();
+        }
+
+        return cycles;
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Memory backed by a byte array. The processor recognizes this bus unit and reads
+ * or writes the backing array directly, without going through {@link BusUnit}
+ * methods, for each page fully owned by this memory. Snapshots hold the whole memory
+ * content, read-only memory included.
+ */
+public final class ArrayMemory implements BusUnit, Snapshottable {
+
+    final byte[] memory;
+    final int mappingAddressMin;
+    final boolean readOnly;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param mappingAddressMin First mapped address
+     * @param memory            Backing array, its length gives the mapped size
+     * @param readOnly          {@code true} to ignore writes coming from the bus
+     */
+    private ArrayMemory(final int mappingAddressMin, final byte[] memory, final boolean readOnly) {
+
+        if (mappingAddressMin < 0 || memory.length == 0 || mappingAddressMin + memory.length > 0x10000) {
+            throw new IllegalArgumentException("Memory must fit in the 16-bits address space");
+        }
+
+        this.memory = memory;
+        this.mappingAddressMin = mappingAddressMin;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Creates a new read/write memory initialized with zeros.
+     *
+     * @param mappingAddressMin First mapped address
+     * @param size              Size in bytes
+     * @return Newly created memory
+     */
+    public static ArrayMemory createRAM(final int mappingAddressMin, final int size) {
+
+        return new ArrayMemory(mappingAddressMin, new byte[size], false);
+    }
+
+    /**
+     * Creates a new read-only memory. The content is copied, later changes made
+     * to the given array are not visible.
+     *
+     * @param mappingAddressMin First mapped address
+     * @param content           Memory content
+     * @return Newly created memory
+     */
+    public static ArrayMemory createROM(final int mappingAddressMin, final byte[] content) {
+
+        return new ArrayMemory(mappingAddressMin, content.clone(), true);
+    }
+
+    /**
+     * Checks if this memory ignores writes coming from the bus.
+     *
+     * @return {@code true} if memory is read-only
+     */
+    public boolean isReadOnly() {
+
+        return this.readOnly;
+    }
+
+    /**
+     * Copies data into the memory, even if the memory is read-only.
+     *
+     * @param address Memory address where to copy data
+     * @param data    Data to copy
+     */
+    public void load(final int address, final byte[] data) {
+
+        System.arraycopy(data, 0, this.memory, address - this.mappingAddressMin, data.length);
+    }
+
+    @Override
+    public int snapshotSize() {
+
+        return this.memory.length;
+    }
+
+    @Override
+    public void saveSnapshot(final ByteBuffer buffer) {
+
+        buffer.put(this.memory);
+    }
+
+    @Override
+    public void loadSnapshot(final ByteBuffer buffer) {
+
+        buffer.get(this.memory);
+    }
+
+    @Override
+    public int mappingAddressMin() {
+
+        return this.mappingAddressMin;
+    }
+
+    @Override
+    public int mappingAddressMax() {
+
+        return this.mappingAddressMin + this.memory.length - 1;
+    }
+
+    @Override
+    public int read(final int address) {
+
+        return this.memory[address - this.mappingAddressMin] & 0xFF;
+    }
+
+    @Override
+    public void write(final int address, final int value) {
+
+        if (!this.readOnly) {
+            this.memory[address - this.mappingAddressMin] = (byte) value;
+        }
+    }
+}
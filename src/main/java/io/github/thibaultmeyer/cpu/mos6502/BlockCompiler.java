@@ -0,0 +1,1526 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates a decoded block into a JVM class extending {@link CompiledBlock}, so that
+ * the JVM JIT compiler can turn 6502 code into native code. Registers, and the values
+ * lazily evaluated flags are derived from, are kept in local variables for the whole
+ * block. Every documented NMOS instruction is translated directly, except BRK and RTI;
+ * these ones, instructions added by the 65C02 or unofficial ones, and ADC and SBC while
+ * the decimal mode is set, are handed back to the interpreter, with registers written
+ * back before and reloaded after.
+ *
+ * <p>Generated classes only depend on the block content and the processor variant, so
+ * they are shared by all processors: a processor created later, or forked, reuses code
+ * the JVM already compiled to native code.
+ */
+final class BlockCompiler {
+
+    /**
+     * Number of times a block has to be entered before being compiled.
+     */
+    static final int COMPILE_THRESHOLD = 64;
+
+    /**
+     * Maximum number of generated classes kept at once. Once reached, the cache is
+     * dropped along with its class loader, so that classes can be unloaded.
+     */
+    private static final int MAX_CACHED_CLASSES = 4096;
+
+    private static final Map<BlockKey, Constructor<? extends CompiledBlock>> CONSTRUCTOR_CACHE = new HashMap<>();
+    private static BlockClassLoader blockClassLoader = new BlockClassLoader(BlockCompiler.class.getClassLoader());
+
+    private static final String PACKAGE = "io/github/thibaultmeyer/cpu/mos6502/";
+    private static final String COMPILED_BLOCK = PACKAGE + "CompiledBlock";
+    private static final String PROCESSOR = PACKAGE + "MOS6502Processor";
+    private static final String REGISTERS = PACKAGE + "MOS6502Registers";
+
+    private static final int STACK_MEMORY_LOCATION = 0x0100;
+
+    private static final int LOCAL_ACCUMULATOR = 2;
+    private static final int LOCAL_X = 3;
+    private static final int LOCAL_Y = 4;
+    private static final int LOCAL_NEGATIVE = 5;
+    private static final int LOCAL_ZERO = 6;
+    private static final int LOCAL_CARRY = 7;
+    private static final int LOCAL_OVERFLOW = 8;
+    private static final int LOCAL_STACK_POINTER = 9;
+    private static final int LOCAL_PENALTY_CYCLES = 10;
+    private static final int LOCAL_PROGRAM_COUNTER = 11;
+    private static final int LOCAL_INSTRUCTIONS = 12;
+    private static final int LOCAL_CYCLES = 13;
+    private static final int LOCAL_ADDRESS = 14;
+    private static final int LOCAL_VALUE = 15;
+    private static final int LOCAL_RESULT = 16;
+    private static final int LOCAL_COUNT = 17;
+
+    private static final int MODE_IMMEDIATE = 0;
+    private static final int MODE_ZERO_PAGE = 1;
+    private static final int MODE_ZERO_PAGE_X = 2;
+    private static final int MODE_ZERO_PAGE_Y = 3;
+    private static final int MODE_ABSOLUTE = 4;
+    private static final int MODE_ABSOLUTE_X = 5;
+    private static final int MODE_ABSOLUTE_Y = 6;
+    private static final int MODE_INDEXED_INDIRECT = 7;
+    private static final int MODE_INDIRECT_INDEXED = 8;
+
+    private final ClassFileBuilder classFileBuilder;
+    private final ClassFileBuilder.Code code;
+    private final DecodedBlock decodedBlock;
+    private final ProcessorVariant processorVariant;
+
+    /**
+     * Positions of the branches jumping to the block exit, bound once it is emitted.
+     */
+    private final List<Integer> exitBranchList;
+    private final int firstPage;
+    private final int lastPage;
+
+    /**
+     * Whether the instruction being translated may write to the pages of the block.
+     */
+    private boolean blockWritten;
+
+    /**
+     * Whether the instruction being translated may call a bus unit, which may raise an
+     * interrupt or schedule an event.
+     */
+    private boolean busUnitReached;
+
+    /**
+     * Number of cycles of the instructions translated so far, the current one included,
+     * penalties excepted.
+     */
+    private int blockCycles;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param classFileBuilder Class file the block is compiled into
+     * @param processorVariant Variant of the processor running the block
+     * @param decodedBlock     Decoded block to compile
+     */
+    private BlockCompiler(final ClassFileBuilder classFileBuilder,
+                          final ProcessorVariant processorVariant,
+                          final DecodedBlock decodedBlock) {
+
+        this.classFileBuilder = classFileBuilder;
+        this.code = classFileBuilder.new Code(16, LOCAL_COUNT);
+        this.decodedBlock = decodedBlock;
+        this.processorVariant = processorVariant;
+        this.exitBranchList = new ArrayList<>();
+        this.firstPage = decodedBlock.addresses[0] >> 8;
+        this.lastPage = ((decodedBlock.addresses[decodedBlock.length] - 1) & 0xFFFF) >> 8;
+        this.blockWritten = false;
+        this.busUnitReached = false;
+        this.blockCycles = 0;
+    }
+
+    /**
+     * Creates a compiled block running a decoded block. The class generated for the same
+     * content and processor variant is reused, otherwise, the block is compiled and its
+     * class is defined by the shared class loader.
+     *
+     * @param processor        Processor running the block
+     * @param processorVariant Variant of the processor running the block
+     * @param decodedBlock     Decoded block to compile
+     * @return Newly created compiled block
+     */
+    static CompiledBlock compile(final MOS6502Processor processor,
+                                 final ProcessorVariant processorVariant,
+                                 final DecodedBlock decodedBlock) {
+
+        final Constructor<? extends CompiledBlock> constructor = BlockCompiler.findConstructor(
+            processorVariant,
+            decodedBlock);
+        try {
+            final CompiledBlock compiledBlock = constructor.newInstance(processor);
+            compiledBlock.decodedBlock = decodedBlock;
+
+            return compiledBlock;
+        } catch (final InstantiationException | IllegalAccessException | InvocationTargetException exception) {
+            throw new IllegalStateException("Can't instantiate compiled block " + constructor.getName(), exception);
+        }
+    }
+
+    /**
+     * Checks whether a class has been generated for a decoded block.
+     *
+     * @param blockClass Class to check
+     * @return {@code true} if the class has been generated, otherwise, {@code false}
+     */
+    static boolean isGeneratedClass(final Class<?> blockClass) {
+
+        return blockClass.getClassLoader() instanceof BlockClassLoader;
+    }
+
+    /**
+     * Gets the constructor of the class generated for a decoded block, compiling the
+     * block if needed.
+     *
+     * @param processorVariant Variant of the processor running the block
+     * @param decodedBlock     Decoded block to compile
+     * @return The constructor, taking the processor as single parameter
+     */
+    private static synchronized Constructor<? extends CompiledBlock> findConstructor(
+        final ProcessorVariant processorVariant,
+        final DecodedBlock decodedBlock) {
+
+        final BlockKey blockKey = new BlockKey(processorVariant, decodedBlock);
+        Constructor<? extends CompiledBlock> constructor = CONSTRUCTOR_CACHE.get(blockKey);
+        if (constructor != null) {
+            return constructor;
+        }
+
+        if (CONSTRUCTOR_CACHE.size() >= MAX_CACHED_CLASSES) {
+            CONSTRUCTOR_CACHE.clear();
+            blockClassLoader = new BlockClassLoader(BlockCompiler.class.getClassLoader());
+        }
+
+        final String className = String.format(
+            "%sGeneratedBlock%04X_%d",
+            PACKAGE,
+            decodedBlock.addresses[0],
+            CONSTRUCTOR_CACHE.size());
+        final ClassFileBuilder classFileBuilder = new ClassFileBuilder(className, COMPILED_BLOCK);
+
+        final ClassFileBuilder.Code constructorCode = classFileBuilder.new Code(2, 2);
+        constructorCode.emit(ClassFileBuilder.ALOAD_0);
+        constructorCode.emit(ClassFileBuilder.ALOAD_1);
+        constructorCode.emitConstant(
+            ClassFileBuilder.INVOKESPECIAL,
+            classFileBuilder.methodConstant(COMPILED_BLOCK, "<init>", "(L" + PROCESSOR + ";)V"));
+        constructorCode.emit(ClassFileBuilder.RETURN);
+        classFileBuilder.addMethod(ClassFileBuilder.ACC_PUBLIC, "<init>", "(L" + PROCESSOR + ";)V", constructorCode);
+
+        final BlockCompiler blockCompiler = new BlockCompiler(classFileBuilder, processorVariant, decodedBlock);
+        blockCompiler.compileExecute();
+        classFileBuilder.addMethod(ClassFileBuilder.ACC_PROTECTED, "execute", "()V", blockCompiler.code);
+
+        final byte[] classFile = classFileBuilder.toByteArray();
+        try {
+            constructor = blockClassLoader
+                .define(className.replace('/', '.'), classFile)
+                .asSubclass(CompiledBlock.class)
+                .getConstructor(MOS6502Processor.class);
+        } catch (final NoSuchMethodException exception) {
+            throw new IllegalStateException("Can't load compiled block " + className, exception);
+        }
+        CONSTRUCTOR_CACHE.put(blockKey, constructor);
+
+        return constructor;
+    }
+
+    /**
+     * Compiles the {@link CompiledBlock#execute()} method body. Every way out of the
+     * block jumps to a single exit, which writes registers back and accounts for the
+     * executed instructions.
+     */
+    private void compileExecute() {
+
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitConstant(
+            ClassFileBuilder.GETFIELD,
+            this.classFileBuilder.fieldConstant(COMPILED_BLOCK, "registers", "L" + REGISTERS + ";"));
+        this.code.emit(ClassFileBuilder.ASTORE_1);
+        this.emitReloadRegisters();
+
+        // Every local variable is assigned, as the verifier can't tell which ones reach the exit
+        for (int local = LOCAL_PENALTY_CYCLES; local < LOCAL_COUNT; local += 1) {
+            this.code.emitInteger(0);
+            this.code.emitLocal(ClassFileBuilder.ISTORE, local);
+        }
+
+        final int length = this.decodedBlock.length;
+        int cycles = 0;
+        for (int index = 0; index < length; index += 1) {
+            final int opcode = this.decodedBlock.opcodes[index];
+            final int operand = this.decodedBlock.operands[index];
+            final int nextAddress = this.decodedBlock.addresses[index + 1];
+            cycles += this.decodedBlock.cycles[index];
+            this.blockCycles = cycles;
+
+            // The latest instruction may jump straight to the exit, so accounting comes first
+            if (index == length - 1) {
+                this.emitStoreInteger(length, LOCAL_INSTRUCTIONS);
+                this.emitStoreInteger(cycles, LOCAL_CYCLES);
+                this.emitStoreInteger(nextAddress, LOCAL_PROGRAM_COUNTER);
+            }
+
+            this.blockWritten = false;
+            this.busUnitReached = false;
+            if (!this.emitInstruction(opcode, operand, nextAddress)) {
+                this.emitInterpret(opcode, operand, nextAddress);
+                this.blockWritten = true;
+                this.busUnitReached = true;
+
+                // An interpreted latest instruction may have moved the program counter (ie: branch)
+                if (index == length - 1) {
+                    this.code.emit(ClassFileBuilder.ALOAD_1);
+                    this.emitRegisterField(ClassFileBuilder.GETFIELD, "programCounter");
+                    this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_PROGRAM_COUNTER);
+                }
+            }
+
+            // Stops if the latest instruction modified the block itself
+            if (index < length - 1 && this.blockWritten) {
+                this.code.emit(ClassFileBuilder.ALOAD_0);
+                this.emitInvoke(ClassFileBuilder.INVOKEVIRTUAL, COMPILED_BLOCK, "isValid", "()Z");
+                final int branchPosition = this.code.emitBranch(ClassFileBuilder.IFNE);
+                this.emitEarlyExit(index + 1, cycles, nextAddress);
+                this.code.bindBranch(branchPosition);
+            }
+
+            // Stops if a bus unit called by the latest instruction raised an interrupt or scheduled an event
+            if (index < length - 1 && this.busUnitReached) {
+                this.code.emit(ClassFileBuilder.ALOAD_0);
+                this.emitInvoke(ClassFileBuilder.INVOKEVIRTUAL, COMPILED_BLOCK, "mustLeave", "()Z");
+                final int branchPosition = this.code.emitBranch(ClassFileBuilder.IFEQ);
+                this.emitEarlyExit(index + 1, cycles, nextAddress);
+                this.code.bindBranch(branchPosition);
+            }
+        }
+
+        for (final int branchPosition : this.exitBranchList) {
+            this.code.bindBranch(branchPosition);
+        }
+
+        this.emitSpillRegisters();
+        this.code.emit(ClassFileBuilder.ALOAD_1);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_PROGRAM_COUNTER);
+        this.emitRegisterField(ClassFileBuilder.PUTFIELD, "programCounter");
+
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_INSTRUCTIONS);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_CYCLES);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_PENALTY_CYCLES);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.emitInvoke(ClassFileBuilder.INVOKEVIRTUAL, COMPILED_BLOCK, "retire", "(II)V");
+        this.code.emit(ClassFileBuilder.RETURN);
+    }
+
+    /**
+     * Emits a jump to the exit, before the remaining instructions of the block.
+     *
+     * @param instructions Number of instructions executed so far
+     * @param cycles       Number of cycles of these instructions, penalties excepted
+     * @param nextAddress  Address of the following instruction
+     */
+    private void emitEarlyExit(final int instructions, final int cycles, final int nextAddress) {
+
+        this.emitStoreInteger(instructions, LOCAL_INSTRUCTIONS);
+        this.emitStoreInteger(cycles, LOCAL_CYCLES);
+        this.emitStoreInteger(nextAddress, LOCAL_PROGRAM_COUNTER);
+        this.emitJumpToExit();
+    }
+
+    /**
+     * Emits the translation of an instruction, if it is one of the directly translated
+     * ones. Instructions moving the program counter are always the latest of a block:
+     * they update the program counter local variable, or jump straight to the exit.
+     *
+     * @param opcode      Operation code
+     * @param operand     Operand bytes, as a little-endian value
+     * @param nextAddress Address of the following instruction
+     * @return {@code true} if the instruction has been translated, otherwise, {@code false}
+     */
+    private boolean emitInstruction(final int opcode, final int operand, final int nextAddress) {
+
+        switch (opcode) {
+            case 0xA1: // LDA (zp,x)
+            case 0xA5: // LDA zp
+            case 0xA9: // LDA #
+            case 0xAD: // LDA a
+            case 0xB1: // LDA (zp),y
+            case 0xB5: // LDA zp,x
+            case 0xB9: // LDA a,y
+            case 0xBD: // LDA a,x
+                this.emitLoad(LOCAL_ACCUMULATOR, addressingMode(opcode), operand);
+                return true;
+            case 0xA2: // LDX #
+            case 0xA6: // LDX zp
+            case 0xAE: // LDX a
+            case 0xB6: // LDX zp,y
+            case 0xBE: // LDX a,y
+                this.emitLoad(LOCAL_X, addressingMode(opcode), operand);
+                return true;
+            case 0xA0: // LDY #
+            case 0xA4: // LDY zp
+            case 0xAC: // LDY a
+            case 0xB4: // LDY zp,x
+            case 0xBC: // LDY a,x
+                this.emitLoad(LOCAL_Y, addressingMode(opcode), operand);
+                return true;
+            case 0x81: // STA (zp,x)
+            case 0x85: // STA zp
+            case 0x8D: // STA a
+            case 0x91: // STA (zp),y
+            case 0x95: // STA zp,x
+            case 0x99: // STA a,y
+            case 0x9D: // STA a,x
+                this.emitWrite(addressingMode(opcode), operand, LOCAL_ACCUMULATOR);
+                return true;
+            case 0x86: // STX zp
+            case 0x8E: // STX a
+            case 0x96: // STX zp,y
+                this.emitWrite(addressingMode(opcode), operand, LOCAL_X);
+                return true;
+            case 0x84: // STY zp
+            case 0x8C: // STY a
+            case 0x94: // STY zp,x
+                this.emitWrite(addressingMode(opcode), operand, LOCAL_Y);
+                return true;
+            case 0x01: // ORA (zp,x)
+            case 0x05: // ORA zp
+            case 0x09: // ORA #
+            case 0x0D: // ORA a
+            case 0x11: // ORA (zp),y
+            case 0x15: // ORA zp,x
+            case 0x19: // ORA a,y
+            case 0x1D: // ORA a,x
+                this.emitLogical(ClassFileBuilder.IOR, addressingMode(opcode), operand);
+                return true;
+            case 0x21: // AND (zp,x)
+            case 0x25: // AND zp
+            case 0x29: // AND #
+            case 0x2D: // AND a
+            case 0x31: // AND (zp),y
+            case 0x35: // AND zp,x
+            case 0x39: // AND a,y
+            case 0x3D: // AND a,x
+                this.emitLogical(ClassFileBuilder.IAND, addressingMode(opcode), operand);
+                return true;
+            case 0x41: // EOR (zp,x)
+            case 0x45: // EOR zp
+            case 0x49: // EOR #
+            case 0x4D: // EOR a
+            case 0x51: // EOR (zp),y
+            case 0x55: // EOR zp,x
+            case 0x59: // EOR a,y
+            case 0x5D: // EOR a,x
+                this.emitLogical(ClassFileBuilder.IXOR, addressingMode(opcode), operand);
+                return true;
+            case 0x61: // ADC (zp,x)
+            case 0x65: // ADC zp
+            case 0x69: // ADC #
+            case 0x6D: // ADC a
+            case 0x71: // ADC (zp),y
+            case 0x75: // ADC zp,x
+            case 0x79: // ADC a,y
+            case 0x7D: // ADC a,x
+                this.emitAddWithCarry(opcode, operand, nextAddress, false);
+                return true;
+            case 0xE1: // SBC (zp,x)
+            case 0xE5: // SBC zp
+            case 0xE9: // SBC #
+            case 0xED: // SBC a
+            case 0xF1: // SBC (zp),y
+            case 0xF5: // SBC zp,x
+            case 0xF9: // SBC a,y
+            case 0xFD: // SBC a,x
+                this.emitAddWithCarry(opcode, operand, nextAddress, true);
+                return true;
+            case 0xC1: // CMP (zp,x)
+            case 0xC5: // CMP zp
+            case 0xC9: // CMP #
+            case 0xCD: // CMP a
+            case 0xD1: // CMP (zp),y
+            case 0xD5: // CMP zp,x
+            case 0xD9: // CMP a,y
+            case 0xDD: // CMP a,x
+                this.emitCompare(LOCAL_ACCUMULATOR, addressingMode(opcode), operand);
+                return true;
+            case 0xE0: // CPX #
+            case 0xE4: // CPX zp
+            case 0xEC: // CPX a
+                this.emitCompare(LOCAL_X, addressingMode(opcode), operand);
+                return true;
+            case 0xC0: // CPY #
+            case 0xC4: // CPY zp
+            case 0xCC: // CPY a
+                this.emitCompare(LOCAL_Y, addressingMode(opcode), operand);
+                return true;
+            case 0x24: // BIT zp
+            case 0x2C: // BIT a
+                this.emitReadOperand(addressingMode(opcode), operand);
+                this.code.emit(ClassFileBuilder.DUP);
+                this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_NEGATIVE);
+                this.code.emit(ClassFileBuilder.DUP);
+                this.code.emitInteger(1);
+                this.code.emit(ClassFileBuilder.ISHL);
+                this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_OVERFLOW);
+                this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ACCUMULATOR);
+                this.code.emit(ClassFileBuilder.IAND);
+                this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ZERO);
+                return true;
+            case 0x0A: // ASL A
+            case 0x2A: // ROL A
+            case 0x4A: // LSR A
+            case 0x6A: // ROR A
+                this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ACCUMULATOR);
+                this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_VALUE);
+                this.emitShiftRotate(opcode);
+                this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_RESULT);
+                this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ACCUMULATOR);
+                return true;
+            case 0x06: // ASL zp
+            case 0x0E: // ASL a
+            case 0x16: // ASL zp,x
+            case 0x26: // ROL zp
+            case 0x2E: // ROL a
+            case 0x36: // ROL zp,x
+            case 0x46: // LSR zp
+            case 0x4E: // LSR a
+            case 0x56: // LSR zp,x
+            case 0x66: // ROR zp
+            case 0x6E: // ROR a
+            case 0x76: // ROR zp,x
+                this.emitReadModifyWrite(opcode, operand, false);
+                return true;
+            case 0x1E: // ASL a,x
+            case 0x3E: // ROL a,x
+            case 0x5E: // LSR a,x
+            case 0x7E: // ROR a,x
+                this.emitReadModifyWrite(opcode, operand, this.processorVariant == ProcessorVariant.CMOS_65C02);
+                return true;
+            case 0xC6: // DEC zp
+            case 0xCE: // DEC a
+            case 0xD6: // DEC zp,x
+            case 0xDE: // DEC a,x
+            case 0xE6: // INC zp
+            case 0xEE: // INC a
+            case 0xF6: // INC zp,x
+            case 0xFE: // INC a,x
+                this.emitReadModifyWrite(opcode, operand, false);
+                return true;
+            case 0xAA: // TAX i
+                this.emitTransfer(LOCAL_ACCUMULATOR, LOCAL_X);
+                return true;
+            case 0xA8: // TAY i
+                this.emitTransfer(LOCAL_ACCUMULATOR, LOCAL_Y);
+                return true;
+            case 0x8A: // TXA i
+                this.emitTransfer(LOCAL_X, LOCAL_ACCUMULATOR);
+                return true;
+            case 0x98: // TYA i
+                this.emitTransfer(LOCAL_Y, LOCAL_ACCUMULATOR);
+                return true;
+            case 0xBA: // TSX i
+                this.emitTransfer(LOCAL_STACK_POINTER, LOCAL_X);
+                return true;
+            case 0x9A: // TXS i
+                this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_X);
+                this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_STACK_POINTER);
+                return true;
+            case 0xE8: // INX i
+                this.emitIncrement(LOCAL_X, 1);
+                return true;
+            case 0xC8: // INY i
+                this.emitIncrement(LOCAL_Y, 1);
+                return true;
+            case 0xCA: // DEX i
+                this.emitIncrement(LOCAL_X, -1);
+                return true;
+            case 0x88: // DEY i
+                this.emitIncrement(LOCAL_Y, -1);
+                return true;
+            case 0x48: // PHA i
+                this.emitPush(LOCAL_ACCUMULATOR);
+                return true;
+            case 0x08: // PHP i
+                this.emitCurrentStatus();
+                this.code.emitInteger(MOS6502Registers.FLAG_BREAK | MOS6502Registers.FLAG_UNUSED);
+                this.code.emit(ClassFileBuilder.IOR);
+                this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_VALUE);
+                this.emitPush(LOCAL_VALUE);
+                return true;
+            case 0x68: // PLA i
+                this.emitPull();
+                this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ACCUMULATOR);
+                this.emitUpdateNegativeAndZero(LOCAL_ACCUMULATOR);
+                return true;
+            case 0x28: // PLP i
+                this.emitPullStatus();
+                return true;
+            case 0x18: // CLC i
+                this.emitStoreInteger(0, LOCAL_CARRY);
+                return true;
+            case 0x38: // SEC i
+                this.emitStoreInteger(0x100, LOCAL_CARRY);
+                return true;
+            case 0x58: // CLI i
+                this.emitStatusFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, false);
+                return true;
+            case 0x78: // SEI i
+                this.emitStatusFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, true);
+                return true;
+            case 0xB8: // CLV i
+                this.emitStoreInteger(0, LOCAL_OVERFLOW);
+                return true;
+            case 0xD8: // CLD i
+                this.emitStatusFlag(MOS6502Registers.FLAG_DECIMAL_MODE, false);
+                return true;
+            case 0xF8: // SED i
+                this.emitStatusFlag(MOS6502Registers.FLAG_DECIMAL_MODE, true);
+                return true;
+            case 0xEA: // NOP i
+                return true;
+            case 0x10: // BPL r
+                this.emitBranch(LOCAL_NEGATIVE, 0x80, true, operand, nextAddress);
+                return true;
+            case 0x30: // BMI r
+                this.emitBranch(LOCAL_NEGATIVE, 0x80, false, operand, nextAddress);
+                return true;
+            case 0x50: // BVC r
+                this.emitBranch(LOCAL_OVERFLOW, 0x80, true, operand, nextAddress);
+                return true;
+            case 0x70: // BVS r
+                this.emitBranch(LOCAL_OVERFLOW, 0x80, false, operand, nextAddress);
+                return true;
+            case 0x90: // BCC r
+                this.emitBranch(LOCAL_CARRY, 0x100, true, operand, nextAddress);
+                return true;
+            case 0xB0: // BCS r
+                this.emitBranch(LOCAL_CARRY, 0x100, false, operand, nextAddress);
+                return true;
+            case 0xD0: // BNE r
+                this.emitBranch(LOCAL_ZERO, 0, false, operand, nextAddress);
+                return true;
+            case 0xF0: // BEQ r
+                this.emitBranch(LOCAL_ZERO, 0, true, operand, nextAddress);
+                return true;
+            case 0x4C: // JMP a
+                this.emitStoreInteger(operand, LOCAL_PROGRAM_COUNTER);
+                return true;
+            case 0x6C: // JMP (a)
+                this.emitJumpIndirect(operand);
+                return true;
+            case 0x20: // JSR a
+                this.emitStoreInteger(((nextAddress - 1) & 0xFFFF) >> 8, LOCAL_VALUE);
+                this.emitPush(LOCAL_VALUE);
+                this.emitStoreInteger((nextAddress - 1) & 0xFF, LOCAL_VALUE);
+                this.emitPush(LOCAL_VALUE);
+                this.emitStoreInteger(operand, LOCAL_PROGRAM_COUNTER);
+                return true;
+            case 0x60: // RTS i
+                this.emitPull();
+                this.emitPull();
+                this.code.emitInteger(8);
+                this.code.emit(ClassFileBuilder.ISHL);
+                this.code.emit(ClassFileBuilder.IOR);
+                this.code.emitInteger(1);
+                this.code.emit(ClassFileBuilder.IADD);
+                this.code.emitInteger(0xFFFF);
+                this.code.emit(ClassFileBuilder.IAND);
+                this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_PROGRAM_COUNTER);
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gets the addressing mode of a documented NMOS instruction reading or writing
+     * memory, from the bits of its operation code.
+     *
+     * @param opcode Operation code
+     * @return The addressing mode
+     */
+    private static int addressingMode(final int opcode) {
+
+        final boolean group1 = (opcode & 0x03) == 0x01;
+        switch ((opcode >> 2) & 0x07) {
+            case 0:
+                return group1 ? MODE_INDEXED_INDIRECT : MODE_IMMEDIATE;
+            case 1:
+                return MODE_ZERO_PAGE;
+            case 2:
+                return MODE_IMMEDIATE;
+            case 3:
+                return MODE_ABSOLUTE;
+            case 4:
+                return MODE_INDIRECT_INDEXED;
+            case 5:
+                return opcode == 0x96 || opcode == 0xB6 ? MODE_ZERO_PAGE_Y : MODE_ZERO_PAGE_X;
+            case 6:
+                return MODE_ABSOLUTE_Y;
+            default:
+                return opcode == 0xBE ? MODE_ABSOLUTE_Y : MODE_ABSOLUTE_X;
+        }
+    }
+
+    /**
+     * Emits the computation of an effective address, left on the operand stack.
+     *
+     * @param mode              Addressing mode
+     * @param operand           Operand bytes, as a little-endian value
+     * @param pageCrossPenalty  Whether crossing a page while indexing costs a cycle
+     */
+    private void emitAddress(final int mode, final int operand, final boolean pageCrossPenalty) {
+
+        switch (mode) {
+            case MODE_ZERO_PAGE_X:
+            case MODE_ZERO_PAGE_Y:
+                this.code.emitLocal(ClassFileBuilder.ILOAD, mode == MODE_ZERO_PAGE_X ? LOCAL_X : LOCAL_Y);
+                this.code.emitInteger(operand);
+                this.code.emit(ClassFileBuilder.IADD);
+                this.code.emitInteger(0xFF);
+                this.code.emit(ClassFileBuilder.IAND);
+                break;
+            case MODE_ABSOLUTE_X:
+            case MODE_ABSOLUTE_Y: {
+                final int indexLocal = mode == MODE_ABSOLUTE_X ? LOCAL_X : LOCAL_Y;
+                if (pageCrossPenalty) {
+                    this.code.emitInteger(operand & 0xFF);
+                    this.emitPageCrossPenalty(indexLocal);
+                }
+                this.code.emitLocal(ClassFileBuilder.ILOAD, indexLocal);
+                this.code.emitInteger(operand);
+                this.code.emit(ClassFileBuilder.IADD);
+                this.code.emitInteger(0xFFFF);
+                this.code.emit(ClassFileBuilder.IAND);
+                break;
+            }
+            case MODE_INDEXED_INDIRECT:
+                this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_X);
+                this.code.emitInteger(operand);
+                this.code.emit(ClassFileBuilder.IADD);
+                this.code.emitInteger(0xFF);
+                this.code.emit(ClassFileBuilder.IAND);
+                this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ADDRESS);
+                this.emitReadZeroPagePointer();
+                break;
+            case MODE_INDIRECT_INDEXED:
+                this.emitStoreInteger(operand, LOCAL_ADDRESS);
+                this.emitReadZeroPagePointer();
+                if (pageCrossPenalty) {
+                    this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ADDRESS);
+                    this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ADDRESS);
+                    this.code.emitInteger(0xFF);
+                    this.code.emit(ClassFileBuilder.IAND);
+                    this.emitPageCrossPenalty(LOCAL_Y);
+                    this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ADDRESS);
+                }
+                this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_Y);
+                this.code.emit(ClassFileBuilder.IADD);
+                this.code.emitInteger(0xFFFF);
+                this.code.emit(ClassFileBuilder.IAND);
+                break;
+            default:
+                this.code.emitInteger(operand);
+                break;
+        }
+    }
+
+    /**
+     * Emits the read of a 16-bits pointer from the zero page, at the address held by
+     * the address local variable. The pointer is left on the operand stack.
+     */
+    private void emitReadZeroPagePointer() {
+
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ADDRESS);
+        this.emitInvokeRead();
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ADDRESS);
+        this.code.emitInteger(1);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.code.emitInteger(0xFF);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.emitInvokeRead();
+        this.code.emitInteger(8);
+        this.code.emit(ClassFileBuilder.ISHL);
+        this.code.emit(ClassFileBuilder.IOR);
+    }
+
+    /**
+     * Emits the accounting of the page cross penalty, without branching: the low byte of
+     * the base address, on the operand stack, plus the index carries into bit 8.
+     *
+     * @param indexLocal Local variable of the index register
+     */
+    private void emitPageCrossPenalty(final int indexLocal) {
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, indexLocal);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.code.emitInteger(8);
+        this.code.emit(ClassFileBuilder.ISHR);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_PENALTY_CYCLES);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_PENALTY_CYCLES);
+    }
+
+    /**
+     * Emits the read of an instruction operand, left on the operand stack. Indexed reads
+     * crossing a page cost a cycle.
+     *
+     * @param mode    Addressing mode
+     * @param operand Operand bytes, as a little-endian value
+     */
+    private void emitReadOperand(final int mode, final int operand) {
+
+        if (mode == MODE_IMMEDIATE) {
+            this.code.emitInteger(operand);
+            return;
+        }
+
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.emitAddress(mode, operand, true);
+        this.emitInvokeRead();
+    }
+
+    /**
+     * Emits the write of a local variable into memory.
+     *
+     * @param mode    Addressing mode
+     * @param operand Operand bytes, as a little-endian value
+     * @param local   Local variable holding the value to write
+     */
+    private void emitWrite(final int mode, final int operand, final int local) {
+
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.emitAddress(mode, operand, false);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, local);
+        this.emitInvokeWrite();
+
+        if (mode == MODE_ZERO_PAGE || mode == MODE_ABSOLUTE) {
+            this.markPageWritten(operand >> 8);
+        } else if (mode == MODE_ZERO_PAGE_X || mode == MODE_ZERO_PAGE_Y) {
+            this.markPageWritten(0);
+        } else {
+            this.blockWritten = true;
+        }
+    }
+
+    /**
+     * Notes a write to a page, which invalidates the block if it overlaps it.
+     *
+     * @param page Page number
+     */
+    private void markPageWritten(final int page) {
+
+        if (page == this.firstPage || page == this.lastPage) {
+            this.blockWritten = true;
+        }
+    }
+
+    /**
+     * Emits the load of an operand into a register.
+     *
+     * @param local   Local variable of the register
+     * @param mode    Addressing mode
+     * @param operand Operand bytes, as a little-endian value
+     */
+    private void emitLoad(final int local, final int mode, final int operand) {
+
+        this.emitReadOperand(mode, operand);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, local);
+        this.emitUpdateNegativeAndZero(local);
+    }
+
+    /**
+     * Emits a logical operation between the accumulator and an operand.
+     *
+     * @param operation Bytecode operation ({@code IAND}, {@code IOR} or {@code IXOR})
+     * @param mode      Addressing mode
+     * @param operand   Operand bytes, as a little-endian value
+     */
+    private void emitLogical(final int operation, final int mode, final int operand) {
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ACCUMULATOR);
+        this.emitReadOperand(mode, operand);
+        this.code.emit(operation);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ACCUMULATOR);
+        this.emitUpdateNegativeAndZero(LOCAL_ACCUMULATOR);
+    }
+
+    /**
+     * Emits the comparison of a register with an operand.
+     *
+     * @param local   Local variable of the register
+     * @param mode    Addressing mode
+     * @param operand Operand bytes, as a little-endian value
+     */
+    private void emitCompare(final int local, final int mode, final int operand) {
+
+        // Bit 8 of the difference is set unless the subtraction borrows
+        this.code.emitLocal(ClassFileBuilder.ILOAD, local);
+        this.emitReadOperand(mode, operand);
+        this.code.emit(ClassFileBuilder.ISUB);
+        this.code.emit(ClassFileBuilder.DUP);
+        this.code.emitInteger(0x100);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_CARRY);
+        this.code.emitInteger(0xFF);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.code.emit(ClassFileBuilder.DUP);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_NEGATIVE);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ZERO);
+    }
+
+    /**
+     * Emits a binary addition with carry, or subtraction with borrow, of an operand to
+     * the accumulator. While the decimal mode is set, the instruction is interpreted.
+     *
+     * @param opcode      Operation code
+     * @param operand     Operand bytes, as a little-endian value
+     * @param nextAddress Address of the following instruction
+     * @param subtract    Whether the instruction is SBC
+     */
+    private void emitAddWithCarry(final int opcode, final int operand, final int nextAddress, final boolean subtract) {
+
+        int binaryBranchPosition = -1;
+        int doneBranchPosition = -1;
+        if (this.processorVariant != ProcessorVariant.RICOH_2A03) {
+            this.code.emit(ClassFileBuilder.ALOAD_1);
+            this.emitRegisterField(ClassFileBuilder.GETFIELD, "status");
+            this.code.emitInteger(MOS6502Registers.FLAG_DECIMAL_MODE);
+            this.code.emit(ClassFileBuilder.IAND);
+            binaryBranchPosition = this.code.emitBranch(ClassFileBuilder.IFEQ);
+            this.emitInterpret(opcode, operand, nextAddress);
+            doneBranchPosition = this.code.emitBranch(ClassFileBuilder.GOTO);
+            this.code.bindBranch(binaryBranchPosition);
+        }
+
+        this.emitReadOperand(addressingMode(opcode), operand);
+        if (subtract) {
+            // Subtracting is adding the inverted bits, the carry acting as "not borrow"
+            this.code.emitInteger(0xFF);
+            this.code.emit(ClassFileBuilder.IXOR);
+        }
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_VALUE);
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ACCUMULATOR);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_VALUE);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.emitCarryBit();
+        this.code.emit(ClassFileBuilder.IADD);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_RESULT);
+
+        // Overflow when both operands have the same sign, which differs from the result one
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ACCUMULATOR);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_VALUE);
+        this.code.emit(ClassFileBuilder.IXOR);
+        this.code.emitInteger(-1);
+        this.code.emit(ClassFileBuilder.IXOR);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ACCUMULATOR);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_RESULT);
+        this.code.emit(ClassFileBuilder.IXOR);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_OVERFLOW);
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_RESULT);
+        this.code.emit(ClassFileBuilder.DUP);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_CARRY);
+        this.code.emitInteger(0xFF);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ACCUMULATOR);
+        this.emitUpdateNegativeAndZero(LOCAL_ACCUMULATOR);
+
+        if (doneBranchPosition >= 0) {
+            this.code.bindBranch(doneBranchPosition);
+        }
+    }
+
+    /**
+     * Emits a shift or a rotation of the value local variable into the result local
+     * variable, updating the flags.
+     *
+     * @param opcode Operation code of the shift or rotation
+     */
+    private void emitShiftRotate(final int opcode) {
+
+        final boolean left = opcode < 0x40;
+        final boolean rotate = (opcode & 0x20) != 0;
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_VALUE);
+        this.code.emitInteger(1);
+        this.code.emit(left ? ClassFileBuilder.ISHL : ClassFileBuilder.ISHR);
+        if (rotate) {
+            // The carry enters the freed bit
+            this.emitCarryBit();
+            if (!left) {
+                this.code.emitInteger(7);
+                this.code.emit(ClassFileBuilder.ISHL);
+            }
+            this.code.emit(ClassFileBuilder.IOR);
+        }
+        if (left) {
+            this.code.emitInteger(0xFF);
+            this.code.emit(ClassFileBuilder.IAND);
+        }
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_RESULT);
+
+        // The bit shifted out becomes the carry (bit 8)
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_VALUE);
+        this.code.emitInteger(left ? 1 : 8);
+        this.code.emit(ClassFileBuilder.ISHL);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_CARRY);
+        this.emitUpdateNegativeAndZero(LOCAL_RESULT);
+    }
+
+    /**
+     * Emits a read-modify-write instruction on memory: shift, rotation, increment or
+     * decrement.
+     *
+     * @param opcode           Operation code
+     * @param operand          Operand bytes, as a little-endian value
+     * @param pageCrossPenalty Whether crossing a page while indexing costs a cycle
+     */
+    private void emitReadModifyWrite(final int opcode, final int operand, final boolean pageCrossPenalty) {
+
+        final int mode = addressingMode(opcode);
+        this.emitAddress(mode, operand, pageCrossPenalty);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ADDRESS);
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ADDRESS);
+        this.emitInvokeRead();
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_VALUE);
+
+        if (opcode >= 0xC0) {
+            // INC or DEC
+            this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_VALUE);
+            this.code.emitInteger(opcode >= 0xE0 ? 1 : -1);
+            this.code.emit(ClassFileBuilder.IADD);
+            this.code.emitInteger(0xFF);
+            this.code.emit(ClassFileBuilder.IAND);
+            this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_RESULT);
+            this.emitUpdateNegativeAndZero(LOCAL_RESULT);
+        } else {
+            this.emitShiftRotate(opcode);
+        }
+
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ADDRESS);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_RESULT);
+        this.emitInvokeWrite();
+
+        if (mode == MODE_ZERO_PAGE || mode == MODE_ABSOLUTE) {
+            this.markPageWritten(operand >> 8);
+        } else if (mode == MODE_ZERO_PAGE_X) {
+            this.markPageWritten(0);
+        } else {
+            this.blockWritten = true;
+        }
+    }
+
+    /**
+     * Emits a conditional branch, the latest instruction of a block. A taken branch costs
+     * a cycle, plus another one if the target is on another page.
+     *
+     * @param flagLocal    Local variable of the value the flag is evaluated from
+     * @param mask         Bits of the value holding the flag, or 0 for the zero flag
+     * @param takenIfClear Whether the branch is taken when these bits are all cleared
+     * @param operand      Signed offset from the following instruction
+     * @param nextAddress  Address of the following instruction
+     */
+    private void emitBranch(final int flagLocal,
+                            final int mask,
+                            final boolean takenIfClear,
+                            final int operand,
+                            final int nextAddress) {
+
+        final int targetAddress = (nextAddress + (byte) operand) & 0xFFFF;
+        final int penaltyCycles = (targetAddress & 0xFF00) != (nextAddress & 0xFF00) ? 2 : 1;
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, flagLocal);
+        if (mask != 0) {
+            this.code.emitInteger(mask);
+            this.code.emit(ClassFileBuilder.IAND);
+        }
+        final int notTakenBranchPosition = this.code.emitBranch(takenIfClear ? ClassFileBuilder.IFNE : ClassFileBuilder.IFEQ);
+        this.emitStoreInteger(targetAddress, LOCAL_PROGRAM_COUNTER);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_PENALTY_CYCLES);
+        this.code.emitInteger(penaltyCycles);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_PENALTY_CYCLES);
+        this.emitJumpToExit();
+        this.code.bindBranch(notTakenBranchPosition);
+    }
+
+    /**
+     * Emits an indirect jump. The NMOS 6502 doesn't carry into the high byte of the
+     * pointer address, so a pointer ending a page wraps to the start of that page.
+     *
+     * @param pointerAddress Address of the pointer
+     */
+    private void emitJumpIndirect(final int pointerAddress) {
+
+        final int msbAddress = this.processorVariant == ProcessorVariant.CMOS_65C02
+            ? (pointerAddress + 1) & 0xFFFF
+            : (pointerAddress & 0xFF00) | ((pointerAddress + 1) & 0x00FF);
+
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitInteger(pointerAddress);
+        this.emitInvokeRead();
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitInteger(msbAddress);
+        this.emitInvokeRead();
+        this.code.emitInteger(8);
+        this.code.emit(ClassFileBuilder.ISHL);
+        this.code.emit(ClassFileBuilder.IOR);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_PROGRAM_COUNTER);
+    }
+
+    /**
+     * Emits the push of a local variable onto the stack.
+     *
+     * @param local Local variable holding the value to push
+     */
+    private void emitPush(final int local) {
+
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitInteger(STACK_MEMORY_LOCATION);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_STACK_POINTER);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, local);
+        this.emitInvokeWrite();
+        this.emitIncrementStackPointer(-1);
+        this.markPageWritten(STACK_MEMORY_LOCATION >> 8);
+    }
+
+    /**
+     * Emits the pull of a value from the stack, left on the operand stack.
+     */
+    private void emitPull() {
+
+        this.emitIncrementStackPointer(1);
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitInteger(STACK_MEMORY_LOCATION);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_STACK_POINTER);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.emitInvokeRead();
+    }
+
+    /**
+     * Emits the call reading memory, the address being on the operand stack above the
+     * block instance. Cycles, registers and flags are passed along, in case a bus unit
+     * is reached.
+     */
+    private void emitInvokeRead() {
+
+        this.busUnitReached = true;
+        this.emitBlockCycles();
+        this.emitLoadRegisters();
+        this.emitInvoke(ClassFileBuilder.INVOKEVIRTUAL, COMPILED_BLOCK, "read", "(IIIIIIIIII)I");
+    }
+
+    /**
+     * Emits the call writing memory, the address and value being on the operand stack
+     * above the block instance. Cycles, registers and flags are passed along, in case a
+     * bus unit is reached.
+     */
+    private void emitInvokeWrite() {
+
+        this.busUnitReached = true;
+        this.emitBlockCycles();
+        this.emitLoadRegisters();
+        this.emitInvoke(ClassFileBuilder.INVOKEVIRTUAL, COMPILED_BLOCK, "write", "(IIIIIIIIIII)V");
+    }
+
+    /**
+     * Emits the load of the number of cycles consumed so far within the block onto the
+     * operand stack, penalties included.
+     */
+    private void emitBlockCycles() {
+
+        this.code.emitInteger(this.blockCycles);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_PENALTY_CYCLES);
+        this.code.emit(ClassFileBuilder.IADD);
+    }
+
+    /**
+     * Emits the load of the registers and flags kept in local variables onto the operand stack.
+     */
+    private void emitLoadRegisters() {
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ACCUMULATOR);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_X);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_Y);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_STACK_POINTER);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_NEGATIVE);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ZERO);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_CARRY);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_OVERFLOW);
+    }
+
+    /**
+     * Emits the increment of the stack pointer, wrapping around the stack page.
+     *
+     * @param delta Value to add
+     */
+    private void emitIncrementStackPointer(final int delta) {
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_STACK_POINTER);
+        this.code.emitInteger(delta);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.code.emitInteger(0xFF);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_STACK_POINTER);
+    }
+
+    /**
+     * Emits the evaluation of the processor status from the registers and the lazily
+     * evaluated flags, left on the operand stack.
+     */
+    private void emitCurrentStatus() {
+
+        this.code.emit(ClassFileBuilder.ALOAD_1);
+        this.emitRegisterField(ClassFileBuilder.GETFIELD, "status");
+        this.code.emitInteger(~(MOS6502Registers.FLAG_NEGATIVE | MOS6502Registers.FLAG_ZERO
+            | MOS6502Registers.FLAG_CARRY_BIT | MOS6502Registers.FLAG_OVERFLOW));
+        this.code.emit(ClassFileBuilder.IAND);
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_NEGATIVE);
+        this.code.emitInteger(MOS6502Registers.FLAG_NEGATIVE);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.code.emit(ClassFileBuilder.IOR);
+
+        // The zero value is a byte, so only 0 gives a negative value once decremented
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ZERO);
+        this.code.emitInteger(1);
+        this.code.emit(ClassFileBuilder.ISUB);
+        this.code.emitInteger(8);
+        this.code.emit(ClassFileBuilder.ISHR);
+        this.code.emitInteger(MOS6502Registers.FLAG_ZERO);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.code.emit(ClassFileBuilder.IOR);
+
+        this.emitCarryBit();
+        this.code.emit(ClassFileBuilder.IOR);
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_OVERFLOW);
+        this.code.emitInteger(1);
+        this.code.emit(ClassFileBuilder.ISHR);
+        this.code.emitInteger(MOS6502Registers.FLAG_OVERFLOW);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.code.emit(ClassFileBuilder.IOR);
+    }
+
+    /**
+     * Emits the pull of the processor status from the stack, then splits it into the
+     * lazily evaluated flags.
+     */
+    private void emitPullStatus() {
+
+        this.emitPull();
+        this.code.emitInteger(~MOS6502Registers.FLAG_BREAK);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.code.emitInteger(MOS6502Registers.FLAG_UNUSED);
+        this.code.emit(ClassFileBuilder.IOR);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_VALUE);
+
+        this.code.emit(ClassFileBuilder.ALOAD_1);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_VALUE);
+        this.emitRegisterField(ClassFileBuilder.PUTFIELD, "status");
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_VALUE);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_NEGATIVE);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_VALUE);
+        this.code.emitInteger(MOS6502Registers.FLAG_ZERO);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.code.emitInteger(MOS6502Registers.FLAG_ZERO);
+        this.code.emit(ClassFileBuilder.IXOR);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ZERO);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_VALUE);
+        this.code.emitInteger(8);
+        this.code.emit(ClassFileBuilder.ISHL);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_CARRY);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_VALUE);
+        this.code.emitInteger(1);
+        this.code.emit(ClassFileBuilder.ISHL);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_OVERFLOW);
+    }
+
+    /**
+     * Emits the push of the carry flag, as 0 or 1, onto the operand stack.
+     */
+    private void emitCarryBit() {
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_CARRY);
+        this.code.emitInteger(8);
+        this.code.emit(ClassFileBuilder.ISHR);
+        this.code.emitInteger(1);
+        this.code.emit(ClassFileBuilder.IAND);
+    }
+
+    /**
+     * Emits the copy of a register into another one.
+     *
+     * @param sourceLocal      Local variable of the source register
+     * @param destinationLocal Local variable of the destination register
+     */
+    private void emitTransfer(final int sourceLocal, final int destinationLocal) {
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, sourceLocal);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, destinationLocal);
+        this.emitUpdateNegativeAndZero(destinationLocal);
+    }
+
+    /**
+     * Emits the increment of a register.
+     *
+     * @param local Local variable of the register
+     * @param delta Value to add
+     */
+    private void emitIncrement(final int local, final int delta) {
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, local);
+        this.code.emitInteger(delta);
+        this.code.emit(ClassFileBuilder.IADD);
+        this.code.emitInteger(0xFF);
+        this.code.emit(ClassFileBuilder.IAND);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, local);
+        this.emitUpdateNegativeAndZero(local);
+    }
+
+    /**
+     * Emits the change of a status flag which is not lazily evaluated.
+     *
+     * @param flag  Flag to change
+     * @param value Value to set
+     */
+    private void emitStatusFlag(final int flag, final boolean value) {
+
+        this.code.emit(ClassFileBuilder.ALOAD_1);
+        this.code.emit(ClassFileBuilder.DUP);
+        this.emitRegisterField(ClassFileBuilder.GETFIELD, "status");
+        this.code.emitInteger(value ? flag : ~flag);
+        this.code.emit(value ? ClassFileBuilder.IOR : ClassFileBuilder.IAND);
+        this.emitRegisterField(ClassFileBuilder.PUTFIELD, "status");
+    }
+
+    /**
+     * Emits the update of the negative and zero flags from a register.
+     *
+     * @param local Local variable of the register
+     */
+    private void emitUpdateNegativeAndZero(final int local) {
+
+        this.code.emitLocal(ClassFileBuilder.ILOAD, local);
+        this.code.emit(ClassFileBuilder.DUP);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_NEGATIVE);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, LOCAL_ZERO);
+    }
+
+    /**
+     * Emits the execution of an instruction by the interpreter, with registers written
+     * back before and reloaded after.
+     *
+     * @param opcode      Operation code
+     * @param operand     Operand bytes, as a little-endian value
+     * @param nextAddress Address of the following instruction
+     */
+    private void emitInterpret(final int opcode, final int operand, final int nextAddress) {
+
+        this.emitSpillRegisters();
+        this.code.emit(ClassFileBuilder.ALOAD_1);
+        this.code.emitInteger(nextAddress);
+        this.emitRegisterField(ClassFileBuilder.PUTFIELD, "programCounter");
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitInteger(opcode);
+        this.code.emitInteger(operand);
+        this.emitBlockCycles();
+        this.emitInvoke(ClassFileBuilder.INVOKEVIRTUAL, COMPILED_BLOCK, "interpret", "(III)V");
+        this.emitReloadRegisters();
+    }
+
+    /**
+     * Emits the copy of the registers and flags kept in local variables back to the
+     * processor.
+     */
+    private void emitSpillRegisters() {
+
+        this.emitSpillRegister(LOCAL_ACCUMULATOR, "accumulator");
+        this.emitSpillRegister(LOCAL_X, "x");
+        this.emitSpillRegister(LOCAL_Y, "y");
+        this.emitSpillRegister(LOCAL_STACK_POINTER, "stackPointer");
+
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_NEGATIVE);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_ZERO);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_CARRY);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, LOCAL_OVERFLOW);
+        this.emitInvoke(ClassFileBuilder.INVOKEVIRTUAL, COMPILED_BLOCK, "storeFlags", "(IIII)V");
+    }
+
+    /**
+     * Emits the copy of a register kept in a local variable back to the registers.
+     *
+     * @param local     Local variable of the register
+     * @param fieldName Name of the register field
+     */
+    private void emitSpillRegister(final int local, final String fieldName) {
+
+        this.code.emit(ClassFileBuilder.ALOAD_1);
+        this.code.emitLocal(ClassFileBuilder.ILOAD, local);
+        this.emitRegisterField(ClassFileBuilder.PUTFIELD, fieldName);
+    }
+
+    /**
+     * Emits the copy of the registers and flags into local variables.
+     */
+    private void emitReloadRegisters() {
+
+        this.emitReloadRegister(LOCAL_ACCUMULATOR, "accumulator");
+        this.emitReloadRegister(LOCAL_X, "x");
+        this.emitReloadRegister(LOCAL_Y, "y");
+        this.emitReloadRegister(LOCAL_STACK_POINTER, "stackPointer");
+        this.emitReloadFlag(LOCAL_NEGATIVE, "negativeResult");
+        this.emitReloadFlag(LOCAL_ZERO, "zeroResult");
+        this.emitReloadFlag(LOCAL_CARRY, "carryResult");
+        this.emitReloadFlag(LOCAL_OVERFLOW, "overflowResult");
+    }
+
+    /**
+     * Emits the copy of a value a flag is evaluated from into a local variable.
+     *
+     * @param local      Local variable of the value
+     * @param methodName Name of the {@link CompiledBlock} method giving the value
+     */
+    private void emitReloadFlag(final int local, final String methodName) {
+
+        this.code.emit(ClassFileBuilder.ALOAD_0);
+        this.emitInvoke(ClassFileBuilder.INVOKEVIRTUAL, COMPILED_BLOCK, methodName, "()I");
+        this.code.emitLocal(ClassFileBuilder.ISTORE, local);
+    }
+
+    /**
+     * Emits the copy of a register into a local variable.
+     *
+     * @param local     Local variable of the register
+     * @param fieldName Name of the register field
+     */
+    private void emitReloadRegister(final int local, final String fieldName) {
+
+        this.code.emit(ClassFileBuilder.ALOAD_1);
+        this.emitRegisterField(ClassFileBuilder.GETFIELD, fieldName);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, local);
+    }
+
+    /**
+     * Emits the store of a constant into a local variable.
+     *
+     * @param value Constant value
+     * @param local Local variable
+     */
+    private void emitStoreInteger(final int value, final int local) {
+
+        this.code.emitInteger(value);
+        this.code.emitLocal(ClassFileBuilder.ISTORE, local);
+    }
+
+    /**
+     * Emits a jump to the block exit, which is bound once emitted.
+     */
+    private void emitJumpToExit() {
+
+        this.exitBranchList.add(this.code.emitBranch(ClassFileBuilder.GOTO));
+    }
+
+    /**
+     * Emits an access to a register field.
+     *
+     * @param opcode    Field access operation code ({@code GETFIELD} or {@code PUTFIELD})
+     * @param fieldName Name of the register field
+     */
+    private void emitRegisterField(final int opcode, final String fieldName) {
+
+        this.code.emitConstant(opcode, this.classFileBuilder.fieldConstant(REGISTERS, fieldName, "I"));
+    }
+
+    /**
+     * Emits a method invocation.
+     *
+     * @param opcode     Invocation operation code
+     * @param owner      Internal name of the class declaring the method
+     * @param name       Method name
+     * @param descriptor Method descriptor
+     */
+    private void emitInvoke(final int opcode, final String owner, final String name, final String descriptor) {
+
+        this.code.emitConstant(opcode, this.classFileBuilder.methodConstant(owner, name, descriptor));
+    }
+
+    /**
+     * Content of a decoded block the generated code depends on.
+     */
+    private static final class BlockKey {
+
+        private final ProcessorVariant processorVariant;
+        private final int[] content;
+        private final int hashCode;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param processorVariant Variant of the processor running the block
+         * @param decodedBlock     Decoded block
+         */
+        private BlockKey(final ProcessorVariant processorVariant, final DecodedBlock decodedBlock) {
+
+            final int length = decodedBlock.length;
+            this.processorVariant = processorVariant;
+            this.content = new int[length * 3 + 1];
+            System.arraycopy(decodedBlock.opcodes, 0, this.content, 0, length);
+            System.arraycopy(decodedBlock.operands, 0, this.content, length, length);
+            System.arraycopy(decodedBlock.addresses, 0, this.content, length * 2, length + 1);
+            this.hashCode = 31 * processorVariant.hashCode() + Arrays.hashCode(this.content);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof BlockKey)) {
+                return false;
+            }
+
+            final BlockKey blockKey = (BlockKey) other;
+            return this.processorVariant == blockKey.processorVariant && Arrays.equals(this.content, blockKey.content);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return this.hashCode;
+        }
+    }
+
+    /**
+     * Class loader defining the compiled blocks.
+     */
+    private static final class BlockClassLoader extends ClassLoader {
+
+        /**
+         * Creates a new instance.
+         *
+         * @param parent Parent class loader, able to load {@link CompiledBlock}
+         */
+        private BlockClassLoader(final ClassLoader parent) {
+
+            super(parent);
+        }
+
+        /**
+         * Defines a class.
+         *
+         * @param name      Binary name of the class
+         * @param classFile Class file content
+         * @return The defined class
+         */
+        private Class<?> define(final String name, final byte[] classFile) {
+
+            return this.defineClass(name, classFile, 0, classFile.length);
+        }
+    }
+}
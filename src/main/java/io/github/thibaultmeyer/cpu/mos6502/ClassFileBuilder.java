@@ -0,0 +1,445 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JVM class file writer, only supporting what {@link BlockCompiler} needs: a
+ * public final class, without field, made of methods working on integers and object
+ * references. Classes are written in the Java 5 format (version 49), which is verified
+ * by type inference and thus needs no stack map frames.
+ *
+ * @see <a href="https://docs.oracle.com/javase/specs/jvms/se8/html/jvms-4.html">JVM Specification - The class File Format</a>
+ */
+final class ClassFileBuilder {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PROTECTED = 0x0004;
+    static final int ACC_FINAL = 0x0010;
+    static final int ACC_SUPER = 0x0020;
+
+    static final int ICONST_0 = 0x03;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC_W = 0x13;
+    static final int ILOAD = 0x15;
+    static final int ALOAD_0 = 0x2A;
+    static final int ALOAD_1 = 0x2B;
+    static final int ISTORE = 0x36;
+    static final int ASTORE_1 = 0x4C;
+    static final int DUP = 0x59;
+    static final int IADD = 0x60;
+    static final int ISUB = 0x64;
+    static final int ISHL = 0x78;
+    static final int ISHR = 0x7A;
+    static final int IAND = 0x7E;
+    static final int IOR = 0x80;
+    static final int IXOR = 0x82;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9A;
+    static final int GOTO = 0xA7;
+    static final int RETURN = 0xB1;
+    static final int GETFIELD = 0xB4;
+    static final int PUTFIELD = 0xB5;
+    static final int INVOKEVIRTUAL = 0xB6;
+    static final int INVOKESPECIAL = 0xB7;
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int MAJOR_VERSION = 49;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream constantPool;
+    private final Map<String, Integer> constantIndexMap;
+    private final List<byte[]> methodList;
+    private final int thisClassIndex;
+    private final int superClassIndex;
+    private int constantCount;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param className      Internal name of the class to write (ie: {@code a/b/C})
+     * @param superClassName Internal name of the super class
+     */
+    ClassFileBuilder(final String className, final String superClassName) {
+
+        this.constantPool = new ByteArrayOutputStream();
+        this.constantIndexMap = new HashMap<>();
+        this.methodList = new ArrayList<>();
+        this.constantCount = 0;
+        this.thisClassIndex = this.classConstant(className);
+        this.superClassIndex = this.classConstant(superClassName);
+    }
+
+    /**
+     * Gets the constant pool index of a class reference, adding it if needed.
+     *
+     * @param className Internal name of the class
+     * @return The constant pool index
+     */
+    int classConstant(final String className) {
+
+        final int nameIndex = this.utf8Constant(className);
+        return this.constant("C" + className, CONSTANT_CLASS, nameIndex, -1);
+    }
+
+    /**
+     * Gets the constant pool index of a field reference, adding it if needed.
+     *
+     * @param owner      Internal name of the class declaring the field
+     * @param name       Field name
+     * @param descriptor Field descriptor
+     * @return The constant pool index
+     */
+    int fieldConstant(final String owner, final String name, final String descriptor) {
+
+        final int classIndex = this.classConstant(owner);
+        final int nameAndTypeIndex = this.nameAndTypeConstant(name, descriptor);
+        return this.constant("F" + owner + '.' + name + ':' + descriptor, CONSTANT_FIELD_REF, classIndex, nameAndTypeIndex);
+    }
+
+    /**
+     * Gets the constant pool index of a method reference, adding it if needed.
+     *
+     * @param owner      Internal name of the class declaring the method
+     * @param name       Method name
+     * @param descriptor Method descriptor
+     * @return The constant pool index
+     */
+    int methodConstant(final String owner, final String name, final String descriptor) {
+
+        final int classIndex = this.classConstant(owner);
+        final int nameAndTypeIndex = this.nameAndTypeConstant(name, descriptor);
+        return this.constant("M" + owner + '.' + name + descriptor, CONSTANT_METHOD_REF, classIndex, nameAndTypeIndex);
+    }
+
+    /**
+     * Gets the constant pool index of an integer, adding it if needed.
+     *
+     * @param value Integer value
+     * @return The constant pool index
+     */
+    int integerConstant(final int value) {
+
+        final String key = "I" + value;
+        final Integer index = this.constantIndexMap.get(key);
+        if (index != null) {
+            return index;
+        }
+
+        this.constantPool.write(CONSTANT_INTEGER);
+        this.writeInt(this.constantPool, value);
+        return this.registerConstant(key);
+    }
+
+    /**
+     * Adds a method.
+     *
+     * @param accessFlags Access flags (ie: {@link #ACC_PUBLIC})
+     * @param name        Method name
+     * @param descriptor  Method descriptor
+     * @param code        Method code
+     */
+    void addMethod(final int accessFlags, final String name, final String descriptor, final Code code) {
+
+        final ByteArrayOutputStream method = new ByteArrayOutputStream();
+        this.writeShort(method, accessFlags);
+        this.writeShort(method, this.utf8Constant(name));
+        this.writeShort(method, this.utf8Constant(descriptor));
+
+        // One attribute: Code
+        final byte[] bytecode = code.toByteArray();
+        this.writeShort(method, 1);
+        this.writeShort(method, this.utf8Constant("Code"));
+        this.writeInt(method, 12 + bytecode.length);
+        this.writeShort(method, code.maxStack);
+        this.writeShort(method, code.maxLocals);
+        this.writeInt(method, bytecode.length);
+        method.write(bytecode, 0, bytecode.length);
+        this.writeShort(method, 0);
+        this.writeShort(method, 0);
+
+        this.methodList.add(method.toByteArray());
+    }
+
+    /**
+     * Writes the class file.
+     *
+     * @return The class file content
+     */
+    byte[] toByteArray() {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+
+        try {
+            dataOutputStream.writeInt(MAGIC);
+            dataOutputStream.writeShort(0);
+            dataOutputStream.writeShort(MAJOR_VERSION);
+            dataOutputStream.writeShort(this.constantCount + 1);
+            this.constantPool.writeTo(dataOutputStream);
+            dataOutputStream.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            dataOutputStream.writeShort(this.thisClassIndex);
+            dataOutputStream.writeShort(this.superClassIndex);
+            dataOutputStream.writeShort(0); // Interfaces
+            dataOutputStream.writeShort(0); // Fields
+            dataOutputStream.writeShort(this.methodList.size());
+            for (final byte[] method : this.methodList) {
+                dataOutputStream.write(method);
+            }
+            dataOutputStream.writeShort(0); // Attributes
+        } catch (final IOException exception) {
+            // Can't happen when writing to memory
+            throw new IllegalStateException(exception);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Gets the constant pool index of a string, adding it if needed.
+     *
+     * @param value String value, only made of ASCII characters
+     * @return The constant pool index
+     */
+    private int utf8Constant(final String value) {
+
+        final String key = "U" + value;
+        final Integer index = this.constantIndexMap.get(key);
+        if (index != null) {
+            return index;
+        }
+
+        this.constantPool.write(CONSTANT_UTF8);
+        this.writeShort(this.constantPool, value.length());
+        for (int idx = 0; idx < value.length(); idx += 1) {
+            this.constantPool.write(value.charAt(idx));
+        }
+        return this.registerConstant(key);
+    }
+
+    /**
+     * Gets the constant pool index of a name and type, adding it if needed.
+     *
+     * @param name       Member name
+     * @param descriptor Member descriptor
+     * @return The constant pool index
+     */
+    private int nameAndTypeConstant(final String name, final String descriptor) {
+
+        final int nameIndex = this.utf8Constant(name);
+        final int descriptorIndex = this.utf8Constant(descriptor);
+        return this.constant("N" + name + ':' + descriptor, CONSTANT_NAME_AND_TYPE, nameIndex, descriptorIndex);
+    }
+
+    /**
+     * Gets the constant pool index of a constant made of one or two indexes, adding it
+     * if needed.
+     *
+     * @param key         Key identifying the constant
+     * @param tag         Constant tag
+     * @param firstIndex  First index
+     * @param secondIndex Second index, or -1 if the constant has a single index
+     * @return The constant pool index
+     */
+    private int constant(final String key, final int tag, final int firstIndex, final int secondIndex) {
+
+        final Integer index = this.constantIndexMap.get(key);
+        if (index != null) {
+            return index;
+        }
+
+        this.constantPool.write(tag);
+        this.writeShort(this.constantPool, firstIndex);
+        if (secondIndex >= 0) {
+            this.writeShort(this.constantPool, secondIndex);
+        }
+        return this.registerConstant(key);
+    }
+
+    /**
+     * Registers the constant just written to the constant pool.
+     *
+     * @param key Key identifying the constant
+     * @return The constant pool index
+     */
+    private int registerConstant(final String key) {
+
+        this.constantCount += 1;
+        this.constantIndexMap.put(key, this.constantCount);
+        return this.constantCount;
+    }
+
+    /**
+     * Writes a big-endian 16-bits value.
+     *
+     * @param outputStream Stream to write to
+     * @param value        Value to write
+     */
+    private void writeShort(final ByteArrayOutputStream outputStream, final int value) {
+
+        outputStream.write(value >> 8);
+        outputStream.write(value);
+    }
+
+    /**
+     * Writes a big-endian 32-bits value.
+     *
+     * @param outputStream Stream to write to
+     * @param value        Value to write
+     */
+    private void writeInt(final ByteArrayOutputStream outputStream, final int value) {
+
+        this.writeShort(outputStream, value >> 16);
+        this.writeShort(outputStream, value);
+    }
+
+    /**
+     * Bytecode of a method being written.
+     */
+    final class Code {
+
+        private final int maxStack;
+        private final int maxLocals;
+        private byte[] bytecode;
+        private int length;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param maxStack  Maximum depth of the operand stack
+         * @param maxLocals Number of local variables, including parameters
+         */
+        Code(final int maxStack, final int maxLocals) {
+
+            this.maxStack = maxStack;
+            this.maxLocals = maxLocals;
+            this.bytecode = new byte[256];
+            this.length = 0;
+        }
+
+        /**
+         * Emits an instruction without operand.
+         *
+         * @param opcode Instruction operation code
+         */
+        void emit(final int opcode) {
+
+            this.writeByte(opcode);
+        }
+
+        /**
+         * Emits an instruction taking a local variable index.
+         *
+         * @param opcode Instruction operation code (ie: {@link #ILOAD})
+         * @param local  Local variable index
+         */
+        void emitLocal(final int opcode, final int local) {
+
+            this.writeByte(opcode);
+            this.writeByte(local);
+        }
+
+        /**
+         * Emits an instruction taking a constant pool index.
+         *
+         * @param opcode        Instruction operation code (ie: {@link #GETFIELD})
+         * @param constantIndex Constant pool index
+         */
+        void emitConstant(final int opcode, final int constantIndex) {
+
+            this.writeByte(opcode);
+            this.writeByte(constantIndex >> 8);
+            this.writeByte(constantIndex);
+        }
+
+        /**
+         * Emits the shortest instruction pushing an integer onto the operand stack.
+         *
+         * @param value Integer value
+         */
+        void emitInteger(final int value) {
+
+            if (value >= -1 && value <= 5) {
+                this.writeByte(ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                this.writeByte(BIPUSH);
+                this.writeByte(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                this.writeByte(SIPUSH);
+                this.writeByte(value >> 8);
+                this.writeByte(value);
+            } else {
+                this.emitConstant(LDC_W, ClassFileBuilder.this.integerConstant(value));
+            }
+        }
+
+        /**
+         * Emits a forward branch instruction, whose target is set later with
+         * {@link #bindBranch(int)}.
+         *
+         * @param opcode Branch operation code (ie: {@link #IFNE} or {@link #GOTO})
+         * @return Position of the branch instruction
+         */
+        int emitBranch(final int opcode) {
+
+            final int position = this.length;
+            this.writeByte(opcode);
+            this.writeByte(0);
+            this.writeByte(0);
+            return position;
+        }
+
+        /**
+         * Sets the target of a forward branch instruction to the current position.
+         *
+         * @param branchPosition Position of the branch instruction
+         */
+        void bindBranch(final int branchPosition) {
+
+            final int offset = this.length - branchPosition;
+            this.bytecode[branchPosition + 1] = (byte) (offset >> 8);
+            this.bytecode[branchPosition + 2] = (byte) offset;
+        }
+
+        /**
+         * Gets the bytecode written so far.
+         *
+         * @return The bytecode
+         */
+        byte[] toByteArray() {
+
+            final byte[] copy = new byte[this.length];
+            System.arraycopy(this.bytecode, 0, copy, 0, this.length);
+            return copy;
+        }
+
+        /**
+         * Appends a single byte.
+         *
+         * @param value Byte to append
+         */
+        private void writeByte(final int value) {
+
+            if (this.length == this.bytecode.length) {
+                final byte[] bytecode = new byte[this.bytecode.length * 2];
+                System.arraycopy(this.bytecode, 0, bytecode, 0, this.length);
+                this.bytecode = bytecode;
+            }
+
+            this.bytecode[this.length] = (byte) value;
+            this.length += 1;
+        }
+    }
+}
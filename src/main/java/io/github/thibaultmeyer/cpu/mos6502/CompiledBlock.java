@@ -0,0 +1,250 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+/**
+ * Base class of the blocks generated by the {@link ExecutionEngine#DYNAMIC_RECOMPILER}
+ * execution engine. This type is an implementation detail, not a supported extension
+ * point: it is public, and its members protected, only because generated classes are
+ * defined by a dedicated class loader, in another runtime package, so they can only
+ * reach the processor through this class. Classes defined elsewhere can't be
+ * instantiated, and this class may change without notice.
+ */
+public abstract class CompiledBlock {
+
+    /**
+     * Registers of the processor running this block.
+     */
+    protected final MOS6502Registers registers;
+
+    private final MOS6502Processor processor;
+    DecodedBlock decodedBlock;
+
+    /**
+     * Creates a new instance. Only generated classes may call this constructor, which
+     * stays protected because they don't share the runtime package of this class.
+     *
+     * @param processor Processor running this block
+     * @throws UnsupportedOperationException if the class has not been generated by {@link BlockCompiler}
+     */
+    protected CompiledBlock(final MOS6502Processor processor) {
+
+        if (!BlockCompiler.isGeneratedClass(this.getClass())) {
+            throw new UnsupportedOperationException("CompiledBlock is not an extension point");
+        }
+
+        this.registers = processor.getRegisters();
+        this.processor = processor;
+        this.decodedBlock = null;
+    }
+
+    /**
+     * Executes the whole block, starting with the program counter on its first
+     * instruction. Execution stops early if the block is invalidated by a write.
+     */
+    protected abstract void execute();
+
+    /**
+     * Reads a single value from specific memory address. Registers and flags are kept in
+     * local variables by generated code, and cycles are accounted for once the block
+     * completes: they are brought up to date beforehand when the read reaches a bus unit,
+     * which may look at them in the middle of the instruction.
+     *
+     * @param address        Memory address where to read single value
+     * @param cycles         Number of cycles consumed so far within the block
+     * @param accumulator    Accumulator
+     * @param x              X index register
+     * @param y              Y index register
+     * @param stackPointer   Stack pointer
+     * @param negativeResult Value the negative flag is evaluated from
+     * @param zeroResult     Value the zero flag is evaluated from
+     * @param carryResult    Value the carry flag is evaluated from
+     * @param overflowResult Value the overflow flag is evaluated from
+     * @return Read single value
+     */
+    protected final int read(final int address,
+                             final int cycles,
+                             final int accumulator,
+                             final int x,
+                             final int y,
+                             final int stackPointer,
+                             final int negativeResult,
+                             final int zeroResult,
+                             final int carryResult,
+                             final int overflowResult) {
+
+        if (this.processor.isDirectlyReadable(address)) {
+            return this.processor.readUInt8(address);
+        }
+
+        this.storeRegisters(accumulator, x, y, stackPointer);
+        this.storeFlags(negativeResult, zeroResult, carryResult, overflowResult);
+        this.processor.shiftCycleCount(cycles);
+        final int value = this.processor.readUInt8(address);
+        this.processor.shiftCycleCount(-cycles);
+
+        return value;
+    }
+
+    /**
+     * Writes a single value to specific memory address. Registers, flags and cycles are
+     * brought up to date beforehand when the write reaches a bus unit, see
+     * {@link #read(int, int, int, int, int, int, int, int, int, int)}.
+     *
+     * @param address        Memory address where to write the single value
+     * @param value          Value to write
+     * @param cycles         Number of cycles consumed so far within the block
+     * @param accumulator    Accumulator
+     * @param x              X index register
+     * @param y              Y index register
+     * @param stackPointer   Stack pointer
+     * @param negativeResult Value the negative flag is evaluated from
+     * @param zeroResult     Value the zero flag is evaluated from
+     * @param carryResult    Value the carry flag is evaluated from
+     * @param overflowResult Value the overflow flag is evaluated from
+     */
+    protected final void write(final int address,
+                               final int value,
+                               final int cycles,
+                               final int accumulator,
+                               final int x,
+                               final int y,
+                               final int stackPointer,
+                               final int negativeResult,
+                               final int zeroResult,
+                               final int carryResult,
+                               final int overflowResult) {
+
+        if (this.processor.isDirectlyWritable(address)) {
+            this.processor.writeUInt8(address, value);
+            return;
+        }
+
+        this.storeRegisters(accumulator, x, y, stackPointer);
+        this.storeFlags(negativeResult, zeroResult, carryResult, overflowResult);
+        this.processor.shiftCycleCount(cycles);
+        this.processor.writeUInt8(address, value);
+        this.processor.shiftCycleCount(-cycles);
+    }
+
+    /**
+     * Sets the accumulator, index registers and stack pointer.
+     *
+     * @param accumulator  Accumulator
+     * @param x            X index register
+     * @param y            Y index register
+     * @param stackPointer Stack pointer
+     */
+    private void storeRegisters(final int accumulator, final int x, final int y, final int stackPointer) {
+
+        this.registers.accumulator = accumulator;
+        this.registers.x = x;
+        this.registers.y = y;
+        this.registers.stackPointer = stackPointer;
+    }
+
+    /**
+     * Executes an instruction with the interpreter. Registers and program counter must
+     * be up to date, the program counter being already moved past the instruction.
+     *
+     * @param opcode  Operation code to execute
+     * @param operand Operand bytes, as a little-endian value
+     * @param cycles  Number of cycles consumed so far within the block, this instruction included
+     */
+    protected final void interpret(final int opcode, final int operand, final int cycles) {
+
+        this.processor.shiftCycleCount(cycles);
+        this.processor.executeOperationCode(opcode, operand);
+        this.processor.shiftCycleCount(-cycles);
+    }
+
+    /**
+     * Gets the value the negative flag is evaluated from (bit 7).
+     *
+     * @return The value
+     */
+    protected final int negativeResult() {
+
+        return this.processor.negativeResult;
+    }
+
+    /**
+     * Gets the value the zero flag is evaluated from (set when 0).
+     *
+     * @return The value
+     */
+    protected final int zeroResult() {
+
+        return this.processor.zeroResult;
+    }
+
+    /**
+     * Gets the value the carry flag is evaluated from (bit 8).
+     *
+     * @return The value
+     */
+    protected final int carryResult() {
+
+        return this.processor.carryResult;
+    }
+
+    /**
+     * Gets the value the overflow flag is evaluated from (bit 7).
+     *
+     * @return The value
+     */
+    protected final int overflowResult() {
+
+        return this.processor.overflowResult;
+    }
+
+    /**
+     * Sets the values the negative, zero, carry and overflow flags are evaluated from.
+     *
+     * @param negativeResult Value the negative flag is evaluated from
+     * @param zeroResult     Value the zero flag is evaluated from
+     * @param carryResult    Value the carry flag is evaluated from
+     * @param overflowResult Value the overflow flag is evaluated from
+     */
+    protected final void storeFlags(final int negativeResult,
+                                    final int zeroResult,
+                                    final int carryResult,
+                                    final int overflowResult) {
+
+        this.processor.negativeResult = negativeResult;
+        this.processor.zeroResult = zeroResult;
+        this.processor.carryResult = carryResult;
+        this.processor.overflowResult = overflowResult;
+    }
+
+    /**
+     * Checks whether this block still matches the memory content.
+     *
+     * @return {@code true} if this block is still valid, otherwise, {@code false}
+     */
+    protected final boolean isValid() {
+
+        return this.decodedBlock.valid;
+    }
+
+    /**
+     * Checks whether this block must be left before its next instruction, because a
+     * bus unit called by the latest instruction raised an interrupt or scheduled an event
+     * this block may not complete before.
+     *
+     * @return {@code true} if this block must be left, otherwise, {@code false}
+     */
+    protected final boolean mustLeave() {
+
+        return this.processor.mustLeaveCompiledBlock(this.decodedBlock);
+    }
+
+    /**
+     * Accounts for the instructions executed by this block.
+     *
+     * @param instructions Number of instructions executed
+     * @param cycles       Number of cycles of these instructions, penalties of interpreted ones excepted
+     */
+    protected final void retire(final int instructions, final int cycles) {
+
+        this.processor.retireInstructions(instructions, cycles);
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+/**
+ * Precomputed results of decimal mode additions and subtractions, so that they cost a
+ * single lookup, like their binary counterparts. Tables are indexed by
+ * {@code carry << 16 | accumulator << 8 | value}. Each entry holds the accumulator
+ * result in its low byte and the resulting negative, overflow, zero and carry flags,
+ * at their {@link MOS6502Registers} positions, in its high byte.
+ *
+ * @see <a href="http://www.6502.org/tutorials/decimal_mode.html">Decimal Mode - 6502.org Tutorials</a>
+ */
+final class DecimalModeTable {
+
+    private static final int TABLE_SIZE = 2 << 16;
+
+    /**
+     * Creates a new instance.
+     */
+    private DecimalModeTable() {
+
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Gets the table of decimal mode additions.
+     *
+     * @param processorVariant Processor variant to emulate
+     * @return The table
+     */
+    static char[] adc(final ProcessorVariant processorVariant) {
+
+        return processorVariant == ProcessorVariant.CMOS_65C02 ? CmosHolder.ADC : NmosHolder.ADC;
+    }
+
+    /**
+     * Gets the table of decimal mode subtractions.
+     *
+     * @param processorVariant Processor variant to emulate
+     * @return The table
+     */
+    static char[] sbc(final ProcessorVariant processorVariant) {
+
+        return processorVariant == ProcessorVariant.CMOS_65C02 ? CmosHolder.SBC : NmosHolder.SBC;
+    }
+
+    /**
+     * Creates the table of decimal mode additions. On NMOS 6502, the zero flag comes
+     * from the binary addition, the negative and overflow flags from the intermediate
+     * result before the high digit is adjusted. On 65C02, the negative and zero flags
+     * are valid.
+     *
+     * @param cmos {@code true} to create the 65C02 table, {@code false} for NMOS 6502
+     * @return Newly created table
+     */
+    private static char[] createADC(final boolean cmos) {
+
+        final char[] table = new char[TABLE_SIZE];
+        for (int index = 0; index < TABLE_SIZE; index += 1) {
+            final int carry = index >> 16;
+            final int accumulator = (index >> 8) & 0xFF;
+            final int value = index & 0xFF;
+
+            int low = (accumulator & 0x0F) + (value & 0x0F) + carry;
+            if (low >= 0x0A) {
+                low = ((low + 0x06) & 0x0F) + 0x10;
+            }
+
+            int result = (accumulator & 0xF0) + (value & 0xF0) + low;
+            final int signedResult = (byte) (accumulator & 0xF0) + (byte) (value & 0xF0) + low;
+            int flags = signedResult < -128 || signedResult > 127 ? MOS6502Registers.FLAG_OVERFLOW : 0;
+
+            if (cmos) {
+                if (result >= 0xA0) {
+                    result += 0x60;
+                }
+                flags |= MOS6502Registers.negativeAndZeroFlags(result);
+            } else {
+                flags |= result & MOS6502Registers.FLAG_NEGATIVE;
+                flags |= MOS6502Registers.negativeAndZeroFlags(accumulator + value + carry) & MOS6502Registers.FLAG_ZERO;
+                if (result >= 0xA0) {
+                    result += 0x60;
+                }
+            }
+
+            if (result >= 0x100) {
+                flags |= MOS6502Registers.FLAG_CARRY_BIT;
+            }
+
+            table[index] = (char) ((flags << 8) | (result & 0xFF));
+        }
+
+        return table;
+    }
+
+    /**
+     * Creates the table of decimal mode subtractions. Flags are the ones of the binary
+     * subtraction, except on 65C02 where the negative and zero flags are valid.
+     *
+     * @param cmos {@code true} to create the 65C02 table, {@code false} for NMOS 6502
+     * @return Newly created table
+     */
+    private static char[] createSBC(final boolean cmos) {
+
+        final char[] table = new char[TABLE_SIZE];
+        for (int index = 0; index < TABLE_SIZE; index += 1) {
+            final int carry = index >> 16;
+            final int accumulator = (index >> 8) & 0xFF;
+            final int value = index & 0xFF;
+            final int borrow = 1 - carry;
+            final int low = (accumulator & 0x0F) - (value & 0x0F) - borrow;
+
+            int result;
+            if (cmos) {
+                result = accumulator - value - borrow;
+                if (result < 0) {
+                    result -= 0x60;
+                }
+                if (low < 0) {
+                    result -= 0x06;
+                }
+            } else {
+                result = (accumulator & 0xF0) - (value & 0xF0) + (low < 0 ? ((low - 0x06) & 0x0F) - 0x10 : low);
+                if (result < 0) {
+                    result -= 0x60;
+                }
+            }
+
+            // Binary subtraction, as an addition of the inverted value
+            final int binaryResult = accumulator + (value ^ 0xFF) + carry;
+            int flags = (~(accumulator ^ (value ^ 0xFF)) & (accumulator ^ binaryResult) & 0x80) != 0
+                ? MOS6502Registers.FLAG_OVERFLOW
+                : 0;
+            if (binaryResult >= 0x100) {
+                flags |= MOS6502Registers.FLAG_CARRY_BIT;
+            }
+            flags |= MOS6502Registers.negativeAndZeroFlags(cmos ? result : binaryResult);
+
+            table[index] = (char) ((flags << 8) | (result & 0xFF));
+        }
+
+        return table;
+    }
+
+    /**
+     * NMOS 6502 tables, only created when first used.
+     */
+    private static final class NmosHolder {
+
+        private static final char[] ADC = DecimalModeTable.createADC(false);
+        private static final char[] SBC = DecimalModeTable.createSBC(false);
+    }
+
+    /**
+     * 65C02 tables, only created when first used.
+     */
+    private static final class CmosHolder {
+
+        private static final char[] ADC = DecimalModeTable.createADC(true);
+        private static final char[] SBC = DecimalModeTable.createSBC(true);
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+/**
+ * Straight-line run of pre-decoded instructions, used by the
+ * {@link ExecutionEngine#BLOCK_CACHE} execution engine. A block ends on the first
+ * instruction able to change the program counter (branch, jump, return, break).
+ */
+final class DecodedBlock {
+
+    /**
+     * Maximum number of instructions in a block.
+     */
+    static final int MAX_LENGTH = 32;
+
+    /**
+     * Maximum number of bytes covered by a block.
+     */
+    static final int MAX_SIZE = MAX_LENGTH * 3;
+
+    /**
+     * Maximum number of base cycles of a single instruction (unofficial read-modify-write
+     * instructions with indirect addressing).
+     */
+    static final int MAX_INSTRUCTION_CYCLES = 8;
+
+    /**
+     * Maximum number of penalty cycles a single instruction adds to its base cycles: a
+     * taken branch crossing a page, or, on the 65C02, an indexed read crossing a page in
+     * decimal mode.
+     */
+    static final int MAX_PENALTY_CYCLES = 2;
+
+    final int[] opcodes;
+    final int[] operands;
+    final int[] cycles;
+
+    /**
+     * Address of each instruction. The extra last entry is the address following the
+     * latest instruction of the block.
+     */
+    final int[] addresses;
+
+    int length;
+    boolean valid;
+
+    /**
+     * Upper bound of the cycles consumed by the whole block, penalties included.
+     */
+    int worstCaseCycles;
+
+    /**
+     * Number of times the block has been entered, until it gets compiled.
+     */
+    int entryCount;
+    CompiledBlock compiledBlock;
+
+    /**
+     * Creates a new empty instance, able to hold up to {@link #MAX_LENGTH} instructions.
+     */
+    DecodedBlock() {
+
+        this.opcodes = new int[MAX_LENGTH];
+        this.operands = new int[MAX_LENGTH];
+        this.cycles = new int[MAX_LENGTH];
+        this.addresses = new int[MAX_LENGTH + 1];
+        this.length = 0;
+        this.valid = true;
+        this.worstCaseCycles = 0;
+        this.entryCount = 0;
+        this.compiledBlock = null;
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.util.Arrays;
+
+/**
+ * Events scheduled at absolute cycles, executed by the processor between instructions.
+ * Devices attached to the bus use it to act at a given time, instead of being ticked on
+ * each cycle. Events are kept in a binary min-heap backed by primitive arrays, so that
+ * scheduling never boxes the cycle. Events scheduled at the same cycle are executed in
+ * scheduling order.
+ */
+public final class EventScheduler {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] cycleHeap;
+    private long[] sequenceHeap;
+    private ScheduledEvent[] eventHeap;
+    private int size;
+    private long sequence;
+
+    /**
+     * Cycle of the earliest event, or {@link Long#MAX_VALUE} if there is none. Read by
+     * the processor on each instruction.
+     */
+    long nextEventCycle;
+
+    /**
+     * Creates a new instance.
+     */
+    EventScheduler() {
+
+        this.cycleHeap = new long[INITIAL_CAPACITY];
+        this.sequenceHeap = new long[INITIAL_CAPACITY];
+        this.eventHeap = new ScheduledEvent[INITIAL_CAPACITY];
+        this.size = 0;
+        this.sequence = 0;
+        this.nextEventCycle = Long.MAX_VALUE;
+    }
+
+    /**
+     * Schedules an event. An event scheduled at a cycle already elapsed is executed
+     * before the next instruction.
+     *
+     * @param cycle Absolute cycle, as counted by {@link MOS6502Processor#totalCycles()}
+     * @param event Event to execute
+     */
+    public void schedule(final long cycle, final ScheduledEvent event) {
+
+        if (event == null) {
+            throw new IllegalArgumentException("Event must not be null");
+        }
+
+        if (this.size == this.cycleHeap.length) {
+            final int capacity = this.size * 2;
+            this.cycleHeap = Arrays.copyOf(this.cycleHeap, capacity);
+            this.sequenceHeap = Arrays.copyOf(this.sequenceHeap, capacity);
+            this.eventHeap = Arrays.copyOf(this.eventHeap, capacity);
+        }
+
+        this.siftUp(this.size, cycle, this.sequence, event);
+        this.size += 1;
+        this.sequence += 1;
+        this.nextEventCycle = this.cycleHeap[0];
+    }
+
+    /**
+     * Cancels all pending occurrences of an event.
+     *
+     * @param event Event to cancel
+     * @return Number of cancelled occurrences
+     */
+    public int cancel(final ScheduledEvent event) {
+
+        // Keeps the other events, then restores the heap order
+        int kept = 0;
+        for (int index = 0; index < this.size; index += 1) {
+            if (this.eventHeap[index] != event) {
+                this.moveEntry(index, kept);
+                kept += 1;
+            }
+        }
+
+        final int cancelled = this.size - kept;
+        Arrays.fill(this.eventHeap, kept, this.size, null);
+        this.size = kept;
+
+        for (int index = (kept >>> 1) - 1; index >= 0; index -= 1) {
+            this.siftDown(index, this.cycleHeap[index], this.sequenceHeap[index], this.eventHeap[index]);
+        }
+
+        this.nextEventCycle = this.size > 0 ? this.cycleHeap[0] : Long.MAX_VALUE;
+        return cancelled;
+    }
+
+    /**
+     * Gets the cycle of the earliest pending event.
+     *
+     * @return The cycle, or {@link Long#MAX_VALUE} if no event is pending
+     */
+    public long nextEventCycle() {
+
+        return this.nextEventCycle;
+    }
+
+    /**
+     * Gets the number of pending events.
+     *
+     * @return The number of pending events
+     */
+    public int size() {
+
+        return this.size;
+    }
+
+    /**
+     * Executes, in order, all events scheduled up to a specific cycle. Events scheduled
+     * by the executed ones are also executed if they are due.
+     *
+     * @param currentCycle Current cycle
+     */
+    void executeDueEvents(final long currentCycle) {
+
+        while (this.size > 0 && this.cycleHeap[0] <= currentCycle) {
+            final long cycle = this.cycleHeap[0];
+            final ScheduledEvent event = this.eventHeap[0];
+
+            this.removeFirst();
+            event.execute(cycle);
+        }
+    }
+
+    /**
+     * Removes the earliest event.
+     */
+    private void removeFirst() {
+
+        this.size -= 1;
+        final int last = this.size;
+        final long cycle = this.cycleHeap[last];
+        final long sequence = this.sequenceHeap[last];
+        final ScheduledEvent event = this.eventHeap[last];
+        this.eventHeap[last] = null;
+
+        if (last > 0) {
+            this.siftDown(0, cycle, sequence, event);
+        }
+
+        this.nextEventCycle = this.size > 0 ? this.cycleHeap[0] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Moves an entry up from a specific heap index, until its parent is earlier.
+     *
+     * @param index    Heap index where the entry starts
+     * @param cycle    Cycle of the entry
+     * @param sequence Scheduling order of the entry
+     * @param event    Event of the entry
+     */
+    private void siftUp(final int index, final long cycle, final long sequence, final ScheduledEvent event) {
+
+        int current = index;
+        while (current > 0) {
+            final int parent = (current - 1) >>> 1;
+            if (!this.isEarlier(cycle, sequence, parent)) {
+                break;
+            }
+            this.moveEntry(parent, current);
+            current = parent;
+        }
+
+        this.setEntry(current, cycle, sequence, event);
+    }
+
+    /**
+     * Moves an entry down from a specific heap index, until its children are later.
+     *
+     * @param index    Heap index where the entry starts
+     * @param cycle    Cycle of the entry
+     * @param sequence Scheduling order of the entry
+     * @param event    Event of the entry
+     */
+    private void siftDown(final int index, final long cycle, final long sequence, final ScheduledEvent event) {
+
+        int current = index;
+        final int half = this.size >>> 1;
+        while (current < half) {
+            int child = (current << 1) + 1;
+            final int right = child + 1;
+            if (right < this.size && this.isEarlier(this.cycleHeap[right], this.sequenceHeap[right], child)) {
+                child = right;
+            }
+            if (this.isEarlier(cycle, sequence, child)) {
+                break;
+            }
+            this.moveEntry(child, current);
+            current = child;
+        }
+
+        this.setEntry(current, cycle, sequence, event);
+    }
+
+    /**
+     * Checks whether an entry is executed before the one located at a specific heap index.
+     *
+     * @param cycle    Cycle of the entry
+     * @param sequence Scheduling order of the entry
+     * @param index    Heap index of the entry to compare with
+     * @return {@code true} if the entry is executed first, otherwise, {@code false}
+     */
+    private boolean isEarlier(final long cycle, final long sequence, final int index) {
+
+        final long otherCycle = this.cycleHeap[index];
+        return cycle < otherCycle || (cycle == otherCycle && sequence < this.sequenceHeap[index]);
+    }
+
+    /**
+     * Copies the entry located at a heap index to another one.
+     *
+     * @param from Heap index to copy from
+     * @param to   Heap index to copy to
+     */
+    private void moveEntry(final int from, final int to) {
+
+        this.setEntry(to, this.cycleHeap[from], this.sequenceHeap[from], this.eventHeap[from]);
+    }
+
+    /**
+     * Sets the entry located at a specific heap index.
+     *
+     * @param index    Heap index
+     * @param cycle    Cycle of the entry
+     * @param sequence Scheduling order of the entry
+     * @param event    Event of the entry
+     */
+    private void setEntry(final int index, final long cycle, final long sequence, final ScheduledEvent event) {
+
+        this.cycleHeap[index] = cycle;
+        this.sequenceHeap[index] = sequence;
+        this.eventHeap[index] = event;
+    }
+}
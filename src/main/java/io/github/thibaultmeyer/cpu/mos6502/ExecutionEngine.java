@@ -0,0 +1,40 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+/**
+ * Strategy used by the processor to decode and execute instructions. All engines
+ * behave identically, they only differ in performance.
+ */
+public enum ExecutionEngine {
+
+    /**
+     * Each opcode is dispatched through the operation code table, to a pair of
+     * addressing mode and instruction methods sharing the resolved address.
+     */
+    OPERATION_CODE_TABLE,
+
+    /**
+     * Each opcode is dispatched through a single switch statement, where addressing
+     * mode and instruction are fused and operands are kept in local variables.
+     */
+    SWITCH,
+
+    /**
+     * Straight-line runs of instructions are decoded once, then cached by start address
+     * and replayed through the same switch statement without fetching again. Cached
+     * runs are invalidated when one of their bytes is written. Code which is
+     * not backed by an {@link ArrayMemory} is executed as with {@link #SWITCH}. Within
+     * {@link MOS6502Processor#run(long)}, when no trace sink is attached, a whole run is
+     * executed at once, and left early only for a pending interrupt or a due event.
+     */
+    BLOCK_CACHE,
+
+    /**
+     * Tiered execution: blocks are first executed as with {@link #BLOCK_CACHE}, while
+     * their entries are counted. Once hot, a block is translated into a JVM class, which
+     * the JVM compiles to native code. Compiled blocks run as a whole, so they are only
+     * used by {@link MOS6502Processor#run(long)} when no trace sink is attached;
+     * {@link MOS6502Processor#step()} and {@link MOS6502Processor#clockTick()} keep on
+     * executing a single instruction.
+     */
+    DYNAMIC_RECOMPILER
+}
@@ -0,0 +1,146 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * NES cartridge image using the iNES file format. Only the program ROM is exposed to
+ * the processor, and only for mapper 0 (NROM) where it is directly mapped from 0x8000
+ * to 0xFFFF.
+ *
+ * @see <a href="https://www.nesdev.org/wiki/INES">INES - NESdev Wiki</a>
+ * @see <a href="https://www.nesdev.org/wiki/NROM">NROM - NESdev Wiki</a>
+ */
+public final class INesCartridge {
+
+    private static final int HEADER_SIZE = 16;
+    private static final int TRAINER_SIZE = 512;
+    private static final int PRG_ROM_BANK_SIZE = 0x4000;
+    private static final int CHR_ROM_BANK_SIZE = 0x2000;
+    private static final int PRG_ROM_MAPPING_ADDRESS = 0x8000;
+
+    private final int mapper;
+    private final byte[] prgRom;
+    private final byte[] chrRom;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param mapper Mapper number
+     * @param prgRom Program ROM content
+     * @param chrRom Character ROM content
+     */
+    private INesCartridge(final int mapper, final byte[] prgRom, final byte[] chrRom) {
+
+        this.mapper = mapper;
+        this.prgRom = prgRom;
+        this.chrRom = chrRom;
+    }
+
+    /**
+     * Parses an iNES image.
+     *
+     * @param content iNES image content
+     * @return Newly created cartridge
+     * @throws IllegalArgumentException if content is not a valid iNES image
+     */
+    public static INesCartridge parse(final byte[] content) {
+
+        if (content.length < HEADER_SIZE
+            || content[0] != 'N' || content[1] != 'E' || content[2] != 'S' || content[3] != 0x1A) {
+            throw new IllegalArgumentException("Not an iNES image");
+        }
+
+        final int prgRomSize = (content[4] & 0xFF) * PRG_ROM_BANK_SIZE;
+        final int chrRomSize = (content[5] & 0xFF) * CHR_ROM_BANK_SIZE;
+        final int flags6 = content[6] & 0xFF;
+        final int flags7 = content[7] & 0xFF;
+        final int mapper = (flags7 & 0xF0) | (flags6 >> 4);
+
+        final int prgRomOffset = HEADER_SIZE + ((flags6 & 0x04) != 0 ? TRAINER_SIZE : 0);
+        final int chrRomOffset = prgRomOffset + prgRomSize;
+        if (prgRomSize == 0 || content.length < chrRomOffset + chrRomSize) {
+            throw new IllegalArgumentException("Truncated iNES image");
+        }
+
+        return new INesCartridge(
+            mapper,
+            Arrays.copyOfRange(content, prgRomOffset, chrRomOffset),
+            Arrays.copyOfRange(content, chrRomOffset, chrRomOffset + chrRomSize));
+    }
+
+    /**
+     * Loads an iNES image. The stream is read until its end, but is not closed.
+     *
+     * @param inputStream Stream to read the iNES image from
+     * @return Newly created cartridge
+     * @throws IOException              if stream can't be read
+     * @throws IllegalArgumentException if content is not a valid iNES image
+     */
+    public static INesCartridge load(final InputStream inputStream) throws IOException {
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int length;
+        while ((length = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, length);
+        }
+
+        return INesCartridge.parse(outputStream.toByteArray());
+    }
+
+    /**
+     * Gets the mapper number.
+     *
+     * @return The mapper number
+     */
+    public int getMapper() {
+
+        return this.mapper;
+    }
+
+    /**
+     * Gets the program ROM size.
+     *
+     * @return The program ROM size in bytes
+     */
+    public int getPrgRomSize() {
+
+        return this.prgRom.length;
+    }
+
+    /**
+     * Gets the character ROM size.
+     *
+     * @return The character ROM size in bytes
+     */
+    public int getChrRomSize() {
+
+        return this.chrRom.length;
+    }
+
+    /**
+     * Creates the bus units mapping the program ROM. A 16 KB program ROM is mirrored,
+     * so that it is visible both from 0x8000 and from 0xC000.
+     *
+     * @return Newly created bus units
+     * @throws UnsupportedOperationException if the cartridge does not use mapper 0
+     */
+    public List<BusUnit> createPrgRomBusUnits() {
+
+        if (this.mapper != 0 || this.prgRom.length > 2 * PRG_ROM_BANK_SIZE) {
+            throw new UnsupportedOperationException("Unsupported mapper " + this.mapper);
+        }
+
+        final List<BusUnit> busUnitList = new ArrayList<>();
+        for (int address = PRG_ROM_MAPPING_ADDRESS; address < 0x10000; address += this.prgRom.length) {
+            busUnitList.add(ArrayMemory.createROM(address, this.prgRom));
+        }
+
+        return busUnitList;
+    }
+}
@@ -0,0 +1,258 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Records everything non-deterministic reaching a processor, so that an execution can be
+ * replayed bit-exact by an {@link InputReplayer}: values read from devices, and changes
+ * of the interrupt lines, each keyed by its absolute cycle. Memories are deterministic
+ * and are not recorded; devices are, once wrapped with {@link #record(BusUnit)}.
+ *
+ * <p>The log is append-only and streamable: a header, then one record per input, in the
+ * order they occur. Each record starts with a tag byte, holding the record kind in its
+ * two low bits and the device index in the others, followed by the cycle as a zigzag
+ * variable-length delta against the previous record. Read records end with the address
+ * and the value. Records are buffered, then written to the channel when the buffer is
+ * full, on {@link #flush()} and on {@link #close()}.</p>
+ */
+public final class InputRecorder implements Closeable {
+
+    static final int LOG_MAGIC = 0x3635524C; // "65RL"
+    static final short LOG_VERSION = 1;
+    static final int LOG_HEADER_SIZE = 6;
+    static final int RECORD_KIND_READ = 0;
+    static final int RECORD_KIND_IRQ_ASSERTED = 1;
+    static final int RECORD_KIND_IRQ_RELEASED = 2;
+    static final int RECORD_KIND_NMI = 3;
+    static final int RECORD_MAXIMUM_SIZE = 1 + 10 + 2 + 1;
+    static final int MAXIMUM_DEVICE_COUNT = 64;
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private MOS6502Processor processor;
+    private int deviceCount;
+    private long previousCycle;
+
+    /**
+     * Creates a new instance. The log header is written right away.
+     *
+     * @param channel Channel receiving the log, closed along with this recorder
+     */
+    public InputRecorder(final WritableByteChannel channel) {
+
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        this.processor = null;
+        this.deviceCount = 0;
+        this.previousCycle = 0;
+
+        this.buffer.putInt(LOG_MAGIC);
+        this.buffer.putShort(LOG_VERSION);
+    }
+
+    /**
+     * Wraps a device, so that the values read from it are recorded. The wrapper must be
+     * attached to the processor in place of the device. Devices must be wrapped in the
+     * same order when replaying.
+     *
+     * @param device Device to record
+     * @return Recording bus unit
+     */
+    public BusUnit record(final BusUnit device) {
+
+        if (this.deviceCount == MAXIMUM_DEVICE_COUNT) {
+            throw new IllegalStateException("Can't record more than " + MAXIMUM_DEVICE_COUNT + " devices");
+        }
+
+        final RecordingBusUnit recordingBusUnit = new RecordingBusUnit(this, this.deviceCount, device);
+        this.deviceCount += 1;
+
+        return recordingBusUnit;
+    }
+
+    /**
+     * Starts recording the interrupt lines of a processor. Recording must start from the
+     * processor state the replay will start from.
+     *
+     * @param processor Processor to record
+     */
+    public void attach(final MOS6502Processor processor) {
+
+        this.processor = processor;
+        processor.inputRecorder = this;
+    }
+
+    /**
+     * Writes the buffered records to the channel.
+     *
+     * @throws IOException if the channel can't be written
+     */
+    public void flush() throws IOException {
+
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    /**
+     * Stops recording, then writes the buffered records and closes the channel.
+     *
+     * @throws IOException if the channel can't be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+
+        if (this.processor != null && this.processor.inputRecorder == this) {
+            this.processor.inputRecorder = null;
+        }
+
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+    /**
+     * Records a change of the IRQ line.
+     *
+     * @param asserted {@code true} if the line is asserted, {@code false} if it is released
+     * @param cycle    Cycle from which the change is seen by the processor
+     */
+    void recordIrqLine(final boolean asserted, final long cycle) {
+
+        this.putRecordHeader(asserted ? RECORD_KIND_IRQ_ASSERTED : RECORD_KIND_IRQ_RELEASED, 0, cycle);
+    }
+
+    /**
+     * Records a non-maskable interrupt.
+     *
+     * @param cycle Cycle from which the interrupt is seen by the processor
+     */
+    void recordNmi(final long cycle) {
+
+        this.putRecordHeader(RECORD_KIND_NMI, 0, cycle);
+    }
+
+    /**
+     * Records a value read from a device.
+     *
+     * @param device  Device index
+     * @param address Memory address read
+     * @param value   Read value
+     * @param cycle   Cycle of the access
+     */
+    private void recordRead(final int device, final int address, final int value, final long cycle) {
+
+        this.putRecordHeader(RECORD_KIND_READ, device, cycle);
+        this.buffer.putShort((short) address);
+        this.buffer.put((byte) value);
+    }
+
+    /**
+     * Starts a record, making room for it in the buffer first.
+     *
+     * @param kind   Record kind
+     * @param device Device index
+     * @param cycle  Cycle of the record
+     */
+    private void putRecordHeader(final int kind, final int device, final long cycle) {
+
+        if (this.buffer.remaining() < RECORD_MAXIMUM_SIZE) {
+            try {
+                this.flush();
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        }
+
+        this.buffer.put((byte) (device << 2 | kind));
+
+        // Zigzag encoding, so that small negative deltas stay short
+        final long delta = cycle - this.previousCycle;
+        long zigzag = (delta << 1) ^ (delta >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            this.buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        this.buffer.put((byte) zigzag);
+        this.previousCycle = cycle;
+    }
+
+    /**
+     * Device wrapper recording the values read by the processor.
+     */
+    private static final class RecordingBusUnit implements SynchronizedBusUnit {
+
+        private final InputRecorder inputRecorder;
+        private final int deviceIndex;
+        private final BusUnit device;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param inputRecorder Recorder receiving the read values
+         * @param deviceIndex   Device index
+         * @param device        Recorded device
+         */
+        private RecordingBusUnit(final InputRecorder inputRecorder, final int deviceIndex, final BusUnit device) {
+
+            this.inputRecorder = inputRecorder;
+            this.deviceIndex = deviceIndex;
+            this.device = device;
+        }
+
+        @Override
+        public int mappingAddressMin() {
+
+            return this.device.mappingAddressMin();
+        }
+
+        @Override
+        public int mappingAddressMax() {
+
+            return this.device.mappingAddressMax();
+        }
+
+        @Override
+        public int read(final int address) {
+
+            // Not an access of the processor
+            return this.device.read(address);
+        }
+
+        @Override
+        public void write(final int address, final int value) {
+
+            this.device.write(address, value);
+        }
+
+        @Override
+        public int read(final int address, final long cycle) {
+
+            final int value = this.device instanceof SynchronizedBusUnit
+                ? ((SynchronizedBusUnit) this.device).read(address, cycle) & 0xFF
+                : this.device.read(address) & 0xFF;
+            this.inputRecorder.recordRead(this.deviceIndex, address, value, cycle);
+
+            return value;
+        }
+
+        @Override
+        public void write(final int address, final int value, final long cycle) {
+
+            if (this.device instanceof SynchronizedBusUnit) {
+                ((SynchronizedBusUnit) this.device).write(address, value, cycle);
+            } else {
+                this.device.write(address, value);
+            }
+        }
+    }
+}
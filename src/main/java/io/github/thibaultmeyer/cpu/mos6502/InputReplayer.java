@@ -0,0 +1,315 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Replays a log written by an {@link InputRecorder}. Devices are replaced by stand-ins,
+ * created with {@link #replay(BusUnit)}, returning the recorded values without running
+ * the real devices; changes of the interrupt lines are replayed by events of the
+ * processor {@link EventScheduler}. The processor must start from the state the
+ * recording started from, with the same memories. Any access which doesn't match the
+ * log makes the replay fail with an {@link IllegalStateException}.
+ *
+ * <p>The log is read through a buffer, as the replay progresses. Interrupt records are
+ * scheduled one at a time, or up to the next read record when a device is read.</p>
+ */
+public final class InputReplayer implements Closeable {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private MOS6502Processor processor;
+    private int deviceCount;
+    private long previousCycle;
+    private int pendingInterruptCount;
+    private boolean endOfChannel;
+
+    /**
+     * Creates a new instance. The log header is read right away.
+     *
+     * @param channel Channel providing the log, closed along with this replayer
+     * @throws IOException              if the channel can't be read
+     * @throws IllegalArgumentException if the log header is invalid
+     */
+    public InputReplayer(final ReadableByteChannel channel) throws IOException {
+
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(InputRecorder.BUFFER_SIZE);
+        this.processor = null;
+        this.deviceCount = 0;
+        this.previousCycle = 0;
+        this.pendingInterruptCount = 0;
+        this.endOfChannel = false;
+
+        this.buffer.flip();
+        this.fill(InputRecorder.LOG_HEADER_SIZE);
+        if (this.buffer.remaining() < InputRecorder.LOG_HEADER_SIZE || this.buffer.getInt() != InputRecorder.LOG_MAGIC) {
+            throw new IllegalArgumentException("Not a replay log");
+        }
+
+        final short version = this.buffer.getShort();
+        if (version != InputRecorder.LOG_VERSION) {
+            throw new IllegalArgumentException("Unsupported replay log version " + version);
+        }
+    }
+
+    /**
+     * Creates the stand-in of a device, returning its recorded values. The stand-in must
+     * be attached to the processor in place of the device. Devices must be replaced in
+     * the order they were wrapped when recording.
+     *
+     * @param device Replaced device, only used for its mapping
+     * @return Replaying bus unit
+     */
+    public BusUnit replay(final BusUnit device) {
+
+        if (this.deviceCount == InputRecorder.MAXIMUM_DEVICE_COUNT) {
+            throw new IllegalStateException("Can't replay more than " + InputRecorder.MAXIMUM_DEVICE_COUNT + " devices");
+        }
+
+        final ReplayingBusUnit replayingBusUnit = new ReplayingBusUnit(
+            this,
+            this.deviceCount,
+            device.mappingAddressMin(),
+            device.mappingAddressMax());
+        this.deviceCount += 1;
+
+        return replayingBusUnit;
+    }
+
+    /**
+     * Starts replaying the interrupt lines of a processor.
+     *
+     * @param processor Processor to replay
+     */
+    public void attach(final MOS6502Processor processor) {
+
+        this.processor = processor;
+        this.scheduleInterrupts(1);
+    }
+
+    /**
+     * Checks whether all records have been replayed.
+     *
+     * @return {@code true} if the log is fully replayed, otherwise, {@code false}
+     */
+    public boolean isFinished() {
+
+        return this.pendingInterruptCount == 0 && !this.hasRecord();
+    }
+
+    /**
+     * Closes the channel.
+     *
+     * @throws IOException if the channel can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+
+        this.channel.close();
+    }
+
+    /**
+     * Replays a value read from a device.
+     *
+     * @param device  Device index
+     * @param address Memory address read
+     * @param cycle   Cycle of the access
+     * @return Recorded value
+     */
+    private int replayRead(final int device, final int address, final long cycle) {
+
+        // Interrupts recorded before this read are scheduled, even if they aren't due yet
+        this.scheduleInterrupts(Integer.MAX_VALUE);
+        if (!this.hasRecord()) {
+            throw new IllegalStateException("Replay log exhausted, reading device " + device + " at cycle " + cycle);
+        }
+
+        final int tag = this.buffer.get() & 0xFF;
+        final long recordedCycle = this.getCycle();
+        final int recordedAddress = this.buffer.getShort() & 0xFFFF;
+        final int value = this.buffer.get() & 0xFF;
+        if (tag != (device << 2 | InputRecorder.RECORD_KIND_READ) || recordedCycle != cycle || recordedAddress != address) {
+            throw new IllegalStateException(String.format(
+                "Replay diverged, reading device %d at $%04X on cycle %d, recorded tag %02X at $%04X on cycle %d",
+                device,
+                address,
+                cycle,
+                tag,
+                recordedAddress,
+                recordedCycle));
+        }
+
+        this.scheduleInterrupts(1);
+        return value;
+    }
+
+    /**
+     * Replays a change of the interrupt lines, then schedules the next one.
+     *
+     * @param kind Record kind
+     */
+    private void replayInterrupt(final int kind) {
+
+        this.pendingInterruptCount -= 1;
+        if (kind == InputRecorder.RECORD_KIND_NMI) {
+            this.processor.triggerNmi();
+        } else {
+            this.processor.setIrqLine(kind == InputRecorder.RECORD_KIND_IRQ_ASSERTED);
+        }
+
+        this.scheduleInterrupts(1);
+    }
+
+    /**
+     * Schedules the interrupt records found before the next read record.
+     *
+     * @param limit Maximum number of scheduled records not yet replayed
+     */
+    private void scheduleInterrupts(final int limit) {
+
+        while (this.pendingInterruptCount < limit
+            && this.hasRecord()
+            && (this.buffer.get(this.buffer.position()) & 0x03) != InputRecorder.RECORD_KIND_READ) {
+
+            final int kind = this.buffer.get() & 0x03;
+            final long cycle = this.getCycle();
+            this.pendingInterruptCount += 1;
+            this.processor.getEventScheduler().schedule(cycle, (final long eventCycle) -> this.replayInterrupt(kind));
+        }
+    }
+
+    /**
+     * Checks whether a record remains, reading the channel if needed.
+     *
+     * @return {@code true} if a record remains, otherwise, {@code false}
+     */
+    private boolean hasRecord() {
+
+        this.fill(InputRecorder.RECORD_MAXIMUM_SIZE);
+        return this.buffer.hasRemaining();
+    }
+
+    /**
+     * Reads the channel until the buffer holds a specific number of bytes, or the end
+     * of the channel is reached.
+     *
+     * @param size Number of bytes needed
+     */
+    private void fill(final int size) {
+
+        if (this.buffer.remaining() >= size || this.endOfChannel) {
+            return;
+        }
+
+        this.buffer.compact();
+        try {
+            while (this.buffer.position() < size) {
+                if (this.channel.read(this.buffer) < 0) {
+                    this.endOfChannel = true;
+                    break;
+                }
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            this.buffer.flip();
+        }
+    }
+
+    /**
+     * Reads the cycle of a record, stored as a zigzag variable-length delta.
+     *
+     * @return The cycle
+     */
+    private long getCycle() {
+
+        long zigzag = 0;
+        int shift = 0;
+        int value;
+        do {
+            value = this.buffer.get();
+            zigzag |= (long) (value & 0x7F) << shift;
+            shift += 7;
+        } while ((value & 0x80) != 0);
+
+        this.previousCycle += (zigzag >>> 1) ^ -(zigzag & 1);
+        return this.previousCycle;
+    }
+
+    /**
+     * Device stand-in returning the recorded values. Reads without a cycle, made by
+     * anything but the processor (ie: a debugger), don't consume the log: they return the
+     * latest value replayed at the address, or 0 if it has not been read yet.
+     */
+    private static final class ReplayingBusUnit implements SynchronizedBusUnit {
+
+        private final InputReplayer inputReplayer;
+        private final int deviceIndex;
+        private final int mappingAddressMin;
+        private final int mappingAddressMax;
+        private final byte[] latestValueTable;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param inputReplayer     Replayer providing the recorded values
+         * @param deviceIndex       Device index
+         * @param mappingAddressMin Lowest address of the replaced device
+         * @param mappingAddressMax Highest address of the replaced device
+         */
+        private ReplayingBusUnit(final InputReplayer inputReplayer,
+                                 final int deviceIndex,
+                                 final int mappingAddressMin,
+                                 final int mappingAddressMax) {
+
+            this.inputReplayer = inputReplayer;
+            this.deviceIndex = deviceIndex;
+            this.mappingAddressMin = mappingAddressMin;
+            this.mappingAddressMax = mappingAddressMax;
+            this.latestValueTable = new byte[mappingAddressMax - mappingAddressMin + 1];
+        }
+
+        @Override
+        public int mappingAddressMin() {
+
+            return this.mappingAddressMin;
+        }
+
+        @Override
+        public int mappingAddressMax() {
+
+            return this.mappingAddressMax;
+        }
+
+        @Override
+        public int read(final int address) {
+
+            return this.latestValueTable[address - this.mappingAddressMin] & 0xFF;
+        }
+
+        @Override
+        public void write(final int address, final int value) {
+
+            // Writes have no effect on the replay
+        }
+
+        @Override
+        public int read(final int address, final long cycle) {
+
+            final int value = this.inputReplayer.replayRead(this.deviceIndex, address, cycle);
+            this.latestValueTable[address - this.mappingAddressMin] = (byte) value;
+
+            return value;
+        }
+
+        @Override
+        public void write(final int address, final int value, final long cycle) {
+
+            // Writes have no effect on the replay
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package io.github.thibaultmeyer.cpu.mos6502;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * MOS 6502 CPU.
@@ -18,7 +18,7 @@ import java.util.Map;
  * @see <a href="http://www.emulator101.com/6502-addressing-modes.html">Emulator 101 - 6502 Addressing Modes</a>
  * @see <a href="https://retrocomputing.stackexchange.com/questions/17888/what-is-the-mos-6502-doing-on-each-cycle-of-an-instruction">What is the MOS 6502 doing on each cycle of an instruction?</a>
  */
-public final class MOS6502Processor {
+public final class MOS6502Processor implements Snapshottable {
 
     /**
      * Memory location where to retrieve the 16-bits address used as initial value for
@@ -26,6 +26,31 @@ public final class MOS6502Processor {
      */
     private static final int PROGRAM_COUNTER_MEMORY_LOCATION = 0xFFFC;
 
+    /**
+     * Memory location where to retrieve the 16-bits address of the interrupt request
+     * handler (0xFFFE + 0xFFFF). This handler is also used by the BRK instruction.
+     */
+    private static final int INTERRUPT_REQUEST_MEMORY_LOCATION = 0xFFFE;
+
+    /**
+     * Memory location where to retrieve the 16-bits address of the non-maskable
+     * interrupt handler (0xFFFA + 0xFFFB).
+     */
+    private static final int NON_MASKABLE_INTERRUPT_MEMORY_LOCATION = 0xFFFA;
+
+    /**
+     * Bits of {@link #interruptState}: IRQ line asserted, NMI edge not yet serviced and
+     * processor waiting for an interrupt (WAI instruction).
+     */
+    private static final int INTERRUPT_STATE_IRQ = 1;
+    private static final int INTERRUPT_STATE_NMI = 1 << 1;
+    private static final int INTERRUPT_STATE_WAITING = 1 << 2;
+
+    /**
+     * Number of cycles spent entering an interrupt handler.
+     */
+    private static final int INTERRUPT_CYCLES = 7;
+
     /**
      * Memory location where is located the stack. In 6502 CPU, stack memory addresses
      * range is hardcoded between 0x0100 and 0x01FF.
@@ -33,209 +58,718 @@ public final class MOS6502Processor {
     private static final int STACK_MEMORY_LOCATION = 0x0100;
 
     /**
-     * Operation code map. The addressing mode is directly filled in to avoid additional
-     * parsing and thus save time. For more information on how to parse an opcode in its
-     * binary form, go to "<a href="https://llx.com/Neil/a2/opcodes.html">The 6502/65C02
-     * /65C816 Instruction Set Decoded</a>" webpage.
+     * Snapshot header: magic number ("6502" for full snapshots, "65DL" for delta
+     * snapshots), format version and processor variant.
+     */
+    private static final int SNAPSHOT_MAGIC = 0x36353032;
+    private static final int SNAPSHOT_DELTA_MAGIC = 0x3635444C;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /**
+     * Size of the processor state in a snapshot: header (4 + 2 + 1), registers
+     * (2 + 5 * 1), cycle count, resolved address, interrupt state, total cycles, total
+     * instructions (4 + 4 + 1 + 8 + 8).
+     */
+    private static final int SNAPSHOT_PROCESSOR_SIZE = 7 + 7 + 25;
+
+    /**
+     * Size of the dirty pages bitset in a delta snapshot (4 * 8).
+     */
+    private static final int SNAPSHOT_DIRTY_PAGES_SIZE = 32;
+
+    /**
+     * Number of cycles spent by each operation code on NMOS 6502, indexed by the opcode
+     * value itself. Page crossing and taken branch penalties are not included, they are
+     * added when the instruction is executed.
+     */
+    private static final int[] NMOS_OPERATION_CODE_CYCLE_TABLE = {
+        7, 6, 2, 8, 3, 3, 5, 5, 3, 2, 2, 2, 4, 4, 6, 6,  // 0x00
+        2, 5, 2, 8, 4, 4, 6, 6, 2, 4, 2, 7, 4, 4, 7, 7,  // 0x10
+        6, 6, 2, 8, 3, 3, 5, 5, 4, 2, 2, 2, 4, 4, 6, 6,  // 0x20
+        2, 5, 2, 8, 4, 4, 6, 6, 2, 4, 2, 7, 4, 4, 7, 7,  // 0x30
+        6, 6, 2, 8, 3, 3, 5, 5, 3, 2, 2, 2, 3, 4, 6, 6,  // 0x40
+        2, 5, 2, 8, 4, 4, 6, 6, 2, 4, 2, 7, 4, 4, 7, 7,  // 0x50
+        6, 6, 2, 8, 3, 3, 5, 5, 4, 2, 2, 2, 5, 4, 6, 6,  // 0x60
+        2, 5, 2, 8, 4, 4, 6, 6, 2, 4, 2, 7, 4, 4, 7, 7,  // 0x70
+        2, 6, 2, 6, 3, 3, 3, 3, 2, 2, 2, 2, 4, 4, 4, 4,  // 0x80
+        2, 6, 2, 6, 4, 4, 4, 4, 2, 5, 2, 5, 5, 5, 5, 5,  // 0x90
+        2, 6, 2, 6, 3, 3, 3, 3, 2, 2, 2, 2, 4, 4, 4, 4,  // 0xA0
+        2, 5, 2, 5, 4, 4, 4, 4, 2, 4, 2, 4, 4, 4, 4, 4,  // 0xB0
+        2, 6, 2, 8, 3, 3, 5, 5, 2, 2, 2, 2, 4, 4, 6, 6,  // 0xC0
+        2, 5, 2, 8, 4, 4, 6, 6, 2, 4, 2, 7, 4, 4, 7, 7,  // 0xD0
+        2, 6, 2, 8, 3, 3, 5, 5, 2, 2, 2, 2, 4, 4, 6, 6,  // 0xE0
+        2, 5, 2, 8, 4, 4, 6, 6, 2, 4, 2, 7, 4, 4, 7, 7   // 0xF0
+    };
+
+    /**
+     * Number of cycles spent by each operation code on 65C02, indexed by the opcode value
+     * itself. Page crossing, taken branch and decimal mode penalties are not included,
+     * they are added when the instruction is executed.
+     */
+    private static final int[] CMOS_OPERATION_CODE_CYCLE_TABLE = {
+        7, 6, 2, 1, 5, 3, 5, 5, 3, 2, 2, 1, 6, 4, 6, 5,  // 0x00
+        2, 5, 5, 1, 5, 4, 6, 5, 2, 4, 2, 1, 6, 4, 6, 5,  // 0x10
+        6, 6, 2, 1, 3, 3, 5, 5, 4, 2, 2, 1, 4, 4, 6, 5,  // 0x20
+        2, 5, 5, 1, 4, 4, 6, 5, 2, 4, 2, 1, 4, 4, 6, 5,  // 0x30
+        6, 6, 2, 1, 3, 3, 5, 5, 3, 2, 2, 1, 3, 4, 6, 5,  // 0x40
+        2, 5, 5, 1, 4, 4, 6, 5, 2, 4, 3, 1, 8, 4, 6, 5,  // 0x50
+        6, 6, 2, 1, 3, 3, 5, 5, 4, 2, 2, 1, 6, 4, 6, 5,  // 0x60
+        2, 5, 5, 1, 4, 4, 6, 5, 2, 4, 4, 1, 6, 4, 6, 5,  // 0x70
+        2, 6, 2, 1, 3, 3, 3, 5, 2, 2, 2, 1, 4, 4, 4, 5,  // 0x80
+        2, 6, 5, 1, 4, 4, 4, 5, 2, 5, 2, 1, 4, 5, 5, 5,  // 0x90
+        2, 6, 2, 1, 3, 3, 3, 5, 2, 2, 2, 1, 4, 4, 4, 5,  // 0xA0
+        2, 5, 5, 1, 4, 4, 4, 5, 2, 4, 2, 1, 4, 4, 4, 5,  // 0xB0
+        2, 6, 2, 1, 3, 3, 5, 5, 2, 2, 2, 3, 4, 4, 6, 5,  // 0xC0
+        2, 5, 5, 1, 4, 4, 6, 5, 2, 4, 3, 3, 4, 4, 7, 5,  // 0xD0
+        2, 6, 2, 1, 3, 3, 5, 5, 2, 2, 2, 1, 4, 4, 6, 5,  // 0xE0
+        2, 5, 5, 1, 4, 4, 6, 5, 2, 4, 4, 1, 4, 4, 7, 5   // 0xF0
+    };
+
+    /**
+     * Number of operand bytes following each operation code on NMOS 6502, indexed by the
+     * opcode value itself. Unknown operation codes have no operand.
+     */
+    private static final int[] NMOS_OPERAND_LENGTH_TABLE = {
+        0, 1, 0, 1, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0x00
+        1, 1, 0, 1, 1, 1, 1, 1, 0, 2, 0, 2, 2, 2, 2, 2,  // 0x10
+        2, 1, 0, 1, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0x20
+        1, 1, 0, 1, 1, 1, 1, 1, 0, 2, 0, 2, 2, 2, 2, 2,  // 0x30
+        0, 1, 0, 1, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0x40
+        1, 1, 0, 1, 1, 1, 1, 1, 0, 2, 0, 2, 2, 2, 2, 2,  // 0x50
+        0, 1, 0, 1, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0x60
+        1, 1, 0, 1, 1, 1, 1, 1, 0, 2, 0, 2, 2, 2, 2, 2,  // 0x70
+        1, 1, 1, 1, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0x80
+        1, 1, 0, 0, 1, 1, 1, 1, 0, 2, 0, 0, 0, 2, 0, 0,  // 0x90
+        1, 1, 1, 1, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0xA0
+        1, 1, 0, 1, 1, 1, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2,  // 0xB0
+        1, 1, 1, 1, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0xC0
+        1, 1, 0, 1, 1, 1, 1, 1, 0, 2, 0, 2, 2, 2, 2, 2,  // 0xD0
+        1, 1, 1, 1, 1, 1, 1, 1, 0, 1, 0, 1, 2, 2, 2, 2,  // 0xE0
+        1, 1, 0, 1, 1, 1, 1, 1, 0, 2, 0, 2, 2, 2, 2, 2   // 0xF0
+    };
+
+    /**
+     * Number of operand bytes following each operation code on 65C02, indexed by the
+     * opcode value itself.
+     */
+    private static final int[] CMOS_OPERAND_LENGTH_TABLE = {
+        0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0x00
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2,  // 0x10
+        2, 1, 1, 0, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0x20
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2,  // 0x30
+        0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0x40
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2,  // 0x50
+        0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0x60
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2,  // 0x70
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0x80
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2,  // 0x90
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0xA0
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2,  // 0xB0
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0xC0
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2,  // 0xD0
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 1, 0, 0, 2, 2, 2, 2,  // 0xE0
+        1, 1, 1, 0, 1, 1, 1, 1, 0, 2, 0, 0, 2, 2, 2, 2   // 0xF0
+    };
+
+    /**
+     * Operation code table, indexed by the opcode value itself. The addressing mode is
+     * directly filled in to avoid additional parsing and thus save time. Each of the 256
+     * entries is always set: opcodes not supported by this CPU resolve to a sentinel
+     * operation code. For more information on how to parse an opcode in its binary form,
+     * go to "<a href="https://llx.com/Neil/a2/opcodes.html">The 6502/65C02/65C816
+     * Instruction Set Decoded</a>" webpage.
+     */
+    private final OperationCode[] operationCodeTable;
+    private final int[] operationCodeCycleTable;
+    private final int[] operandLengthTable;
+
+    private final ProcessorVariant processorVariant;
+    private final ExecutionEngine executionEngine;
+
+    /**
+     * Whether hot blocks are compiled.
      */
-    private final Map<Integer, OperationCode> operationCodeMap;
+    private final boolean compiledBlocksEnabled;
 
+    /**
+     * Mask applied to the processor status to know whether additions and subtractions
+     * operate in decimal mode. Zero on variants without decimal mode.
+     */
+    private final int decimalModeMask;
+    private final int decimalModeCycles;
+    private final char[] decimalADCTable;
+    private final char[] decimalSBCTable;
     private final MOS6502Registers registers;
     private final List<BusUnit> busUnitList;
 
+    /**
+     * Bus unit owning each 256 bytes page, indexed by {@code address >> 8}. A page
+     * shared by several bus units, or partially mapped, has no entry and is resolved
+     * by scanning {@link #busUnitList}.
+     */
+    private final BusUnit[] busUnitPageTable;
+
+    /**
+     * Backing arrays of {@link ArrayMemory} bus units, indexed by {@code address >> 8}.
+     * Pages listed here are read (and written, unless read-only) directly, without
+     * calling the bus unit. The offset table gives the address mapped at index 0 of
+     * the backing array.
+     */
+    private final byte[][] readPageMemoryTable;
+    private final byte[][] writePageMemoryTable;
+    private final int[] pageMemoryOffsetTable;
+
+    /**
+     * Whether each operation code ends a decoded block, indexed by the opcode value itself.
+     */
+    private final boolean[] blockEndTable;
+
+    /**
+     * Decoded blocks, indexed by their start address. Only allocated with the
+     * {@link ExecutionEngine#BLOCK_CACHE} and {@link ExecutionEngine#DYNAMIC_RECOMPILER}
+     * execution engines.
+     */
+    private final DecodedBlock[] decodedBlockCache;
+
+    /**
+     * Writable pages holding decoded code, indexed by {@code address >> 8}. These pages
+     * are removed from {@link #writePageMemoryTable}, so that writing them takes the slow
+     * path, which invalidates the decoded blocks.
+     */
+    private final boolean[] codePageTable;
+
+    /**
+     * Backing arrays of the code pages which would otherwise be directly writable, indexed
+     * by {@code address >> 8}. Writes to these pages not covering a decoded block are
+     * done directly there, once past the check.
+     */
+    private final byte[][] codeWritePageMemoryTable;
+
+    /**
+     * Bitset of the addresses covered by decoded blocks, indexed by address. Writing a
+     * code page only invalidates blocks when one of these addresses is written, so that
+     * data sharing a page with code doesn't drop the blocks over and over.
+     */
+    private final long[] codeAddressTable;
+
+    /**
+     * Bitset of the pages written since the latest snapshot, saved or loaded, indexed by
+     * {@code address >> 8}. Only pages of writable {@link ArrayMemory} and
+     * {@link PagedMemory} bus units are tracked. Clean pages are removed from
+     * {@link #writePageMemoryTable}, so that their first write takes the slow path, which
+     * sets their bit and gives them back their direct write access.
+     */
+    private final long[] dirtyPageTable;
+    private DecodedBlock decodedBlock;
+    private int decodedBlockIndex;
+
+    /**
+     * Lazily evaluated flags. While instructions are executed, the negative, zero, carry
+     * and overflow bits of {@link MOS6502Registers#status} are not maintained: flags are
+     * derived from the latest results, only when read. Negative is bit 7 of
+     * {@link #negativeResult}, zero is set when {@link #zeroResult} is 0, carry is bit 8
+     * of {@link #carryResult} and overflow is bit 7 of {@link #overflowResult}.
+     */
+    int negativeResult;
+    int zeroResult;
+    int carryResult;
+    int overflowResult;
+
+    /**
+     * Whether the lazily evaluated flags are the ones in use, that is to say while
+     * instructions are executed, outside of scheduled events. Bus units reached through
+     * the slow path then get {@link MOS6502Registers#status} written back beforehand.
+     */
+    private boolean lazyFlagsInUse;
+
+    /**
+     * Whether a bus unit has been called since compiled code last checked it, see
+     * {@link #mustLeaveCompiledBlock(DecodedBlock)}. Bus units may raise an interrupt or schedule
+     * an event while handling an access.
+     */
+    private boolean busUnitCalled;
+
+    /**
+     * Interrupt lines and wait state, polled once before each instruction. Zero in the
+     * common case, so that polling costs a single comparison.
+     */
+    private int interruptState;
+
+    private final EventScheduler eventScheduler;
+    private TraceSink traceSink;
+    InputRecorder inputRecorder;
+    private long totalCycles;
+    private long totalInstructions;
     private int cycleCount;
     private int resolvedAddress;
 
     /**
-     * Creates a new instance.
+     * Creates a new NMOS 6502 instance using the {@link ExecutionEngine#SWITCH} execution engine.
+     *
+     * @param busUnitCollection Bus units to attach
      */
     public MOS6502Processor(final Collection<BusUnit> busUnitCollection) {
 
-        this.operationCodeMap = new HashMap<>();
+        this(busUnitCollection, ProcessorVariant.NMOS_6502, ExecutionEngine.SWITCH);
+    }
+
+    /**
+     * Creates a new NMOS 6502 instance.
+     *
+     * @param busUnitCollection Bus units to attach
+     * @param executionEngine   Execution engine to use
+     */
+    public MOS6502Processor(final Collection<BusUnit> busUnitCollection, final ExecutionEngine executionEngine) {
+
+        this(busUnitCollection, ProcessorVariant.NMOS_6502, executionEngine);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param busUnitCollection Bus units to attach
+     * @param processorVariant  Processor variant to emulate
+     * @param executionEngine   Execution engine to use
+     */
+    public MOS6502Processor(final Collection<BusUnit> busUnitCollection,
+                            final ProcessorVariant processorVariant,
+                            final ExecutionEngine executionEngine) {
+
+        this.operationCodeTable = new OperationCode[256];
+        this.operationCodeCycleTable = processorVariant == ProcessorVariant.CMOS_65C02
+            ? CMOS_OPERATION_CODE_CYCLE_TABLE
+            : NMOS_OPERATION_CODE_CYCLE_TABLE;
+        this.operandLengthTable = processorVariant == ProcessorVariant.CMOS_65C02
+            ? CMOS_OPERAND_LENGTH_TABLE
+            : NMOS_OPERAND_LENGTH_TABLE;
+        this.processorVariant = processorVariant;
+        this.executionEngine = executionEngine;
+        this.decimalModeMask = processorVariant == ProcessorVariant.RICOH_2A03 ? 0 : MOS6502Registers.FLAG_DECIMAL_MODE;
+        this.decimalModeCycles = processorVariant == ProcessorVariant.CMOS_65C02 ? 1 : 0;
+        this.decimalADCTable = this.decimalModeMask == 0 ? null : DecimalModeTable.adc(processorVariant);
+        this.decimalSBCTable = this.decimalModeMask == 0 ? null : DecimalModeTable.sbc(processorVariant);
         this.registers = new MOS6502Registers();
         this.busUnitList = new ArrayList<>(busUnitCollection);
+        this.compiledBlocksEnabled = executionEngine == ExecutionEngine.DYNAMIC_RECOMPILER;
+        this.busUnitPageTable = new BusUnit[256];
+        this.readPageMemoryTable = new byte[256][];
+        this.writePageMemoryTable = new byte[256][];
+        this.pageMemoryOffsetTable = new int[256];
+        this.blockEndTable = MOS6502Processor.createBlockEndTable(processorVariant);
+        this.decodedBlockCache = executionEngine == ExecutionEngine.BLOCK_CACHE
+            || executionEngine == ExecutionEngine.DYNAMIC_RECOMPILER ? new DecodedBlock[0x10000] : null;
+        this.codePageTable = new boolean[256];
+        this.codeAddressTable = new long[0x10000 >> 6];
+        this.codeWritePageMemoryTable = new byte[256][];
+        this.dirtyPageTable = new long[]{-1L, -1L, -1L, -1L};
+        this.decodedBlock = null;
+        this.decodedBlockIndex = 0;
+        this.interruptState = 0;
+        this.eventScheduler = new EventScheduler();
+        this.traceSink = null;
+        this.inputRecorder = null;
+        this.totalCycles = 0;
+        this.totalInstructions = 0;
         this.cycleCount = 0;
 
         // Load/Store
-        this.operationCodeMap.put(0xAD, new OperationCode("LDA a", this::addressingModeAbsolute, this::instructionLDA));
-        this.operationCodeMap.put(0xBD, new OperationCode("LDA a,x", this::addressingModeAbsoluteIndexedX, this::instructionLDA));
-        this.operationCodeMap.put(0xB9, new OperationCode("LDA a,y", this::addressingModeAbsoluteIndexedY, this::instructionLDA));
-        this.operationCodeMap.put(0xA9, new OperationCode("LDA #", this::addressingModeImmediate, this::instructionLDA));
-        this.operationCodeMap.put(0xA5, new OperationCode("LDA zp", this::addressingModeZeroPage, this::instructionLDA));
-        this.operationCodeMap.put(0xA1, new OperationCode("LDA zp,x", this::addressingModeZeroPageIndexedX, this::instructionLDA));
-        this.operationCodeMap.put(0xB5, new OperationCode("LDA (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionLDA));
-        this.operationCodeMap.put(0xB1, new OperationCode("LDA (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionLDA));
-        this.operationCodeMap.put(0xAE, new OperationCode("LDX a", this::addressingModeAbsolute, this::instructionLDX));
-        this.operationCodeMap.put(0xBE, new OperationCode("LDX a,y", this::addressingModeAbsoluteIndexedY, this::instructionLDX));
-        this.operationCodeMap.put(0xA2, new OperationCode("LDX #", this::addressingModeImmediate, this::instructionLDX));
-        this.operationCodeMap.put(0xA6, new OperationCode("LDX zp", this::addressingModeZeroPage, this::instructionLDX));
-        this.operationCodeMap.put(0xB6, new OperationCode("LDX zp,y", this::addressingModeZeroPageIndexedY, this::instructionLDX));
-        this.operationCodeMap.put(0xAC, new OperationCode("LDY a", this::addressingModeAbsolute, this::instructionLDY));
-        this.operationCodeMap.put(0xBC, new OperationCode("LDY a,x", this::addressingModeAbsoluteIndexedX, this::instructionLDY));
-        this.operationCodeMap.put(0xA0, new OperationCode("LDY #", this::addressingModeImmediate, this::instructionLDY));
-        this.operationCodeMap.put(0xA4, new OperationCode("LDY zp", this::addressingModeZeroPage, this::instructionLDY));
-        this.operationCodeMap.put(0xB4, new OperationCode("LDY zp,x", this::addressingModeZeroPageIndexedX, this::instructionLDY));
-
-        this.operationCodeMap.put(0x8D, new OperationCode("STA a", this::addressingModeAbsolute, this::instructionSTA));
-        this.operationCodeMap.put(0x9D, new OperationCode("STA a,x", this::addressingModeAbsoluteIndexedX, this::instructionSTA));
-        this.operationCodeMap.put(0x99, new OperationCode("STA a,y", this::addressingModeAbsoluteIndexedY, this::instructionSTA));
-        this.operationCodeMap.put(0x85, new OperationCode("STA zp", this::addressingModeAbsolute, this::instructionSTA));
-        this.operationCodeMap.put(0x81, new OperationCode("STA (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionSTA));
-        this.operationCodeMap.put(0x95, new OperationCode("STA zp,x", this::addressingModeZeroPageIndexedX, this::instructionSTA));
-        this.operationCodeMap.put(0x91, new OperationCode("STA (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionSTA));
-        this.operationCodeMap.put(0x8E, new OperationCode("STX a", this::addressingModeAbsolute, this::instructionSTX));
-        this.operationCodeMap.put(0x86, new OperationCode("STX zp", this::addressingModeZeroPage, this::instructionSTX));
-        this.operationCodeMap.put(0x96, new OperationCode("STX zp,y", this::addressingModeZeroPageIndexedY, this::instructionSTX));
-        this.operationCodeMap.put(0x8C, new OperationCode("STY a", this::addressingModeAbsolute, this::instructionSTY));
-        this.operationCodeMap.put(0x84, new OperationCode("STY zp", this::addressingModeZeroPage, this::instructionSTY));
-        this.operationCodeMap.put(0x94, new OperationCode("STY zp,x", this::addressingModeZeroPageIndexedX, this::instructionSTY));
+        this.operationCodeTable[0xAD] = new OperationCode("LDA a", this::addressingModeAbsolute, this::instructionLDA);
+        this.operationCodeTable[0xBD] = new OperationCode("LDA a,x", this::addressingModeAbsoluteIndexedX, this::instructionLDA);
+        this.operationCodeTable[0xB9] = new OperationCode("LDA a,y", this::addressingModeAbsoluteIndexedY, this::instructionLDA);
+        this.operationCodeTable[0xA9] = new OperationCode("LDA #", this::addressingModeImmediate, this::instructionLDA);
+        this.operationCodeTable[0xA5] = new OperationCode("LDA zp", this::addressingModeZeroPage, this::instructionLDA);
+        this.operationCodeTable[0xB5] = new OperationCode("LDA zp,x", this::addressingModeZeroPageIndexedX, this::instructionLDA);
+        this.operationCodeTable[0xA1] = new OperationCode("LDA (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionLDA);
+        this.operationCodeTable[0xB1] = new OperationCode("LDA (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionLDA);
+        this.operationCodeTable[0xAE] = new OperationCode("LDX a", this::addressingModeAbsolute, this::instructionLDX);
+        this.operationCodeTable[0xBE] = new OperationCode("LDX a,y", this::addressingModeAbsoluteIndexedY, this::instructionLDX);
+        this.operationCodeTable[0xA2] = new OperationCode("LDX #", this::addressingModeImmediate, this::instructionLDX);
+        this.operationCodeTable[0xA6] = new OperationCode("LDX zp", this::addressingModeZeroPage, this::instructionLDX);
+        this.operationCodeTable[0xB6] = new OperationCode("LDX zp,y", this::addressingModeZeroPageIndexedY, this::instructionLDX);
+        this.operationCodeTable[0xAC] = new OperationCode("LDY a", this::addressingModeAbsolute, this::instructionLDY);
+        this.operationCodeTable[0xBC] = new OperationCode("LDY a,x", this::addressingModeAbsoluteIndexedX, this::instructionLDY);
+        this.operationCodeTable[0xA0] = new OperationCode("LDY #", this::addressingModeImmediate, this::instructionLDY);
+        this.operationCodeTable[0xA4] = new OperationCode("LDY zp", this::addressingModeZeroPage, this::instructionLDY);
+        this.operationCodeTable[0xB4] = new OperationCode("LDY zp,x", this::addressingModeZeroPageIndexedX, this::instructionLDY);
+
+        this.operationCodeTable[0x8D] = new OperationCode("STA a", this::addressingModeAbsolute, this::instructionSTA);
+        this.operationCodeTable[0x9D] = new OperationCode("STA a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionSTA);
+        this.operationCodeTable[0x99] = new OperationCode("STA a,y", this::addressingModeAbsoluteIndexedYWrite, this::instructionSTA);
+        this.operationCodeTable[0x85] = new OperationCode("STA zp", this::addressingModeZeroPage, this::instructionSTA);
+        this.operationCodeTable[0x81] = new OperationCode("STA (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionSTA);
+        this.operationCodeTable[0x95] = new OperationCode("STA zp,x", this::addressingModeZeroPageIndexedX, this::instructionSTA);
+        this.operationCodeTable[0x91] = new OperationCode("STA (zp),y", this::addressingModeZeroPageIndirectIndexedYWrite, this::instructionSTA);
+        this.operationCodeTable[0x8E] = new OperationCode("STX a", this::addressingModeAbsolute, this::instructionSTX);
+        this.operationCodeTable[0x86] = new OperationCode("STX zp", this::addressingModeZeroPage, this::instructionSTX);
+        this.operationCodeTable[0x96] = new OperationCode("STX zp,y", this::addressingModeZeroPageIndexedY, this::instructionSTX);
+        this.operationCodeTable[0x8C] = new OperationCode("STY a", this::addressingModeAbsolute, this::instructionSTY);
+        this.operationCodeTable[0x84] = new OperationCode("STY zp", this::addressingModeZeroPage, this::instructionSTY);
+        this.operationCodeTable[0x94] = new OperationCode("STY zp,x", this::addressingModeZeroPageIndexedX, this::instructionSTY);
 
         // Transfer
-        this.operationCodeMap.put(0xAA, new OperationCode("TAX i", this::addressingModeImplied, this::instructionTAX));
-        this.operationCodeMap.put(0x8A, new OperationCode("TXA i", this::addressingModeImplied, this::instructionTXA));
-        this.operationCodeMap.put(0xA8, new OperationCode("TAY i", this::addressingModeImplied, this::instructionTAY));
-        this.operationCodeMap.put(0x98, new OperationCode("TYA i", this::addressingModeImplied, this::instructionTYA));
-        this.operationCodeMap.put(0xBA, new OperationCode("TSX i", this::addressingModeImplied, this::instructionTSX));
-        this.operationCodeMap.put(0x9A, new OperationCode("TXS i", this::addressingModeImplied, this::instructionTXS));
+        this.operationCodeTable[0xAA] = new OperationCode("TAX i", this::addressingModeImplied, this::instructionTAX);
+        this.operationCodeTable[0x8A] = new OperationCode("TXA i", this::addressingModeImplied, this::instructionTXA);
+        this.operationCodeTable[0xA8] = new OperationCode("TAY i", this::addressingModeImplied, this::instructionTAY);
+        this.operationCodeTable[0x98] = new OperationCode("TYA i", this::addressingModeImplied, this::instructionTYA);
+        this.operationCodeTable[0xBA] = new OperationCode("TSX i", this::addressingModeImplied, this::instructionTSX);
+        this.operationCodeTable[0x9A] = new OperationCode("TXS i", this::addressingModeImplied, this::instructionTXS);
 
         // Stack
-        this.operationCodeMap.put(0x48, new OperationCode("PHA i", this::addressingModeImplied, this::instructionPHA));
-        this.operationCodeMap.put(0x68, new OperationCode("PLA i", this::addressingModeImplied, this::instructionPLA));
-        this.operationCodeMap.put(0x08, new OperationCode("PHP i", this::addressingModeImplied, this::instructionPHP));
-        this.operationCodeMap.put(0x28, new OperationCode("PLP i", this::addressingModeImplied, this::instructionPLP));
+        this.operationCodeTable[0x48] = new OperationCode("PHA i", this::addressingModeImplied, this::instructionPHA);
+        this.operationCodeTable[0x68] = new OperationCode("PLA i", this::addressingModeImplied, this::instructionPLA);
+        this.operationCodeTable[0x08] = new OperationCode("PHP i", this::addressingModeImplied, this::instructionPHP);
+        this.operationCodeTable[0x28] = new OperationCode("PLP i", this::addressingModeImplied, this::instructionPLP);
 
         // Shift
-        this.operationCodeMap.put(0x0E, new OperationCode("ASL a", this::addressingModeAbsolute, this::instructionASL));
-        this.operationCodeMap.put(0x1E, new OperationCode("ASL a,x", this::addressingModeAbsoluteIndexedX, this::instructionASL));
-        this.operationCodeMap.put(0x0A, new OperationCode("ASL A", this::addressingModeAccumulator, this::instructionASL));
-        this.operationCodeMap.put(0x06, new OperationCode("ASL zp", this::addressingModeZeroPage, this::instructionASL));
-        this.operationCodeMap.put(0x16, new OperationCode("ASL zp,x", this::addressingModeZeroPageIndexedX, this::instructionASL));
-        this.operationCodeMap.put(0x4E, new OperationCode("LSR a", this::addressingModeAbsolute, this::instructionLSR));
-        this.operationCodeMap.put(0x5E, new OperationCode("LSR a,x", this::addressingModeAbsoluteIndexedX, this::instructionLSR));
-        this.operationCodeMap.put(0x4A, new OperationCode("LSR A", this::addressingModeAccumulator, this::instructionLSR));
-        this.operationCodeMap.put(0x46, new OperationCode("LSR zp", this::addressingModeZeroPage, this::instructionLSR));
-        this.operationCodeMap.put(0x56, new OperationCode("LSR zp,x", this::addressingModeZeroPageIndexedX, this::instructionLSR));
-        this.operationCodeMap.put(0x2E, new OperationCode("ROL a", this::addressingModeAbsolute, this::instructionROL));
-        this.operationCodeMap.put(0x3E, new OperationCode("ROL a,x", this::addressingModeAbsoluteIndexedX, this::instructionROL));
-        this.operationCodeMap.put(0x2A, new OperationCode("ROL A", this::addressingModeAccumulator, this::instructionROL));
-        this.operationCodeMap.put(0x26, new OperationCode("ROL zp", this::addressingModeZeroPage, this::instructionROL));
-        this.operationCodeMap.put(0x36, new OperationCode("ROL zp,x", this::addressingModeZeroPageIndexedX, this::instructionROL));
-        this.operationCodeMap.put(0x6E, new OperationCode("ROR a", this::addressingModeAbsolute, this::instructionROR));
-        this.operationCodeMap.put(0x7E, new OperationCode("ROR a,x", this::addressingModeAbsoluteIndexedX, this::instructionROR));
-        this.operationCodeMap.put(0x6A, new OperationCode("ROR A", this::addressingModeAccumulator, this::instructionROR));
-        this.operationCodeMap.put(0x66, new OperationCode("ROR zp", this::addressingModeZeroPage, this::instructionROR));
-        this.operationCodeMap.put(0x76, new OperationCode("ROR zp,x", this::addressingModeZeroPageIndexedX, this::instructionROR));
+        this.operationCodeTable[0x0E] = new OperationCode("ASL a", this::addressingModeAbsolute, this::instructionASL);
+        this.operationCodeTable[0x1E] = new OperationCode("ASL a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionASL);
+        this.operationCodeTable[0x0A] = new OperationCode("ASL A", this::addressingModeAccumulator, this::instructionASL);
+        this.operationCodeTable[0x06] = new OperationCode("ASL zp", this::addressingModeZeroPage, this::instructionASL);
+        this.operationCodeTable[0x16] = new OperationCode("ASL zp,x", this::addressingModeZeroPageIndexedX, this::instructionASL);
+        this.operationCodeTable[0x4E] = new OperationCode("LSR a", this::addressingModeAbsolute, this::instructionLSR);
+        this.operationCodeTable[0x5E] = new OperationCode("LSR a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionLSR);
+        this.operationCodeTable[0x4A] = new OperationCode("LSR A", this::addressingModeAccumulator, this::instructionLSR);
+        this.operationCodeTable[0x46] = new OperationCode("LSR zp", this::addressingModeZeroPage, this::instructionLSR);
+        this.operationCodeTable[0x56] = new OperationCode("LSR zp,x", this::addressingModeZeroPageIndexedX, this::instructionLSR);
+        this.operationCodeTable[0x2E] = new OperationCode("ROL a", this::addressingModeAbsolute, this::instructionROL);
+        this.operationCodeTable[0x3E] = new OperationCode("ROL a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionROL);
+        this.operationCodeTable[0x2A] = new OperationCode("ROL A", this::addressingModeAccumulator, this::instructionROL);
+        this.operationCodeTable[0x26] = new OperationCode("ROL zp", this::addressingModeZeroPage, this::instructionROL);
+        this.operationCodeTable[0x36] = new OperationCode("ROL zp,x", this::addressingModeZeroPageIndexedX, this::instructionROL);
+        this.operationCodeTable[0x6E] = new OperationCode("ROR a", this::addressingModeAbsolute, this::instructionROR);
+        this.operationCodeTable[0x7E] = new OperationCode("ROR a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionROR);
+        this.operationCodeTable[0x6A] = new OperationCode("ROR A", this::addressingModeAccumulator, this::instructionROR);
+        this.operationCodeTable[0x66] = new OperationCode("ROR zp", this::addressingModeZeroPage, this::instructionROR);
+        this.operationCodeTable[0x76] = new OperationCode("ROR zp,x", this::addressingModeZeroPageIndexedX, this::instructionROR);
 
         // Logic
-        this.operationCodeMap.put(0x2D, new OperationCode("AND a", this::addressingModeAbsolute, this::instructionAND));
-        this.operationCodeMap.put(0x3D, new OperationCode("AND a,x", this::addressingModeAbsoluteIndexedX, this::instructionAND));
-        this.operationCodeMap.put(0x39, new OperationCode("AND a,y", this::addressingModeAbsoluteIndexedY, this::instructionAND));
-        this.operationCodeMap.put(0x29, new OperationCode("AND #", this::addressingModeImmediate, this::instructionAND));
-        this.operationCodeMap.put(0x25, new OperationCode("AND zp", this::addressingModeZeroPage, this::instructionAND));
-        this.operationCodeMap.put(0x21, new OperationCode("AND (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionAND));
-        this.operationCodeMap.put(0x35, new OperationCode("AND zp,x", this::addressingModeZeroPageIndexedX, this::instructionAND));
-        this.operationCodeMap.put(0x31, new OperationCode("AND (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionAND));
-
-        this.operationCodeMap.put(0x2C, new OperationCode("BIT a", this::addressingModeAbsolute, this::instructionBIT));
-        this.operationCodeMap.put(0x89, new OperationCode("BIT #", this::addressingModeImmediate, this::instructionBIT));
-        this.operationCodeMap.put(0x24, new OperationCode("BIT zp", this::addressingModeZeroPage, this::instructionBIT));
-
-        this.operationCodeMap.put(0x4D, new OperationCode("EOR a", this::addressingModeAbsolute, this::instructionEOR));
-        this.operationCodeMap.put(0x5D, new OperationCode("EOR a,x", this::addressingModeAbsoluteIndexedX, this::instructionEOR));
-        this.operationCodeMap.put(0x59, new OperationCode("EOR a,y", this::addressingModeAbsoluteIndexedY, this::instructionEOR));
-        this.operationCodeMap.put(0x49, new OperationCode("EOR #", this::addressingModeImmediate, this::instructionEOR));
-        this.operationCodeMap.put(0x45, new OperationCode("EOR zp", this::addressingModeZeroPage, this::instructionEOR));
-        this.operationCodeMap.put(0x41, new OperationCode("EOR (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionEOR));
-        this.operationCodeMap.put(0x55, new OperationCode("EOR zp,x", this::addressingModeZeroPageIndexedX, this::instructionEOR));
-        this.operationCodeMap.put(0x51, new OperationCode("EOR (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionEOR));
-
-        this.operationCodeMap.put(0x0D, new OperationCode("ORA a", this::addressingModeAbsolute, this::instructionORA));
-        this.operationCodeMap.put(0x1D, new OperationCode("ORA a,x", this::addressingModeAbsoluteIndexedX, this::instructionORA));
-        this.operationCodeMap.put(0x19, new OperationCode("ORA a,y", this::addressingModeAbsoluteIndexedY, this::instructionORA));
-        this.operationCodeMap.put(0x09, new OperationCode("ORA #", this::addressingModeImmediate, this::instructionORA));
-        this.operationCodeMap.put(0x05, new OperationCode("ORA zp", this::addressingModeZeroPage, this::instructionORA));
-        this.operationCodeMap.put(0x01, new OperationCode("ORA (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionORA));
-        this.operationCodeMap.put(0x15, new OperationCode("ORA zp,x", this::addressingModeZeroPageIndexedX, this::instructionORA));
-        this.operationCodeMap.put(0x11, new OperationCode("ORA (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionORA));
+        this.operationCodeTable[0x2D] = new OperationCode("AND a", this::addressingModeAbsolute, this::instructionAND);
+        this.operationCodeTable[0x3D] = new OperationCode("AND a,x", this::addressingModeAbsoluteIndexedX, this::instructionAND);
+        this.operationCodeTable[0x39] = new OperationCode("AND a,y", this::addressingModeAbsoluteIndexedY, this::instructionAND);
+        this.operationCodeTable[0x29] = new OperationCode("AND #", this::addressingModeImmediate, this::instructionAND);
+        this.operationCodeTable[0x25] = new OperationCode("AND zp", this::addressingModeZeroPage, this::instructionAND);
+        this.operationCodeTable[0x21] = new OperationCode("AND (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionAND);
+        this.operationCodeTable[0x35] = new OperationCode("AND zp,x", this::addressingModeZeroPageIndexedX, this::instructionAND);
+        this.operationCodeTable[0x31] = new OperationCode("AND (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionAND);
+
+        this.operationCodeTable[0x2C] = new OperationCode("BIT a", this::addressingModeAbsolute, this::instructionBIT);
+        this.operationCodeTable[0x24] = new OperationCode("BIT zp", this::addressingModeZeroPage, this::instructionBIT);
+
+        this.operationCodeTable[0x4D] = new OperationCode("EOR a", this::addressingModeAbsolute, this::instructionEOR);
+        this.operationCodeTable[0x5D] = new OperationCode("EOR a,x", this::addressingModeAbsoluteIndexedX, this::instructionEOR);
+        this.operationCodeTable[0x59] = new OperationCode("EOR a,y", this::addressingModeAbsoluteIndexedY, this::instructionEOR);
+        this.operationCodeTable[0x49] = new OperationCode("EOR #", this::addressingModeImmediate, this::instructionEOR);
+        this.operationCodeTable[0x45] = new OperationCode("EOR zp", this::addressingModeZeroPage, this::instructionEOR);
+        this.operationCodeTable[0x41] = new OperationCode("EOR (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionEOR);
+        this.operationCodeTable[0x55] = new OperationCode("EOR zp,x", this::addressingModeZeroPageIndexedX, this::instructionEOR);
+        this.operationCodeTable[0x51] = new OperationCode("EOR (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionEOR);
+
+        this.operationCodeTable[0x0D] = new OperationCode("ORA a", this::addressingModeAbsolute, this::instructionORA);
+        this.operationCodeTable[0x1D] = new OperationCode("ORA a,x", this::addressingModeAbsoluteIndexedX, this::instructionORA);
+        this.operationCodeTable[0x19] = new OperationCode("ORA a,y", this::addressingModeAbsoluteIndexedY, this::instructionORA);
+        this.operationCodeTable[0x09] = new OperationCode("ORA #", this::addressingModeImmediate, this::instructionORA);
+        this.operationCodeTable[0x05] = new OperationCode("ORA zp", this::addressingModeZeroPage, this::instructionORA);
+        this.operationCodeTable[0x01] = new OperationCode("ORA (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionORA);
+        this.operationCodeTable[0x15] = new OperationCode("ORA zp,x", this::addressingModeZeroPageIndexedX, this::instructionORA);
+        this.operationCodeTable[0x11] = new OperationCode("ORA (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionORA);
 
         // Arithmetic
-        this.operationCodeMap.put(0x6D, new OperationCode("ADC a", this::addressingModeAbsolute, this::instructionADC));
-        this.operationCodeMap.put(0x7D, new OperationCode("ADC a,x", this::addressingModeAbsoluteIndexedX, this::instructionADC));
-        this.operationCodeMap.put(0x79, new OperationCode("ADC a,y", this::addressingModeAbsoluteIndexedY, this::instructionADC));
-        this.operationCodeMap.put(0x69, new OperationCode("ADC #", this::addressingModeImmediate, this::instructionADC));
-        this.operationCodeMap.put(0x65, new OperationCode("ADC zp", this::addressingModeZeroPage, this::instructionADC));
-        this.operationCodeMap.put(0x61, new OperationCode("ADC (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionADC));
-        this.operationCodeMap.put(0x75, new OperationCode("ADC zp,x", this::addressingModeZeroPageIndexedX, this::instructionADC));
-        this.operationCodeMap.put(0x71, new OperationCode("ADC (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionADC));
-
-        this.operationCodeMap.put(0xCD, new OperationCode("CMP a", this::addressingModeAbsolute, this::instructionCMP));
-        this.operationCodeMap.put(0xDD, new OperationCode("CMP a,x", this::addressingModeAbsoluteIndexedX, this::instructionCMP));
-        this.operationCodeMap.put(0xD9, new OperationCode("CMP a,y", this::addressingModeAbsoluteIndexedY, this::instructionCMP));
-        this.operationCodeMap.put(0xC9, new OperationCode("CMP #", this::addressingModeImmediate, this::instructionCMP));
-        this.operationCodeMap.put(0xC5, new OperationCode("CMP zp", this::addressingModeZeroPage, this::instructionCMP));
-        this.operationCodeMap.put(0xC1, new OperationCode("CMP (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionCMP));
-        this.operationCodeMap.put(0xD5, new OperationCode("CMP zp,x", this::addressingModeZeroPageIndexedX, this::instructionCMP));
-        this.operationCodeMap.put(0xD1, new OperationCode("CMP (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionCMP));
-        this.operationCodeMap.put(0xEC, new OperationCode("CPX a", this::addressingModeAbsolute, this::instructionCPX));
-        this.operationCodeMap.put(0xE0, new OperationCode("CPX #", this::addressingModeImmediate, this::instructionCPX));
-        this.operationCodeMap.put(0xE4, new OperationCode("CPX zp", this::addressingModeZeroPage, this::instructionCPX));
-        this.operationCodeMap.put(0xCC, new OperationCode("CPY a", this::addressingModeAbsolute, this::instructionCPY));
-        this.operationCodeMap.put(0xC0, new OperationCode("CPY #", this::addressingModeImmediate, this::instructionCPY));
-        this.operationCodeMap.put(0xC4, new OperationCode("CPY zp", this::addressingModeZeroPage, this::instructionCPY));
-
-        this.operationCodeMap.put(0xED, new OperationCode("SBC a", this::addressingModeAbsolute, this::instructionSBC));
-        this.operationCodeMap.put(0xFD, new OperationCode("SBC a,x", this::addressingModeAbsoluteIndexedX, this::instructionSBC));
-        this.operationCodeMap.put(0xF9, new OperationCode("SBC a,y", this::addressingModeAbsoluteIndexedY, this::instructionSBC));
-        this.operationCodeMap.put(0xE9, new OperationCode("SBC #", this::addressingModeImmediate, this::instructionSBC));
-        this.operationCodeMap.put(0xE5, new OperationCode("SBC zp", this::addressingModeZeroPage, this::instructionSBC));
-        this.operationCodeMap.put(0xE1, new OperationCode("SBC (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionSBC));
-        this.operationCodeMap.put(0xF5, new OperationCode("SBC zp,x", this::addressingModeZeroPageIndexedX, this::instructionSBC));
-        this.operationCodeMap.put(0xF1, new OperationCode("SBC (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionSBC));
+        this.operationCodeTable[0x6D] = new OperationCode("ADC a", this::addressingModeAbsolute, this::instructionADC);
+        this.operationCodeTable[0x7D] = new OperationCode("ADC a,x", this::addressingModeAbsoluteIndexedX, this::instructionADC);
+        this.operationCodeTable[0x79] = new OperationCode("ADC a,y", this::addressingModeAbsoluteIndexedY, this::instructionADC);
+        this.operationCodeTable[0x69] = new OperationCode("ADC #", this::addressingModeImmediate, this::instructionADC);
+        this.operationCodeTable[0x65] = new OperationCode("ADC zp", this::addressingModeZeroPage, this::instructionADC);
+        this.operationCodeTable[0x61] = new OperationCode("ADC (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionADC);
+        this.operationCodeTable[0x75] = new OperationCode("ADC zp,x", this::addressingModeZeroPageIndexedX, this::instructionADC);
+        this.operationCodeTable[0x71] = new OperationCode("ADC (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionADC);
+
+        this.operationCodeTable[0xCD] = new OperationCode("CMP a", this::addressingModeAbsolute, this::instructionCMP);
+        this.operationCodeTable[0xDD] = new OperationCode("CMP a,x", this::addressingModeAbsoluteIndexedX, this::instructionCMP);
+        this.operationCodeTable[0xD9] = new OperationCode("CMP a,y", this::addressingModeAbsoluteIndexedY, this::instructionCMP);
+        this.operationCodeTable[0xC9] = new OperationCode("CMP #", this::addressingModeImmediate, this::instructionCMP);
+        this.operationCodeTable[0xC5] = new OperationCode("CMP zp", this::addressingModeZeroPage, this::instructionCMP);
+        this.operationCodeTable[0xC1] = new OperationCode("CMP (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionCMP);
+        this.operationCodeTable[0xD5] = new OperationCode("CMP zp,x", this::addressingModeZeroPageIndexedX, this::instructionCMP);
+        this.operationCodeTable[0xD1] = new OperationCode("CMP (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionCMP);
+        this.operationCodeTable[0xEC] = new OperationCode("CPX a", this::addressingModeAbsolute, this::instructionCPX);
+        this.operationCodeTable[0xE0] = new OperationCode("CPX #", this::addressingModeImmediate, this::instructionCPX);
+        this.operationCodeTable[0xE4] = new OperationCode("CPX zp", this::addressingModeZeroPage, this::instructionCPX);
+        this.operationCodeTable[0xCC] = new OperationCode("CPY a", this::addressingModeAbsolute, this::instructionCPY);
+        this.operationCodeTable[0xC0] = new OperationCode("CPY #", this::addressingModeImmediate, this::instructionCPY);
+        this.operationCodeTable[0xC4] = new OperationCode("CPY zp", this::addressingModeZeroPage, this::instructionCPY);
+
+        this.operationCodeTable[0xED] = new OperationCode("SBC a", this::addressingModeAbsolute, this::instructionSBC);
+        this.operationCodeTable[0xFD] = new OperationCode("SBC a,x", this::addressingModeAbsoluteIndexedX, this::instructionSBC);
+        this.operationCodeTable[0xF9] = new OperationCode("SBC a,y", this::addressingModeAbsoluteIndexedY, this::instructionSBC);
+        this.operationCodeTable[0xE9] = new OperationCode("SBC #", this::addressingModeImmediate, this::instructionSBC);
+        this.operationCodeTable[0xE5] = new OperationCode("SBC zp", this::addressingModeZeroPage, this::instructionSBC);
+        this.operationCodeTable[0xE1] = new OperationCode("SBC (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionSBC);
+        this.operationCodeTable[0xF5] = new OperationCode("SBC zp,x", this::addressingModeZeroPageIndexedX, this::instructionSBC);
+        this.operationCodeTable[0xF1] = new OperationCode("SBC (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionSBC);
 
         // Arithmetic: Dec/Inc
-        this.operationCodeMap.put(0xCE, new OperationCode("DEC a", this::addressingModeAbsolute, this::instructionDEC));
-        this.operationCodeMap.put(0xDE, new OperationCode("DEC a,x", this::addressingModeAbsoluteIndexedX, this::instructionDEC));
-        this.operationCodeMap.put(0xC6, new OperationCode("DEC zp", this::addressingModeZeroPage, this::instructionDEC));
-        this.operationCodeMap.put(0xD6, new OperationCode("DEC zp,x", this::addressingModeZeroPageIndexedX, this::instructionDEC));
-        this.operationCodeMap.put(0xCA, new OperationCode("DEX i", this::addressingModeImplied, this::instructionDEX));
-        this.operationCodeMap.put(0x88, new OperationCode("DEY i", this::addressingModeImplied, this::instructionDEY));
-
-        this.operationCodeMap.put(0xEE, new OperationCode("INC a", this::addressingModeAbsolute, this::instructionINC));
-        this.operationCodeMap.put(0xFE, new OperationCode("INC a,x", this::addressingModeAbsoluteIndexedX, this::instructionINC));
-        this.operationCodeMap.put(0xE6, new OperationCode("INC zp", this::addressingModeZeroPage, this::instructionINC));
-        this.operationCodeMap.put(0xF6, new OperationCode("INC zp,x", this::addressingModeZeroPageIndexedX, this::instructionINC));
-        this.operationCodeMap.put(0xE8, new OperationCode("INX i", this::addressingModeImplied, this::instructionINX));
-        this.operationCodeMap.put(0xC8, new OperationCode("INY i", this::addressingModeImplied, this::instructionINY));
+        this.operationCodeTable[0xCE] = new OperationCode("DEC a", this::addressingModeAbsolute, this::instructionDEC);
+        this.operationCodeTable[0xDE] = new OperationCode("DEC a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionDEC);
+        this.operationCodeTable[0xC6] = new OperationCode("DEC zp", this::addressingModeZeroPage, this::instructionDEC);
+        this.operationCodeTable[0xD6] = new OperationCode("DEC zp,x", this::addressingModeZeroPageIndexedX, this::instructionDEC);
+        this.operationCodeTable[0xCA] = new OperationCode("DEX i", this::addressingModeImplied, this::instructionDEX);
+        this.operationCodeTable[0x88] = new OperationCode("DEY i", this::addressingModeImplied, this::instructionDEY);
+
+        this.operationCodeTable[0xEE] = new OperationCode("INC a", this::addressingModeAbsolute, this::instructionINC);
+        this.operationCodeTable[0xFE] = new OperationCode("INC a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionINC);
+        this.operationCodeTable[0xE6] = new OperationCode("INC zp", this::addressingModeZeroPage, this::instructionINC);
+        this.operationCodeTable[0xF6] = new OperationCode("INC zp,x", this::addressingModeZeroPageIndexedX, this::instructionINC);
+        this.operationCodeTable[0xE8] = new OperationCode("INX i", this::addressingModeImplied, this::instructionINX);
+        this.operationCodeTable[0xC8] = new OperationCode("INY i", this::addressingModeImplied, this::instructionINY);
 
         // Control Flow
-        this.operationCodeMap.put(0x00, new OperationCode("BRK i", this::addressingModeImplied, this::instructionBRK));
-        this.operationCodeMap.put(0x4C, new OperationCode("JMP a", this::addressingModeAbsolute, this::instructionJMP));
-        this.operationCodeMap.put(0x6C, new OperationCode("JMP (a)", this::addressingModeAbsoluteIndirect, this::instructionJMP));
-        this.operationCodeMap.put(0x20, new OperationCode("JSR a", this::addressingModeAbsolute, this::instructionJSR));
-        this.operationCodeMap.put(0x40, new OperationCode("RTI i", this::addressingModeImplied, this::instructionRTI));
-        this.operationCodeMap.put(0x60, new OperationCode("RTS i", this::addressingModeImplied, this::instructionRTS));
+        this.operationCodeTable[0x00] = new OperationCode("BRK i", this::addressingModeImplied, this::instructionBRK);
+        this.operationCodeTable[0x4C] = new OperationCode("JMP a", this::addressingModeAbsolute, this::instructionJMP);
+        this.operationCodeTable[0x6C] = new OperationCode("JMP (a)", this::addressingModeAbsoluteIndirect, this::instructionJMP);
+        this.operationCodeTable[0x20] = new OperationCode("JSR a", this::addressingModeAbsolute, this::instructionJSR);
+        this.operationCodeTable[0x40] = new OperationCode("RTI i", this::addressingModeImplied, this::instructionRTI);
+        this.operationCodeTable[0x60] = new OperationCode("RTS i", this::addressingModeImplied, this::instructionRTS);
 
         // Control Flow: Branch
-        this.operationCodeMap.put(0x90, new OperationCode("BCC r", this::addressingModeRelative, this::instructionBCC));
-        this.operationCodeMap.put(0xB0, new OperationCode("BCS r", this::addressingModeRelative, this::instructionBCS));
-        this.operationCodeMap.put(0xF0, new OperationCode("BEQ r", this::addressingModeRelative, this::instructionBEQ));
-        this.operationCodeMap.put(0xD0, new OperationCode("BNE r", this::addressingModeRelative, this::instructionBNE));
-        this.operationCodeMap.put(0x10, new OperationCode("BPL r", this::addressingModeRelative, this::instructionBPL));
-        this.operationCodeMap.put(0x30, new OperationCode("BMI r", this::addressingModeRelative, this::instructionBMI));
-        this.operationCodeMap.put(0x50, new OperationCode("BVC r", this::addressingModeRelative, this::instructionBVC));
-        this.operationCodeMap.put(0x70, new OperationCode("BVS r", this::addressingModeRelative, this::instructionBVS));
+        this.operationCodeTable[0x90] = new OperationCode("BCC r", this::addressingModeRelative, this::instructionBCC);
+        this.operationCodeTable[0xB0] = new OperationCode("BCS r", this::addressingModeRelative, this::instructionBCS);
+        this.operationCodeTable[0xF0] = new OperationCode("BEQ r", this::addressingModeRelative, this::instructionBEQ);
+        this.operationCodeTable[0xD0] = new OperationCode("BNE r", this::addressingModeRelative, this::instructionBNE);
+        this.operationCodeTable[0x10] = new OperationCode("BPL r", this::addressingModeRelative, this::instructionBPL);
+        this.operationCodeTable[0x30] = new OperationCode("BMI r", this::addressingModeRelative, this::instructionBMI);
+        this.operationCodeTable[0x50] = new OperationCode("BVC r", this::addressingModeRelative, this::instructionBVC);
+        this.operationCodeTable[0x70] = new OperationCode("BVS r", this::addressingModeRelative, this::instructionBVS);
 
         // Flags
-        this.operationCodeMap.put(0x18, new OperationCode("CLC i", this::addressingModeImplied, this::instructionCLC));
-        this.operationCodeMap.put(0xD8, new OperationCode("CLD i", this::addressingModeImplied, this::instructionCLD));
-        this.operationCodeMap.put(0x58, new OperationCode("CLI i", this::addressingModeImplied, this::instructionCLI));
-        this.operationCodeMap.put(0xB8, new OperationCode("CLV i", this::addressingModeImplied, this::instructionCLV));
-        this.operationCodeMap.put(0x38, new OperationCode("SEC i", this::addressingModeImplied, this::instructionSEC));
-        this.operationCodeMap.put(0xF8, new OperationCode("SED i", this::addressingModeImplied, this::instructionSED));
-        this.operationCodeMap.put(0x78, new OperationCode("SEI i", this::addressingModeImplied, this::instructionSEI));
+        this.operationCodeTable[0x18] = new OperationCode("CLC i", this::addressingModeImplied, this::instructionCLC);
+        this.operationCodeTable[0xD8] = new OperationCode("CLD i", this::addressingModeImplied, this::instructionCLD);
+        this.operationCodeTable[0x58] = new OperationCode("CLI i", this::addressingModeImplied, this::instructionCLI);
+        this.operationCodeTable[0xB8] = new OperationCode("CLV i", this::addressingModeImplied, this::instructionCLV);
+        this.operationCodeTable[0x38] = new OperationCode("SEC i", this::addressingModeImplied, this::instructionSEC);
+        this.operationCodeTable[0xF8] = new OperationCode("SED i", this::addressingModeImplied, this::instructionSED);
+        this.operationCodeTable[0x78] = new OperationCode("SEI i", this::addressingModeImplied, this::instructionSEI);
 
         // NOP
-        this.operationCodeMap.put(0xEA, new OperationCode("NOP i", this::addressingModeImplied, this::instructionNOP));
+        this.operationCodeTable[0xEA] = new OperationCode("NOP i", this::addressingModeImplied, this::instructionNOP);
+
+        if (processorVariant != ProcessorVariant.CMOS_65C02) {
+            // NMOS: Stable unofficial operation codes
+            this.operationCodeTable[0xC7] = new OperationCode("DCP zp", this::addressingModeZeroPage, this::instructionDCP);
+            this.operationCodeTable[0xD7] = new OperationCode("DCP zp,x", this::addressingModeZeroPageIndexedX, this::instructionDCP);
+            this.operationCodeTable[0xCF] = new OperationCode("DCP a", this::addressingModeAbsolute, this::instructionDCP);
+            this.operationCodeTable[0xDF] = new OperationCode("DCP a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionDCP);
+            this.operationCodeTable[0xDB] = new OperationCode("DCP a,y", this::addressingModeAbsoluteIndexedYWrite, this::instructionDCP);
+            this.operationCodeTable[0xC3] = new OperationCode("DCP (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionDCP);
+            this.operationCodeTable[0xD3] = new OperationCode("DCP (zp),y", this::addressingModeZeroPageIndirectIndexedYWrite, this::instructionDCP);
+
+            this.operationCodeTable[0xE7] = new OperationCode("ISB zp", this::addressingModeZeroPage, this::instructionISB);
+            this.operationCodeTable[0xF7] = new OperationCode("ISB zp,x", this::addressingModeZeroPageIndexedX, this::instructionISB);
+            this.operationCodeTable[0xEF] = new OperationCode("ISB a", this::addressingModeAbsolute, this::instructionISB);
+            this.operationCodeTable[0xFF] = new OperationCode("ISB a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionISB);
+            this.operationCodeTable[0xFB] = new OperationCode("ISB a,y", this::addressingModeAbsoluteIndexedYWrite, this::instructionISB);
+            this.operationCodeTable[0xE3] = new OperationCode("ISB (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionISB);
+            this.operationCodeTable[0xF3] = new OperationCode("ISB (zp),y", this::addressingModeZeroPageIndirectIndexedYWrite, this::instructionISB);
+
+            this.operationCodeTable[0xA7] = new OperationCode("LAX zp", this::addressingModeZeroPage, this::instructionLAX);
+            this.operationCodeTable[0xB7] = new OperationCode("LAX zp,y", this::addressingModeZeroPageIndexedY, this::instructionLAX);
+            this.operationCodeTable[0xAF] = new OperationCode("LAX a", this::addressingModeAbsolute, this::instructionLAX);
+            this.operationCodeTable[0xBF] = new OperationCode("LAX a,y", this::addressingModeAbsoluteIndexedY, this::instructionLAX);
+            this.operationCodeTable[0xA3] = new OperationCode("LAX (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionLAX);
+            this.operationCodeTable[0xB3] = new OperationCode("LAX (zp),y", this::addressingModeZeroPageIndirectIndexedY, this::instructionLAX);
+
+            this.operationCodeTable[0x27] = new OperationCode("RLA zp", this::addressingModeZeroPage, this::instructionRLA);
+            this.operationCodeTable[0x37] = new OperationCode("RLA zp,x", this::addressingModeZeroPageIndexedX, this::instructionRLA);
+            this.operationCodeTable[0x2F] = new OperationCode("RLA a", this::addressingModeAbsolute, this::instructionRLA);
+            this.operationCodeTable[0x3F] = new OperationCode("RLA a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionRLA);
+            this.operationCodeTable[0x3B] = new OperationCode("RLA a,y", this::addressingModeAbsoluteIndexedYWrite, this::instructionRLA);
+            this.operationCodeTable[0x23] = new OperationCode("RLA (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionRLA);
+            this.operationCodeTable[0x33] = new OperationCode("RLA (zp),y", this::addressingModeZeroPageIndirectIndexedYWrite, this::instructionRLA);
+
+            this.operationCodeTable[0x67] = new OperationCode("RRA zp", this::addressingModeZeroPage, this::instructionRRA);
+            this.operationCodeTable[0x77] = new OperationCode("RRA zp,x", this::addressingModeZeroPageIndexedX, this::instructionRRA);
+            this.operationCodeTable[0x6F] = new OperationCode("RRA a", this::addressingModeAbsolute, this::instructionRRA);
+            this.operationCodeTable[0x7F] = new OperationCode("RRA a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionRRA);
+            this.operationCodeTable[0x7B] = new OperationCode("RRA a,y", this::addressingModeAbsoluteIndexedYWrite, this::instructionRRA);
+            this.operationCodeTable[0x63] = new OperationCode("RRA (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionRRA);
+            this.operationCodeTable[0x73] = new OperationCode("RRA (zp),y", this::addressingModeZeroPageIndirectIndexedYWrite, this::instructionRRA);
+
+            this.operationCodeTable[0x87] = new OperationCode("SAX zp", this::addressingModeZeroPage, this::instructionSAX);
+            this.operationCodeTable[0x97] = new OperationCode("SAX zp,y", this::addressingModeZeroPageIndexedY, this::instructionSAX);
+            this.operationCodeTable[0x8F] = new OperationCode("SAX a", this::addressingModeAbsolute, this::instructionSAX);
+            this.operationCodeTable[0x83] = new OperationCode("SAX (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionSAX);
+
+            this.operationCodeTable[0xEB] = new OperationCode("SBC #", this::addressingModeImmediate, this::instructionSBC);
+
+            this.operationCodeTable[0x07] = new OperationCode("SLO zp", this::addressingModeZeroPage, this::instructionSLO);
+            this.operationCodeTable[0x17] = new OperationCode("SLO zp,x", this::addressingModeZeroPageIndexedX, this::instructionSLO);
+            this.operationCodeTable[0x0F] = new OperationCode("SLO a", this::addressingModeAbsolute, this::instructionSLO);
+            this.operationCodeTable[0x1F] = new OperationCode("SLO a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionSLO);
+            this.operationCodeTable[0x1B] = new OperationCode("SLO a,y", this::addressingModeAbsoluteIndexedYWrite, this::instructionSLO);
+            this.operationCodeTable[0x03] = new OperationCode("SLO (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionSLO);
+            this.operationCodeTable[0x13] = new OperationCode("SLO (zp),y", this::addressingModeZeroPageIndirectIndexedYWrite, this::instructionSLO);
+
+            this.operationCodeTable[0x47] = new OperationCode("SRE zp", this::addressingModeZeroPage, this::instructionSRE);
+            this.operationCodeTable[0x57] = new OperationCode("SRE zp,x", this::addressingModeZeroPageIndexedX, this::instructionSRE);
+            this.operationCodeTable[0x4F] = new OperationCode("SRE a", this::addressingModeAbsolute, this::instructionSRE);
+            this.operationCodeTable[0x5F] = new OperationCode("SRE a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionSRE);
+            this.operationCodeTable[0x5B] = new OperationCode("SRE a,y", this::addressingModeAbsoluteIndexedYWrite, this::instructionSRE);
+            this.operationCodeTable[0x43] = new OperationCode("SRE (zp,x)", this::addressingModeZeroPageIndexedXIndirect, this::instructionSRE);
+            this.operationCodeTable[0x53] = new OperationCode("SRE (zp),y", this::addressingModeZeroPageIndirectIndexedYWrite, this::instructionSRE);
+
+            this.operationCodeTable[0x1A] = new OperationCode("NOP i", this::addressingModeImplied, this::instructionNOP);
+            this.operationCodeTable[0x3A] = new OperationCode("NOP i", this::addressingModeImplied, this::instructionNOP);
+            this.operationCodeTable[0x5A] = new OperationCode("NOP i", this::addressingModeImplied, this::instructionNOP);
+            this.operationCodeTable[0x7A] = new OperationCode("NOP i", this::addressingModeImplied, this::instructionNOP);
+            this.operationCodeTable[0xDA] = new OperationCode("NOP i", this::addressingModeImplied, this::instructionNOP);
+            this.operationCodeTable[0xFA] = new OperationCode("NOP i", this::addressingModeImplied, this::instructionNOP);
+            this.operationCodeTable[0x80] = new OperationCode("NOP #", this::addressingModeImmediate, this::instructionNOP);
+            this.operationCodeTable[0x82] = new OperationCode("NOP #", this::addressingModeImmediate, this::instructionNOP);
+            this.operationCodeTable[0x89] = new OperationCode("NOP #", this::addressingModeImmediate, this::instructionNOP);
+            this.operationCodeTable[0xC2] = new OperationCode("NOP #", this::addressingModeImmediate, this::instructionNOP);
+            this.operationCodeTable[0xE2] = new OperationCode("NOP #", this::addressingModeImmediate, this::instructionNOP);
+            this.operationCodeTable[0x04] = new OperationCode("NOP zp", this::addressingModeZeroPage, this::instructionNOP);
+            this.operationCodeTable[0x44] = new OperationCode("NOP zp", this::addressingModeZeroPage, this::instructionNOP);
+            this.operationCodeTable[0x64] = new OperationCode("NOP zp", this::addressingModeZeroPage, this::instructionNOP);
+            this.operationCodeTable[0x14] = new OperationCode("NOP zp,x", this::addressingModeZeroPageIndexedX, this::instructionNOP);
+            this.operationCodeTable[0x34] = new OperationCode("NOP zp,x", this::addressingModeZeroPageIndexedX, this::instructionNOP);
+            this.operationCodeTable[0x54] = new OperationCode("NOP zp,x", this::addressingModeZeroPageIndexedX, this::instructionNOP);
+            this.operationCodeTable[0x74] = new OperationCode("NOP zp,x", this::addressingModeZeroPageIndexedX, this::instructionNOP);
+            this.operationCodeTable[0xD4] = new OperationCode("NOP zp,x", this::addressingModeZeroPageIndexedX, this::instructionNOP);
+            this.operationCodeTable[0xF4] = new OperationCode("NOP zp,x", this::addressingModeZeroPageIndexedX, this::instructionNOP);
+            this.operationCodeTable[0x0C] = new OperationCode("NOP a", this::addressingModeAbsolute, this::instructionNOP);
+            this.operationCodeTable[0x1C] = new OperationCode("NOP a,x", this::addressingModeAbsoluteIndexedX, this::instructionNOP);
+            this.operationCodeTable[0x3C] = new OperationCode("NOP a,x", this::addressingModeAbsoluteIndexedX, this::instructionNOP);
+            this.operationCodeTable[0x5C] = new OperationCode("NOP a,x", this::addressingModeAbsoluteIndexedX, this::instructionNOP);
+            this.operationCodeTable[0x7C] = new OperationCode("NOP a,x", this::addressingModeAbsoluteIndexedX, this::instructionNOP);
+            this.operationCodeTable[0xDC] = new OperationCode("NOP a,x", this::addressingModeAbsoluteIndexedX, this::instructionNOP);
+            this.operationCodeTable[0xFC] = new OperationCode("NOP a,x", this::addressingModeAbsoluteIndexedX, this::instructionNOP);
+        }
+
+        if (processorVariant == ProcessorVariant.CMOS_65C02) {
+            // 65C02: Shift of indexed memory only spends the page crossing cycle when needed
+            this.operationCodeTable[0x1E] = new OperationCode("ASL a,x", this::addressingModeAbsoluteIndexedX, this::instructionASL);
+            this.operationCodeTable[0x5E] = new OperationCode("LSR a,x", this::addressingModeAbsoluteIndexedX, this::instructionLSR);
+            this.operationCodeTable[0x3E] = new OperationCode("ROL a,x", this::addressingModeAbsoluteIndexedX, this::instructionROL);
+            this.operationCodeTable[0x7E] = new OperationCode("ROR a,x", this::addressingModeAbsoluteIndexedX, this::instructionROR);
+
+            // 65C02: Zero Page Indirect
+            this.operationCodeTable[0x72] = new OperationCode("ADC (zp)", this::addressingModeZeroPageIndirect, this::instructionADC);
+            this.operationCodeTable[0x32] = new OperationCode("AND (zp)", this::addressingModeZeroPageIndirect, this::instructionAND);
+            this.operationCodeTable[0xD2] = new OperationCode("CMP (zp)", this::addressingModeZeroPageIndirect, this::instructionCMP);
+            this.operationCodeTable[0x52] = new OperationCode("EOR (zp)", this::addressingModeZeroPageIndirect, this::instructionEOR);
+            this.operationCodeTable[0xB2] = new OperationCode("LDA (zp)", this::addressingModeZeroPageIndirect, this::instructionLDA);
+            this.operationCodeTable[0x12] = new OperationCode("ORA (zp)", this::addressingModeZeroPageIndirect, this::instructionORA);
+            this.operationCodeTable[0xF2] = new OperationCode("SBC (zp)", this::addressingModeZeroPageIndirect, this::instructionSBC);
+            this.operationCodeTable[0x92] = new OperationCode("STA (zp)", this::addressingModeZeroPageIndirect, this::instructionSTA);
+
+            // 65C02: Bit
+            this.operationCodeTable[0x3C] = new OperationCode("BIT a,x", this::addressingModeAbsoluteIndexedX, this::instructionBIT);
+            this.operationCodeTable[0x89] = new OperationCode("BIT #", this::addressingModeImmediate, this::instructionBITImmediate);
+            this.operationCodeTable[0x34] = new OperationCode("BIT zp,x", this::addressingModeZeroPageIndexedX, this::instructionBIT);
+            this.operationCodeTable[0x1C] = new OperationCode("TRB a", this::addressingModeAbsolute, this::instructionTRB);
+            this.operationCodeTable[0x14] = new OperationCode("TRB zp", this::addressingModeZeroPage, this::instructionTRB);
+            this.operationCodeTable[0x0C] = new OperationCode("TSB a", this::addressingModeAbsolute, this::instructionTSB);
+            this.operationCodeTable[0x04] = new OperationCode("TSB zp", this::addressingModeZeroPage, this::instructionTSB);
+
+            for (int bit = 0; bit < 8; bit += 1) {
+                final int bitMask = 1 << bit;
+                this.operationCodeTable[0x0F | (bit << 4)] = new OperationCode("BBR" + bit + " zp,r", this::addressingModeZeroPage, () -> this.instructionBBR(bitMask));
+                this.operationCodeTable[0x8F | (bit << 4)] = new OperationCode("BBS" + bit + " zp,r", this::addressingModeZeroPage, () -> this.instructionBBS(bitMask));
+                this.operationCodeTable[0x07 | (bit << 4)] = new OperationCode("RMB" + bit + " zp", this::addressingModeZeroPage, () -> this.instructionRMB(bitMask));
+                this.operationCodeTable[0x87 | (bit << 4)] = new OperationCode("SMB" + bit + " zp", this::addressingModeZeroPage, () -> this.instructionSMB(bitMask));
+            }
+
+            // 65C02: Store Zero
+            this.operationCodeTable[0x9C] = new OperationCode("STZ a", this::addressingModeAbsolute, this::instructionSTZ);
+            this.operationCodeTable[0x9E] = new OperationCode("STZ a,x", this::addressingModeAbsoluteIndexedXWrite, this::instructionSTZ);
+            this.operationCodeTable[0x64] = new OperationCode("STZ zp", this::addressingModeZeroPage, this::instructionSTZ);
+            this.operationCodeTable[0x74] = new OperationCode("STZ zp,x", this::addressingModeZeroPageIndexedX, this::instructionSTZ);
+
+            // 65C02: Stack
+            this.operationCodeTable[0xDA] = new OperationCode("PHX i", this::addressingModeImplied, this::instructionPHX);
+            this.operationCodeTable[0xFA] = new OperationCode("PLX i", this::addressingModeImplied, this::instructionPLX);
+            this.operationCodeTable[0x5A] = new OperationCode("PHY i", this::addressingModeImplied, this::instructionPHY);
+            this.operationCodeTable[0x7A] = new OperationCode("PLY i", this::addressingModeImplied, this::instructionPLY);
+
+            // 65C02: Arithmetic and Control Flow
+            this.operationCodeTable[0x3A] = new OperationCode("DEC A", this::addressingModeAccumulator, this::instructionDEC);
+            this.operationCodeTable[0x1A] = new OperationCode("INC A", this::addressingModeAccumulator, this::instructionINC);
+            this.operationCodeTable[0x80] = new OperationCode("BRA r", this::addressingModeRelative, this::instructionBRA);
+            this.operationCodeTable[0x7C] = new OperationCode("JMP (a,x)", this::addressingModeAbsoluteIndexedXIndirect, this::instructionJMP);
+            this.operationCodeTable[0xDB] = new OperationCode("STP i", this::addressingModeImplied, this::instructionSTP);
+            this.operationCodeTable[0xCB] = new OperationCode("WAI i", this::addressingModeImplied, this::instructionWAI);
+
+            // 65C02: Remaining opcodes are NOPs, with operands skipped according to their addressing mode
+            for (int opcode = 0; opcode < this.operationCodeTable.length; opcode += 1) {
+                if (this.operationCodeTable[opcode] == null) {
+                    if ((opcode & 0x0F) == 0x02) {
+                        this.operationCodeTable[opcode] = new OperationCode("NOP #", this::addressingModeImmediate, this::instructionNOP);
+                    } else if (opcode == 0x44) {
+                        this.operationCodeTable[opcode] = new OperationCode("NOP zp", this::addressingModeZeroPage, this::instructionNOP);
+                    } else if ((opcode & 0x0F) == 0x04) {
+                        this.operationCodeTable[opcode] = new OperationCode("NOP zp,x", this::addressingModeZeroPageIndexedX, this::instructionNOP);
+                    } else if ((opcode & 0x0F) == 0x0C) {
+                        this.operationCodeTable[opcode] = new OperationCode("NOP a", this::addressingModeAbsolute, this::instructionNOP);
+                    } else {
+                        this.operationCodeTable[opcode] = new OperationCode("NOP i", this::addressingModeImplied, this::instructionNOP);
+                    }
+                }
+            }
+        }
+
+        // Unknown
+        for (int opcode = 0; opcode < this.operationCodeTable.length; opcode += 1) {
+            if (this.operationCodeTable[opcode] == null) {
+                this.operationCodeTable[opcode] = new OperationCode("???", this::addressingModeImplied, this::instructionUnknown);
+            }
+        }
+
+        this.remapBusUnits();
+    }
+
+    /**
+     * Creates the table telling whether each operation code ends a decoded block: the
+     * operation codes able to change the program counter, and the ones halting the
+     * processor.
+     *
+     * @param processorVariant Processor variant to emulate
+     * @return Newly created table
+     */
+    private static boolean[] createBlockEndTable(final ProcessorVariant processorVariant) {
+
+        final boolean[] blockEndTable = new boolean[256];
+        for (int opcode = 0; opcode < blockEndTable.length; opcode += 1) {
+            // Conditional branches
+            blockEndTable[opcode] = (opcode & 0x1F) == 0x10;
+        }
+
+        // BRK, JSR, RTI, JMP a, RTS, JMP (a)
+        blockEndTable[0x00] = true;
+        blockEndTable[0x20] = true;
+        blockEndTable[0x40] = true;
+        blockEndTable[0x4C] = true;
+        blockEndTable[0x60] = true;
+        blockEndTable[0x6C] = true;
+
+        if (processorVariant == ProcessorVariant.CMOS_65C02) {
+            // BRA, JMP (a,x), STP, WAI, BBR, BBS
+            blockEndTable[0x80] = true;
+            blockEndTable[0x7C] = true;
+            blockEndTable[0xDB] = true;
+            blockEndTable[0xCB] = true;
+            for (int opcode = 0x0F; opcode < blockEndTable.length; opcode += 0x10) {
+                blockEndTable[opcode] = true;
+            }
+        } else {
+            // Unknown operation codes
+            for (int opcode = 0; opcode < blockEndTable.length; opcode += 1) {
+                if ((opcode & 0x0F) == 0x02 && (opcode & 0x90) != 0x80) {
+                    blockEndTable[opcode] = true;
+                }
+            }
+        }
+
+        return blockEndTable;
     }
 
     /**
@@ -246,964 +780,4011 @@ public final class MOS6502Processor {
         if (this.cycleCount > 0) {
             // Latest operation is not yet completed
             this.cycleCount -= 1;
+            this.totalCycles += 1;
             return;
         }
 
-        // Reads operation code
-        final int opcode = this.readUInt8(this.registers.programCounter);
-        final OperationCode operationCode = this.operationCodeMap.get(opcode);
-        if (operationCode == null) {
-            throw new IllegalStateException("Unknown opcode 0x" + Integer.toHexString(opcode));
+        this.enterLazyFlags();
+        try {
+            this.executeInstruction();
+        } finally {
+            this.leaveLazyFlags();
         }
 
-        // Increments program counter
-        this.registers.programCounter += 1;
-
-        // Executes instruction
-        operationCode.addressingMode.run();
-        operationCode.instruction.run();
-        System.err.println(operationCode + " (cycle=" + this.cycleCount + ")");
-
         // Decrements the number of cycles remaining for this instruction
         this.cycleCount -= 1;
+        this.totalCycles += 1;
     }
 
     /**
-     * Sets the CPU into initial state.
+     * Executes a whole instruction. If the latest instruction started with
+     * {@link #clockTick()} (or the reset sequence) is not yet completed, its
+     * remaining cycles are consumed first and included in the returned value.
+     *
+     * @return Number of cycles consumed
      */
-    public void reset() {
-
-        final int lsb = this.readUInt8(PROGRAM_COUNTER_MEMORY_LOCATION);
-        final int msb = this.readUInt8(PROGRAM_COUNTER_MEMORY_LOCATION + 1);
-        final int programCounter = (msb << 8) | lsb;
+    public int step() {
 
-        this.reset(programCounter);
+        this.enterLazyFlags();
+        try {
+            return this.executeStep();
+        } finally {
+            this.leaveLazyFlags();
+        }
     }
 
     /**
-     * Sets the CPU into initial state.
+     * Executes a whole instruction, with flags already loaded. See {@link #step()}.
+     *
+     * @return Number of cycles consumed
      */
-    public void reset(final int programCounter) {
+    private int executeStep() {
 
-        this.registers.reset(programCounter);
-        this.registers.setFlag(MOS6502Registers.FLAG_UNUSED, true);
+        final int pendingCycles = this.cycleCount;
+        this.totalCycles += pendingCycles;
+        this.cycleCount = 0;
 
-        this.cycleCount = 7;
+        this.executeInstruction();
+
+        final int instructionCycles = this.cycleCount;
+        this.totalCycles += instructionCycles;
+        this.cycleCount = 0;
+
+        return pendingCycles + instructionCycles;
     }
 
     /**
-     * Reads a single value from specific memory address.
+     * Executes instructions until the given cycle budget is consumed. Instructions
+     * are never split, so the number of cycles really consumed can exceed the budget
+     * by the cost of the latest executed instruction, or of the latest decoded block
+     * with the {@link ExecutionEngine#BLOCK_CACHE} and
+     * {@link ExecutionEngine#DYNAMIC_RECOMPILER} execution engines. Callers
+     * running consecutive time slices should deduct this overshoot from the next budget.
      *
-     * @param address Memory address where to read single value
-     * @return Read single value
+     * @param cycles Cycle budget
+     * @return Number of cycles consumed
      */
-    private int readUInt8(final int address) {
-
-        for (final BusUnit busUnit : this.busUnitList) {
-            if (address >= busUnit.mappingAddressMin() && address <= busUnit.mappingAddressMax()) {
-                this.cycleCount += 1;
-                return busUnit.read(address & 0xFFFF) & 0xFF;
+    public long run(final long cycles) {
+
+        long consumedCycles = 0;
+        this.enterLazyFlags();
+        try {
+            while (consumedCycles < cycles) {
+                if (this.compiledBlocksEnabled && this.executeCompiledBlock()
+                    || this.decodedBlockCache != null && this.executeDecodedBlock()) {
+                    final int blockCycles = this.cycleCount;
+                    this.totalCycles += blockCycles;
+                    this.cycleCount = 0;
+                    consumedCycles += blockCycles;
+                } else {
+                    consumedCycles += this.executeStep();
+                }
             }
+        } finally {
+            this.leaveLazyFlags();
         }
 
-        throw new RuntimeException("No bus unit found to read at " + address);
+        return consumedCycles;
     }
 
     /**
-     * Writes a single value to specific memory address.
+     * Gets the processor registers. Registers are updated in place, the returned
+     * instance stays valid during the whole processor lifetime.
      *
-     * @param address Memory address where to write the single value
-     * @param value   Value to write
+     * @return The registers
      */
-    private void writeUInt8(final int address, final int value) {
-
-        for (final BusUnit busUnit : this.busUnitList) {
-            if (address >= busUnit.mappingAddressMin() && address <= busUnit.mappingAddressMax()) {
-                this.cycleCount += 1;
-                busUnit.write(address & 0xFFFF, value & 0xFF);
-                return;
-            }
-        }
+    public MOS6502Registers getRegisters() {
 
-        throw new RuntimeException("No bus unit found to write at " + address);
+        return this.registers;
     }
 
     /**
-     * Absolute: Full 16-bit address is specified.
+     * Gets the scheduler executing events between instructions, once the total number
+     * of cycles reaches their scheduled cycle.
+     *
+     * @return The event scheduler
      */
-    private void addressingModeAbsolute() {
+    public EventScheduler getEventScheduler() {
 
-        final int lsb = this.readUInt8(this.registers.programCounter);
-        this.registers.programCounter += 1;
+        return this.eventScheduler;
+    }
 
-        final int msb = this.readUInt8(this.registers.programCounter);
-        this.registers.programCounter += 1;
+    /**
+     * Gets the total number of cycles elapsed since the processor creation. This counter
+     * is never reset and includes the cycles spent by the reset sequence. With
+     * {@link #clockTick()}, it counts ticks, so it may include cycles of an instruction
+     * which is not yet completed.
+     *
+     * @return The total number of cycles
+     */
+    public long totalCycles() {
 
-        this.resolvedAddress = ((msb << 8) | lsb) & 0xFFFF;
+        return this.totalCycles;
     }
 
     /**
-     * Absolute Indirect: The little-endian two-byte value stored at the specified address.
+     * Gets the total number of instructions executed since the processor creation.
+     * This counter is never reset.
+     *
+     * @return The total number of instructions
      */
-    private void addressingModeAbsoluteIndirect() {
+    public long totalInstructions() {
 
-        addressingModeAbsolute();
+        return this.totalInstructions;
+    }
 
-        final int lsb = this.readUInt8(this.resolvedAddress);
-        final int msb = this.readUInt8(this.resolvedAddress + 1);
+    /**
+     * Attaches a trace sink notified before each instruction execution. When no
+     * sink is attached, tracing costs nothing more than a null check.
+     *
+     * @param traceSink Trace sink to attach, or {@code null} to detach the current one
+     */
+    public void setTraceSink(final TraceSink traceSink) {
 
-        this.resolvedAddress = ((msb << 8) | lsb) & 0xFFFF;
+        this.traceSink = traceSink;
     }
 
     /**
-     * Absolute Indexed with X: Value in X is added to the specified 16-bit address.
+     * Sets the state of the IRQ line. The line is level-triggered: while asserted, an
+     * interrupt is entered before each instruction, unless interrupts are disabled. The
+     * device asserting the line is responsible for releasing it, usually when its handler
+     * acknowledges the interrupt. Bus units may call this method while an instruction is
+     * executed, but not from another thread.
+     *
+     * @param asserted {@code true} to assert the line, {@code false} to release it
      */
-    private void addressingModeAbsoluteIndexedX() {
-
-        final int lsb = this.readUInt8(this.registers.programCounter);
-        this.registers.programCounter += 1;
+    public void setIrqLine(final boolean asserted) {
 
-        final int msb = this.readUInt8(this.registers.programCounter);
-        this.registers.programCounter += 1;
+        if (this.inputRecorder != null && asserted != ((this.interruptState & INTERRUPT_STATE_IRQ) != 0)) {
+            this.inputRecorder.recordIrqLine(asserted, this.interruptCycle());
+        }
 
-        this.resolvedAddress = (((msb << 8) | lsb) + this.registers.x) & 0xFFFF;
+        if (asserted) {
+            this.interruptState |= INTERRUPT_STATE_IRQ;
+        } else {
+            this.interruptState &= ~INTERRUPT_STATE_IRQ;
+        }
     }
 
     /**
-     * Absolute Indexed with Y: Value in Y is added to the specified 16-bit address.
+     * Triggers a non-maskable interrupt. The NMI line is edge-triggered: the interrupt is
+     * entered once, before the next instruction, whatever the interrupt disable flag. Bus
+     * units may call this method while an instruction is executed, but not from another
+     * thread.
      */
-    private void addressingModeAbsoluteIndexedY() {
-
-        final int lsb = this.readUInt8(this.registers.programCounter);
-        this.registers.programCounter += 1;
+    public void triggerNmi() {
 
-        final int msb = this.readUInt8(this.registers.programCounter);
-        this.registers.programCounter += 1;
+        if (this.inputRecorder != null) {
+            this.inputRecorder.recordNmi(this.interruptCycle());
+        }
 
-        this.resolvedAddress = (((msb << 8) | lsb) + this.registers.x) & 0xFFFF;
+        this.interruptState |= INTERRUPT_STATE_NMI;
     }
 
     /**
-     * Accumulator: Accumulator is implied as the operand, so no address needs to be specified.
+     * Gets the cycle from which a change of the interrupt lines is seen by the processor:
+     * the end of the current instruction when called while it is executed, otherwise, the
+     * current cycle. The change is seen before the first instruction starting on or after
+     * this cycle, which is also when an event scheduled at this cycle is executed.
+     *
+     * @return The cycle
      */
-    private void addressingModeAccumulator() {
+    private long interruptCycle() {
 
-        this.resolvedAddress = -1;
-        this.cycleCount += 1;
+        return this.totalCycles + this.cycleCount;
     }
 
     /**
-     * Immediate: Operand is used directly to perform the computation.
+     * Gets the size of a snapshot: the processor state, then the number of captured bus
+     * units, followed by the state of each attached bus unit implementing
+     * {@link Snapshottable}, prefixed by its size.
+     *
+     * @return The snapshot size in bytes
      */
-    private void addressingModeImmediate() {
+    @Override
+    public int snapshotSize() {
 
-        final int address = this.registers.programCounter;
-        this.registers.programCounter += 1;
+        int size = SNAPSHOT_PROCESSOR_SIZE + 4;
+        for (final BusUnit busUnit : this.busUnitList) {
+            if (busUnit instanceof Snapshottable) {
+                size += 4 + ((Snapshottable) busUnit).snapshotSize();
+            }
+        }
 
-        this.resolvedAddress = address & 0xFFFF;
+        return size;
     }
 
     /**
-     * Implied: Operand is implied, so it does not need to be specified.
+     * Saves the processor state and the state of the attached {@link Snapshottable} bus
+     * units. Must be called between instructions. Scheduled events, trace sink and
+     * decoded blocks are not part of the snapshot. Dirty pages are cleared.
+     *
+     * @param buffer Buffer to write into, with at least {@link #snapshotSize()} bytes remaining
      */
-    private void addressingModeImplied() {
+    @Override
+    public void saveSnapshot(final ByteBuffer buffer) {
 
-        this.resolvedAddress = -1;
-        this.cycleCount += 1;
+        this.saveSnapshotKeepingDirtyPages(buffer);
+        this.clearDirtyPages();
     }
 
     /**
-     * Relative: Offset specified is added to the current address stored in
-     * the Program Counter. Offsets can range from -128 to +127.
+     * Saves a snapshot as {@link #saveSnapshot(ByteBuffer)} does, but leaves the dirty
+     * pages and the page mapping untouched, so that periodic captures don't interfere
+     * with the delta snapshots taken by the caller.
+     *
+     * @param buffer Buffer to write into, with at least {@link #snapshotSize()} bytes remaining
      */
-    private void addressingModeRelative() {
+    void saveSnapshotKeepingDirtyPages(final ByteBuffer buffer) {
 
-        int offset = this.readUInt8(this.registers.programCounter);
-        this.registers.programCounter += 1;
+        this.saveProcessorState(buffer, SNAPSHOT_MAGIC);
 
-        if (((offset >> 7) & 1) == 1) {
-            offset |= 0xFF00;
+        int busUnitCount = 0;
+        for (final BusUnit busUnit : this.busUnitList) {
+            if (busUnit instanceof Snapshottable) {
+                busUnitCount += 1;
+            }
         }
+        buffer.putInt(busUnitCount);
 
-        this.resolvedAddress = (this.registers.programCounter + offset) & 0xFFFF;
+        for (final BusUnit busUnit : this.busUnitList) {
+            if (busUnit instanceof Snapshottable) {
+                final Snapshottable snapshottable = (Snapshottable) busUnit;
+                buffer.putInt(snapshottable.snapshotSize());
+                snapshottable.saveSnapshot(buffer);
+            }
+        }
     }
 
     /**
-     * Zero Page Indexed with X Indirect: Value in X is added to the specified zero-page address for a sum address.
+     * Restores the processor state and the state of the attached {@link Snapshottable}
+     * bus units. The snapshot must come from a processor of the same variant, with the
+     * same snapshottable bus units, attached in the same order. The snapshot is checked
+     * before anything is restored. Decoded blocks are dropped and dirty pages are cleared.
+     *
+     * @param buffer Buffer to read from
+     * @throws IllegalArgumentException if the snapshot does not match this processor
      */
-    private void addressingModeZeroPageIndexedXIndirect() {
+    @Override
+    public void loadSnapshot(final ByteBuffer buffer) {
 
-        addressingModeZeroPageIndexedX();
+        this.checkSnapshot(buffer);
+        this.loadProcessorState(buffer);
+        buffer.getInt();
 
-        final int lsb = this.readUInt8(this.resolvedAddress);
-        final int msb = this.readUInt8(this.resolvedAddress + 1);
+        for (final BusUnit busUnit : this.busUnitList) {
+            if (busUnit instanceof Snapshottable) {
+                buffer.getInt();
+                ((Snapshottable) busUnit).loadSnapshot(buffer);
+            }
+        }
 
-        this.resolvedAddress = ((msb << 8) | lsb) & 0xFFFF;
+        this.remapBusUnits();
+        this.clearDirtyPages();
     }
 
     /**
-     * Zero Page: Single byte specifies an address in the first page of memory.
+     * Gets the size of a delta snapshot: the processor state, the bitset of dirty pages,
+     * then the content of each dirty page.
+     *
+     * @return The delta snapshot size in bytes
      */
-    private void addressingModeZeroPage() {
+    public int deltaSnapshotSize() {
 
-        final int singleByteAddress = this.readUInt8(this.registers.programCounter);
-        this.registers.programCounter += 1;
+        int dirtyPageCount = 0;
+        for (int page = 0; page < this.busUnitPageTable.length; page += 1) {
+            if (this.isDeltaPage(page)) {
+                dirtyPageCount += 1;
+            }
+        }
 
-        this.resolvedAddress = singleByteAddress & 0x00FF;
+        return SNAPSHOT_PROCESSOR_SIZE + SNAPSHOT_DIRTY_PAGES_SIZE + dirtyPageCount * 256;
     }
 
     /**
-     * Zero Page Indexed with X: Value in X is added to the specified zero-page address.
+     * Saves the processor state and the memory pages written since the latest snapshot,
+     * saved or loaded. Only pages of writable {@link ArrayMemory} and {@link PagedMemory}
+     * bus units are tracked; other bus units, and memory modified without going through
+     * the processor (ie: {@link ArrayMemory#load(int, byte[])}), are not captured. A delta
+     * snapshot is applied on top of the snapshot it follows. Must be called between
+     * instructions. Dirty pages are cleared.
+     *
+     * @param buffer Buffer to write into, with at least {@link #deltaSnapshotSize()} bytes remaining
      */
-    private void addressingModeZeroPageIndexedX() {
+    public void saveDeltaSnapshot(final ByteBuffer buffer) {
+
+        this.saveProcessorState(buffer, SNAPSHOT_DELTA_MAGIC);
+
+        for (int word = 0; word < this.dirtyPageTable.length; word += 1) {
+            long bits = 0;
+            for (int bit = 0; bit < 64; bit += 1) {
+                if (this.isDeltaPage((word << 6) | bit)) {
+                    bits |= 1L << bit;
+                }
+            }
+            buffer.putLong(bits);
+        }
 
-        final int singleByteAddress = this.readUInt8(this.registers.programCounter);
-        this.registers.programCounter += 1;
+        for (int page = 0; page < this.busUnitPageTable.length; page += 1) {
+            if (this.isDeltaPage(page)) {
+                buffer.put(this.readPageMemoryTable[page], (page << 8) - this.pageMemoryOffsetTable[page], 256);
+            }
+        }
 
-        this.resolvedAddress = (singleByteAddress + this.registers.x) & 0x00FF;
+        this.clearDirtyPages();
     }
 
     /**
-     * Zero Page Indexed with Y: Value in Y is added to the specified zero-page address.
+     * Restores the processor state and the memory pages of a delta snapshot. The
+     * snapshot must come from a processor of the same variant, with the same memory
+     * mapping. The snapshot is checked before anything is restored. Decoded blocks are
+     * dropped and dirty pages are cleared.
+     *
+     * @param buffer Buffer to read from
+     * @throws IllegalArgumentException if the snapshot does not match this processor
      */
-    private void addressingModeZeroPageIndexedY() {
+    public void loadDeltaSnapshot(final ByteBuffer buffer) {
 
-        final int singleByteAddress = this.readUInt8(this.registers.programCounter);
-        this.registers.programCounter += 1;
+        final int start = buffer.position();
+        this.checkSnapshotHeader(buffer, SNAPSHOT_DELTA_MAGIC);
+        if (buffer.remaining() < SNAPSHOT_PROCESSOR_SIZE + SNAPSHOT_DIRTY_PAGES_SIZE) {
+            throw new IllegalArgumentException("Truncated delta snapshot");
+        }
 
-        this.resolvedAddress = (singleByteAddress + this.registers.y) & 0x00FF;
-    }
+        int dirtyPageCount = 0;
+        for (int word = 0; word < this.dirtyPageTable.length; word += 1) {
+            final long bits = buffer.getLong(start + SNAPSHOT_PROCESSOR_SIZE + word * 8);
+            for (int bit = 0; bit < 64; bit += 1) {
+                if ((bits & (1L << bit)) != 0) {
+                    if (!this.isWritableMemory(this.busUnitPageTable[(word << 6) | bit])) {
+                        throw new IllegalArgumentException("Delta snapshot taken with another memory mapping");
+                    }
+                    dirtyPageCount += 1;
+                }
+            }
+        }
+        if (buffer.remaining() < SNAPSHOT_PROCESSOR_SIZE + SNAPSHOT_DIRTY_PAGES_SIZE + dirtyPageCount * 256) {
+            throw new IllegalArgumentException("Truncated delta snapshot");
+        }
 
-    /**
-     * Zero Page Indirect Indexed with Y: Value in Y is added to the address at the
-     * little-endian address stored at the two-byte pair of the specified address
-     * (LSB) and the specified address plus one (MSB).
-     */
-    private void addressingModeZeroPageIndirectIndexedY() {
+        this.loadProcessorState(buffer);
 
-        addressingModeZeroPage();
+        final int dirtyPagesPosition = buffer.position();
+        for (int word = 0; word < this.dirtyPageTable.length; word += 1) {
+            buffer.getLong();
+        }
 
-        final int lsb = this.readUInt8(this.resolvedAddress);
-        final int msb = this.readUInt8(this.resolvedAddress + 1);
+        for (int page = 0; page < this.busUnitPageTable.length; page += 1) {
+            if ((buffer.getLong(dirtyPagesPosition + (page >> 6) * 8) & (1L << page)) != 0) {
+                final BusUnit busUnit = this.busUnitPageTable[page];
+                for (int address = page << 8; address <= (page << 8 | 0xFF); address += 1) {
+                    busUnit.write(address, buffer.get() & 0xFF);
+                }
+            }
+        }
 
-        this.resolvedAddress = (((msb << 8) | lsb) + this.registers.y) & 0xFFFF;
+        this.remapBusUnits();
+        this.clearDirtyPages();
     }
 
     /**
-     * Add Memory to Accumulator with Carry.
+     * Writes the processor state, preceded by the snapshot header.
+     *
+     * @param buffer Buffer to write into
+     * @param magic  Magic number of the snapshot kind
      */
-    private void instructionADC() {
-
-        final int memoryValue = this.readUInt8(this.resolvedAddress);
-        final int previousOpCarry = this.registers.getFlag(MOS6502Registers.FLAG_CARRY_BIT) ? 1 : 0;
-        final int result = this.registers.accumulator + memoryValue + previousOpCarry;
-
-        this.registers.setFlag(
-            MOS6502Registers.FLAG_OVERFLOW,
-            (~(this.registers.accumulator ^ memoryValue) & (this.registers.accumulator ^ result) & 0x80) == 1);
-
-        this.registers.accumulator = result & 0xFF;
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.accumulator >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, result == 0);
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, result > 0xFF);
+    private void saveProcessorState(final ByteBuffer buffer, final int magic) {
+
+        buffer.putInt(magic);
+        buffer.putShort((short) SNAPSHOT_VERSION);
+        buffer.put((byte) this.processorVariant.ordinal());
+
+        buffer.putShort((short) this.registers.programCounter);
+        buffer.put((byte) this.registers.accumulator);
+        buffer.put((byte) this.registers.x);
+        buffer.put((byte) this.registers.y);
+        buffer.put((byte) this.registers.stackPointer);
+        buffer.put((byte) this.currentStatus());
+
+        buffer.putInt(this.cycleCount);
+        buffer.putInt(this.resolvedAddress);
+        buffer.put((byte) this.interruptState);
+        buffer.putLong(this.totalCycles);
+        buffer.putLong(this.totalInstructions);
     }
 
     /**
-     * AND Memory with Accumulator.
+     * Restores the processor state, skipping the already checked snapshot header.
+     *
+     * @param buffer Buffer to read from
      */
-    private void instructionAND() {
-
-        final int memoryValue = this.readUInt8(this.resolvedAddress);
-        this.registers.accumulator = (this.registers.accumulator & memoryValue) & 0xFF;
-
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.accumulator >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.accumulator == 0);
+    private void loadProcessorState(final ByteBuffer buffer) {
+
+        // Header
+        buffer.getInt();
+        buffer.getShort();
+        buffer.get();
+
+        this.registers.programCounter = buffer.getShort() & 0xFFFF;
+        this.registers.accumulator = buffer.get() & 0xFF;
+        this.registers.x = buffer.get() & 0xFF;
+        this.registers.y = buffer.get() & 0xFF;
+        this.registers.stackPointer = buffer.get() & 0xFF;
+        this.registers.status = buffer.get() & 0xFF;
+        this.loadStatus();
+
+        this.cycleCount = buffer.getInt();
+        this.resolvedAddress = buffer.getInt();
+        this.interruptState = buffer.get();
+        this.totalCycles = buffer.getLong();
+        this.totalInstructions = buffer.getLong();
     }
 
     /**
-     * Arithmetic Shift Left One Bit.
+     * Checks that a snapshot, located at the buffer position, matches this processor.
+     * The buffer position is left unchanged.
+     *
+     * @param buffer Buffer holding the snapshot
+     * @throws IllegalArgumentException if the snapshot does not match this processor
      */
-    private void instructionASL() {
+    private void checkSnapshot(final ByteBuffer buffer) {
 
-        final int currentValue = this.resolvedAddress == -1
-            ? this.registers.accumulator
-            : this.readUInt8(this.resolvedAddress);
+        this.checkSnapshotHeader(buffer, SNAPSHOT_MAGIC);
 
-        final int shiftedValue = ((currentValue & 0xFFFF) << 1) & 0xFFFF;
-
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((shiftedValue >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, shiftedValue == 0);
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, ((currentValue >> 7) & 1) == 1);
+        final int start = buffer.position();
+        if (buffer.remaining() < SNAPSHOT_PROCESSOR_SIZE + 4) {
+            throw new IllegalArgumentException("Truncated snapshot");
+        }
 
-        if (this.resolvedAddress == -1) {
-            this.registers.programCounter = shiftedValue;
+        int position = start + SNAPSHOT_PROCESSOR_SIZE + 4;
+        int busUnitCount = buffer.getInt(position - 4);
+        for (final BusUnit busUnit : this.busUnitList) {
+            if (busUnit instanceof Snapshottable) {
+                busUnitCount -= 1;
+                final int size = ((Snapshottable) busUnit).snapshotSize();
+                if (busUnitCount < 0 || buffer.limit() - position < 4 + size || buffer.getInt(position) != size) {
+                    throw new IllegalArgumentException("Snapshot taken with other bus units");
+                }
+                position += 4 + size;
+            }
+        }
+
+        if (busUnitCount != 0) {
+            throw new IllegalArgumentException("Snapshot taken with other bus units");
+        }
+    }
+
+    /**
+     * Checks the header of a snapshot located at the buffer position. The buffer
+     * position is left unchanged.
+     *
+     * @param buffer Buffer holding the snapshot
+     * @param magic  Expected magic number
+     * @throws IllegalArgumentException if the header does not match this processor
+     */
+    private void checkSnapshotHeader(final ByteBuffer buffer, final int magic) {
+
+        final int start = buffer.position();
+        if (buffer.remaining() < 7 || buffer.getInt(start) != magic) {
+            throw new IllegalArgumentException(magic == SNAPSHOT_MAGIC ? "Not a processor snapshot" : "Not a delta snapshot");
+        }
+        if (buffer.getShort(start + 4) != SNAPSHOT_VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + buffer.getShort(start + 4));
+        }
+        if (buffer.get(start + 6) != this.processorVariant.ordinal()) {
+            throw new IllegalArgumentException("Snapshot taken on another processor variant");
+        }
+    }
+
+    /**
+     * Checks whether a page is saved by the next delta snapshot: a dirty page of a
+     * writable memory.
+     *
+     * @param page Page number
+     * @return {@code true} if the page is saved, otherwise, {@code false}
+     */
+    private boolean isDeltaPage(final int page) {
+
+        return (this.dirtyPageTable[page >> 6] & (1L << page)) != 0 && this.isWritableMemory(this.busUnitPageTable[page]);
+    }
+
+    /**
+     * Marks all pages as clean, so that their next write marks them dirty.
+     */
+    private void clearDirtyPages() {
+
+        Arrays.fill(this.dirtyPageTable, 0);
+        for (int page = 0; page < this.busUnitPageTable.length; page += 1) {
+            this.mapPage(page);
+        }
+    }
+
+    /**
+     * Rebuilds the page table used to route memory accesses and drops decoded blocks.
+     * Must be called each time a bus unit changes its mapping addresses (ie: bank
+     * switching) and, with the {@link ExecutionEngine#BLOCK_CACHE} execution engine,
+     * each time memory holding code is modified without going through the processor
+     * (ie: {@link ArrayMemory#load(int, byte[])}).
+     */
+    public void remapBusUnits() {
+
+        for (int page = 0; page < this.busUnitPageTable.length; page += 1) {
+            final int pageAddress = page << 8;
+            BusUnit busUnit = this.findBusUnit(pageAddress);
+
+            for (int address = pageAddress + 1; busUnit != null && address <= (pageAddress | 0xFF); address += 1) {
+                if (this.findBusUnit(address) != busUnit) {
+                    // Page is shared by several bus units or partially mapped
+                    busUnit = null;
+                }
+            }
+
+            this.busUnitPageTable[page] = busUnit;
+        }
+
+        Arrays.fill(this.codePageTable, false);
+        Arrays.fill(this.codeAddressTable, 0L);
+        if (this.decodedBlockCache != null) {
+            Arrays.fill(this.decodedBlockCache, null);
+        }
+        this.decodedBlock = null;
+
+        for (int page = 0; page < this.busUnitPageTable.length; page += 1) {
+            this.mapPage(page);
+        }
+    }
+
+    /**
+     * Creates a copy of this processor, to explore another execution branch. Registers,
+     * counters and interrupt state are copied. {@link PagedMemory} bus units are forked,
+     * so that memory pages are shared until written, and read-only {@link ArrayMemory}
+     * bus units are shared; any other bus unit can't be forked. Scheduled events, trace
+     * sink and decoded blocks are not copied. Must be called between instructions.
+     *
+     * @return Newly created processor
+     * @throws IllegalStateException if a bus unit can't be forked
+     */
+    public MOS6502Processor fork() {
+
+        final List<BusUnit> forkedBusUnitList = new ArrayList<>(this.busUnitList.size());
+        for (final BusUnit busUnit : this.busUnitList) {
+            if (!(busUnit instanceof PagedMemory) && !(busUnit instanceof ArrayMemory && ((ArrayMemory) busUnit).readOnly)) {
+                throw new IllegalStateException("Bus unit can't be forked: " + busUnit.getClass().getName());
+            }
+        }
+        for (final BusUnit busUnit : this.busUnitList) {
+            forkedBusUnitList.add(busUnit instanceof PagedMemory ? ((PagedMemory) busUnit).fork() : busUnit);
+        }
+
+        final MOS6502Processor processor = new MOS6502Processor(forkedBusUnitList, this.processorVariant, this.executionEngine);
+        processor.registers.accumulator = this.registers.accumulator;
+        processor.registers.x = this.registers.x;
+        processor.registers.y = this.registers.y;
+        processor.registers.stackPointer = this.registers.stackPointer;
+        processor.registers.programCounter = this.registers.programCounter;
+        processor.registers.status = this.currentStatus();
+        processor.cycleCount = this.cycleCount;
+        processor.resolvedAddress = this.resolvedAddress;
+        processor.interruptState = this.interruptState;
+        processor.totalCycles = this.totalCycles;
+        processor.totalInstructions = this.totalInstructions;
+
+        // Pages of this processor are now shared, so they are no longer directly writable
+        for (int page = 0; page < this.busUnitPageTable.length; page += 1) {
+            this.mapPage(page);
+        }
+
+        return processor;
+    }
+
+    /**
+     * Updates the direct access tables of a page from the bus unit owning it. Pages of
+     * {@link ArrayMemory} and {@link PagedMemory} bus units are directly readable, and
+     * directly writable unless read-only, shared with a fork, holding decoded code or
+     * clean since the latest snapshot.
+     *
+     * @param page Page number
+     */
+    private void mapPage(final int page) {
+
+        final BusUnit busUnit = this.busUnitPageTable[page];
+        byte[] readMemory = null;
+        byte[] writeMemory = null;
+        int offset = 0;
+
+        if (busUnit instanceof ArrayMemory) {
+            final ArrayMemory arrayMemory = (ArrayMemory) busUnit;
+            readMemory = arrayMemory.memory;
+            writeMemory = arrayMemory.readOnly ? null : arrayMemory.memory;
+            offset = arrayMemory.mappingAddressMin;
+        } else if (busUnit instanceof PagedMemory) {
+            final PagedMemory pagedMemory = (PagedMemory) busUnit;
+            final int index = page - (pagedMemory.mappingAddressMin >> 8);
+            readMemory = pagedMemory.pages[index];
+            writeMemory = pagedMemory.ownedPages[index] ? readMemory : null;
+            offset = page << 8;
+        }
+
+        final boolean dirty = (this.dirtyPageTable[page >> 6] & (1L << page)) != 0;
+        final byte[] directWriteMemory = dirty ? writeMemory : null;
+        this.readPageMemoryTable[page] = readMemory;
+        this.writePageMemoryTable[page] = this.codePageTable[page] ? null : directWriteMemory;
+        this.codeWritePageMemoryTable[page] = this.codePageTable[page] ? directWriteMemory : null;
+        this.pageMemoryOffsetTable[page] = offset;
+    }
+
+    /**
+     * Sets the CPU into initial state.
+     */
+    public void reset() {
+
+        final int lsb = this.readUInt8(PROGRAM_COUNTER_MEMORY_LOCATION);
+        final int msb = this.readUInt8(PROGRAM_COUNTER_MEMORY_LOCATION + 1);
+        final int programCounter = (msb << 8) | lsb;
+
+        this.reset(programCounter);
+    }
+
+    /**
+     * Sets the CPU into initial state.
+     */
+    public void reset(final int programCounter) {
+
+        // The reset sequence performs three fake stack pushes and disables interrupts
+        this.interruptState &= INTERRUPT_STATE_IRQ;
+        this.registers.reset(programCounter);
+        this.registers.stackPointer = 0xFD;
+        this.registers.setFlag(MOS6502Registers.FLAG_UNUSED, true);
+        this.registers.setFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, true);
+
+        this.cycleCount = 7;
+    }
+
+    /**
+     * Fetches, decodes and executes the instruction located at the program counter.
+     * Cycles consumed by the instruction, taken from {@link #operationCodeCycleTable}
+     * plus penalties, are added to {@link #cycleCount}.
+     */
+    private void executeInstruction() {
+
+        if (this.totalCycles >= this.eventScheduler.nextEventCycle) {
+            this.executeDueEvents();
+        }
+
+        if (this.interruptState != 0 && this.serviceInterrupts()) {
+            return;
+        }
+
+        if (this.decodedBlockCache != null && this.executeDecodedInstruction()) {
+            return;
+        }
+
+        // Reads operation code
+        final int opcode = this.readUInt8(this.registers.programCounter);
+        this.trace(opcode);
+
+        // Increments program counter
+        this.registers.programCounter = (this.registers.programCounter + 1) & 0xFFFF;
+        this.cycleCount += this.operationCodeCycleTable[opcode];
+        this.totalInstructions += 1;
+
+        // Executes instruction
+        if (this.executionEngine != ExecutionEngine.OPERATION_CODE_TABLE) {
+            final int operandLength = this.operandLengthTable[opcode];
+            final int operand = operandLength == 0 ? 0 : operandLength == 1 ? this.fetchUInt8() : this.fetchUInt16();
+            this.executeOperationCode(opcode, operand);
         } else {
-            writeUInt8(this.resolvedAddress, shiftedValue);
+            final OperationCode operationCode = this.operationCodeTable[opcode];
+            operationCode.addressingMode.run();
+            operationCode.instruction.run();
         }
     }
 
     /**
-     * Branch on Carry Clear (Flag {@link MOS6502Registers#FLAG_CARRY_BIT} = 0).
+     * Executes the scheduled events which are due. Flags are written back to the status
+     * beforehand, so that events see the registers as they are between instructions.
      */
-    private void instructionBCC() {
+    private void executeDueEvents() {
 
-        if (!this.registers.getFlag(MOS6502Registers.FLAG_CARRY_BIT)) {
-            if ((this.resolvedAddress & 0xFF00) != (this.registers.programCounter & 0xFF00)) {
-                // Page is crossed
-                this.cycleCount += 2;
-            } else {
-                this.cycleCount += 1;
+        this.leaveLazyFlags();
+        try {
+            this.eventScheduler.executeDueEvents(this.totalCycles);
+        } finally {
+            this.enterLazyFlags();
+        }
+    }
+
+    /**
+     * Services pending interrupts, before the instruction located at the program counter.
+     * A pending NMI is entered first, then the IRQ unless interrupts are disabled. While
+     * waiting for an interrupt, the processor idles one cycle at a time; an asserted IRQ
+     * line resumes it, even when interrupts are disabled.
+     *
+     * @return {@code true} if the cycles of this instruction boundary have been consumed,
+     * {@code false} if the instruction must be executed
+     */
+    private boolean serviceInterrupts() {
+
+        if ((this.interruptState & INTERRUPT_STATE_NMI) != 0) {
+            this.interruptState &= ~(INTERRUPT_STATE_NMI | INTERRUPT_STATE_WAITING);
+            this.enterInterrupt(NON_MASKABLE_INTERRUPT_MEMORY_LOCATION);
+            return true;
+        }
+
+        if ((this.interruptState & INTERRUPT_STATE_IRQ) != 0) {
+            this.interruptState &= ~INTERRUPT_STATE_WAITING;
+            if ((this.registers.status & MOS6502Registers.FLAG_DISABLE_INTERRUPTS) == 0) {
+                this.enterInterrupt(INTERRUPT_REQUEST_MEMORY_LOCATION);
+                return true;
             }
+        }
 
-            this.registers.programCounter = this.resolvedAddress;
+        if ((this.interruptState & INTERRUPT_STATE_WAITING) != 0) {
+            this.cycleCount += 1;
+            return true;
         }
+
+        return false;
     }
 
     /**
-     * Branch on Carry Set (Flag {@link MOS6502Registers#FLAG_CARRY_BIT} = 1).
+     * Enters an interrupt handler. The program counter and the processor status (without
+     * the break flag) are pushed on the stack.
+     *
+     * @param vectorAddress Memory location of the handler address
      */
-    private void instructionBCS() {
+    private void enterInterrupt(final int vectorAddress) {
 
-        if (this.registers.getFlag(MOS6502Registers.FLAG_CARRY_BIT)) {
-            if ((this.resolvedAddress & 0xFF00) != (this.registers.programCounter & 0xFF00)) {
-                // Page is crossed
-                this.cycleCount += 2;
-            } else {
-                this.cycleCount += 1;
+        this.cycleCount += INTERRUPT_CYCLES;
+        this.pushUInt8(this.registers.programCounter >> 8);
+        this.pushUInt8(this.registers.programCounter & 0xFF);
+        this.pushUInt8((this.currentStatus() & ~MOS6502Registers.FLAG_BREAK) | MOS6502Registers.FLAG_UNUSED);
+        this.jumpToInterruptHandler(vectorAddress);
+    }
+
+    /**
+     * Disables interrupts and moves the program counter to an interrupt handler. On
+     * 65C02, the decimal mode is also cleared.
+     *
+     * @param vectorAddress Memory location of the handler address
+     */
+    private void jumpToInterruptHandler(final int vectorAddress) {
+
+        this.registers.setFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, true);
+        if (this.processorVariant == ProcessorVariant.CMOS_65C02) {
+            this.registers.setFlag(MOS6502Registers.FLAG_DECIMAL_MODE, false);
+        }
+
+        final int lsb = this.readUInt8(vectorAddress);
+        final int msb = this.readUInt8(vectorAddress + 1);
+        this.registers.programCounter = (msb << 8) | lsb;
+    }
+
+    /**
+     * Executes the instruction located at the program counter from its decoded block.
+     * The current block is followed while the program counter stays on it, otherwise
+     * the block starting at the program counter is taken from the cache, or decoded.
+     *
+     * @return {@code true} if the instruction has been executed, {@code false} if the
+     * code at the program counter can't be decoded ahead
+     */
+    private boolean executeDecodedInstruction() {
+
+        final int programCounter = this.registers.programCounter;
+        DecodedBlock block = this.decodedBlock;
+        int index = this.decodedBlockIndex;
+
+        if (block == null || !block.valid || index >= block.length || block.addresses[index] != programCounter) {
+            block = this.decodedBlockCache[programCounter];
+            if (block == null) {
+                block = this.decodeBlock(programCounter);
+                if (block == null) {
+                    this.decodedBlock = null;
+                    return false;
+                }
             }
+            index = 0;
+        }
 
-            this.registers.programCounter = this.resolvedAddress;
+        final int opcode = block.opcodes[index];
+        this.trace(opcode);
+
+        this.decodedBlock = block;
+        this.decodedBlockIndex = index + 1;
+        this.registers.programCounter = block.addresses[index + 1];
+        this.cycleCount += block.cycles[index];
+        this.totalInstructions += 1;
+
+        // Executing the instruction may invalidate the block, checked on next call
+        this.executeOperationCode(opcode, block.operands[index]);
+
+        return true;
+    }
+
+    /**
+     * Executes the decoded block starting at the program counter, decoding it first if
+     * needed. The block is left early, before an instruction which must not run
+     * unchecked: once the block has been invalidated, an interrupt is pending, or an
+     * event is due. The remaining instructions are then stepped through by
+     * {@link #executeDecodedInstruction()}. Cycles consumed are added to {@link #cycleCount}.
+     *
+     * @return {@code true} if at least one instruction has been executed, otherwise, {@code false}
+     */
+    private boolean executeDecodedBlock() {
+
+        if (this.cycleCount != 0
+            || this.traceSink != null
+            || this.interruptState != 0
+            || this.totalCycles >= this.eventScheduler.nextEventCycle) {
+            return false;
+        }
+
+        final int programCounter = this.registers.programCounter;
+        DecodedBlock block = this.decodedBlockCache[programCounter];
+        if (block == null) {
+            block = this.decodeBlock(programCounter);
+            if (block == null) {
+                return false;
+            }
         }
+
+        int index = 0;
+        do {
+            final int opcode = block.opcodes[index];
+            final int operand = block.operands[index];
+            this.cycleCount += block.cycles[index];
+            index += 1;
+            this.registers.programCounter = block.addresses[index];
+            this.executeOperationCode(opcode, operand);
+        } while (index < block.length
+            && block.valid
+            && this.interruptState == 0
+            && this.totalCycles + this.cycleCount < this.eventScheduler.nextEventCycle);
+
+        this.decodedBlock = block;
+        this.decodedBlockIndex = index;
+        this.totalInstructions += index;
+
+        return true;
     }
 
     /**
-     * Test Bits in Memory with Accumulator.
+     * Executes the compiled block starting at the program counter, compiling it first
+     * if it just became hot. The block is left early once invalidated, or once a bus unit
+     * raised an interrupt or scheduled an event the block may not complete before. Cycles
+     * consumed by the block are added to {@link #cycleCount}.
+     *
+     * @return {@code true} if a compiled block has been executed, otherwise, {@code false}
      */
-    private void instructionBIT() {
+    private boolean executeCompiledBlock() {
 
-        final int memoryValue = this.readUInt8(this.resolvedAddress);
-        final int tmp = memoryValue & this.registers.accumulator;
+        if (this.cycleCount != 0 || this.traceSink != null || this.interruptState != 0) {
+            return false;
+        }
+
+        final DecodedBlock block = this.decodedBlockCache[this.registers.programCounter];
+        if (block == null) {
+            return false;
+        }
+
+        if (this.totalCycles + block.worstCaseCycles > this.eventScheduler.nextEventCycle) {
+            // Instructions are executed one by one up to the next event
+            return false;
+        }
+
+        if (block.compiledBlock == null) {
+            block.entryCount += 1;
+            if (block.entryCount < BlockCompiler.COMPILE_THRESHOLD) {
+                return false;
+            }
+            block.compiledBlock = BlockCompiler.compile(this, this.processorVariant, block);
+        }
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((memoryValue >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_OVERFLOW, ((memoryValue >> 6) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, tmp == 0);
+        this.busUnitCalled = false;
+        block.compiledBlock.execute();
+        return true;
     }
 
     /**
-     * Branch on Result Zero (Flag {@link MOS6502Registers#FLAG_ZERO} = 1).
+     * Checks whether a compiled block must be left before its next instruction: a bus
+     * unit called by the latest instruction raised an interrupt, or scheduled an event the
+     * block may not complete before. The remaining instructions are then executed by the
+     * interpreter, which stops on the event as {@link #executeDecodedBlock()} does.
+     *
+     * @param block Decoded block of the compiled block, started on {@link #totalCycles}
+     * @return {@code true} if the block must be left, otherwise, {@code false}
      */
-    private void instructionBEQ() {
+    boolean mustLeaveCompiledBlock(final DecodedBlock block) {
 
-        if (this.registers.getFlag(MOS6502Registers.FLAG_ZERO)) {
-            if ((this.resolvedAddress & 0xFF00) != (this.registers.programCounter & 0xFF00)) {
-                // Page is crossed
-                this.cycleCount += 2;
-            } else {
-                this.cycleCount += 1;
+        if (!this.busUnitCalled) {
+            return false;
+        }
+
+        this.busUnitCalled = false;
+        return this.interruptState != 0
+            || this.totalCycles + block.worstCaseCycles > this.eventScheduler.nextEventCycle;
+    }
+
+    /**
+     * Accounts for instructions executed by a compiled block.
+     *
+     * @param instructions Number of instructions executed
+     * @param cycles       Number of cycles of these instructions, penalties of interpreted ones excepted
+     */
+    void retireInstructions(final int instructions, final int cycles) {
+
+        this.cycleCount += cycles;
+        this.totalInstructions += instructions;
+    }
+
+    /**
+     * Shifts the number of cycles consumed by the current instruction. Compiled blocks
+     * account for cycles once they complete: they temporarily add the cycles consumed so
+     * far within the block while a bus unit may be called, so that {@link #accessCycle()}
+     * and the cycle interrupts are recorded on stay exact.
+     *
+     * @param cycles Number of cycles to add, or to remove if negative
+     */
+    void shiftCycleCount(final int cycles) {
+
+        this.cycleCount += cycles;
+    }
+
+    /**
+     * Decodes the straight-line run of instructions starting at a specific address, and
+     * puts it into the cache. Decoding stops after an instruction ending a block, after
+     * {@link DecodedBlock#MAX_LENGTH} instructions, or before an instruction not entirely
+     * backed by an {@link ArrayMemory}.
+     *
+     * @param startAddress Address of the first instruction
+     * @return The decoded block, otherwise, {@code null} if no instruction can be decoded
+     */
+    private DecodedBlock decodeBlock(final int startAddress) {
+
+        final DecodedBlock block = new DecodedBlock();
+        int address = startAddress;
+
+        while (block.length < DecodedBlock.MAX_LENGTH) {
+            final int opcode = this.peekUInt8(address);
+            if (opcode < 0) {
+                break;
+            }
+
+            final int operandLength = this.operandLengthTable[opcode];
+            int operand = 0;
+            if (operandLength > 0) {
+                final int lsb = this.peekUInt8(address + 1);
+                final int msb = operandLength > 1 ? this.peekUInt8(address + 2) : 0;
+                if (lsb < 0 || msb < 0) {
+                    break;
+                }
+                operand = (msb << 8) | lsb;
+            }
+
+            block.opcodes[block.length] = opcode;
+            block.operands[block.length] = operand;
+            block.cycles[block.length] = this.operationCodeCycleTable[opcode];
+            block.worstCaseCycles += this.operationCodeCycleTable[opcode] + DecodedBlock.MAX_PENALTY_CYCLES;
+            block.addresses[block.length] = address;
+            block.length += 1;
+            address = (address + 1 + operandLength) & 0xFFFF;
+
+            if (this.blockEndTable[opcode]) {
+                break;
             }
+        }
+
+        if (block.length == 0) {
+            return null;
+        }
+        block.addresses[block.length] = address;
 
-            this.registers.programCounter = this.resolvedAddress;
+        // A block is at most spanning two pages
+        this.markCodePage(startAddress >> 8);
+        this.markCodePage(((address - 1) & 0xFFFF) >> 8);
+        for (int codeAddress = startAddress; codeAddress != address; codeAddress = (codeAddress + 1) & 0xFFFF) {
+            this.codeAddressTable[codeAddress >> 6] |= 1L << codeAddress;
         }
+        this.decodedBlockCache[startAddress] = block;
+
+        return block;
     }
 
     /**
-     * Branch on Result not Zero (Flag {@link MOS6502Registers#FLAG_ZERO} = 0).
+     * Marks a page as holding decoded code. If the page is writable, writes are diverted
+     * to the slow path to invalidate the decoded blocks.
+     *
+     * @param page Page number
      */
-    private void instructionBNE() {
+    private void markCodePage(final int page) {
 
-        if (!this.registers.getFlag(MOS6502Registers.FLAG_ZERO)) {
-            if ((this.resolvedAddress & 0xFF00) != (this.registers.programCounter & 0xFF00)) {
-                // Page is crossed
-                this.cycleCount += 2;
-            } else {
-                this.cycleCount += 1;
+        if (!this.codePageTable[page] && this.isWritableMemory(this.busUnitPageTable[page])) {
+            this.codePageTable[page] = true;
+            this.mapPage(page);
+        }
+    }
+
+    /**
+     * Invalidates the decoded blocks covering a written address. The page keeps on
+     * taking the slow path, as other blocks may still be decoded on it.
+     *
+     * @param address Written memory address
+     */
+    private void invalidateCode(final int address) {
+
+        if ((this.codeAddressTable[address >> 6] & (1L << address)) == 0) {
+            return;
+        }
+
+        // Blocks covering the address start at most one block size before it
+        for (int offset = 0; offset < DecodedBlock.MAX_SIZE; offset += 1) {
+            final int startAddress = (address - offset) & 0xFFFF;
+            final DecodedBlock block = this.decodedBlockCache[startAddress];
+            if (block != null && offset < ((block.addresses[block.length] - startAddress) & 0xFFFF)) {
+                block.valid = false;
+                this.decodedBlockCache[startAddress] = null;
             }
+        }
+        this.codeAddressTable[address >> 6] &= ~(1L << address);
+    }
 
-            this.registers.programCounter = this.resolvedAddress;
+    /**
+     * Splits the processor status into the lazily evaluated flags.
+     */
+    private void loadStatus() {
+
+        final int status = this.registers.status;
+        this.negativeResult = status;
+        this.zeroResult = (status & MOS6502Registers.FLAG_ZERO) ^ MOS6502Registers.FLAG_ZERO;
+        this.carryResult = status << 8;
+        this.overflowResult = status << 1;
+    }
+
+    /**
+     * Writes the lazily evaluated flags back to the processor status.
+     */
+    private void storeStatus() {
+
+        this.registers.status = this.currentStatus();
+    }
+
+    /**
+     * Splits the processor status into the lazily evaluated flags, which are then the
+     * ones in use until {@link #leaveLazyFlags()}.
+     */
+    private void enterLazyFlags() {
+
+        this.loadStatus();
+        this.lazyFlagsInUse = true;
+    }
+
+    /**
+     * Writes the lazily evaluated flags back to the processor status, which is then the
+     * one in use until {@link #enterLazyFlags()}.
+     */
+    private void leaveLazyFlags() {
+
+        this.lazyFlagsInUse = false;
+        this.storeStatus();
+    }
+
+    /**
+     * Writes the lazily evaluated flags back to the processor status if they are in use,
+     * before calling a bus unit which may look at the registers in the middle of an
+     * instruction.
+     */
+    private void syncStatus() {
+
+        if (this.lazyFlagsInUse) {
+            this.storeStatus();
         }
     }
 
     /**
-     * Branch on Result Minus (Flag {@link MOS6502Registers#FLAG_NEGATIVE} = 1).
+     * Computes the processor status, including the lazily evaluated flags.
+     *
+     * @return The processor status
+     */
+    private int currentStatus() {
+
+        return (this.registers.status & ~(MOS6502Registers.FLAG_NEGATIVE | MOS6502Registers.FLAG_ZERO
+            | MOS6502Registers.FLAG_CARRY_BIT | MOS6502Registers.FLAG_OVERFLOW))
+            | (this.negativeResult & MOS6502Registers.FLAG_NEGATIVE)
+            | (MOS6502Registers.negativeAndZeroFlags(this.zeroResult) & MOS6502Registers.FLAG_ZERO)
+            | ((this.carryResult >> 8) & MOS6502Registers.FLAG_CARRY_BIT)
+            | ((this.overflowResult >> 1) & MOS6502Registers.FLAG_OVERFLOW);
+    }
+
+    /**
+     * Evaluates the negative flag.
+     *
+     * @return {@code true} if the negative flag is set, otherwise, {@code false}
+     */
+    private boolean negativeFlag() {
+
+        return (this.negativeResult & 0x80) != 0;
+    }
+
+    /**
+     * Evaluates the zero flag.
+     *
+     * @return {@code true} if the zero flag is set, otherwise, {@code false}
+     */
+    private boolean zeroFlag() {
+
+        return this.zeroResult == 0;
+    }
+
+    /**
+     * Evaluates the carry flag.
+     *
+     * @return {@code true} if the carry flag is set, otherwise, {@code false}
+     */
+    private boolean carryFlag() {
+
+        return (this.carryResult & 0x100) != 0;
+    }
+
+    /**
+     * Evaluates the carry flag as a number.
+     *
+     * @return 1 if the carry flag is set, otherwise, 0
+     */
+    private int carryBit() {
+
+        return (this.carryResult >> 8) & 0x01;
+    }
+
+    /**
+     * Evaluates the overflow flag.
+     *
+     * @return {@code true} if the overflow flag is set, otherwise, {@code false}
+     */
+    private boolean overflowFlag() {
+
+        return (this.overflowResult & 0x80) != 0;
+    }
+
+    /**
+     * Notifies the trace sink, if any, that an instruction is about to be executed.
+     *
+     * @param opcode Operation code of the instruction
+     */
+    private void trace(final int opcode) {
+
+        if (this.traceSink != null) {
+            this.traceSink.trace(
+                this.registers.programCounter,
+                opcode,
+                this.registers.accumulator,
+                this.registers.x,
+                this.registers.y,
+                this.registers.stackPointer,
+                this.currentStatus(),
+                this.totalCycles);
+        }
+    }
+
+    /**
+     * Executes an operation code, the program counter being already moved past it and
+     * its operand. Each case fuses the addressing mode with the instruction, and must
+     * behave exactly like the matching entry of {@link #operationCodeTable}.
+     *
+     * @param opcode  Operation code to execute
+     * @param operand Operand bytes, as a little-endian value
+     */
+    void executeOperationCode(final int opcode, final int operand) {
+
+        switch (opcode) {
+            case 0x00: { // BRK i
+                this.operationBRK();
+                break;
+            }
+            case 0x01: { // ORA (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                this.operationORA(this.readUInt8(address));
+                break;
+            }
+            case 0x05: { // ORA zp
+                final int address = operand;
+                this.operationORA(this.readUInt8(address));
+                break;
+            }
+            case 0x06: { // ASL zp
+                final int address = operand;
+                this.writeUInt8(address, this.operationASL(this.readUInt8(address)));
+                break;
+            }
+            case 0x08: { // PHP i
+                this.pushUInt8(this.currentStatus() | MOS6502Registers.FLAG_BREAK | MOS6502Registers.FLAG_UNUSED);
+                break;
+            }
+            case 0x09: { // ORA #
+                this.operationORA(operand);
+                break;
+            }
+            case 0x0A: { // ASL A
+                this.registers.accumulator = this.operationASL(this.registers.accumulator);
+                break;
+            }
+            case 0x0D: { // ORA a
+                final int address = operand;
+                this.operationORA(this.readUInt8(address));
+                break;
+            }
+            case 0x0E: { // ASL a
+                final int address = operand;
+                this.writeUInt8(address, this.operationASL(this.readUInt8(address)));
+                break;
+            }
+            case 0x10: { // BPL r
+                this.operationBranch(!this.negativeFlag(), (this.registers.programCounter + (byte) operand) & 0xFFFF);
+                break;
+            }
+            case 0x11: { // ORA (zp),y
+                final int address = this.indexWithPageCrossPenalty(this.readZeroPageUInt16(operand), this.registers.y);
+                this.operationORA(this.readUInt8(address));
+                break;
+            }
+            case 0x15: { // ORA zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.operationORA(this.readUInt8(address));
+                break;
+            }
+            case 0x16: { // ASL zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.writeUInt8(address, this.operationASL(this.readUInt8(address)));
+                break;
+            }
+            case 0x18: { // CLC i
+                this.carryResult = 0;
+                break;
+            }
+            case 0x19: { // ORA a,y
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.y);
+                this.operationORA(this.readUInt8(address));
+                break;
+            }
+            case 0x1D: { // ORA a,x
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.x);
+                this.operationORA(this.readUInt8(address));
+                break;
+            }
+            case 0x1E: { // ASL a,x
+                final int address = this.indexShiftRotateAddress(operand, this.registers.x);
+                this.writeUInt8(address, this.operationASL(this.readUInt8(address)));
+                break;
+            }
+            case 0x20: { // JSR a
+                this.operationJSR(operand);
+                break;
+            }
+            case 0x21: { // AND (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                this.operationAND(this.readUInt8(address));
+                break;
+            }
+            case 0x24: { // BIT zp
+                final int address = operand;
+                this.operationBIT(this.readUInt8(address));
+                break;
+            }
+            case 0x25: { // AND zp
+                final int address = operand;
+                this.operationAND(this.readUInt8(address));
+                break;
+            }
+            case 0x26: { // ROL zp
+                final int address = operand;
+                this.writeUInt8(address, this.operationROL(this.readUInt8(address)));
+                break;
+            }
+            case 0x28: { // PLP i
+                this.operationPullStatus();
+                break;
+            }
+            case 0x29: { // AND #
+                this.operationAND(operand);
+                break;
+            }
+            case 0x2A: { // ROL A
+                this.registers.accumulator = this.operationROL(this.registers.accumulator);
+                break;
+            }
+            case 0x2C: { // BIT a
+                final int address = operand;
+                this.operationBIT(this.readUInt8(address));
+                break;
+            }
+            case 0x2D: { // AND a
+                final int address = operand;
+                this.operationAND(this.readUInt8(address));
+                break;
+            }
+            case 0x2E: { // ROL a
+                final int address = operand;
+                this.writeUInt8(address, this.operationROL(this.readUInt8(address)));
+                break;
+            }
+            case 0x30: { // BMI r
+                this.operationBranch(this.negativeFlag(), (this.registers.programCounter + (byte) operand) & 0xFFFF);
+                break;
+            }
+            case 0x31: { // AND (zp),y
+                final int address = this.indexWithPageCrossPenalty(this.readZeroPageUInt16(operand), this.registers.y);
+                this.operationAND(this.readUInt8(address));
+                break;
+            }
+            case 0x35: { // AND zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.operationAND(this.readUInt8(address));
+                break;
+            }
+            case 0x36: { // ROL zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.writeUInt8(address, this.operationROL(this.readUInt8(address)));
+                break;
+            }
+            case 0x38: { // SEC i
+                this.carryResult = 0x100;
+                break;
+            }
+            case 0x39: { // AND a,y
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.y);
+                this.operationAND(this.readUInt8(address));
+                break;
+            }
+            case 0x3D: { // AND a,x
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.x);
+                this.operationAND(this.readUInt8(address));
+                break;
+            }
+            case 0x3E: { // ROL a,x
+                final int address = this.indexShiftRotateAddress(operand, this.registers.x);
+                this.writeUInt8(address, this.operationROL(this.readUInt8(address)));
+                break;
+            }
+            case 0x40: { // RTI i
+                this.operationRTI();
+                break;
+            }
+            case 0x41: { // EOR (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                this.operationEOR(this.readUInt8(address));
+                break;
+            }
+            case 0x45: { // EOR zp
+                final int address = operand;
+                this.operationEOR(this.readUInt8(address));
+                break;
+            }
+            case 0x46: { // LSR zp
+                final int address = operand;
+                this.writeUInt8(address, this.operationLSR(this.readUInt8(address)));
+                break;
+            }
+            case 0x48: { // PHA i
+                this.pushUInt8(this.registers.accumulator);
+                break;
+            }
+            case 0x49: { // EOR #
+                this.operationEOR(operand);
+                break;
+            }
+            case 0x4A: { // LSR A
+                this.registers.accumulator = this.operationLSR(this.registers.accumulator);
+                break;
+            }
+            case 0x4C: { // JMP a
+                this.registers.programCounter = operand;
+                break;
+            }
+            case 0x4D: { // EOR a
+                final int address = operand;
+                this.operationEOR(this.readUInt8(address));
+                break;
+            }
+            case 0x4E: { // LSR a
+                final int address = operand;
+                this.writeUInt8(address, this.operationLSR(this.readUInt8(address)));
+                break;
+            }
+            case 0x50: { // BVC r
+                this.operationBranch(!this.overflowFlag(), (this.registers.programCounter + (byte) operand) & 0xFFFF);
+                break;
+            }
+            case 0x51: { // EOR (zp),y
+                final int address = this.indexWithPageCrossPenalty(this.readZeroPageUInt16(operand), this.registers.y);
+                this.operationEOR(this.readUInt8(address));
+                break;
+            }
+            case 0x55: { // EOR zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.operationEOR(this.readUInt8(address));
+                break;
+            }
+            case 0x56: { // LSR zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.writeUInt8(address, this.operationLSR(this.readUInt8(address)));
+                break;
+            }
+            case 0x58: { // CLI i
+                this.registers.setFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, false);
+                break;
+            }
+            case 0x59: { // EOR a,y
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.y);
+                this.operationEOR(this.readUInt8(address));
+                break;
+            }
+            case 0x5D: { // EOR a,x
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.x);
+                this.operationEOR(this.readUInt8(address));
+                break;
+            }
+            case 0x5E: { // LSR a,x
+                final int address = this.indexShiftRotateAddress(operand, this.registers.x);
+                this.writeUInt8(address, this.operationLSR(this.readUInt8(address)));
+                break;
+            }
+            case 0x60: { // RTS i
+                this.operationRTS();
+                break;
+            }
+            case 0x61: { // ADC (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                this.operationADC(this.readUInt8(address));
+                break;
+            }
+            case 0x65: { // ADC zp
+                final int address = operand;
+                this.operationADC(this.readUInt8(address));
+                break;
+            }
+            case 0x66: { // ROR zp
+                final int address = operand;
+                this.writeUInt8(address, this.operationROR(this.readUInt8(address)));
+                break;
+            }
+            case 0x68: { // PLA i
+                this.registers.accumulator = this.operationLoad(this.pullUInt8());
+                break;
+            }
+            case 0x69: { // ADC #
+                this.operationADC(operand);
+                break;
+            }
+            case 0x6A: { // ROR A
+                this.registers.accumulator = this.operationROR(this.registers.accumulator);
+                break;
+            }
+            case 0x6C: { // JMP (a)
+                this.registers.programCounter = this.readIndirectUInt16(operand);
+                break;
+            }
+            case 0x6D: { // ADC a
+                final int address = operand;
+                this.operationADC(this.readUInt8(address));
+                break;
+            }
+            case 0x6E: { // ROR a
+                final int address = operand;
+                this.writeUInt8(address, this.operationROR(this.readUInt8(address)));
+                break;
+            }
+            case 0x70: { // BVS r
+                this.operationBranch(this.overflowFlag(), (this.registers.programCounter + (byte) operand) & 0xFFFF);
+                break;
+            }
+            case 0x71: { // ADC (zp),y
+                final int address = this.indexWithPageCrossPenalty(this.readZeroPageUInt16(operand), this.registers.y);
+                this.operationADC(this.readUInt8(address));
+                break;
+            }
+            case 0x75: { // ADC zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.operationADC(this.readUInt8(address));
+                break;
+            }
+            case 0x76: { // ROR zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.writeUInt8(address, this.operationROR(this.readUInt8(address)));
+                break;
+            }
+            case 0x78: { // SEI i
+                this.registers.setFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, true);
+                break;
+            }
+            case 0x79: { // ADC a,y
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.y);
+                this.operationADC(this.readUInt8(address));
+                break;
+            }
+            case 0x7D: { // ADC a,x
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.x);
+                this.operationADC(this.readUInt8(address));
+                break;
+            }
+            case 0x7E: { // ROR a,x
+                final int address = this.indexShiftRotateAddress(operand, this.registers.x);
+                this.writeUInt8(address, this.operationROR(this.readUInt8(address)));
+                break;
+            }
+            case 0x81: { // STA (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                this.writeUInt8(address, this.registers.accumulator);
+                break;
+            }
+            case 0x84: { // STY zp
+                final int address = operand;
+                this.writeUInt8(address, this.registers.y);
+                break;
+            }
+            case 0x85: { // STA zp
+                final int address = operand;
+                this.writeUInt8(address, this.registers.accumulator);
+                break;
+            }
+            case 0x86: { // STX zp
+                final int address = operand;
+                this.writeUInt8(address, this.registers.x);
+                break;
+            }
+            case 0x88: { // DEY i
+                this.registers.y = this.operationDEC(this.registers.y);
+                break;
+            }
+            case 0x8A: { // TXA i
+                this.registers.accumulator = this.operationLoad(this.registers.x);
+                break;
+            }
+            case 0x8C: { // STY a
+                final int address = operand;
+                this.writeUInt8(address, this.registers.y);
+                break;
+            }
+            case 0x8D: { // STA a
+                final int address = operand;
+                this.writeUInt8(address, this.registers.accumulator);
+                break;
+            }
+            case 0x8E: { // STX a
+                final int address = operand;
+                this.writeUInt8(address, this.registers.x);
+                break;
+            }
+            case 0x90: { // BCC r
+                this.operationBranch(!this.carryFlag(), (this.registers.programCounter + (byte) operand) & 0xFFFF);
+                break;
+            }
+            case 0x91: { // STA (zp),y
+                final int address = (this.readZeroPageUInt16(operand) + this.registers.y) & 0xFFFF;
+                this.writeUInt8(address, this.registers.accumulator);
+                break;
+            }
+            case 0x94: { // STY zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.writeUInt8(address, this.registers.y);
+                break;
+            }
+            case 0x95: { // STA zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.writeUInt8(address, this.registers.accumulator);
+                break;
+            }
+            case 0x96: { // STX zp,y
+                final int address = (operand + this.registers.y) & 0x00FF;
+                this.writeUInt8(address, this.registers.x);
+                break;
+            }
+            case 0x98: { // TYA i
+                this.registers.accumulator = this.operationLoad(this.registers.y);
+                break;
+            }
+            case 0x99: { // STA a,y
+                final int address = (operand + this.registers.y) & 0xFFFF;
+                this.writeUInt8(address, this.registers.accumulator);
+                break;
+            }
+            case 0x9A: { // TXS i
+                this.registers.stackPointer = this.registers.x;
+                break;
+            }
+            case 0x9D: { // STA a,x
+                final int address = (operand + this.registers.x) & 0xFFFF;
+                this.writeUInt8(address, this.registers.accumulator);
+                break;
+            }
+            case 0xA0: { // LDY #
+                this.registers.y = this.operationLoad(operand);
+                break;
+            }
+            case 0xA1: { // LDA (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xA2: { // LDX #
+                this.registers.x = this.operationLoad(operand);
+                break;
+            }
+            case 0xA4: { // LDY zp
+                final int address = operand;
+                this.registers.y = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xA5: { // LDA zp
+                final int address = operand;
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xA6: { // LDX zp
+                final int address = operand;
+                this.registers.x = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xA8: { // TAY i
+                this.registers.y = this.operationLoad(this.registers.accumulator);
+                break;
+            }
+            case 0xA9: { // LDA #
+                this.registers.accumulator = this.operationLoad(operand);
+                break;
+            }
+            case 0xAA: { // TAX i
+                this.registers.x = this.operationLoad(this.registers.accumulator);
+                break;
+            }
+            case 0xAC: { // LDY a
+                final int address = operand;
+                this.registers.y = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xAD: { // LDA a
+                final int address = operand;
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xAE: { // LDX a
+                final int address = operand;
+                this.registers.x = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xB0: { // BCS r
+                this.operationBranch(this.carryFlag(), (this.registers.programCounter + (byte) operand) & 0xFFFF);
+                break;
+            }
+            case 0xB1: { // LDA (zp),y
+                final int address = this.indexWithPageCrossPenalty(this.readZeroPageUInt16(operand), this.registers.y);
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xB4: { // LDY zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.registers.y = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xB5: { // LDA zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xB6: { // LDX zp,y
+                final int address = (operand + this.registers.y) & 0x00FF;
+                this.registers.x = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xB8: { // CLV i
+                this.overflowResult = 0;
+                break;
+            }
+            case 0xB9: { // LDA a,y
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.y);
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xBA: { // TSX i
+                this.registers.x = this.operationLoad(this.registers.stackPointer);
+                break;
+            }
+            case 0xBC: { // LDY a,x
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.x);
+                this.registers.y = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xBD: { // LDA a,x
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.x);
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xBE: { // LDX a,y
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.y);
+                this.registers.x = this.operationLoad(this.readUInt8(address));
+                break;
+            }
+            case 0xC0: { // CPY #
+                this.operationCompare(this.registers.y, operand);
+                break;
+            }
+            case 0xC1: { // CMP (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                this.operationCompare(this.registers.accumulator, this.readUInt8(address));
+                break;
+            }
+            case 0xC4: { // CPY zp
+                final int address = operand;
+                this.operationCompare(this.registers.y, this.readUInt8(address));
+                break;
+            }
+            case 0xC5: { // CMP zp
+                final int address = operand;
+                this.operationCompare(this.registers.accumulator, this.readUInt8(address));
+                break;
+            }
+            case 0xC6: { // DEC zp
+                final int address = operand;
+                this.writeUInt8(address, this.operationDEC(this.readUInt8(address)));
+                break;
+            }
+            case 0xC8: { // INY i
+                this.registers.y = this.operationINC(this.registers.y);
+                break;
+            }
+            case 0xC9: { // CMP #
+                this.operationCompare(this.registers.accumulator, operand);
+                break;
+            }
+            case 0xCA: { // DEX i
+                this.registers.x = this.operationDEC(this.registers.x);
+                break;
+            }
+            case 0xCC: { // CPY a
+                final int address = operand;
+                this.operationCompare(this.registers.y, this.readUInt8(address));
+                break;
+            }
+            case 0xCD: { // CMP a
+                final int address = operand;
+                this.operationCompare(this.registers.accumulator, this.readUInt8(address));
+                break;
+            }
+            case 0xCE: { // DEC a
+                final int address = operand;
+                this.writeUInt8(address, this.operationDEC(this.readUInt8(address)));
+                break;
+            }
+            case 0xD0: { // BNE r
+                this.operationBranch(!this.zeroFlag(), (this.registers.programCounter + (byte) operand) & 0xFFFF);
+                break;
+            }
+            case 0xD1: { // CMP (zp),y
+                final int address = this.indexWithPageCrossPenalty(this.readZeroPageUInt16(operand), this.registers.y);
+                this.operationCompare(this.registers.accumulator, this.readUInt8(address));
+                break;
+            }
+            case 0xD5: { // CMP zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.operationCompare(this.registers.accumulator, this.readUInt8(address));
+                break;
+            }
+            case 0xD6: { // DEC zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.writeUInt8(address, this.operationDEC(this.readUInt8(address)));
+                break;
+            }
+            case 0xD8: { // CLD i
+                this.registers.setFlag(MOS6502Registers.FLAG_DECIMAL_MODE, false);
+                break;
+            }
+            case 0xD9: { // CMP a,y
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.y);
+                this.operationCompare(this.registers.accumulator, this.readUInt8(address));
+                break;
+            }
+            case 0xDD: { // CMP a,x
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.x);
+                this.operationCompare(this.registers.accumulator, this.readUInt8(address));
+                break;
+            }
+            case 0xDE: { // DEC a,x
+                final int address = (operand + this.registers.x) & 0xFFFF;
+                this.writeUInt8(address, this.operationDEC(this.readUInt8(address)));
+                break;
+            }
+            case 0xE0: { // CPX #
+                this.operationCompare(this.registers.x, operand);
+                break;
+            }
+            case 0xE1: { // SBC (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                this.operationSBC(this.readUInt8(address));
+                break;
+            }
+            case 0xE4: { // CPX zp
+                final int address = operand;
+                this.operationCompare(this.registers.x, this.readUInt8(address));
+                break;
+            }
+            case 0xE5: { // SBC zp
+                final int address = operand;
+                this.operationSBC(this.readUInt8(address));
+                break;
+            }
+            case 0xE6: { // INC zp
+                final int address = operand;
+                this.writeUInt8(address, this.operationINC(this.readUInt8(address)));
+                break;
+            }
+            case 0xE8: { // INX i
+                this.registers.x = this.operationINC(this.registers.x);
+                break;
+            }
+            case 0xE9: { // SBC #
+                this.operationSBC(operand);
+                break;
+            }
+            case 0xEA: { // NOP i
+                break;
+            }
+            case 0xEC: { // CPX a
+                final int address = operand;
+                this.operationCompare(this.registers.x, this.readUInt8(address));
+                break;
+            }
+            case 0xED: { // SBC a
+                final int address = operand;
+                this.operationSBC(this.readUInt8(address));
+                break;
+            }
+            case 0xEE: { // INC a
+                final int address = operand;
+                this.writeUInt8(address, this.operationINC(this.readUInt8(address)));
+                break;
+            }
+            case 0xF0: { // BEQ r
+                this.operationBranch(this.zeroFlag(), (this.registers.programCounter + (byte) operand) & 0xFFFF);
+                break;
+            }
+            case 0xF1: { // SBC (zp),y
+                final int address = this.indexWithPageCrossPenalty(this.readZeroPageUInt16(operand), this.registers.y);
+                this.operationSBC(this.readUInt8(address));
+                break;
+            }
+            case 0xF5: { // SBC zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.operationSBC(this.readUInt8(address));
+                break;
+            }
+            case 0xF6: { // INC zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                this.writeUInt8(address, this.operationINC(this.readUInt8(address)));
+                break;
+            }
+            case 0xF8: { // SED i
+                this.registers.setFlag(MOS6502Registers.FLAG_DECIMAL_MODE, true);
+                break;
+            }
+            case 0xF9: { // SBC a,y
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.y);
+                this.operationSBC(this.readUInt8(address));
+                break;
+            }
+            case 0xFD: { // SBC a,x
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.x);
+                this.operationSBC(this.readUInt8(address));
+                break;
+            }
+            case 0xFE: { // INC a,x
+                final int address = (operand + this.registers.x) & 0xFFFF;
+                this.writeUInt8(address, this.operationINC(this.readUInt8(address)));
+                break;
+            }
+            default: {
+                this.executeExtendedOperationCode(opcode, operand);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Executes an operation code not documented by the NMOS 6502 datasheet: unofficial
+     * operation codes of the NMOS 6502, or operation codes added by the 65C02. Kept apart
+     * from {@link #executeOperationCode(int)} so that the hot switch stays small enough
+     * to be compiled by the JIT.
+     *
+     * @param opcode  Operation code to execute
+     * @param operand Operand bytes, as a little-endian value
+     */
+    private void executeExtendedOperationCode(final int opcode, final int operand) {
+
+        if (this.processorVariant == ProcessorVariant.CMOS_65C02) {
+            this.executeCmosOperationCode(opcode, operand);
+        } else {
+            this.executeUnofficialOperationCode(opcode, operand);
+        }
+    }
+
+    /**
+     * Executes a stable unofficial operation code of the NMOS 6502. Unstable ones,
+     * and the ones halting the processor, are unknown.
+     *
+     * @param opcode  Operation code to execute
+     * @param operand Operand bytes, as a little-endian value
+     */
+    private void executeUnofficialOperationCode(final int opcode, final int operand) {
+
+        switch (opcode) {
+            case 0x03: { // SLO (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                final int value = this.operationASL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationORA(value);
+                break;
+            }
+            case 0x07: { // SLO zp
+                final int address = operand;
+                final int value = this.operationASL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationORA(value);
+                break;
+            }
+            case 0x0F: { // SLO a
+                final int address = operand;
+                final int value = this.operationASL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationORA(value);
+                break;
+            }
+            case 0x13: { // SLO (zp),y
+                final int address = (this.readZeroPageUInt16(operand) + this.registers.y) & 0xFFFF;
+                final int value = this.operationASL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationORA(value);
+                break;
+            }
+            case 0x17: { // SLO zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                final int value = this.operationASL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationORA(value);
+                break;
+            }
+            case 0x1B: { // SLO a,y
+                final int address = (operand + this.registers.y) & 0xFFFF;
+                final int value = this.operationASL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationORA(value);
+                break;
+            }
+            case 0x1F: { // SLO a,x
+                final int address = (operand + this.registers.x) & 0xFFFF;
+                final int value = this.operationASL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationORA(value);
+                break;
+            }
+            case 0x23: { // RLA (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                final int value = this.operationROL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationAND(value);
+                break;
+            }
+            case 0x27: { // RLA zp
+                final int address = operand;
+                final int value = this.operationROL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationAND(value);
+                break;
+            }
+            case 0x2F: { // RLA a
+                final int address = operand;
+                final int value = this.operationROL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationAND(value);
+                break;
+            }
+            case 0x33: { // RLA (zp),y
+                final int address = (this.readZeroPageUInt16(operand) + this.registers.y) & 0xFFFF;
+                final int value = this.operationROL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationAND(value);
+                break;
+            }
+            case 0x37: { // RLA zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                final int value = this.operationROL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationAND(value);
+                break;
+            }
+            case 0x3B: { // RLA a,y
+                final int address = (operand + this.registers.y) & 0xFFFF;
+                final int value = this.operationROL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationAND(value);
+                break;
+            }
+            case 0x3F: { // RLA a,x
+                final int address = (operand + this.registers.x) & 0xFFFF;
+                final int value = this.operationROL(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationAND(value);
+                break;
+            }
+            case 0x43: { // SRE (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                final int value = this.operationLSR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationEOR(value);
+                break;
+            }
+            case 0x47: { // SRE zp
+                final int address = operand;
+                final int value = this.operationLSR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationEOR(value);
+                break;
+            }
+            case 0x4F: { // SRE a
+                final int address = operand;
+                final int value = this.operationLSR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationEOR(value);
+                break;
+            }
+            case 0x53: { // SRE (zp),y
+                final int address = (this.readZeroPageUInt16(operand) + this.registers.y) & 0xFFFF;
+                final int value = this.operationLSR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationEOR(value);
+                break;
+            }
+            case 0x57: { // SRE zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                final int value = this.operationLSR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationEOR(value);
+                break;
+            }
+            case 0x5B: { // SRE a,y
+                final int address = (operand + this.registers.y) & 0xFFFF;
+                final int value = this.operationLSR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationEOR(value);
+                break;
+            }
+            case 0x5F: { // SRE a,x
+                final int address = (operand + this.registers.x) & 0xFFFF;
+                final int value = this.operationLSR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationEOR(value);
+                break;
+            }
+            case 0x63: { // RRA (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                final int value = this.operationROR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationADC(value);
+                break;
+            }
+            case 0x67: { // RRA zp
+                final int address = operand;
+                final int value = this.operationROR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationADC(value);
+                break;
+            }
+            case 0x6F: { // RRA a
+                final int address = operand;
+                final int value = this.operationROR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationADC(value);
+                break;
+            }
+            case 0x73: { // RRA (zp),y
+                final int address = (this.readZeroPageUInt16(operand) + this.registers.y) & 0xFFFF;
+                final int value = this.operationROR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationADC(value);
+                break;
+            }
+            case 0x77: { // RRA zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                final int value = this.operationROR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationADC(value);
+                break;
+            }
+            case 0x7B: { // RRA a,y
+                final int address = (operand + this.registers.y) & 0xFFFF;
+                final int value = this.operationROR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationADC(value);
+                break;
+            }
+            case 0x7F: { // RRA a,x
+                final int address = (operand + this.registers.x) & 0xFFFF;
+                final int value = this.operationROR(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationADC(value);
+                break;
+            }
+            case 0x83: { // SAX (zp,x)
+                this.writeUInt8(this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF), this.registers.accumulator & this.registers.x);
+                break;
+            }
+            case 0x87: { // SAX zp
+                this.writeUInt8(operand, this.registers.accumulator & this.registers.x);
+                break;
+            }
+            case 0x8F: { // SAX a
+                this.writeUInt8(operand, this.registers.accumulator & this.registers.x);
+                break;
+            }
+            case 0x97: { // SAX zp,y
+                this.writeUInt8((operand + this.registers.y) & 0x00FF, this.registers.accumulator & this.registers.x);
+                break;
+            }
+            case 0xA3: { // LAX (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                this.registers.x = this.registers.accumulator;
+                break;
+            }
+            case 0xA7: { // LAX zp
+                final int address = operand;
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                this.registers.x = this.registers.accumulator;
+                break;
+            }
+            case 0xAF: { // LAX a
+                final int address = operand;
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                this.registers.x = this.registers.accumulator;
+                break;
+            }
+            case 0xB3: { // LAX (zp),y
+                final int address = this.indexWithPageCrossPenalty(this.readZeroPageUInt16(operand), this.registers.y);
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                this.registers.x = this.registers.accumulator;
+                break;
+            }
+            case 0xB7: { // LAX zp,y
+                final int address = (operand + this.registers.y) & 0x00FF;
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                this.registers.x = this.registers.accumulator;
+                break;
+            }
+            case 0xBF: { // LAX a,y
+                final int address = this.indexWithPageCrossPenalty(operand, this.registers.y);
+                this.registers.accumulator = this.operationLoad(this.readUInt8(address));
+                this.registers.x = this.registers.accumulator;
+                break;
+            }
+            case 0xC3: { // DCP (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                final int value = this.operationDEC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationCompare(this.registers.accumulator, value);
+                break;
+            }
+            case 0xC7: { // DCP zp
+                final int address = operand;
+                final int value = this.operationDEC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationCompare(this.registers.accumulator, value);
+                break;
+            }
+            case 0xCF: { // DCP a
+                final int address = operand;
+                final int value = this.operationDEC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationCompare(this.registers.accumulator, value);
+                break;
+            }
+            case 0xD3: { // DCP (zp),y
+                final int address = (this.readZeroPageUInt16(operand) + this.registers.y) & 0xFFFF;
+                final int value = this.operationDEC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationCompare(this.registers.accumulator, value);
+                break;
+            }
+            case 0xD7: { // DCP zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                final int value = this.operationDEC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationCompare(this.registers.accumulator, value);
+                break;
+            }
+            case 0xDB: { // DCP a,y
+                final int address = (operand + this.registers.y) & 0xFFFF;
+                final int value = this.operationDEC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationCompare(this.registers.accumulator, value);
+                break;
+            }
+            case 0xDF: { // DCP a,x
+                final int address = (operand + this.registers.x) & 0xFFFF;
+                final int value = this.operationDEC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationCompare(this.registers.accumulator, value);
+                break;
+            }
+            case 0xE3: { // ISB (zp,x)
+                final int address = this.readZeroPageUInt16((operand + this.registers.x) & 0x00FF);
+                final int value = this.operationINC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationSBC(value);
+                break;
+            }
+            case 0xE7: { // ISB zp
+                final int address = operand;
+                final int value = this.operationINC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationSBC(value);
+                break;
+            }
+            case 0xEB: { // SBC #
+                this.operationSBC(operand);
+                break;
+            }
+            case 0xEF: { // ISB a
+                final int address = operand;
+                final int value = this.operationINC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationSBC(value);
+                break;
+            }
+            case 0xF3: { // ISB (zp),y
+                final int address = (this.readZeroPageUInt16(operand) + this.registers.y) & 0xFFFF;
+                final int value = this.operationINC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationSBC(value);
+                break;
+            }
+            case 0xF7: { // ISB zp,x
+                final int address = (operand + this.registers.x) & 0x00FF;
+                final int value = this.operationINC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationSBC(value);
+                break;
+            }
+            case 0xFB: { // ISB a,y
+                final int address = (operand + this.registers.y) & 0xFFFF;
+                final int value = this.operationINC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationSBC(value);
+                break;
+            }
+            case 0xFF: { // ISB a,x
+                final int address = (operand + this.registers.x) & 0xFFFF;
+                final int value = this.operationINC(this.readUInt8(address));
+                this.writeUInt8(address, value);
+                this.operationSBC(value);
+                break;
+            }
+            case 0x80: case 0x82: case 0x89: case 0xC2: case 0xE2: { // NOP #
+                break;
+            }
+            case 0x04: case 0x44: case 0x64: { // NOP zp
+                break;
+            }
+            case 0x14: case 0x34: case 0x54: case 0x74: case 0xD4: case 0xF4: { // NOP zp,x
+                break;
+            }
+            case 0x0C: { // NOP a
+                break;
+            }
+            case 0x1C: case 0x3C: case 0x5C: case 0x7C: case 0xDC: case 0xFC: { // NOP a,x
+                this.indexWithPageCrossPenalty(operand, this.registers.x);
+                break;
+            }
+            case 0x1A: case 0x3A: case 0x5A: case 0x7A: case 0xDA: case 0xFA: { // NOP i
+                break;
+            }
+            default: {
+                this.instructionUnknown();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Executes an operation code added by the 65C02.
+     *
+     * @param opcode  Operation code to execute
+     * @param operand Operand bytes, as a little-endian value
+     */
+    private void executeCmosOperationCode(final int opcode, final int operand) {
+
+        switch (opcode) {
+            case 0x04: { // TSB zp
+                this.operationTSB(operand);
+                break;
+            }
+            case 0x0C: { // TSB a
+                this.operationTSB(operand);
+                break;
+            }
+            case 0x12: { // ORA (zp)
+                this.operationORA(this.readUInt8(this.readZeroPageUInt16(operand)));
+                break;
+            }
+            case 0x14: { // TRB zp
+                this.operationTRB(operand);
+                break;
+            }
+            case 0x1A: { // INC A
+                this.registers.accumulator = this.operationINC(this.registers.accumulator);
+                break;
+            }
+            case 0x1C: { // TRB a
+                this.operationTRB(operand);
+                break;
+            }
+            case 0x32: { // AND (zp)
+                this.operationAND(this.readUInt8(this.readZeroPageUInt16(operand)));
+                break;
+            }
+            case 0x34: { // BIT zp,x
+                this.operationBIT(this.readUInt8((operand + this.registers.x) & 0x00FF));
+                break;
+            }
+            case 0x3A: { // DEC A
+                this.registers.accumulator = this.operationDEC(this.registers.accumulator);
+                break;
+            }
+            case 0x3C: { // BIT a,x
+                this.operationBIT(this.readUInt8(this.indexWithPageCrossPenalty(operand, this.registers.x)));
+                break;
+            }
+            case 0x52: { // EOR (zp)
+                this.operationEOR(this.readUInt8(this.readZeroPageUInt16(operand)));
+                break;
+            }
+            case 0x5A: { // PHY i
+                this.pushUInt8(this.registers.y);
+                break;
+            }
+            case 0x64: { // STZ zp
+                this.writeUInt8(operand, 0);
+                break;
+            }
+            case 0x72: { // ADC (zp)
+                this.operationADC(this.readUInt8(this.readZeroPageUInt16(operand)));
+                break;
+            }
+            case 0x74: { // STZ zp,x
+                this.writeUInt8((operand + this.registers.x) & 0x00FF, 0);
+                break;
+            }
+            case 0x7A: { // PLY i
+                this.registers.y = this.operationLoad(this.pullUInt8());
+                break;
+            }
+            case 0x7C: { // JMP (a,x)
+                this.registers.programCounter = this.readUInt16((operand + this.registers.x) & 0xFFFF);
+                break;
+            }
+            case 0x80: { // BRA r
+                this.operationBranch(true, (this.registers.programCounter + (byte) operand) & 0xFFFF);
+                break;
+            }
+            case 0x89: { // BIT #
+                this.operationBITImmediate(operand);
+                break;
+            }
+            case 0x92: { // STA (zp)
+                this.writeUInt8(this.readZeroPageUInt16(operand), this.registers.accumulator);
+                break;
+            }
+            case 0x9C: { // STZ a
+                this.writeUInt8(operand, 0);
+                break;
+            }
+            case 0x9E: { // STZ a,x
+                this.writeUInt8((operand + this.registers.x) & 0xFFFF, 0);
+                break;
+            }
+            case 0xB2: { // LDA (zp)
+                this.registers.accumulator = this.operationLoad(this.readUInt8(this.readZeroPageUInt16(operand)));
+                break;
+            }
+            case 0xCB: { // WAI i
+                this.operationWAI();
+                break;
+            }
+            case 0xD2: { // CMP (zp)
+                this.operationCompare(this.registers.accumulator, this.readUInt8(this.readZeroPageUInt16(operand)));
+                break;
+            }
+            case 0xDA: { // PHX i
+                this.pushUInt8(this.registers.x);
+                break;
+            }
+            case 0xDB: { // STP i
+                this.operationSTP();
+                break;
+            }
+            case 0xF2: { // SBC (zp)
+                this.operationSBC(this.readUInt8(this.readZeroPageUInt16(operand)));
+                break;
+            }
+            case 0xFA: { // PLX i
+                this.registers.x = this.operationLoad(this.pullUInt8());
+                break;
+            }
+            case 0x07: case 0x17: case 0x27: case 0x37: case 0x47: case 0x57: case 0x67: case 0x77: { // RMBn zp
+                final int address = operand;
+                this.writeUInt8(address, this.readUInt8(address) & ~(1 << (opcode >> 4)));
+                break;
+            }
+            case 0x87: case 0x97: case 0xA7: case 0xB7: case 0xC7: case 0xD7: case 0xE7: case 0xF7: { // SMBn zp
+                final int address = operand;
+                this.writeUInt8(address, this.readUInt8(address) | (1 << ((opcode >> 4) & 0x07)));
+                break;
+            }
+            case 0x0F: case 0x1F: case 0x2F: case 0x3F: case 0x4F: case 0x5F: case 0x6F: case 0x7F: { // BBRn zp,r
+                this.operationBranchOnBit(operand & 0xFF, (byte) (operand >> 8), 1 << (opcode >> 4), false);
+                break;
+            }
+            case 0x8F: case 0x9F: case 0xAF: case 0xBF: case 0xCF: case 0xDF: case 0xEF: case 0xFF: { // BBSn zp,r
+                this.operationBranchOnBit(operand & 0xFF, (byte) (operand >> 8), 1 << ((opcode >> 4) & 0x07), true);
+                break;
+            }
+            case 0x02: case 0x22: case 0x42: case 0x62: case 0x82: case 0xC2: case 0xE2: { // NOP #
+                break;
+            }
+            case 0x44: { // NOP zp
+                break;
+            }
+            case 0x54: case 0xD4: case 0xF4: { // NOP zp,x
+                break;
+            }
+            case 0x5C: case 0xDC: case 0xFC: { // NOP a
+                break;
+            }
+            default: { // NOP i
+                break;
+            }
+        }
+    }
+
+    /**
+     * Finds the bus unit mapped at specific memory address by scanning all bus units.
+     *
+     * @param address Memory address
+     * @return The bus unit, otherwise, {@code null}
+     */
+    private BusUnit findBusUnit(final int address) {
+
+        for (final BusUnit busUnit : this.busUnitList) {
+            if (address >= busUnit.mappingAddressMin() && address <= busUnit.mappingAddressMax()) {
+                return busUnit;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks whether a bus unit is a writable memory, which pages can be written directly.
+     *
+     * @param busUnit Bus unit to check, can be {@code null}
+     * @return {@code true} if the bus unit is a writable memory, otherwise, {@code false}
+     */
+    private boolean isWritableMemory(final BusUnit busUnit) {
+
+        return busUnit instanceof PagedMemory || (busUnit instanceof ArrayMemory && !((ArrayMemory) busUnit).readOnly);
+    }
+
+    /**
+     * Checks whether reading the given address takes the fast path, without calling a bus unit.
+     *
+     * @param address Memory address to check
+     * @return {@code true} if the address is read directly from memory, otherwise, {@code false}
+     */
+    boolean isDirectlyReadable(final int address) {
+
+        return this.readPageMemoryTable[(address & 0xFFFF) >> 8] != null;
+    }
+
+    /**
+     * Checks whether writing the given address takes the fast path, without calling a bus unit.
+     *
+     * @param address Memory address to check
+     * @return {@code true} if the address is written directly to memory, otherwise, {@code false}
+     */
+    boolean isDirectlyWritable(final int address) {
+
+        return this.writePageMemoryTable[(address & 0xFFFF) >> 8] != null;
+    }
+
+    /**
+     * Reads a single value from specific memory address.
+     *
+     * @param address Memory address where to read single value
+     * @return Read single value
+     */
+    int readUInt8(final int address) {
+
+        final int maskedAddress = address & 0xFFFF;
+        final int page = maskedAddress >> 8;
+
+        final byte[] memory = this.readPageMemoryTable[page];
+        if (memory != null) {
+            return memory[maskedAddress - this.pageMemoryOffsetTable[page]] & 0xFF;
+        }
+
+        BusUnit busUnit = this.busUnitPageTable[page];
+        if (busUnit == null) {
+            busUnit = this.findBusUnit(maskedAddress);
+            if (busUnit == null) {
+                throw new RuntimeException("No bus unit found to read at " + maskedAddress);
+            }
+        }
+
+        this.syncStatus();
+        this.busUnitCalled = true;
+        if (busUnit instanceof SynchronizedBusUnit) {
+            return ((SynchronizedBusUnit) busUnit).read(maskedAddress, this.accessCycle()) & 0xFF;
+        }
+
+        return busUnit.read(maskedAddress) & 0xFF;
+    }
+
+    /**
+     * Reads a single value from specific memory address, only if it is backed by an
+     * {@link ArrayMemory}. Unlike {@link #readUInt8(int)}, the bus unit is never called.
+     *
+     * @param address Memory address where to read single value
+     * @return Read single value, otherwise, -1 if the address is not backed by an array
+     */
+    private int peekUInt8(final int address) {
+
+        final int maskedAddress = address & 0xFFFF;
+        final int page = maskedAddress >> 8;
+
+        final byte[] memory = this.readPageMemoryTable[page];
+        if (memory == null) {
+            return -1;
+        }
+
+        return memory[maskedAddress - this.pageMemoryOffsetTable[page]] & 0xFF;
+    }
+
+    /**
+     * Writes a single value to specific memory address.
+     *
+     * @param address Memory address where to write the single value
+     * @param value   Value to write
+     */
+    void writeUInt8(final int address, final int value) {
+
+        final int maskedAddress = address & 0xFFFF;
+        final int page = maskedAddress >> 8;
+
+        final byte[] memory = this.writePageMemoryTable[page];
+        if (memory != null) {
+            memory[maskedAddress - this.pageMemoryOffsetTable[page]] = (byte) value;
+            return;
+        }
+
+        if (this.codePageTable[page]) {
+            this.invalidateCode(maskedAddress);
+
+            final byte[] codeMemory = this.codeWritePageMemoryTable[page];
+            if (codeMemory != null) {
+                codeMemory[maskedAddress - this.pageMemoryOffsetTable[page]] = (byte) value;
+                return;
+            }
+        }
+
+        BusUnit busUnit = this.busUnitPageTable[page];
+        if (busUnit == null) {
+            busUnit = this.findBusUnit(maskedAddress);
+            if (busUnit == null) {
+                throw new RuntimeException("No bus unit found to write at " + maskedAddress);
+            }
+        }
+
+        this.syncStatus();
+        this.busUnitCalled = true;
+        if (busUnit instanceof SynchronizedBusUnit) {
+            ((SynchronizedBusUnit) busUnit).write(maskedAddress, value & 0xFF, this.accessCycle());
+        } else {
+            busUnit.write(maskedAddress, value & 0xFF);
+            if (this.isWritableMemory(this.busUnitPageTable[page])) {
+                // First write since the latest snapshot, or to a page duplicated by the write
+                this.dirtyPageTable[page >> 6] |= 1L << page;
+                this.mapPage(page);
+            }
+        }
+    }
+
+    /**
+     * Gets the absolute cycle of a memory access made by the current instruction. Bus
+     * accesses are not scheduled cycle by cycle, so the access is considered to happen
+     * on the latest cycle known so far for the instruction, penalties included. This is
+     * exact for loads and stores, which access their operand on their last cycle.
+     *
+     * @return The cycle
+     */
+    private long accessCycle() {
+
+        return this.totalCycles + this.cycleCount - 1;
+    }
+
+    /**
+     * Absolute: Full 16-bit address is specified.
+     */
+    private void addressingModeAbsolute() {
+
+        this.resolvedAddress = this.fetchUInt16();
+    }
+
+    /**
+     * Absolute Indirect: The little-endian two-byte value stored at the specified address.
+     */
+    private void addressingModeAbsoluteIndirect() {
+
+        this.resolvedAddress = this.readIndirectUInt16(this.fetchUInt16());
+    }
+
+    /**
+     * Absolute Indexed with X Indirect (65C02): The little-endian two-byte value stored at
+     * the sum of the specified address and the value in X.
+     */
+    private void addressingModeAbsoluteIndexedXIndirect() {
+
+        this.resolvedAddress = this.readUInt16((this.fetchUInt16() + this.registers.x) & 0xFFFF);
+    }
+
+    /**
+     * Absolute Indexed with X: Value in X is added to the specified 16-bit address.
+     */
+    private void addressingModeAbsoluteIndexedX() {
+
+        this.resolvedAddress = this.indexWithPageCrossPenalty(this.fetchUInt16(), this.registers.x);
+    }
+
+    /**
+     * Absolute Indexed with X, for instructions writing memory. These instructions
+     * always spend the page crossing cycle, it is already part of their base cycles.
+     */
+    private void addressingModeAbsoluteIndexedXWrite() {
+
+        this.resolvedAddress = (this.fetchUInt16() + this.registers.x) & 0xFFFF;
+    }
+
+    /**
+     * Absolute Indexed with Y: Value in Y is added to the specified 16-bit address.
+     */
+    private void addressingModeAbsoluteIndexedY() {
+
+        this.resolvedAddress = this.indexWithPageCrossPenalty(this.fetchUInt16(), this.registers.y);
+    }
+
+    /**
+     * Absolute Indexed with Y, for instructions writing memory. These instructions
+     * always spend the page crossing cycle, it is already part of their base cycles.
+     */
+    private void addressingModeAbsoluteIndexedYWrite() {
+
+        this.resolvedAddress = (this.fetchUInt16() + this.registers.y) & 0xFFFF;
+    }
+
+    /**
+     * Accumulator: Accumulator is implied as the operand, so no address needs to be specified.
+     */
+    private void addressingModeAccumulator() {
+
+        this.resolvedAddress = -1;
+    }
+
+    /**
+     * Immediate: Operand is used directly to perform the computation.
+     */
+    private void addressingModeImmediate() {
+
+        this.resolvedAddress = this.registers.programCounter;
+        this.registers.programCounter = (this.registers.programCounter + 1) & 0xFFFF;
+    }
+
+    /**
+     * Implied: Operand is implied, so it does not need to be specified.
+     */
+    private void addressingModeImplied() {
+
+        this.resolvedAddress = -1;
+    }
+
+    /**
+     * Relative: Offset specified is added to the current address stored in
+     * the Program Counter. Offsets can range from -128 to +127.
+     */
+    private void addressingModeRelative() {
+
+        final int offset = (byte) this.fetchUInt8();
+
+        this.resolvedAddress = (this.registers.programCounter + offset) & 0xFFFF;
+    }
+
+    /**
+     * Zero Page Indexed with X Indirect: Value in X is added to the specified zero-page address for a sum address.
+     */
+    private void addressingModeZeroPageIndexedXIndirect() {
+
+        final int zeroPageAddress = (this.fetchUInt8() + this.registers.x) & 0x00FF;
+
+        this.resolvedAddress = this.readZeroPageUInt16(zeroPageAddress);
+    }
+
+    /**
+     * Zero Page: Single byte specifies an address in the first page of memory.
+     */
+    private void addressingModeZeroPage() {
+
+        this.resolvedAddress = this.fetchUInt8();
+    }
+
+    /**
+     * Zero Page Indexed with X: Value in X is added to the specified zero-page address.
+     */
+    private void addressingModeZeroPageIndexedX() {
+
+        this.resolvedAddress = (this.fetchUInt8() + this.registers.x) & 0x00FF;
+    }
+
+    /**
+     * Zero Page Indexed with Y: Value in Y is added to the specified zero-page address.
+     */
+    private void addressingModeZeroPageIndexedY() {
+
+        this.resolvedAddress = (this.fetchUInt8() + this.registers.y) & 0x00FF;
+    }
+
+    /**
+     * Zero Page Indirect (65C02): The little-endian two-byte value stored at the specified
+     * zero-page address.
+     */
+    private void addressingModeZeroPageIndirect() {
+
+        this.resolvedAddress = this.readZeroPageUInt16(this.fetchUInt8());
+    }
+
+    /**
+     * Zero Page Indirect Indexed with Y: Value in Y is added to the address at the
+     * little-endian address stored at the two-byte pair of the specified address
+     * (LSB) and the specified address plus one (MSB).
+     */
+    private void addressingModeZeroPageIndirectIndexedY() {
+
+        this.resolvedAddress = this.indexWithPageCrossPenalty(this.readZeroPageUInt16(this.fetchUInt8()), this.registers.y);
+    }
+
+    /**
+     * Zero Page Indirect Indexed with Y, for instructions writing memory. These instructions
+     * always spend the page crossing cycle, it is already part of their base cycles.
+     */
+    private void addressingModeZeroPageIndirectIndexedYWrite() {
+
+        this.resolvedAddress = (this.readZeroPageUInt16(this.fetchUInt8()) + this.registers.y) & 0xFFFF;
+    }
+
+    /**
+     * Add Memory to Accumulator with Carry.
+     */
+    private void instructionADC() {
+
+        this.operationADC(this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * AND Memory with Accumulator.
+     */
+    private void instructionAND() {
+
+        this.operationAND(this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Arithmetic Shift Left One Bit.
+     */
+    private void instructionASL() {
+
+        if (this.resolvedAddress == -1) {
+            this.registers.accumulator = this.operationASL(this.registers.accumulator);
+        } else {
+            this.writeUInt8(this.resolvedAddress, this.operationASL(this.readUInt8(this.resolvedAddress)));
+        }
+    }
+
+    /**
+     * Branch on Bit Reset (65C02). The addressing mode resolves the zero-page address to
+     * test, the relative offset follows it.
+     *
+     * @param bitMask Mask of the bit to test
+     */
+    private void instructionBBR(final int bitMask) {
+
+        this.operationBranchOnBit(this.resolvedAddress, (byte) this.fetchUInt8(), bitMask, false);
+    }
+
+    /**
+     * Branch on Bit Set (65C02). The addressing mode resolves the zero-page address to
+     * test, the relative offset follows it.
+     *
+     * @param bitMask Mask of the bit to test
+     */
+    private void instructionBBS(final int bitMask) {
+
+        this.operationBranchOnBit(this.resolvedAddress, (byte) this.fetchUInt8(), bitMask, true);
+    }
+
+    /**
+     * Branch on Carry Clear (Flag {@link MOS6502Registers#FLAG_CARRY_BIT} = 0).
+     */
+    private void instructionBCC() {
+
+        this.operationBranch(!this.carryFlag(), this.resolvedAddress);
+    }
+
+    /**
+     * Branch on Carry Set (Flag {@link MOS6502Registers#FLAG_CARRY_BIT} = 1).
+     */
+    private void instructionBCS() {
+
+        this.operationBranch(this.carryFlag(), this.resolvedAddress);
+    }
+
+    /**
+     * Test Bits in Memory with Accumulator.
+     */
+    private void instructionBIT() {
+
+        this.operationBIT(this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Test Bits in Memory with Accumulator, immediate operand (65C02).
+     */
+    private void instructionBITImmediate() {
+
+        this.operationBITImmediate(this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Branch on Result Zero (Flag {@link MOS6502Registers#FLAG_ZERO} = 1).
+     */
+    private void instructionBEQ() {
+
+        this.operationBranch(this.zeroFlag(), this.resolvedAddress);
+    }
+
+    /**
+     * Branch on Result not Zero (Flag {@link MOS6502Registers#FLAG_ZERO} = 0).
+     */
+    private void instructionBNE() {
+
+        this.operationBranch(!this.zeroFlag(), this.resolvedAddress);
+    }
+
+    /**
+     * Branch on Result Minus (Flag {@link MOS6502Registers#FLAG_NEGATIVE} = 1).
+     */
+    private void instructionBMI() {
+
+        this.operationBranch(this.negativeFlag(), this.resolvedAddress);
+    }
+
+    /**
+     * Force an Interrupt.
+     */
+    private void instructionBRK() {
+
+        this.operationBRK();
+    }
+
+    /**
+     * Branch Always (65C02).
+     */
+    private void instructionBRA() {
+
+        this.operationBranch(true, this.resolvedAddress);
+    }
+
+    /**
+     * Branch on Overflow Clear (Flag {@link MOS6502Registers#FLAG_OVERFLOW} = 0).
+     */
+    private void instructionBVC() {
+
+        this.operationBranch(!this.overflowFlag(), this.resolvedAddress);
+    }
+
+    /**
+     * Branch on Overflow Set (Flag {@link MOS6502Registers#FLAG_OVERFLOW} = 1).
+     */
+    private void instructionBVS() {
+
+        this.operationBranch(this.overflowFlag(), this.resolvedAddress);
+    }
+
+    /**
+     * Branch on Result Plus (Flag {@link MOS6502Registers#FLAG_NEGATIVE} = 0).
+     */
+    private void instructionBPL() {
+
+        this.operationBranch(!this.negativeFlag(), this.resolvedAddress);
+    }
+
+    /**
+     * Clear Carry Flag.
+     */
+    private void instructionCLC() {
+
+        this.carryResult = 0;
+    }
+
+    /**
+     * Clear Decimal Mode.
+     */
+    private void instructionCLD() {
+
+        this.registers.setFlag(MOS6502Registers.FLAG_DECIMAL_MODE, false);
+    }
+
+    /**
+     * Clear Interrupt Disable Status.
+     */
+    private void instructionCLI() {
+
+        this.registers.setFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, false);
+    }
+
+    /**
+     * Clear Overflow Flag.
+     */
+    private void instructionCLV() {
+
+        this.overflowResult = 0;
+    }
+
+    /**
+     * Compare Memory and Accumulator.
+     */
+    private void instructionCMP() {
+
+        this.operationCompare(this.registers.accumulator, this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Compare Memory and Index X.
+     */
+    private void instructionCPX() {
+
+        this.operationCompare(this.registers.x, this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Compare Memory and Index Y.
+     */
+    private void instructionCPY() {
+
+        this.operationCompare(this.registers.y, this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Decrement Memory by One then Compare with Accumulator (NMOS unofficial).
+     */
+    private void instructionDCP() {
+
+        final int value = this.operationDEC(this.readUInt8(this.resolvedAddress));
+        this.writeUInt8(this.resolvedAddress, value);
+        this.operationCompare(this.registers.accumulator, value);
+    }
+
+    /**
+     * Decrement Memory by One.
+     */
+    private void instructionDEC() {
+
+        if (this.resolvedAddress == -1) {
+            this.registers.accumulator = this.operationDEC(this.registers.accumulator);
+        } else {
+            this.writeUInt8(this.resolvedAddress, this.operationDEC(this.readUInt8(this.resolvedAddress)));
+        }
+    }
+
+    /**
+     * Decrement Index X by One.
+     */
+    private void instructionDEX() {
+
+        this.registers.x = this.operationDEC(this.registers.x);
+    }
+
+    /**
+     * Decrement Index Y by One.
+     */
+    private void instructionDEY() {
+
+        this.registers.y = this.operationDEC(this.registers.y);
+    }
+
+    /**
+     * Exclusive-OR Memory with Accumulator.
+     */
+    private void instructionEOR() {
+
+        this.operationEOR(this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Increment Memory by One.
+     */
+    private void instructionINC() {
+
+        if (this.resolvedAddress == -1) {
+            this.registers.accumulator = this.operationINC(this.registers.accumulator);
+        } else {
+            this.writeUInt8(this.resolvedAddress, this.operationINC(this.readUInt8(this.resolvedAddress)));
+        }
+    }
+
+    /**
+     * Increment Index X by One.
+     */
+    private void instructionINX() {
+
+        this.registers.x = this.operationINC(this.registers.x);
+    }
+
+    /**
+     * Increment Index Y by One.
+     */
+    private void instructionINY() {
+
+        this.registers.y = this.operationINC(this.registers.y);
+    }
+
+    /**
+     * Increment Memory by One then Subtract from Accumulator with Borrow (NMOS unofficial).
+     */
+    private void instructionISB() {
+
+        final int value = this.operationINC(this.readUInt8(this.resolvedAddress));
+        this.writeUInt8(this.resolvedAddress, value);
+        this.operationSBC(value);
+    }
+
+    /**
+     * Jump to New Location.
+     */
+    private void instructionJMP() {
+
+        this.registers.programCounter = this.resolvedAddress;
+    }
+
+    /**
+     * Jump to New Location (subroutine) Saving Return Address.
+     */
+    private void instructionJSR() {
+
+        this.operationJSR(this.resolvedAddress);
+    }
+
+    /**
+     * Load Accumulator and Index X with Memory (NMOS unofficial).
+     */
+    private void instructionLAX() {
+
+        this.registers.accumulator = this.operationLoad(this.readUInt8(this.resolvedAddress));
+        this.registers.x = this.registers.accumulator;
+    }
+
+    /**
+     * Load Accumulator with Memory.
+     */
+    private void instructionLDA() {
+
+        this.registers.accumulator = this.operationLoad(this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Load Index X with Memory.
+     */
+    private void instructionLDX() {
+
+        this.registers.x = this.operationLoad(this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Load Index Y with Memory.
+     */
+    private void instructionLDY() {
+
+        this.registers.y = this.operationLoad(this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Logical Shift Right One Bit.
+     */
+    private void instructionLSR() {
+
+        if (this.resolvedAddress == -1) {
+            this.registers.accumulator = this.operationLSR(this.registers.accumulator);
+        } else {
+            this.writeUInt8(this.resolvedAddress, this.operationLSR(this.readUInt8(this.resolvedAddress)));
+        }
+    }
+
+    /**
+     * No operation.
+     */
+    private void instructionNOP() {
+
+        // Nothing to do
+    }
+
+    /**
+     * OR Memory with Accumulator.
+     */
+    private void instructionORA() {
+
+        this.operationORA(this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Push Accumulator on Stack.
+     */
+    private void instructionPHA() {
+
+        this.pushUInt8(this.registers.accumulator);
+    }
+
+    /**
+     * Push Index X on Stack (65C02).
+     */
+    private void instructionPHX() {
+
+        this.pushUInt8(this.registers.x);
+    }
+
+    /**
+     * Push Index Y on Stack (65C02).
+     */
+    private void instructionPHY() {
+
+        this.pushUInt8(this.registers.y);
+    }
+
+    /**
+     * Pull Accumulator from Stack.
+     */
+    private void instructionPLA() {
+
+        this.registers.accumulator = this.operationLoad(this.pullUInt8());
+    }
+
+    /**
+     * Push Processor Status on Stack.
+     */
+    private void instructionPHP() {
+
+        this.pushUInt8(this.currentStatus() | MOS6502Registers.FLAG_BREAK | MOS6502Registers.FLAG_UNUSED);
+    }
+
+    /**
+     * Pull Processor Status from Stack.
+     */
+    private void instructionPLP() {
+
+        this.operationPullStatus();
+    }
+
+    /**
+     * Pull Index X from Stack (65C02).
+     */
+    private void instructionPLX() {
+
+        this.registers.x = this.operationLoad(this.pullUInt8());
+    }
+
+    /**
+     * Pull Index Y from Stack (65C02).
+     */
+    private void instructionPLY() {
+
+        this.registers.y = this.operationLoad(this.pullUInt8());
+    }
+
+    /**
+     * Reset Memory Bit (65C02).
+     *
+     * @param bitMask Mask of the bit to reset
+     */
+    private void instructionRMB(final int bitMask) {
+
+        this.writeUInt8(this.resolvedAddress, this.readUInt8(this.resolvedAddress) & ~bitMask);
+    }
+
+    /**
+     * Rotate Left One Bit then AND with Accumulator (NMOS unofficial).
+     */
+    private void instructionRLA() {
+
+        final int value = this.operationROL(this.readUInt8(this.resolvedAddress));
+        this.writeUInt8(this.resolvedAddress, value);
+        this.operationAND(value);
+    }
+
+    /**
+     * Rotate Left One Bit.
+     */
+    private void instructionROL() {
+
+        if (this.resolvedAddress == -1) {
+            this.registers.accumulator = this.operationROL(this.registers.accumulator);
+        } else {
+            this.writeUInt8(this.resolvedAddress, this.operationROL(this.readUInt8(this.resolvedAddress)));
+        }
+    }
+
+    /**
+     * Rotate Right One Bit.
+     */
+    private void instructionROR() {
+
+        if (this.resolvedAddress == -1) {
+            this.registers.accumulator = this.operationROR(this.registers.accumulator);
+        } else {
+            this.writeUInt8(this.resolvedAddress, this.operationROR(this.readUInt8(this.resolvedAddress)));
+        }
+    }
+
+    /**
+     * Rotate Right One Bit then Add to Accumulator with Carry (NMOS unofficial).
+     */
+    private void instructionRRA() {
+
+        final int value = this.operationROR(this.readUInt8(this.resolvedAddress));
+        this.writeUInt8(this.resolvedAddress, value);
+        this.operationADC(value);
+    }
+
+    /**
+     * Return from Interrupt.
+     */
+    private void instructionRTI() {
+
+        this.operationRTI();
+    }
+
+    /**
+     * Return from Subroutine.
+     */
+    private void instructionRTS() {
+
+        this.operationRTS();
+    }
+
+    /**
+     * Store Accumulator AND Index X in Memory (NMOS unofficial).
+     */
+    private void instructionSAX() {
+
+        this.writeUInt8(this.resolvedAddress, this.registers.accumulator & this.registers.x);
+    }
+
+    /**
+     * Subtract Memory from Accumulator with Borrow.
+     */
+    private void instructionSBC() {
+
+        this.operationSBC(this.readUInt8(this.resolvedAddress));
+    }
+
+    /**
+     * Set Carry Flag.
+     */
+    private void instructionSEC() {
+
+        this.carryResult = 0x100;
+    }
+
+    /**
+     * Set Decimal Mode.
+     */
+    private void instructionSED() {
+
+        this.registers.setFlag(MOS6502Registers.FLAG_DECIMAL_MODE, true);
+    }
+
+    /**
+     * Set Interrupt Disable Status.
+     */
+    private void instructionSEI() {
+
+        this.registers.setFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, true);
+    }
+
+    /**
+     * Shift Left One Bit then OR with Accumulator (NMOS unofficial).
+     */
+    private void instructionSLO() {
+
+        final int value = this.operationASL(this.readUInt8(this.resolvedAddress));
+        this.writeUInt8(this.resolvedAddress, value);
+        this.operationORA(value);
+    }
+
+    /**
+     * Set Memory Bit (65C02).
+     *
+     * @param bitMask Mask of the bit to set
+     */
+    private void instructionSMB(final int bitMask) {
+
+        this.writeUInt8(this.resolvedAddress, this.readUInt8(this.resolvedAddress) | bitMask);
+    }
+
+    /**
+     * Shift Right One Bit then EOR with Accumulator (NMOS unofficial).
+     */
+    private void instructionSRE() {
+
+        final int value = this.operationLSR(this.readUInt8(this.resolvedAddress));
+        this.writeUInt8(this.resolvedAddress, value);
+        this.operationEOR(value);
+    }
+
+    /**
+     * Store Accumulator in Memory.
+     */
+    private void instructionSTA() {
+
+        this.writeUInt8(this.resolvedAddress, this.registers.accumulator);
+    }
+
+    /**
+     * Store Index X in Memory.
+     */
+    private void instructionSTX() {
+
+        this.writeUInt8(this.resolvedAddress, this.registers.x);
+    }
+
+    /**
+     * Store Index Y in Memory.
+     */
+    private void instructionSTY() {
+
+        this.writeUInt8(this.resolvedAddress, this.registers.y);
+    }
+
+    /**
+     * Stop the Processor (65C02).
      */
-    private void instructionBMI() {
-
-        if (this.registers.getFlag(MOS6502Registers.FLAG_NEGATIVE)) {
-            if ((this.resolvedAddress & 0xFF00) != (this.registers.programCounter & 0xFF00)) {
-                // Page is crossed
-                this.cycleCount += 2;
-            } else {
-                this.cycleCount += 1;
-            }
+    private void instructionSTP() {
 
-            this.registers.programCounter = this.resolvedAddress;
-        }
+        this.operationSTP();
     }
 
     /**
-     * Force an Interrupt.
+     * Store Zero in Memory (65C02).
      */
-    private void instructionBRK() {
-
-        this.registers.setFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, true);
-        this.registers.setFlag(MOS6502Registers.FLAG_BREAK, true);
-
-        this.writeUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer, (this.registers.programCounter >> 8) & 0xFF);
-        this.registers.stackPointer -= 1;
+    private void instructionSTZ() {
 
-        this.writeUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer, this.registers.programCounter & 0xFF);
-        this.registers.stackPointer -= 1;
+        this.writeUInt8(this.resolvedAddress, 0);
+    }
 
-        final int lsb = this.readUInt8(PROGRAM_COUNTER_MEMORY_LOCATION);
-        final int msb = this.readUInt8(PROGRAM_COUNTER_MEMORY_LOCATION + 1);
-        this.registers.programCounter = (msb << 8) | lsb;
+    /**
+     * Transfer Accumulator to Index X.
+     */
+    private void instructionTAX() {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_BREAK, false);
+        this.registers.x = this.operationLoad(this.registers.accumulator);
     }
 
     /**
-     * Branch on Overflow Clear (Flag {@link MOS6502Registers#FLAG_OVERFLOW} = 0).
+     * Transfer Accumulator to Index Y.
      */
-    private void instructionBVC() {
-
-        if (!this.registers.getFlag(MOS6502Registers.FLAG_OVERFLOW)) {
-            if ((this.resolvedAddress & 0xFF00) != (this.registers.programCounter & 0xFF00)) {
-                // Page is crossed
-                this.cycleCount += 2;
-            } else {
-                this.cycleCount += 1;
-            }
+    private void instructionTAY() {
 
-            this.registers.programCounter = this.resolvedAddress;
-        }
+        this.registers.y = this.operationLoad(this.registers.accumulator);
     }
 
     /**
-     * Branch on Overflow Set (Flag {@link MOS6502Registers#FLAG_OVERFLOW} = 1).
+     * Transfer Stack Pointer to Index X.
      */
-    private void instructionBVS() {
-
-        if (this.registers.getFlag(MOS6502Registers.FLAG_OVERFLOW)) {
-            if ((this.resolvedAddress & 0xFF00) != (this.registers.programCounter & 0xFF00)) {
-                // Page is crossed
-                this.cycleCount += 2;
-            } else {
-                this.cycleCount += 1;
-            }
+    private void instructionTSX() {
 
-            this.registers.programCounter = this.resolvedAddress;
-        }
+        this.registers.x = this.operationLoad(this.registers.stackPointer);
     }
 
     /**
-     * Branch on Result Plus (Flag {@link MOS6502Registers#FLAG_NEGATIVE} = 0).
+     * Transfer Index X to Accumulator.
      */
-    private void instructionBPL() {
-
-        if (!this.registers.getFlag(MOS6502Registers.FLAG_NEGATIVE)) {
-            if ((this.resolvedAddress & 0xFF00) != (this.registers.programCounter & 0xFF00)) {
-                // Page is crossed
-                this.cycleCount += 2;
-            } else {
-                this.cycleCount += 1;
-            }
+    private void instructionTXA() {
 
-            this.registers.programCounter = this.resolvedAddress;
-        }
+        this.registers.accumulator = this.operationLoad(this.registers.x);
     }
 
     /**
-     * Clear Carry Flag.
+     * Transfer Index X to Stack Pointer.
      */
-    private void instructionCLC() {
+    private void instructionTXS() {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, false);
+        this.registers.stackPointer = this.registers.x;
     }
 
     /**
-     * Clear Decimal Mode.
+     * Transfer Index Y to Accumulator.
      */
-    private void instructionCLD() {
+    private void instructionTYA() {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_DECIMAL_MODE, false);
+        this.registers.accumulator = this.operationLoad(this.registers.y);
     }
 
     /**
-     * Clear Interrupt Disable Status.
+     * Test and Reset Memory Bits with Accumulator (65C02).
      */
-    private void instructionCLI() {
+    private void instructionTRB() {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, false);
+        this.operationTRB(this.resolvedAddress);
     }
 
     /**
-     * Clear Overflow Flag.
+     * Test and Set Memory Bits with Accumulator (65C02).
      */
-    private void instructionCLV() {
+    private void instructionTSB() {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_OVERFLOW, false);
+        this.operationTSB(this.resolvedAddress);
     }
 
     /**
-     * Compare Memory and Accumulator.
+     * Unknown operation code. The program counter has already been moved past
+     * the opcode, so the faulty opcode is read back from the previous address.
      */
-    private void instructionCMP() {
+    private void instructionUnknown() {
 
-        final int memoryValue = this.readUInt8(this.resolvedAddress);
-        final int tmp = this.registers.accumulator - memoryValue;
-
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((tmp >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, tmp == 0);
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, memoryValue <= tmp);
+        final int opcode = this.readUInt8((this.registers.programCounter - 1) & 0xFFFF);
+        throw new IllegalStateException("Unknown opcode 0x" + Integer.toHexString(opcode));
     }
 
     /**
-     * Compare Memory and Index X.
+     * Wait for Interrupt (65C02).
      */
-    private void instructionCPX() {
-
-        final int memoryValue = this.readUInt8(this.resolvedAddress);
-        final int tmp = this.registers.x - memoryValue;
+    private void instructionWAI() {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((tmp >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, tmp == 0);
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, memoryValue <= tmp);
+        this.operationWAI();
     }
 
     /**
-     * Compare Memory and Index Y.
+     * Adds value to the accumulator with carry, in binary or decimal mode.
+     *
+     * @param value Value to add
      */
-    private void instructionCPY() {
-
-        final int memoryValue = this.readUInt8(this.resolvedAddress);
-        final int tmp = this.registers.y - memoryValue;
+    private void operationADC(final int value) {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((tmp >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, tmp == 0);
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, memoryValue <= tmp);
+        if ((this.registers.status & this.decimalModeMask) != 0) {
+            this.operationDecimalADC(value);
+        } else {
+            this.operationBinaryADC(value);
+        }
     }
 
     /**
-     * Decrement Memory by One.
+     * Adds value to the accumulator with carry, in binary mode.
+     *
+     * @param value Value to add
      */
-    private void instructionDEC() {
+    private void operationBinaryADC(final int value) {
+
+        final int accumulator = this.registers.accumulator;
+        final int result = accumulator + value + this.carryBit();
 
-        int memoryValue = this.readUInt8(this.resolvedAddress);
-        memoryValue = (memoryValue - 1) & 0xFF;
-        this.writeUInt8(memoryValue, this.resolvedAddress);
+        this.overflowResult = ~(accumulator ^ value) & (accumulator ^ result);
+        this.carryResult = result;
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((memoryValue >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, memoryValue == 0);
+        this.registers.accumulator = this.operationLoad(result & 0xFF);
     }
 
     /**
-     * Decrement Index X by One.
+     * Performs a bitwise AND between the accumulator and value.
+     *
+     * @param value Value
      */
-    private void instructionDEX() {
-
-        this.registers.x -= 1;
+    private void operationAND(final int value) {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.x >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.x == 0);
+        this.registers.accumulator = this.operationLoad(this.registers.accumulator & value);
     }
 
     /**
-     * Decrement Index Y by One.
+     * Shifts value one bit left.
+     *
+     * @param value Value to shift
+     * @return Shifted value
      */
-    private void instructionDEY() {
+    private int operationASL(final int value) {
 
-        this.registers.y -= 1;
+        this.carryResult = value << 1;
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.y >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.y == 0);
+        return this.operationLoad((value << 1) & 0xFF);
     }
 
     /**
-     * Exclusive-OR Memory with Accumulator.
+     * Tests bits of value with the accumulator.
+     *
+     * @param value Value
      */
-    private void instructionEOR() {
+    private void operationBIT(final int value) {
 
-        final int memoryValue = this.readUInt8(this.resolvedAddress);
+        this.negativeResult = value;
+        this.overflowResult = value << 1;
+        this.zeroResult = value & this.registers.accumulator;
+    }
 
-        this.registers.accumulator = (this.registers.accumulator ^ memoryValue) & 0xFF;
+    /**
+     * Tests bits of an immediate value with the accumulator. Unlike the other addressing
+     * modes, only the zero flag is updated.
+     *
+     * @param value Value
+     */
+    private void operationBITImmediate(final int value) {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.accumulator >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.accumulator == 0);
+        this.zeroResult = value & this.registers.accumulator;
     }
 
     /**
-     * Increment Memory by One.
+     * Branches to target address if condition is met. Taking the branch costs one
+     * more cycle, and another one if the target address is on a different page.
+     *
+     * @param condition     Branch condition
+     * @param targetAddress Address to branch to
      */
-    private void instructionINC() {
+    private void operationBranch(final boolean condition, final int targetAddress) {
 
-        int memoryValue = this.readUInt8(this.resolvedAddress);
-        memoryValue = (memoryValue + 1) & 0xFF;
-        this.writeUInt8(memoryValue, this.resolvedAddress);
+        if (condition) {
+            if ((targetAddress & 0xFF00) != (this.registers.programCounter & 0xFF00)) {
+                // Page is crossed
+                this.cycleCount += 2;
+            } else {
+                this.cycleCount += 1;
+            }
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((memoryValue >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, memoryValue == 0);
+            this.registers.programCounter = targetAddress;
+        }
     }
 
     /**
-     * Increment Index X by One.
+     * Tests a bit of a zero-page value, then branches if the bit has the expected state.
+     *
+     * @param zeroPageAddress Zero-page address of the value to test
+     * @param offset          Signed offset to branch to, relative to the program counter
+     * @param bitMask         Mask of the bit to test
+     * @param bitSet          Expected state of the bit to branch
      */
-    private void instructionINX() {
+    private void operationBranchOnBit(final int zeroPageAddress, final int offset, final int bitMask, final boolean bitSet) {
 
-        this.registers.x += 1;
+        final int value = this.readUInt8(zeroPageAddress);
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.x >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.x == 0);
+        this.operationBranch(((value & bitMask) != 0) == bitSet, (this.registers.programCounter + offset) & 0xFFFF);
     }
 
     /**
-     * Increment Index Y by One.
+     * Forces an interrupt. The byte following the BRK opcode is skipped, the return
+     * address and the processor status (with the break flag) are pushed on the stack.
      */
-    private void instructionINY() {
+    private void operationBRK() {
 
-        this.registers.y += 1;
+        final int returnAddress = (this.registers.programCounter + 1) & 0xFFFF;
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.y >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.y == 0);
+        this.pushUInt8(returnAddress >> 8);
+        this.pushUInt8(returnAddress & 0xFF);
+        this.pushUInt8(this.currentStatus() | MOS6502Registers.FLAG_BREAK | MOS6502Registers.FLAG_UNUSED);
+        this.jumpToInterruptHandler(INTERRUPT_REQUEST_MEMORY_LOCATION);
     }
 
     /**
-     * Jump to New Location.
+     * Compares register with value.
+     *
+     * @param register Register value
+     * @param value    Value to compare with
      */
-    private void instructionJMP() {
+    private void operationCompare(final int register, final int value) {
 
-        this.registers.programCounter = this.resolvedAddress;
+        // Bit 8 is set unless the subtraction borrows
+        this.carryResult = register - value + 0x100;
+        this.operationLoad((register - value) & 0xFF);
     }
 
     /**
-     * Jump to New Location (subroutine) Saving Return Address.
+     * Adds value to the accumulator with carry, in decimal mode.
+     *
+     * @param value Value to add
+     * @see DecimalModeTable
      */
-    private void instructionJSR() {
-
-        this.registers.programCounter = this.registers.programCounter - 1;
-
-        this.writeUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer, (this.registers.programCounter >> 8) & 0xFF);
-        this.registers.stackPointer -= 1;
-
-        this.writeUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer, this.registers.programCounter & 0xFF);
-        this.registers.stackPointer -= 1;
+    private void operationDecimalADC(final int value) {
 
-        this.registers.programCounter = this.resolvedAddress;
+        this.operationDecimal(this.decimalADCTable[(this.carryBit() << 16) | (this.registers.accumulator << 8) | value]);
     }
 
     /**
-     * Load Accumulator with Memory.
+     * Subtracts value from the accumulator with borrow, in decimal mode.
+     *
+     * @param value Value to subtract
+     * @see DecimalModeTable
      */
-    private void instructionLDA() {
+    private void operationDecimalSBC(final int value) {
 
-        this.registers.accumulator = this.readUInt8(this.resolvedAddress);
-
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.accumulator >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.accumulator == 0);
+        this.operationDecimal(this.decimalSBCTable[(this.carryBit() << 16) | (this.registers.accumulator << 8) | value]);
     }
 
     /**
-     * Load Index X with Memory.
+     * Applies a precomputed decimal mode result to the accumulator and flags. On 65C02,
+     * decimal mode operations spend one more cycle.
+     *
+     * @param entry Entry of a decimal mode table
      */
-    private void instructionLDX() {
+    private void operationDecimal(final int entry) {
 
-        this.registers.x = this.readUInt8(this.resolvedAddress);
+        final int flags = entry >> 8;
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.x >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.x == 0);
+        this.registers.accumulator = entry & 0xFF;
+        this.negativeResult = flags;
+        this.zeroResult = (flags & MOS6502Registers.FLAG_ZERO) ^ MOS6502Registers.FLAG_ZERO;
+        this.carryResult = flags << 8;
+        this.overflowResult = flags << 1;
+        this.cycleCount += this.decimalModeCycles;
     }
 
     /**
-     * Load Index Y with Memory.
+     * Decrements value by one.
+     *
+     * @param value Value to decrement
+     * @return Decremented value
      */
-    private void instructionLDY() {
-
-        this.registers.y = this.readUInt8(this.resolvedAddress);
+    private int operationDEC(final int value) {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.y >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.y == 0);
+        return this.operationLoad((value - 1) & 0xFF);
     }
 
     /**
-     * Logical Shift Right One Bit.
+     * Performs a bitwise exclusive OR between the accumulator and value.
+     *
+     * @param value Value
      */
-    private void instructionLSR() {
-
-        final int currentValue = this.resolvedAddress == -1
-            ? this.registers.accumulator
-            : this.readUInt8(this.resolvedAddress);
+    private void operationEOR(final int value) {
 
-        final int shiftedValue = ((currentValue & 0xFFFF) >> 1) & 0xFFFF;
-
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, (currentValue & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, shiftedValue == 0);
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, ((shiftedValue >> 7) & 1) == 1);
-
-        if (this.resolvedAddress == -1) {
-            this.registers.programCounter = shiftedValue;
-        } else {
-            writeUInt8(this.resolvedAddress, shiftedValue);
-        }
+        this.registers.accumulator = this.operationLoad(this.registers.accumulator ^ value);
     }
 
     /**
-     * No operation.
+     * Increments value by one.
+     *
+     * @param value Value to increment
+     * @return Incremented value
      */
-    private void instructionNOP() {
+    private int operationINC(final int value) {
 
-        // Nothing to do
+        return this.operationLoad((value + 1) & 0xFF);
     }
 
     /**
-     * OR Memory with Accumulator.
+     * Pushes the return address on the stack, then jumps to the subroutine.
+     *
+     * @param targetAddress Subroutine address
      */
-    private void instructionORA() {
+    private void operationJSR(final int targetAddress) {
 
-        final int memoryValue = this.readUInt8(this.resolvedAddress);
-        this.registers.accumulator = (this.registers.accumulator | memoryValue) & 0xFF;
+        final int returnAddress = (this.registers.programCounter - 1) & 0xFFFF;
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.accumulator >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.accumulator == 0);
+        this.pushUInt8(returnAddress >> 8);
+        this.pushUInt8(returnAddress & 0xFF);
+
+        this.registers.programCounter = targetAddress;
     }
 
     /**
-     * Push Accumulator on Stack.
+     * Updates {@link MOS6502Registers#FLAG_NEGATIVE} and {@link MOS6502Registers#FLAG_ZERO}
+     * flags according to the value being loaded. Flags are only recorded, they are
+     * evaluated when read.
+     *
+     * @param value 8-bits value
+     * @return The value
      */
-    private void instructionPHA() {
+    private int operationLoad(final int value) {
 
-        this.writeUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer, this.registers.accumulator);
-        this.registers.stackPointer -= 1;
+        this.negativeResult = value;
+        this.zeroResult = value;
+
+        return value;
     }
 
     /**
-     * Pull Accumulator from Stack.
+     * Shifts value one bit right.
+     *
+     * @param value Value to shift
+     * @return Shifted value
      */
-    private void instructionPLA() {
+    private int operationLSR(final int value) {
 
-        this.registers.stackPointer += 1;
-        this.registers.accumulator = this.readUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer);
+        this.carryResult = value << 8;
 
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.accumulator >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, this.registers.accumulator == 0);
+        return this.operationLoad(value >> 1);
     }
 
     /**
-     * Push Processor Status on Stack.
+     * Performs a bitwise OR between the accumulator and value.
+     *
+     * @param value Value
      */
-    private void instructionPHP() {
+    private void operationORA(final int value) {
 
-        this.writeUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer, this.registers.status);
-        this.registers.stackPointer -= 1;
+        this.registers.accumulator = this.operationLoad(this.registers.accumulator | value);
     }
 
     /**
-     * Pull Processor Status from Stack.
+     * Pulls the processor status from the stack. The break flag does not exist
+     * in the register itself and the unused flag is always set.
      */
-    private void instructionPLP() {
+    private void operationPullStatus() {
 
-        this.registers.stackPointer += 1;
-        this.registers.status = this.readUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer);
+        this.registers.status = (this.pullUInt8() & ~MOS6502Registers.FLAG_BREAK) | MOS6502Registers.FLAG_UNUSED;
+        this.loadStatus();
     }
 
     /**
-     * Rotate Left One Bit.
+     * Rotates value one bit left, through the carry.
+     *
+     * @param value Value to rotate
+     * @return Rotated value
      */
-    private void instructionROL() {
+    private int operationROL(final int value) {
 
-        final int carryFlagValue = this.registers.getFlag(MOS6502Registers.FLAG_CARRY_BIT) ? 1 : 0;
-        final int currentValue = this.resolvedAddress == -1
-            ? this.registers.accumulator
-            : this.readUInt8(this.resolvedAddress);
+        final int carry = this.carryBit();
+        this.carryResult = value << 1;
 
-        final int shiftedValue = (((currentValue & 0xFFFF) << 1) | carryFlagValue) & 0xFFFF;
-
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((shiftedValue >> 6) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, shiftedValue == 0);
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, ((currentValue >> 7) & 1) == 1);
-
-        if (this.resolvedAddress == -1) {
-            this.registers.programCounter = shiftedValue;
-        } else {
-            writeUInt8(this.resolvedAddress, shiftedValue);
-        }
+        return this.operationLoad(((value << 1) | carry) & 0xFF);
     }
 
     /**
-     * Rotate Right One Bit.
+     * Rotates value one bit right, through the carry.
+     *
+     * @param value Value to rotate
+     * @return Rotated value
      */
-    private void instructionROR() {
+    private int operationROR(final int value) {
 
-        final int carryFlagValue = this.registers.getFlag(MOS6502Registers.FLAG_CARRY_BIT) ? 1 : 0;
-        final int currentValue = this.resolvedAddress == -1
-            ? this.registers.accumulator
-            : this.readUInt8(this.resolvedAddress);
+        final int carry = this.carryBit();
+        this.carryResult = value << 8;
 
-        final int shiftedValue = (((carryFlagValue & 0xFFFF) << 7) | ((currentValue & 0xFFFF) >> 1)) & 0xFFFF;
-
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((shiftedValue >> 6) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, shiftedValue == 0);
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, (currentValue & 1) == 1);
-
-        if (this.resolvedAddress == -1) {
-            this.registers.programCounter = shiftedValue;
-        } else {
-            writeUInt8(this.resolvedAddress, shiftedValue);
-        }
+        return this.operationLoad((carry << 7) | (value >> 1));
     }
 
     /**
-     * Return from Interrupt.
+     * Returns from interrupt: pulls the processor status, then the program counter.
      */
-    private void instructionRTI() {
-
-        this.registers.stackPointer += 1;
-        this.registers.status = this.readUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer);
+    private void operationRTI() {
 
-        final int lsb = this.readUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer);
-        this.registers.stackPointer += 1;
-
-        final int msb = this.readUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer);
-        this.registers.stackPointer += 1;
+        this.operationPullStatus();
 
+        final int lsb = this.pullUInt8();
+        final int msb = this.pullUInt8();
         this.registers.programCounter = (msb << 8) | lsb;
     }
 
     /**
-     * Return from Subroutine.
+     * Returns from subroutine: pulls the return address and moves past it.
      */
-    private void instructionRTS() {
-
-        final int lsb = this.readUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer);
-        this.registers.stackPointer += 1;
+    private void operationRTS() {
 
-        final int msb = this.readUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer);
-        this.registers.stackPointer += 1;
-
-        this.registers.programCounter = (msb << 8) | lsb;
-        this.registers.programCounter += 1;
+        final int lsb = this.pullUInt8();
+        final int msb = this.pullUInt8();
+        this.registers.programCounter = (((msb << 8) | lsb) + 1) & 0xFFFF;
     }
 
     /**
-     * Subtract Memory from Accumulator with Borrow.
+     * Subtracts value from the accumulator with borrow, in binary or decimal mode.
+     *
+     * @param value Value to subtract
      */
-    private void instructionSBC() {
+    private void operationSBC(final int value) {
+
+        if ((this.registers.status & this.decimalModeMask) != 0) {
+            this.operationDecimalSBC(value);
+            return;
+        }
 
         // It is possible to convert the subtraction to a simple addition by simply inverting
-        // the bits of the signed value to subtract.
+        // the bits of the value to subtract.
         //
         //  3 = 00000011
         // -3 = 11111100 + 00000001 = 11111101 (or 253 because uint8 have range 0..255)
         //
         // The documentation for the SBC instruction states that the operation "1 - C" (or ~C)
-        // should be performed. However, the XOR operator already does this.
-        final int memoryValue = this.readUInt8(this.resolvedAddress);
-        final int invertedBitMemoryValue = ((memoryValue & 0xFF) ^ 0x00FF) & 0xFF;
-        final int previousOpCarry = this.registers.getFlag(MOS6502Registers.FLAG_CARRY_BIT) ? 1 : 0;
-
-        final int result = this.registers.accumulator + invertedBitMemoryValue + previousOpCarry;
+        // should be performed. However, adding the carry to the inverted bits already does this.
+        this.operationBinaryADC(value ^ 0xFF);
+    }
 
-        this.registers.setFlag(
-            MOS6502Registers.FLAG_OVERFLOW,
-            (~(this.registers.accumulator ^ invertedBitMemoryValue) & (this.registers.accumulator ^ result) & 0x80) == 1);
+    /**
+     * Stops the processor: the program counter is moved back to the STP opcode, so that
+     * the instruction is executed again until the processor is reset.
+     */
+    private void operationSTP() {
 
-        this.registers.accumulator = result & 0xFF;
-        this.registers.setFlag(MOS6502Registers.FLAG_NEGATIVE, ((this.registers.accumulator >> 7) & 1) == 1);
-        this.registers.setFlag(MOS6502Registers.FLAG_ZERO, result == 0);
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, result > 0xFF);
+        this.registers.programCounter = (this.registers.programCounter - 1) & 0xFFFF;
     }
 
     /**
-     * Set Carry Flag.
+     * Tests memory bits with the accumulator, then resets them.
+     *
+     * @param address Memory address
      */
-    private void instructionSEC() {
+    private void operationTRB(final int address) {
+
+        final int value = this.readUInt8(address);
 
-        this.registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, true);
+        this.zeroResult = value & this.registers.accumulator;
+        this.writeUInt8(address, value & ~this.registers.accumulator);
     }
 
     /**
-     * Set Decimal Mode.
+     * Tests memory bits with the accumulator, then sets them.
+     *
+     * @param address Memory address
      */
-    private void instructionSED() {
+    private void operationTSB(final int address) {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_DECIMAL_MODE, true);
+        final int value = this.readUInt8(address);
+
+        this.zeroResult = value & this.registers.accumulator;
+        this.writeUInt8(address, value | this.registers.accumulator);
     }
 
     /**
-     * Set Interrupt Disable Status.
+     * Waits for an interrupt: the processor idles until the IRQ line is asserted, a
+     * NMI is triggered or the processor is reset.
      */
-    private void instructionSEI() {
+    private void operationWAI() {
 
-        this.registers.setFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS, true);
+        this.interruptState |= INTERRUPT_STATE_WAITING;
     }
 
     /**
-     * Store Accumulator in Memory.
+     * Reads the byte located at the program counter, then moves the program counter past it.
+     *
+     * @return Read single value
      */
-    private void instructionSTA() {
+    private int fetchUInt8() {
 
-        this.writeUInt8(this.resolvedAddress, this.registers.accumulator);
+        final int value = this.readUInt8(this.registers.programCounter);
+        this.registers.programCounter = (this.registers.programCounter + 1) & 0xFFFF;
+
+        return value;
     }
 
     /**
-     * Store Index X in Memory.
+     * Reads the little-endian 16-bits value located at the program counter, then moves
+     * the program counter past it.
+     *
+     * @return Read 16-bits value
      */
-    private void instructionSTX() {
+    private int fetchUInt16() {
 
-        this.writeUInt8(this.resolvedAddress, this.registers.x);
+        final int lsb = this.fetchUInt8();
+        final int msb = this.fetchUInt8();
+
+        return (msb << 8) | lsb;
     }
 
     /**
-     * Store Index X in Memory.
+     * Adds an index to a base address. Instructions reading memory spend one more
+     * cycle when the resulting address lies on another page.
+     *
+     * @param baseAddress Base address
+     * @param index       Index to add
+     * @return Indexed address
      */
-    private void instructionSTY() {
+    private int indexWithPageCrossPenalty(final int baseAddress, final int index) {
 
-        this.writeUInt8(this.resolvedAddress, this.registers.y);
+        final int address = (baseAddress + index) & 0xFFFF;
+        if ((address & 0xFF00) != (baseAddress & 0xFF00)) {
+            // Page is crossed
+            this.cycleCount += 1;
+        }
+
+        return address;
     }
 
     /**
-     * Transfer Accumulator to Index X.
+     * Adds an index to the base address of a shift or rotate instruction. The NMOS 6502
+     * always spends the page crossing cycle, the 65C02 only when the page is crossed.
+     *
+     * @param baseAddress Base address
+     * @param index       Index to add
+     * @return Indexed address
      */
-    private void instructionTAX() {
+    private int indexShiftRotateAddress(final int baseAddress, final int index) {
 
-        this.registers.x = this.registers.accumulator;
+        if (this.processorVariant == ProcessorVariant.CMOS_65C02) {
+            return this.indexWithPageCrossPenalty(baseAddress, index);
+        }
+
+        return (baseAddress + index) & 0xFFFF;
     }
 
     /**
-     * Transfer Accumulator to Index Y.
+     * Reads a little-endian 16-bits value.
+     *
+     * @param address Address of the least significant byte
+     * @return Read 16-bits value
      */
-    private void instructionTAY() {
+    private int readUInt16(final int address) {
 
-        this.registers.y = this.registers.accumulator;
+        final int lsb = this.readUInt8(address);
+        final int msb = this.readUInt8((address + 1) & 0xFFFF);
+
+        return (msb << 8) | lsb;
     }
 
     /**
-     * Transfer Stack Pointer to Index X.
+     * Reads the little-endian 16-bits value targeted by an indirect jump. Like the
+     * original NMOS 6502, the most significant byte is read from the same page when
+     * the address lies at the end of a page. The 65C02 fixed this bug.
+     *
+     * @param address Address of the least significant byte
+     * @return Read 16-bits value
      */
-    private void instructionTSX() {
+    private int readIndirectUInt16(final int address) {
+
+        if (this.processorVariant == ProcessorVariant.CMOS_65C02) {
+            return this.readUInt16(address);
+        }
 
-        this.registers.x = this.registers.stackPointer;
+        final int lsb = this.readUInt8(address);
+        final int msb = this.readUInt8((address & 0xFF00) | ((address + 1) & 0x00FF));
+
+        return (msb << 8) | lsb;
     }
 
     /**
-     * Transfer Index X to Accumulator.
+     * Reads a little-endian 16-bits value from the zero page. The most significant
+     * byte wraps around to the beginning of the zero page.
+     *
+     * @param zeroPageAddress Zero page address of the least significant byte
+     * @return Read 16-bits value
      */
-    private void instructionTXA() {
+    private int readZeroPageUInt16(final int zeroPageAddress) {
 
-        this.registers.accumulator = this.registers.x;
+        final int lsb = this.readUInt8(zeroPageAddress);
+        final int msb = this.readUInt8((zeroPageAddress + 1) & 0x00FF);
+
+        return (msb << 8) | lsb;
     }
 
     /**
-     * Transfer Index X to Stack Pointer.
+     * Pushes a single value on the stack.
+     *
+     * @param value Value to push
      */
-    private void instructionTXS() {
+    private void pushUInt8(final int value) {
 
-        this.registers.stackPointer = this.registers.x;
+        this.writeUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer, value);
+        this.registers.stackPointer = (this.registers.stackPointer - 1) & 0xFF;
     }
 
     /**
-     * Transfer Index Y to Accumulator.
+     * Pulls a single value from the stack.
+     *
+     * @return Pulled value
      */
-    private void instructionTYA() {
+    private int pullUInt8() {
 
-        this.registers.accumulator = this.registers.y;
+        this.registers.stackPointer = (this.registers.stackPointer + 1) & 0xFF;
+        return this.readUInt8(STACK_MEMORY_LOCATION + this.registers.stackPointer);
     }
 }
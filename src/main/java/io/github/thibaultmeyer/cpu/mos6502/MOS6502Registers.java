@@ -11,6 +11,17 @@ public final class MOS6502Registers {
     public static final int FLAG_OVERFLOW = 1 << 6;
     public static final int FLAG_NEGATIVE = 1 << 7;
 
+    /**
+     * Negative and zero flags matching each 8-bits value, indexed by the value itself.
+     */
+    private static final int[] NEGATIVE_AND_ZERO_FLAG_TABLE = new int[256];
+
+    static {
+        for (int value = 0; value < NEGATIVE_AND_ZERO_FLAG_TABLE.length; value += 1) {
+            NEGATIVE_AND_ZERO_FLAG_TABLE[value] = (value & FLAG_NEGATIVE) | (value == 0 ? FLAG_ZERO : 0);
+        }
+    }
+
     public int accumulator;
     public int x;
     public int y;
@@ -46,6 +57,17 @@ public final class MOS6502Registers {
         this.status = 0;
     }
 
+    /**
+     * Gets the negative and zero flags matching an 8-bits value.
+     *
+     * @param value 8-bits value
+     * @return {@link #FLAG_NEGATIVE} and {@link #FLAG_ZERO} bits
+     */
+    public static int negativeAndZeroFlags(final int value) {
+
+        return NEGATIVE_AND_ZERO_FLAG_TABLE[value & 0xFF];
+    }
+
     /**
      * Gets flag's value.
      *
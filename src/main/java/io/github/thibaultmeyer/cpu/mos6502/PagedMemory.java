@@ -0,0 +1,171 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Read/write memory split into 256 bytes pages, which can be shared between forks. A
+ * fork only copies the page references; a shared page is duplicated on its first write,
+ * by whichever memory writes it. Like {@link ArrayMemory}, pages are read and written
+ * directly by the processor, without going through {@link BusUnit} methods.
+ */
+public final class PagedMemory implements BusUnit, Snapshottable {
+
+    static final int PAGE_SIZE = 256;
+
+    final byte[][] pages;
+
+    /**
+     * Whether each page is owned by this memory only, and can be written in place.
+     */
+    final boolean[] ownedPages;
+    final int mappingAddressMin;
+
+    /**
+     * Creates a new memory initialized with zeros.
+     *
+     * @param mappingAddressMin First mapped address, must be a multiple of the page size
+     * @param size              Size in bytes, must be a multiple of the page size
+     */
+    public PagedMemory(final int mappingAddressMin, final int size) {
+
+        if (mappingAddressMin < 0 || size <= 0 || mappingAddressMin + size > 0x10000) {
+            throw new IllegalArgumentException("Memory must fit in the 16-bits address space");
+        }
+        if (mappingAddressMin % PAGE_SIZE != 0 || size % PAGE_SIZE != 0) {
+            throw new IllegalArgumentException("Memory must be aligned on " + PAGE_SIZE + " bytes pages");
+        }
+
+        this.pages = new byte[size / PAGE_SIZE][];
+        this.ownedPages = new boolean[this.pages.length];
+        this.mappingAddressMin = mappingAddressMin;
+
+        for (int index = 0; index < this.pages.length; index += 1) {
+            this.pages[index] = new byte[PAGE_SIZE];
+            this.ownedPages[index] = true;
+        }
+    }
+
+    /**
+     * Creates a new instance sharing the pages of another memory.
+     *
+     * @param pagedMemory Memory to share pages with
+     */
+    private PagedMemory(final PagedMemory pagedMemory) {
+
+        this.pages = pagedMemory.pages.clone();
+        this.ownedPages = new boolean[this.pages.length];
+        this.mappingAddressMin = pagedMemory.mappingAddressMin;
+    }
+
+    /**
+     * Creates a copy of this memory, sharing all pages until they are written. Processors
+     * using this memory must then call {@link MOS6502Processor#remapBusUnits()}, as pages
+     * are no longer directly writable; {@link MOS6502Processor#fork()} takes care of it.
+     *
+     * @return Newly created memory
+     */
+    public PagedMemory fork() {
+
+        // Both memories now share every page
+        Arrays.fill(this.ownedPages, false);
+
+        return new PagedMemory(this);
+    }
+
+    /**
+     * Copies data into the memory.
+     *
+     * @param address Memory address where to copy data
+     * @param data    Data to copy
+     */
+    public void load(final int address, final byte[] data) {
+
+        for (int idx = 0; idx < data.length; idx += 1) {
+            this.write(address + idx, data[idx]);
+        }
+    }
+
+    /**
+     * Gets the number of pages owned by this memory only, the other ones being shared
+     * with forks.
+     *
+     * @return The number of owned pages
+     */
+    public int ownedPageCount() {
+
+        int count = 0;
+        for (final boolean owned : this.ownedPages) {
+            if (owned) {
+                count += 1;
+            }
+        }
+
+        return count;
+    }
+
+    @Override
+    public int snapshotSize() {
+
+        return this.pages.length * PAGE_SIZE;
+    }
+
+    @Override
+    public void saveSnapshot(final ByteBuffer buffer) {
+
+        for (final byte[] page : this.pages) {
+            buffer.put(page);
+        }
+    }
+
+    @Override
+    public void loadSnapshot(final ByteBuffer buffer) {
+
+        for (int index = 0; index < this.pages.length; index += 1) {
+            this.ownPage(index);
+            buffer.get(this.pages[index]);
+        }
+    }
+
+    @Override
+    public int mappingAddressMin() {
+
+        return this.mappingAddressMin;
+    }
+
+    @Override
+    public int mappingAddressMax() {
+
+        return this.mappingAddressMin + this.pages.length * PAGE_SIZE - 1;
+    }
+
+    @Override
+    public int read(final int address) {
+
+        final int offset = address - this.mappingAddressMin;
+        return this.pages[offset >> 8][offset & 0xFF] & 0xFF;
+    }
+
+    @Override
+    public void write(final int address, final int value) {
+
+        final int offset = address - this.mappingAddressMin;
+        final int index = offset >> 8;
+
+        this.ownPage(index);
+        this.pages[index][offset & 0xFF] = (byte) value;
+    }
+
+    /**
+     * Makes a page owned by this memory, duplicating it if it is shared.
+     *
+     * @param index Page index
+     */
+    private void ownPage(final int index) {
+
+        if (!this.ownedPages[index]) {
+            this.pages[index] = this.pages[index].clone();
+            this.ownedPages[index] = true;
+        }
+    }
+}
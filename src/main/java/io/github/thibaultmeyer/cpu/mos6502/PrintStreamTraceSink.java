@@ -0,0 +1,45 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.io.PrintStream;
+
+/**
+ * Trace sink writing a human-readable line per traced instruction. This sink
+ * is meant for debugging only, use {@link RingBufferTraceSink} to keep tracing
+ * enabled at full speed.
+ */
+public final class PrintStreamTraceSink implements TraceSink {
+
+    private final PrintStream printStream;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param printStream Stream where to write trace lines
+     */
+    public PrintStreamTraceSink(final PrintStream printStream) {
+
+        this.printStream = printStream;
+    }
+
+    @Override
+    public void trace(final int programCounter,
+                      final int opcode,
+                      final int accumulator,
+                      final int x,
+                      final int y,
+                      final int stackPointer,
+                      final int status,
+                      final long cycle) {
+
+        this.printStream.printf(
+            "%04X  %02X  A:%02X X:%02X Y:%02X P:%02X SP:%02X CYC:%d%n",
+            programCounter & 0xFFFF,
+            opcode & 0xFF,
+            accumulator & 0xFF,
+            x & 0xFF,
+            y & 0xFF,
+            status & 0xFF,
+            stackPointer & 0xFF,
+            cycle);
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+/**
+ * Processor variant to emulate. Variants share the documented NMOS instruction set,
+ * but differ on extra instructions, on some bugs and on decimal mode flags.
+ */
+public enum ProcessorVariant {
+
+    /**
+     * Original NMOS 6502. Indirect jumps do not cross pages and, in decimal mode, only
+     * the carry flag is valid after an addition or a subtraction. Stable unofficial
+     * instructions are supported.
+     */
+    NMOS_6502,
+
+    /**
+     * Ricoh 2A03, the NES processor. Behaves as the NMOS 6502, except that decimal mode
+     * is disabled: the decimal flag can be set, but additions and subtractions always
+     * operate in binary.
+     */
+    RICOH_2A03,
+
+    /**
+     * WDC 65C02. Adds the CMOS instructions (including Rockwell bit instructions), fixes
+     * the indirect jump page bug, clears the decimal flag on interrupt and sets valid
+     * flags in decimal mode at the cost of one more cycle. Unused opcodes are NOPs.
+     */
+    CMOS_65C02
+}
@@ -0,0 +1,251 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a processor at a target clock frequency (ie: 1_023_000, 1_789_773 or 2_000_000 Hz).
+ * Instructions are executed in time slices with {@link MOS6502Processor#run(long)}; after
+ * each slice, the runner waits until the wall-clock time of the latest executed cycle.
+ * Waiting parks the thread, then spins for the last microseconds to compensate for the
+ * parking inaccuracy. The schedule is derived from {@link MOS6502Processor#totalCycles()},
+ * so slice overshoots never accumulate. In turbo mode, slices run back to back and the
+ * achieved frequency tells how fast the processor can go.
+ */
+public final class RealTimeRunner {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Remaining time, in nanoseconds, below which the runner spins instead of parking.
+     */
+    private static final long SPIN_THRESHOLD_NANOS = 100_000L;
+
+    /**
+     * Delay, in nanoseconds, after which a late runner gives up catching up and restarts
+     * its schedule from the current time.
+     */
+    private static final long MAXIMUM_DRIFT_NANOS = 100_000_000L;
+
+    private final MOS6502Processor processor;
+    private final long frequency;
+    private final int sliceCycles;
+
+    private volatile boolean turbo;
+    private volatile boolean stopRequested;
+
+    private long scheduleStartNanos;
+    private long scheduleStartCycle;
+    private long runStartNanos;
+    private long runStartCycle;
+    private long lastDriftNanos;
+    private long maximumDriftNanos;
+    private long totalSlackNanos;
+    private int resynchronizationCount;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param processor   Processor to run
+     * @param frequency   Target clock frequency, in Hz
+     * @param sliceCycles Number of cycles executed between two waits
+     */
+    public RealTimeRunner(final MOS6502Processor processor, final long frequency, final int sliceCycles) {
+
+        if (frequency <= 0) {
+            throw new IllegalArgumentException("Frequency must be positive, got " + frequency);
+        }
+        if (sliceCycles <= 0) {
+            throw new IllegalArgumentException("Slice cycles must be positive, got " + sliceCycles);
+        }
+
+        this.processor = processor;
+        this.frequency = frequency;
+        this.sliceCycles = sliceCycles;
+        this.turbo = false;
+        this.stopRequested = false;
+    }
+
+    /**
+     * Runs the processor, paced to the target frequency, until the given number of cycles
+     * is consumed or {@link #stop()} is called. Statistics are reset on each call.
+     *
+     * @param cycles Number of cycles to run, {@link Long#MAX_VALUE} to run until stopped
+     * @return Number of cycles consumed
+     */
+    public long run(final long cycles) {
+
+        this.stopRequested = false;
+        this.lastDriftNanos = 0;
+        this.maximumDriftNanos = 0;
+        this.totalSlackNanos = 0;
+        this.resynchronizationCount = 0;
+        this.runStartNanos = System.nanoTime();
+        this.runStartCycle = this.processor.totalCycles();
+        this.restartSchedule(this.runStartNanos);
+
+        boolean throttled = !this.turbo;
+        long consumedCycles = 0;
+        long sliceEnd = this.sliceCycles;
+        while (consumedCycles < cycles && !this.stopRequested) {
+            consumedCycles += this.processor.run(Math.min(cycles, sliceEnd) - consumedCycles);
+
+            // Slices end on multiples of the slice length, so that the cycles a slice
+            // overshoots by are deducted from the next one
+            sliceEnd = consumedCycles - consumedCycles % this.sliceCycles + this.sliceCycles;
+
+            if (this.turbo) {
+                throttled = false;
+            } else if (!throttled) {
+                // Leaving turbo mode, the schedule starts again from now
+                throttled = true;
+                this.restartSchedule(System.nanoTime());
+            } else {
+                this.waitForSchedule();
+            }
+        }
+
+        return consumedCycles;
+    }
+
+    /**
+     * Requests the runner to stop at the end of the current time slice. Can be called from
+     * another thread.
+     */
+    public void stop() {
+
+        this.stopRequested = true;
+    }
+
+    /**
+     * Enables or disables turbo mode. In turbo mode, the processor runs unthrottled. Can be
+     * called from another thread; the change applies from the next time slice.
+     *
+     * @param turbo {@code true} to run unthrottled, otherwise, {@code false}
+     */
+    public void setTurbo(final boolean turbo) {
+
+        this.turbo = turbo;
+    }
+
+    /**
+     * Checks whether turbo mode is enabled.
+     *
+     * @return {@code true} if the processor runs unthrottled, otherwise, {@code false}
+     */
+    public boolean isTurbo() {
+
+        return this.turbo;
+    }
+
+    /**
+     * Gets the frequency achieved since the latest run started, turbo mode included.
+     *
+     * @return The achieved frequency, in MHz
+     */
+    public double achievedMegahertz() {
+
+        final long elapsedNanos = System.nanoTime() - this.runStartNanos;
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+
+        return (this.processor.totalCycles() - this.runStartCycle) * 1_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Gets how late the latest time slice completed, compared to its schedule. A runner
+     * keeping up with the target frequency has no drift.
+     *
+     * @return The drift, in nanoseconds
+     */
+    public long lastDriftNanos() {
+
+        return this.lastDriftNanos;
+    }
+
+    /**
+     * Gets the largest drift of a time slice since the latest run started.
+     *
+     * @return The maximum drift, in nanoseconds
+     */
+    public long maximumDriftNanos() {
+
+        return this.maximumDriftNanos;
+    }
+
+    /**
+     * Gets the total time spent waiting between time slices since the latest run started.
+     * The lower the slack compared to the elapsed time, the closer the host is to not
+     * keeping up with the target frequency.
+     *
+     * @return The total slack, in nanoseconds
+     */
+    public long totalSlackNanos() {
+
+        return this.totalSlackNanos;
+    }
+
+    /**
+     * Gets the number of times the runner drifted too much and restarted its schedule
+     * since the latest run started.
+     *
+     * @return The number of resynchronizations
+     */
+    public int resynchronizationCount() {
+
+        return this.resynchronizationCount;
+    }
+
+    /**
+     * Waits until the wall-clock time of the latest executed cycle.
+     */
+    private void waitForSchedule() {
+
+        final long deadline = this.scheduleStartNanos + this.cyclesToNanos(this.processor.totalCycles() - this.scheduleStartCycle);
+        long now = System.nanoTime();
+
+        if (now - deadline > 0) {
+            this.lastDriftNanos = now - deadline;
+            this.maximumDriftNanos = Math.max(this.maximumDriftNanos, this.lastDriftNanos);
+            if (this.lastDriftNanos > MAXIMUM_DRIFT_NANOS) {
+                this.resynchronizationCount += 1;
+                this.restartSchedule(now);
+            }
+            return;
+        }
+
+        this.lastDriftNanos = 0;
+        this.totalSlackNanos += deadline - now;
+
+        // Parking may oversleep, the last microseconds are spent spinning
+        while (deadline - now > SPIN_THRESHOLD_NANOS) {
+            LockSupport.parkNanos(deadline - now - SPIN_THRESHOLD_NANOS);
+            now = System.nanoTime();
+        }
+        while (deadline - System.nanoTime() > 0) {
+            // Spins
+        }
+    }
+
+    /**
+     * Restarts the schedule: the current cycle is due at the given time.
+     *
+     * @param nanos Wall-clock time, as given by {@link System#nanoTime()}
+     */
+    private void restartSchedule(final long nanos) {
+
+        this.scheduleStartNanos = nanos;
+        this.scheduleStartCycle = this.processor.totalCycles();
+    }
+
+    /**
+     * Converts a number of cycles to a duration at the target frequency, without overflow.
+     *
+     * @param cycles Number of cycles
+     * @return The duration, in nanoseconds
+     */
+    private long cyclesToNanos(final long cycles) {
+
+        return (cycles / this.frequency) * NANOS_PER_SECOND + (cycles % this.frequency) * NANOS_PER_SECOND / this.frequency;
+    }
+}
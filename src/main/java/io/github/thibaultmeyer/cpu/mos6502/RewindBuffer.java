@@ -0,0 +1,497 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Keeps snapshots of a processor, taken periodically, to rewind it to any earlier cycle.
+ * Snapshots are captured by an event of the processor {@link EventScheduler}, then handed
+ * to a background thread, which stores them as XOR deltas against the previous snapshot,
+ * compressed with {@link Deflater}. Every {@value #KEYFRAME_INTERVAL} snapshots, a
+ * snapshot is stored whole, starting a new group. Once the memory used by the compressed
+ * snapshots exceeds the configured cap, the oldest groups are dropped.
+ *
+ * <p>The emulation thread never waits for the compression: if the background thread falls
+ * behind, captures are skipped. Capturing leaves the dirty pages used by delta snapshots
+ * untouched.</p>
+ */
+public final class RewindBuffer implements AutoCloseable {
+
+    /**
+     * Number of snapshots in a group: a whole snapshot followed by deltas.
+     */
+    static final int KEYFRAME_INTERVAL = 32;
+
+    /**
+     * Number of preallocated snapshot buffers shared by both threads.
+     */
+    private static final int SNAPSHOT_BUFFER_COUNT = 4;
+
+    /**
+     * Largest number of cycles a single {@link MOS6502Processor#run(long)} call overshoots
+     * by: a whole decoded block of the longest instructions, all taking their penalties.
+     */
+    private static final long MAXIMUM_RUN_OVERSHOOT = DecodedBlock.MAX_LENGTH
+        * (DecodedBlock.MAX_INSTRUCTION_CYCLES + DecodedBlock.MAX_PENALTY_CYCLES);
+
+    private static final Capture END_OF_CAPTURES = new Capture(0, null, false);
+
+    private final MOS6502Processor processor;
+    private final long intervalCycles;
+    private final long memoryCap;
+    private final int snapshotSize;
+    private final ScheduledEvent captureEvent;
+    private final BlockingQueue<byte[]> freeSnapshotQueue;
+    private final BlockingQueue<Capture> captureQueue;
+    private final Thread compressionThread;
+
+    /**
+     * Stored snapshots, oldest first. Guarded by {@code this}, along with
+     * {@link #memoryUsage} and {@link #pendingCaptureCount}.
+     */
+    private final Deque<Entry> entryDeque;
+    private long memoryUsage;
+    private int pendingCaptureCount;
+
+    // Emulation thread state
+    private boolean keyframeRequested;
+    private long skippedCaptureCount;
+
+    // Compression thread state
+    private final Deflater deflater;
+    private final byte[] deltaBuffer;
+    private byte[] compressionBuffer;
+    private byte[] previousSnapshot;
+    private int deltaCount;
+
+    /**
+     * Creates a new instance, and starts capturing snapshots. The processor must not be
+     * running while this constructor is called.
+     *
+     * @param processor      Processor to capture
+     * @param intervalCycles Number of cycles between two snapshots
+     * @param memoryCap      Maximum number of bytes used by the compressed snapshots
+     */
+    public RewindBuffer(final MOS6502Processor processor, final long intervalCycles, final long memoryCap) {
+
+        if (intervalCycles <= 0) {
+            throw new IllegalArgumentException("Interval must be positive, got " + intervalCycles);
+        }
+        if (memoryCap <= 0) {
+            throw new IllegalArgumentException("Memory cap must be positive, got " + memoryCap);
+        }
+
+        this.processor = processor;
+        this.intervalCycles = intervalCycles;
+        this.memoryCap = memoryCap;
+        this.snapshotSize = processor.snapshotSize();
+        this.captureEvent = this::capture;
+        this.freeSnapshotQueue = new ArrayBlockingQueue<>(SNAPSHOT_BUFFER_COUNT);
+        this.captureQueue = new ArrayBlockingQueue<>(SNAPSHOT_BUFFER_COUNT + 1);
+        this.entryDeque = new ArrayDeque<>();
+        this.memoryUsage = 0;
+        this.pendingCaptureCount = 0;
+        this.keyframeRequested = true;
+        this.skippedCaptureCount = 0;
+        this.deflater = new Deflater(Deflater.BEST_SPEED);
+        this.deltaBuffer = new byte[this.snapshotSize];
+        this.compressionBuffer = new byte[this.snapshotSize / 8 + 64];
+        this.previousSnapshot = null;
+        this.deltaCount = 0;
+
+        for (int idx = 0; idx < SNAPSHOT_BUFFER_COUNT; idx += 1) {
+            this.freeSnapshotQueue.add(new byte[this.snapshotSize]);
+        }
+
+        this.compressionThread = new Thread(this::compressCaptures, "rewind-compression");
+        this.compressionThread.setDaemon(true);
+        this.compressionThread.start();
+
+        this.scheduleNextCapture(processor.totalCycles() - 1);
+    }
+
+    /**
+     * Rewinds the processor to a specific cycle: the latest snapshot taken at or before
+     * this cycle is restored, then instructions are executed up to the cycle. Snapshots
+     * taken after it are dropped. Must be called from the emulation thread, while the
+     * processor is not running. Waits for pending captures to be stored.
+     *
+     * @param cycle Cycle to rewind to, as counted by {@link MOS6502Processor#totalCycles()}
+     * @throws IllegalArgumentException if the cycle is in the future or no longer kept
+     */
+    public void seek(final long cycle) {
+
+        if (cycle > this.processor.totalCycles()) {
+            throw new IllegalArgumentException("Can't seek forward to cycle " + cycle);
+        }
+
+        this.flush();
+
+        // Group of snapshots leading to the latest snapshot before the cycle
+        final List<Entry> entryList = new ArrayList<>();
+        synchronized (this) {
+            for (final Entry entry : this.entryDeque) {
+                if (entry.cycle > cycle) {
+                    break;
+                }
+                if (entry.keyframe) {
+                    entryList.clear();
+                }
+                entryList.add(entry);
+            }
+
+            if (entryList.isEmpty()) {
+                throw new IllegalArgumentException("Cycle " + cycle + " is no longer kept");
+            }
+
+            final Entry restoredEntry = entryList.get(entryList.size() - 1);
+            while (this.entryDeque.peekLast() != restoredEntry) {
+                this.memoryUsage -= this.entryDeque.pollLast().compressedSnapshot.length;
+            }
+        }
+
+        final byte[] snapshot = new byte[this.snapshotSize];
+        final byte[] delta = new byte[this.snapshotSize];
+        final Inflater inflater = new Inflater();
+        try {
+            for (final Entry entry : entryList) {
+                if (entry.keyframe) {
+                    inflate(inflater, entry.compressedSnapshot, snapshot);
+                } else {
+                    inflate(inflater, entry.compressedSnapshot, delta);
+                    xor(delta, snapshot, snapshot);
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+
+        this.processor.loadSnapshot(ByteBuffer.wrap(snapshot));
+
+        // The restored snapshot is not available to the compression thread
+        this.keyframeRequested = true;
+        this.processor.getEventScheduler().cancel(this.captureEvent);
+        this.scheduleNextCapture(entryList.get(entryList.size() - 1).cycle);
+
+        final long remainingCycles = cycle - this.processor.totalCycles();
+        if (remainingCycles > MAXIMUM_RUN_OVERSHOOT) {
+            this.processor.run(remainingCycles - MAXIMUM_RUN_OVERSHOOT);
+        }
+        while (this.processor.totalCycles() < cycle) {
+            this.processor.step();
+        }
+    }
+
+    /**
+     * Waits until all captured snapshots are compressed and stored.
+     */
+    public void flush() {
+
+        synchronized (this) {
+            while (this.pendingCaptureCount > 0) {
+                try {
+                    this.wait();
+                } catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops capturing snapshots and stops the compression thread. Must be called from the
+     * emulation thread, while the processor is not running.
+     */
+    @Override
+    public void close() {
+
+        this.processor.getEventScheduler().cancel(this.captureEvent);
+        this.captureQueue.offer(END_OF_CAPTURES);
+        try {
+            this.compressionThread.join();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        this.deflater.end();
+    }
+
+    /**
+     * Gets the number of stored snapshots.
+     *
+     * @return The number of snapshots
+     */
+    public synchronized int size() {
+
+        return this.entryDeque.size();
+    }
+
+    /**
+     * Gets the cycle of the oldest stored snapshot, which is the oldest cycle the
+     * processor can be rewound to.
+     *
+     * @return The cycle, or -1 if no snapshot is stored
+     */
+    public synchronized long oldestCycle() {
+
+        final Entry entry = this.entryDeque.peekFirst();
+        return entry == null ? -1 : entry.cycle;
+    }
+
+    /**
+     * Gets the number of bytes used by the compressed snapshots.
+     *
+     * @return The memory usage in bytes
+     */
+    public synchronized long memoryUsage() {
+
+        return this.memoryUsage;
+    }
+
+    /**
+     * Gets the number of captures skipped because the compression thread fell behind.
+     * Must be called from the emulation thread.
+     *
+     * @return The number of skipped captures
+     */
+    public long skippedCaptureCount() {
+
+        return this.skippedCaptureCount;
+    }
+
+    /**
+     * Captures a snapshot, then schedules the next capture. Called by the processor, on
+     * the emulation thread, between instructions.
+     *
+     * @param cycle Cycle the capture has been scheduled at
+     */
+    private void capture(final long cycle) {
+
+        this.scheduleNextCapture(cycle);
+
+        final byte[] snapshot = this.freeSnapshotQueue.poll();
+        if (snapshot == null) {
+            this.skippedCaptureCount += 1;
+            return;
+        }
+
+        this.processor.saveSnapshotKeepingDirtyPages(ByteBuffer.wrap(snapshot));
+        synchronized (this) {
+            this.pendingCaptureCount += 1;
+        }
+        this.captureQueue.add(new Capture(this.processor.totalCycles(), snapshot, this.keyframeRequested));
+        this.keyframeRequested = false;
+    }
+
+    /**
+     * Schedules the next capture, on the first interval boundary after a specific cycle.
+     *
+     * @param cycle Cycle of the latest capture
+     */
+    private void scheduleNextCapture(final long cycle) {
+
+        this.processor.getEventScheduler().schedule(
+            (Math.max(cycle, 0) / this.intervalCycles + 1) * this.intervalCycles,
+            this.captureEvent);
+    }
+
+    /**
+     * Compression thread loop: stores captured snapshots until closed.
+     */
+    private void compressCaptures() {
+
+        while (true) {
+            final Capture capture;
+            try {
+                capture = this.captureQueue.take();
+            } catch (final InterruptedException exception) {
+                return;
+            }
+
+            if (capture == END_OF_CAPTURES) {
+                return;
+            }
+
+            this.store(capture);
+
+            synchronized (this) {
+                this.pendingCaptureCount -= 1;
+                this.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Compresses a captured snapshot, as a whole or as a delta against the previous one,
+     * then stores it and drops the oldest groups exceeding the memory cap.
+     *
+     * @param capture Captured snapshot
+     */
+    private void store(final Capture capture) {
+
+        final boolean keyframe = capture.keyframe || this.previousSnapshot == null || this.deltaCount == KEYFRAME_INTERVAL - 1;
+        final byte[] compressedSnapshot;
+        if (keyframe) {
+            compressedSnapshot = this.deflate(capture.snapshot);
+            this.deltaCount = 0;
+        } else {
+            xor(capture.snapshot, this.previousSnapshot, this.deltaBuffer);
+            compressedSnapshot = this.deflate(this.deltaBuffer);
+            this.deltaCount += 1;
+        }
+
+        // The captured snapshot is the base of the next delta
+        if (this.previousSnapshot != null) {
+            this.freeSnapshotQueue.add(this.previousSnapshot);
+        }
+        this.previousSnapshot = capture.snapshot;
+
+        synchronized (this) {
+            this.entryDeque.addLast(new Entry(capture.cycle, keyframe, compressedSnapshot));
+            this.memoryUsage += compressedSnapshot.length;
+
+            // Drops whole groups, the latest one excepted
+            while (this.memoryUsage > this.memoryCap && this.entryDeque.size() > 1 && !this.isLatestGroup(this.entryDeque.peekFirst())) {
+                do {
+                    this.memoryUsage -= this.entryDeque.pollFirst().compressedSnapshot.length;
+                } while (!this.entryDeque.peekFirst().keyframe);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a keyframe starts the latest group. Must be called holding the lock.
+     *
+     * @param keyframeEntry Keyframe entry
+     * @return {@code true} if no other keyframe follows it, otherwise, {@code false}
+     */
+    private boolean isLatestGroup(final Entry keyframeEntry) {
+
+        for (final Entry entry : this.entryDeque) {
+            if (entry != keyframeEntry && entry.keyframe) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Compresses data.
+     *
+     * @param data Data to compress
+     * @return Compressed data
+     */
+    private byte[] deflate(final byte[] data) {
+
+        this.deflater.reset();
+        this.deflater.setInput(data);
+        this.deflater.finish();
+
+        int length = 0;
+        while (!this.deflater.finished()) {
+            if (length == this.compressionBuffer.length) {
+                this.compressionBuffer = Arrays.copyOf(this.compressionBuffer, length * 2);
+            }
+            length += this.deflater.deflate(this.compressionBuffer, length, this.compressionBuffer.length - length);
+        }
+
+        return Arrays.copyOf(this.compressionBuffer, length);
+    }
+
+    /**
+     * Decompresses data.
+     *
+     * @param inflater       Inflater to use
+     * @param compressedData Compressed data
+     * @param data           Array receiving the decompressed data, of the exact size
+     */
+    private static void inflate(final Inflater inflater, final byte[] compressedData, final byte[] data) {
+
+        inflater.reset();
+        inflater.setInput(compressedData);
+        try {
+            int length = 0;
+            while (length < data.length && !inflater.finished()) {
+                length += inflater.inflate(data, length, data.length - length);
+            }
+            if (length != data.length) {
+                throw new IllegalStateException("Corrupted rewind snapshot");
+            }
+        } catch (final DataFormatException exception) {
+            throw new IllegalStateException("Corrupted rewind snapshot", exception);
+        }
+    }
+
+    /**
+     * Combines two arrays of the same size with XOR.
+     *
+     * @param left   First array
+     * @param right  Second array
+     * @param result Array receiving the result, can be one of the combined arrays
+     */
+    private static void xor(final byte[] left, final byte[] right, final byte[] result) {
+
+        for (int idx = 0; idx < result.length; idx += 1) {
+            result[idx] = (byte) (left[idx] ^ right[idx]);
+        }
+    }
+
+    /**
+     * Snapshot captured on the emulation thread, waiting for compression.
+     */
+    private static final class Capture {
+
+        private final long cycle;
+        private final byte[] snapshot;
+        private final boolean keyframe;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param cycle    Cycle of the snapshot
+         * @param snapshot Snapshot content
+         * @param keyframe {@code true} to store the snapshot as a whole
+         */
+        private Capture(final long cycle, final byte[] snapshot, final boolean keyframe) {
+
+            this.cycle = cycle;
+            this.snapshot = snapshot;
+            this.keyframe = keyframe;
+        }
+    }
+
+    /**
+     * Stored snapshot.
+     */
+    private static final class Entry {
+
+        private final long cycle;
+        private final boolean keyframe;
+        private final byte[] compressedSnapshot;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param cycle              Cycle of the snapshot
+         * @param keyframe           {@code true} if the snapshot is stored as a whole,
+         *                           {@code false} if it is a delta against the previous one
+         * @param compressedSnapshot Compressed snapshot or delta
+         */
+        private Entry(final long cycle, final boolean keyframe, final byte[] compressedSnapshot) {
+
+            this.cycle = cycle;
+            this.keyframe = keyframe;
+            this.compressedSnapshot = compressedSnapshot;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+/**
+ * Trace sink keeping the latest traced instructions in a preallocated ring. Each
+ * record is packed into primitive arrays, so tracing never allocates and can be
+ * left enabled without collapsing throughput. Once the ring is full, the oldest
+ * records are overwritten.
+ */
+public final class RingBufferTraceSink implements TraceSink {
+
+    private final long[] registerRecordArray;
+    private final long[] cycleRecordArray;
+    private final int mask;
+
+    private long writeCount;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity Number of records to keep, must be a power of two
+     */
+    public RingBufferTraceSink(final int capacity) {
+
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+
+        this.registerRecordArray = new long[capacity];
+        this.cycleRecordArray = new long[capacity];
+        this.mask = capacity - 1;
+        this.writeCount = 0;
+    }
+
+    @Override
+    public void trace(final int programCounter,
+                      final int opcode,
+                      final int accumulator,
+                      final int x,
+                      final int y,
+                      final int stackPointer,
+                      final int status,
+                      final long cycle) {
+
+        final int index = (int) (this.writeCount & this.mask);
+
+        this.registerRecordArray[index] = ((long) (programCounter & 0xFFFF) << 48)
+            | ((long) (opcode & 0xFF) << 40)
+            | ((long) (accumulator & 0xFF) << 32)
+            | ((long) (x & 0xFF) << 24)
+            | ((long) (y & 0xFF) << 16)
+            | ((long) (stackPointer & 0xFF) << 8)
+            | (long) (status & 0xFF);
+        this.cycleRecordArray[index] = cycle;
+        this.writeCount += 1;
+    }
+
+    /**
+     * Gets the maximum number of records kept.
+     *
+     * @return The capacity
+     */
+    public int capacity() {
+
+        return this.registerRecordArray.length;
+    }
+
+    /**
+     * Gets the number of records currently kept.
+     *
+     * @return The number of records
+     */
+    public int size() {
+
+        return (int) Math.min(this.writeCount, this.registerRecordArray.length);
+    }
+
+    /**
+     * Gets the total number of records traced since creation or latest clear,
+     * including the ones already overwritten.
+     *
+     * @return The total number of records
+     */
+    public long totalCount() {
+
+        return this.writeCount;
+    }
+
+    /**
+     * Removes all records.
+     */
+    public void clear() {
+
+        this.writeCount = 0;
+    }
+
+    /**
+     * Replays kept records, from the oldest to the newest, into another sink.
+     *
+     * @param traceSink Sink receiving the records
+     */
+    public void replay(final TraceSink traceSink) {
+
+        final int size = this.size();
+        final long first = this.writeCount - size;
+
+        for (long idx = first; idx < this.writeCount; idx += 1) {
+            final int index = (int) (idx & this.mask);
+            final long record = this.registerRecordArray[index];
+
+            traceSink.trace(
+                (int) (record >>> 48) & 0xFFFF,
+                (int) (record >>> 40) & 0xFF,
+                (int) (record >>> 32) & 0xFF,
+                (int) (record >>> 24) & 0xFF,
+                (int) (record >>> 16) & 0xFF,
+                (int) (record >>> 8) & 0xFF,
+                (int) record & 0xFF,
+                this.cycleRecordArray[index]);
+        }
+    }
+}
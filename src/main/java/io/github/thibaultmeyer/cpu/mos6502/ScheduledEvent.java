@@ -0,0 +1,18 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+/**
+ * Callback registered on the {@link EventScheduler}, executed once the processor
+ * reaches a specific cycle.
+ */
+@FunctionalInterface
+public interface ScheduledEvent {
+
+    /**
+     * Executes the event. Events are executed between instructions, so the current
+     * cycle ({@link MOS6502Processor#totalCycles()}) may be slightly past the scheduled
+     * one. The event may schedule other events, including itself.
+     *
+     * @param cycle Cycle the event has been scheduled at
+     */
+    void execute(long cycle);
+}
@@ -0,0 +1,34 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.nio.ByteBuffer;
+
+/**
+ * State which can be saved to, then restored from, a binary snapshot. Bus units
+ * implementing this interface are captured along with the processor by
+ * {@link MOS6502Processor#saveSnapshot(ByteBuffer)}. Implementations write their state
+ * straight into the given buffer, without allocating.
+ */
+public interface Snapshottable {
+
+    /**
+     * Gets the number of bytes written by {@link #saveSnapshot(ByteBuffer)}. The size must
+     * not change during the instance lifetime.
+     *
+     * @return The snapshot size in bytes
+     */
+    int snapshotSize();
+
+    /**
+     * Writes the current state at the buffer position, then moves the position past it.
+     *
+     * @param buffer Buffer to write into
+     */
+    void saveSnapshot(ByteBuffer buffer);
+
+    /**
+     * Restores the state from the buffer position, then moves the position past it.
+     *
+     * @param buffer Buffer to read from
+     */
+    void loadSnapshot(ByteBuffer buffer);
+}
@@ -0,0 +1,28 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+/**
+ * Bus unit kept in sync with the processor lazily. Instead of being ticked on each
+ * cycle, the unit receives the absolute cycle of each access made by the processor,
+ * and catches up to it before answering. Between accesses, the unit can rely on the
+ * {@link EventScheduler} to act at its own deadlines.
+ */
+public interface SynchronizedBusUnit extends BusUnit {
+
+    /**
+     * Reads a single value, accessed by the processor at a specific cycle.
+     *
+     * @param address Memory address where to read single value
+     * @param cycle   Absolute cycle of the access, as counted by {@link MOS6502Processor#totalCycles()}
+     * @return Read single value
+     */
+    int read(int address, long cycle);
+
+    /**
+     * Writes a single value, accessed by the processor at a specific cycle.
+     *
+     * @param address Memory address where to write the single value
+     * @param value   Value to write
+     * @param cycle   Absolute cycle of the access, as counted by {@link MOS6502Processor#totalCycles()}
+     */
+    void write(int address, int value, long cycle);
+}
@@ -0,0 +1,30 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+/**
+ * Receives the processor state each time an instruction is about to be executed.
+ * Values are passed as primitives to avoid any allocation on the execution path.
+ */
+@FunctionalInterface
+public interface TraceSink {
+
+    /**
+     * Traces a single instruction.
+     *
+     * @param programCounter Address of the operation code
+     * @param opcode         Operation code
+     * @param accumulator    Accumulator value
+     * @param x              Index X value
+     * @param y              Index Y value
+     * @param stackPointer   Stack pointer value
+     * @param status         Processor status value
+     * @param cycle          Number of cycles elapsed before this instruction
+     */
+    void trace(int programCounter,
+               int opcode,
+               int accumulator,
+               int x,
+               int y,
+               int stackPointer,
+               int status,
+               long cycle);
+}
@@ -0,0 +1,78 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+final class ArrayMemoryTest {
+
+    @Test
+    void createInvalidMapping() {
+
+        // Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ArrayMemory.createRAM(0xF000, 0x2000));
+    }
+
+    @Test
+    void loadReadOnly() {
+
+        // Arrange
+        final ArrayMemory rom = ArrayMemory.createROM(0xC000, new byte[0x4000]);
+
+        // Act
+        rom.load(0xC010, new byte[]{0x12, (byte) 0xEA});
+        rom.write(0xC010, 0x00);
+
+        // Assert
+        Assertions.assertTrue(rom.isReadOnly());
+        Assertions.assertEquals(0x12, rom.read(0xC010));
+        Assertions.assertEquals(0xEA, rom.read(0xC011));
+        Assertions.assertEquals(0xFFFF, rom.mappingAddressMax());
+    }
+
+    @Test
+    void processorDirectAccess() {
+
+        // Arrange
+        final ArrayMemory ram = ArrayMemory.createRAM(0x0000, 0x8000);
+        final ArrayMemory rom = ArrayMemory.createROM(0x8000, new byte[0x8000]);
+
+        // LDA #$42 ; STA $0010 ; STA $8100 ; LDX $8100
+        rom.load(0x8000, new byte[]{(byte) 0xA9, 0x42, (byte) 0x8D, 0x10, 0x00, (byte) 0x8D, 0x00, (byte) 0x81, (byte) 0xAE, 0x00, (byte) 0x81});
+
+        final MOS6502Processor processor = new MOS6502Processor(Arrays.asList(ram, rom));
+        processor.reset(0x8000);
+
+        // Act
+        final long cycles = processor.run(7 + 2 + 4 + 4 + 4);
+
+        // Assert
+        Assertions.assertEquals(7 + 2 + 4 + 4 + 4, cycles);
+        Assertions.assertEquals(0x42, ram.read(0x0010));
+        Assertions.assertEquals(0x00, rom.read(0x8100));
+    }
+
+    @Test
+    void snapshot() {
+
+        // Arrange
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0200, 0x0100);
+        memory.write(0x0210, 0x42);
+        final ByteBuffer buffer = ByteBuffer.allocate(memory.snapshotSize());
+        memory.saveSnapshot(buffer);
+        memory.write(0x0210, 0x00);
+
+        // Act
+        memory.loadSnapshot(ByteBuffer.wrap(buffer.array()));
+
+        // Assert
+        Assertions.assertEquals(0x0100, memory.snapshotSize());
+        Assertions.assertFalse(buffer.hasRemaining());
+        Assertions.assertEquals(0x42, memory.read(0x0210));
+    }
+}
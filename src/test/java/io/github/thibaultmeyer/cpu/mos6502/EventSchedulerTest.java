@@ -0,0 +1,96 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+final class EventSchedulerTest {
+
+    @Test
+    void cancel() {
+
+        // Arrange
+        final EventScheduler eventScheduler = new EventScheduler();
+        final List<Long> cycleList = new ArrayList<>();
+        final ScheduledEvent recordEvent = cycleList::add;
+        final ScheduledEvent cancelledEvent = cycle -> Assertions.fail("Cancelled event executed");
+
+        for (long idx = 0; idx < 20; idx += 1) {
+            final long cycle = idx * 7 % 20;
+            eventScheduler.schedule(cycle, cycle % 3 == 0 ? cancelledEvent : recordEvent);
+        }
+
+        // Act
+        final int cancelled = eventScheduler.cancel(cancelledEvent);
+        eventScheduler.executeDueEvents(100);
+
+        // Assert
+        Assertions.assertEquals(7, cancelled);
+        Assertions.assertEquals(Arrays.asList(1L, 2L, 4L, 5L, 7L, 8L, 10L, 11L, 13L, 14L, 16L, 17L, 19L), cycleList);
+        Assertions.assertEquals(0, eventScheduler.size());
+        Assertions.assertEquals(Long.MAX_VALUE, eventScheduler.nextEventCycle());
+    }
+
+    @Test
+    void executeDueEvents() {
+
+        // Arrange
+        final EventScheduler eventScheduler = new EventScheduler();
+        final List<String> eventList = new ArrayList<>();
+        for (long idx = 0; idx < 40; idx += 1) {
+            eventScheduler.schedule(idx * 13 % 40, cycle -> eventList.add("A" + cycle));
+        }
+        eventScheduler.schedule(10, cycle -> eventList.add("B" + cycle));
+        eventScheduler.schedule(10, cycle -> eventList.add("C" + cycle));
+
+        // Act
+        eventScheduler.executeDueEvents(10);
+
+        // Assert
+        Assertions.assertEquals(
+            Arrays.asList("A0", "A1", "A2", "A3", "A4", "A5", "A6", "A7", "A8", "A9", "A10", "B10", "C10"),
+            eventList);
+        Assertions.assertEquals(29, eventScheduler.size());
+        Assertions.assertEquals(11, eventScheduler.nextEventCycle());
+    }
+
+    @Test
+    void executeDueEventsRescheduled() {
+
+        // Arrange
+        final EventScheduler eventScheduler = new EventScheduler();
+        final List<Long> cycleList = new ArrayList<>();
+        eventScheduler.schedule(5, new ScheduledEvent() {
+
+            @Override
+            public void execute(final long cycle) {
+
+                cycleList.add(cycle);
+                eventScheduler.schedule(cycle + 5, this);
+            }
+        });
+
+        // Act
+        eventScheduler.executeDueEvents(22);
+
+        // Assert
+        Assertions.assertEquals(Arrays.asList(5L, 10L, 15L, 20L), cycleList);
+        Assertions.assertEquals(25, eventScheduler.nextEventCycle());
+    }
+
+    @Test
+    void scheduleNullEvent() {
+
+        // Arrange
+        final EventScheduler eventScheduler = new EventScheduler();
+
+        // Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> eventScheduler.schedule(0, null));
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+
+/**
+ * Runs Klaus Dormann's 6502 functional test binaries. The binary is loaded as a whole
+ * 64K memory image, then executed from 0x0400 until a trap is reached: a single
+ * instruction branching or jumping to itself. The test succeeded if the trap is the success one.
+ *
+ * @see <a href="https://github.com/Klaus2m5/6502_65C02_functional_tests">6502_65C02_functional_tests</a>
+ */
+final class FunctionalTestRunner {
+
+    /**
+     * Address where the functional test binaries start.
+     */
+    static final int START_ADDRESS = 0x0400;
+
+    /**
+     * Success trap address of {@code 6502_functional_test.bin}.
+     */
+    static final int NMOS_SUCCESS_TRAP_ADDRESS = 0x3469;
+
+    /**
+     * Success trap address of {@code 65C02_extended_opcodes_test.bin}.
+     */
+    static final int CMOS_SUCCESS_TRAP_ADDRESS = 0x24F1;
+
+    /**
+     * Number of cycles executed between two trap checks. Once trapped, the processor
+     * spins until the end of the current time slice, which is counted in the result.
+     */
+    private static final long TIME_SLICE_CYCLES = 1_000_000;
+
+    private final String resourceName;
+    private final ProcessorVariant processorVariant;
+    private final int successTrapAddress;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param resourceName       Class path resource of the binary to run
+     * @param processorVariant   Processor variant to emulate
+     * @param successTrapAddress Address of the success trap
+     */
+    FunctionalTestRunner(final String resourceName, final ProcessorVariant processorVariant, final int successTrapAddress) {
+
+        this.resourceName = resourceName;
+        this.processorVariant = processorVariant;
+        this.successTrapAddress = successTrapAddress;
+    }
+
+    /**
+     * Creates a runner for the binary matching the processor variant.
+     *
+     * @param processorVariant Processor variant to emulate
+     * @return Newly created runner
+     */
+    static FunctionalTestRunner of(final ProcessorVariant processorVariant) {
+
+        if (processorVariant == ProcessorVariant.CMOS_65C02) {
+            return new FunctionalTestRunner("/65C02_extended_opcodes_test.bin", processorVariant, CMOS_SUCCESS_TRAP_ADDRESS);
+        }
+
+        return new FunctionalTestRunner("/6502_functional_test.bin", processorVariant, NMOS_SUCCESS_TRAP_ADDRESS);
+    }
+
+    /**
+     * Runs the binary until a trap is reached.
+     *
+     * @param executionEngine Execution engine to use
+     * @return The result
+     */
+    Result run(final ExecutionEngine executionEngine) {
+
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+        memory.load(0x0000, this.loadResource());
+
+        final MOS6502Processor processor = new MOS6502Processor(
+            Collections.singletonList(memory),
+            this.processorVariant,
+            executionEngine);
+        final MOS6502Registers registers = processor.getRegisters();
+        processor.reset(START_ADDRESS);
+
+        // Runs large time slices, then steps a single instruction to check for a trap
+        final long startTime = System.nanoTime();
+        int programCounter;
+        long instructions;
+        do {
+            processor.run(TIME_SLICE_CYCLES);
+            programCounter = registers.programCounter;
+            instructions = processor.totalInstructions();
+            processor.step();
+        } while (registers.programCounter != programCounter || processor.totalInstructions() - instructions != 1);
+        final long wallTimeNanos = System.nanoTime() - startTime;
+
+        return new Result(
+            this.resourceName,
+            this.processorVariant,
+            executionEngine,
+            programCounter,
+            programCounter == this.successTrapAddress,
+            processor.totalCycles(),
+            processor.totalInstructions(),
+            wallTimeNanos);
+    }
+
+    /**
+     * Loads the binary from the class path.
+     *
+     * @return The binary content
+     */
+    byte[] loadResource() {
+
+        try (final InputStream inputStream = FunctionalTestRunner.class.getResourceAsStream(this.resourceName)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Resource not found: " + this.resourceName);
+            }
+
+            final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int length;
+            while ((length = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, length);
+            }
+
+            return outputStream.toByteArray();
+        } catch (final IOException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+
+    /**
+     * Functional test result.
+     */
+    static final class Result {
+
+        private final String resourceName;
+        private final ProcessorVariant processorVariant;
+        private final ExecutionEngine executionEngine;
+        private final int trapAddress;
+        private final boolean successful;
+        private final long totalCycles;
+        private final long totalInstructions;
+        private final long wallTimeNanos;
+
+        private Result(final String resourceName,
+                       final ProcessorVariant processorVariant,
+                       final ExecutionEngine executionEngine,
+                       final int trapAddress,
+                       final boolean successful,
+                       final long totalCycles,
+                       final long totalInstructions,
+                       final long wallTimeNanos) {
+
+            this.resourceName = resourceName;
+            this.processorVariant = processorVariant;
+            this.executionEngine = executionEngine;
+            this.trapAddress = trapAddress;
+            this.successful = successful;
+            this.totalCycles = totalCycles;
+            this.totalInstructions = totalInstructions;
+            this.wallTimeNanos = wallTimeNanos;
+        }
+
+        int getTrapAddress() {
+
+            return this.trapAddress;
+        }
+
+        boolean isSuccessful() {
+
+            return this.successful;
+        }
+
+        long getTotalCycles() {
+
+            return this.totalCycles;
+        }
+
+        long getTotalInstructions() {
+
+            return this.totalInstructions;
+        }
+
+        long getWallTimeNanos() {
+
+            return this.wallTimeNanos;
+        }
+
+        /**
+         * Gets the emulated frequency, in MHz: the number of cycles emulated per
+         * microsecond of wall time.
+         *
+         * @return The emulated frequency
+         */
+        double getMegahertz() {
+
+            return this.wallTimeNanos == 0 ? 0 : this.totalCycles * 1_000.0 / this.wallTimeNanos;
+        }
+
+        @Override
+        public String toString() {
+
+            return String.format(
+                "%s [%s, %s]: %s, trap at 0x%04X, %d cycles, %d instructions, %.1f ms, %.2f MHz",
+                this.resourceName,
+                this.processorVariant,
+                this.executionEngine,
+                this.successful ? "PASS" : "FAIL",
+                this.trapAddress,
+                this.totalCycles,
+                this.totalInstructions,
+                this.wallTimeNanos / 1_000_000.0,
+                this.getMegahertz());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+final class INesCartridgeTest {
+
+    @Test
+    void loadNestest() throws IOException {
+
+        // Arrange
+        final INesCartridge cartridge;
+        try (final InputStream inputStream = this.getClass().getResourceAsStream("/nestest.nes")) {
+            cartridge = INesCartridge.load(inputStream);
+        }
+
+        // Act
+        final List<BusUnit> busUnitList = cartridge.createPrgRomBusUnits();
+
+        // Assert
+        Assertions.assertEquals(0, cartridge.getMapper());
+        Assertions.assertEquals(0x4000, cartridge.getPrgRomSize());
+        Assertions.assertEquals(0x2000, cartridge.getChrRomSize());
+        Assertions.assertEquals(2, busUnitList.size());
+        Assertions.assertEquals(0x8000, busUnitList.get(0).mappingAddressMin());
+        Assertions.assertEquals(0xFFFF, busUnitList.get(1).mappingAddressMax());
+        Assertions.assertEquals(0x4C, busUnitList.get(0).read(0x8000));
+        Assertions.assertEquals(0x4C, busUnitList.get(1).read(0xC000));
+    }
+
+    @Test
+    void parseInvalidHeader() {
+
+        // Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> INesCartridge.parse(new byte[]{'N', 'E', 'S', 0x00}));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> INesCartridge.parse(new byte[]{'N', 'E', 'S', 0x1A, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}));
+    }
+
+    @Test
+    void unsupportedMapper() {
+
+        // Arrange
+        final byte[] content = new byte[16 + 0x4000];
+        content[0] = 'N';
+        content[1] = 'E';
+        content[2] = 'S';
+        content[3] = 0x1A;
+        content[4] = 1;
+        content[6] = 0x10;
+
+        final INesCartridge cartridge = INesCartridge.parse(content);
+
+        // Act & Assert
+        Assertions.assertEquals(1, cartridge.getMapper());
+        Assertions.assertThrows(UnsupportedOperationException.class, cartridge::createPrgRomBusUnits);
+    }
+}
@@ -0,0 +1,243 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+final class InputReplayerTest {
+
+    @Test
+    void invalidLog() {
+
+        // Act & Assert
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new InputReplayer(Channels.newChannel(new ByteArrayInputStream(new byte[]{0x36, 0x35, 0x30, 0x32, 0, 1}))));
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new InputReplayer(Channels.newChannel(new ByteArrayInputStream(new byte[0]))));
+    }
+
+    @Test
+    void replay() throws IOException {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final ByteArrayOutputStream logOutputStream = new ByteArrayOutputStream();
+            final InputRecorder inputRecorder = new InputRecorder(Channels.newChannel(logOutputStream));
+            final RandomDevice device = new RandomDevice();
+            final ArrayMemory recordedMemory = createMemory();
+            final MOS6502Processor recordedProcessor = createProcessor(executionEngine, recordedMemory, inputRecorder.record(device));
+            inputRecorder.attach(recordedProcessor);
+            device.start(recordedProcessor);
+            recordedProcessor.run(300_000);
+            inputRecorder.close();
+
+            final byte[] expectedSnapshot = new byte[recordedProcessor.snapshotSize()];
+            recordedProcessor.saveSnapshot(ByteBuffer.wrap(expectedSnapshot));
+
+            // Act
+            final InputReplayer inputReplayer = new InputReplayer(
+                Channels.newChannel(new ByteArrayInputStream(logOutputStream.toByteArray())));
+            final MOS6502Processor processor = createProcessor(executionEngine, createMemory(), inputReplayer.replay(device));
+            inputReplayer.attach(processor);
+            processor.run(recordedProcessor.totalCycles() - processor.totalCycles() - 1_000);
+            while (processor.totalCycles() < recordedProcessor.totalCycles()) {
+                processor.step();
+            }
+            inputReplayer.close();
+
+            final byte[] snapshot = new byte[processor.snapshotSize()];
+            processor.saveSnapshot(ByteBuffer.wrap(snapshot));
+
+            // Assert
+            Assertions.assertNotEquals(0, recordedMemory.read(0x2000), executionEngine.name());
+            Assertions.assertNotEquals(0, recordedMemory.read(0x2001), executionEngine.name());
+            Assertions.assertArrayEquals(expectedSnapshot, snapshot, executionEngine.name());
+        }
+    }
+
+    @Test
+    void readWithoutCycle() throws IOException {
+
+        // Arrange
+        final ByteArrayOutputStream logOutputStream = new ByteArrayOutputStream();
+        final InputRecorder inputRecorder = new InputRecorder(Channels.newChannel(logOutputStream));
+        final ArrayMemory recordedMemory = createMemory();
+        final MOS6502Processor recordedProcessor = createProcessor(
+            ExecutionEngine.SWITCH,
+            recordedMemory,
+            inputRecorder.record(new RandomDevice()));
+        inputRecorder.attach(recordedProcessor);
+        recordedProcessor.step();
+        recordedProcessor.step();
+        recordedProcessor.step();
+        recordedProcessor.step();
+        inputRecorder.close();
+
+        final InputReplayer inputReplayer = new InputReplayer(
+            Channels.newChannel(new ByteArrayInputStream(logOutputStream.toByteArray())));
+        final BusUnit replayingBusUnit = inputReplayer.replay(new RandomDevice());
+        final MOS6502Processor processor = createProcessor(ExecutionEngine.SWITCH, createMemory(), replayingBusUnit);
+        inputReplayer.attach(processor);
+
+        // Act
+        final int valueBeforeReplay = replayingBusUnit.read(0xD000);
+        processor.step();
+        processor.step();
+        processor.step();
+        processor.step();
+        inputReplayer.close();
+
+        // Assert
+        Assertions.assertEquals(0, valueBeforeReplay);
+        Assertions.assertEquals(recordedMemory.read(0x1000), replayingBusUnit.read(0xD000));
+        Assertions.assertEquals(0, replayingBusUnit.read(0xD001));
+        Assertions.assertTrue(inputReplayer.isFinished());
+    }
+
+    @Test
+    void replayDiverged() throws IOException {
+
+        // Arrange
+        final ByteArrayOutputStream logOutputStream = new ByteArrayOutputStream();
+        final InputRecorder inputRecorder = new InputRecorder(Channels.newChannel(logOutputStream));
+        final RandomDevice device = new RandomDevice();
+        final MOS6502Processor recordedProcessor = createProcessor(
+            ExecutionEngine.OPERATION_CODE_TABLE,
+            createMemory(),
+            inputRecorder.record(device));
+        inputRecorder.attach(recordedProcessor);
+        device.start(recordedProcessor);
+        recordedProcessor.run(10_000);
+        inputRecorder.close();
+
+        final InputReplayer inputReplayer = new InputReplayer(
+            Channels.newChannel(new ByteArrayInputStream(logOutputStream.toByteArray())));
+        final ArrayMemory memory = createMemory();
+        memory.write(0x0201, 0xEA); // NOP in place of CLI
+        final MOS6502Processor processor = createProcessor(
+            ExecutionEngine.OPERATION_CODE_TABLE,
+            memory,
+            inputReplayer.replay(device));
+        inputReplayer.attach(processor);
+
+        // Act & Assert
+        Assertions.assertThrows(IllegalStateException.class, () -> processor.run(10_000));
+    }
+
+    private static ArrayMemory createMemory() {
+
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0xD000);
+        memory.load(0x0200, new byte[]{
+            (byte) 0xEA,                    // NOP
+            0x58,                           // CLI
+            (byte) 0xAD, 0x00, (byte) 0xD0, // LDA $D000
+            (byte) 0x9D, 0x00, 0x10,        // STA $1000,X
+            (byte) 0xE8,                    // INX
+            0x4C, 0x02, 0x02});             // JMP $0202
+        memory.load(0x0300, new byte[]{
+            0x48,                           // PHA
+            (byte) 0xAD, 0x01, (byte) 0xD0, // LDA $D001
+            (byte) 0xEE, 0x00, 0x20,        // INC $2000
+            0x68,                           // PLA
+            0x40});                         // RTI
+        memory.load(0x0310, new byte[]{
+            (byte) 0xEE, 0x01, 0x20,        // INC $2001
+            0x40});                         // RTI
+
+        return memory;
+    }
+
+    private static MOS6502Processor createProcessor(final ExecutionEngine executionEngine,
+                                                    final ArrayMemory memory,
+                                                    final BusUnit device) {
+
+        final ArrayMemory vectorMemory = ArrayMemory.createRAM(0xFF00, 0x0100);
+        vectorMemory.load(0xFFFA, new byte[]{0x10, 0x03, 0x00, 0x02, 0x00, 0x03});
+
+        final MOS6502Processor processor = new MOS6502Processor(
+            Arrays.asList(memory, device, vectorMemory),
+            ProcessorVariant.NMOS_6502,
+            executionEngine);
+        processor.reset(0x0200);
+
+        return processor;
+    }
+
+    /**
+     * Device returning random values, and raising interrupts at random cycles. Its IRQ
+     * is acknowledged by reading $D001.
+     */
+    private static final class RandomDevice implements BusUnit {
+
+        private final Random random;
+        private MOS6502Processor processor;
+        private int interruptCount;
+
+        private RandomDevice() {
+
+            this.random = new Random();
+            this.processor = null;
+            this.interruptCount = 0;
+        }
+
+        @Override
+        public int mappingAddressMin() {
+
+            return 0xD000;
+        }
+
+        @Override
+        public int mappingAddressMax() {
+
+            return 0xD0FF;
+        }
+
+        @Override
+        public int read(final int address) {
+
+            if (address == 0xD001) {
+                this.processor.setIrqLine(false);
+            }
+
+            return this.random.nextInt(256);
+        }
+
+        @Override
+        public void write(final int address, final int value) {
+
+            // Read-only
+        }
+
+        private void start(final MOS6502Processor processor) {
+
+            this.processor = processor;
+            this.scheduleInterrupt(processor.totalCycles());
+        }
+
+        private void scheduleInterrupt(final long cycle) {
+
+            this.processor.getEventScheduler().schedule(cycle + 500 + this.random.nextInt(1_500), (final long eventCycle) -> {
+                this.interruptCount += 1;
+                if (this.interruptCount % 4 == 0) {
+                    this.processor.triggerNmi();
+                } else {
+                    this.processor.setIrqLine(true);
+                }
+                this.scheduleInterrupt(eventCycle);
+            });
+        }
+    }
+}
@@ -1,25 +1,1213 @@
 package io.github.thibaultmeyer.cpu.mos6502;
 
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 @TestMethodOrder(MethodOrderer.MethodName.class)
 final class MOS6502ProcessorTest {
 
     @Test
-    void test() {
+    void fork() {
 
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final PagedMemory memory = new PagedMemory(0x0000, 0x10000);
+            memory.load(0x0200, new byte[]{
+                (byte) 0xEE, 0x00, 0x03,        // INC $0300
+                (byte) 0xEE, 0x07, 0x02,        // INC $0207
+                (byte) 0xA9, 0x00,              // LDA #$00
+                (byte) 0x8D, 0x01, 0x03,        // STA $0301
+                0x4C, 0x00, 0x02});             // JMP $0200
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            processor.reset(0x0200);
+            processor.run(10_000);
+
+            // Act
+            final MOS6502Processor forkedProcessor = processor.fork();
+            final int counterAtFork = memory.read(0x0300);
+            final long targetCycle = processor.totalCycles() + 20_000;
+
+            runUntil(forkedProcessor, targetCycle - 15_000);
+            final int counterAfterForkRun = memory.read(0x0300);
+            runUntil(processor, targetCycle);
+            runUntil(forkedProcessor, targetCycle);
+
+            // Stops both processors at the loop start, where both copies of the counter match
+            while (processor.getRegisters().programCounter != 0x0200) {
+                processor.step();
+                forkedProcessor.step();
+            }
+
+            final byte[] snapshot = new byte[processor.snapshotSize()];
+            processor.saveSnapshot(ByteBuffer.wrap(snapshot));
+            final byte[] forkedSnapshot = new byte[forkedProcessor.snapshotSize()];
+            forkedProcessor.saveSnapshot(ByteBuffer.wrap(forkedSnapshot));
+
+            // Assert
+            Assertions.assertEquals(counterAtFork, counterAfterForkRun, executionEngine.name());
+            Assertions.assertNotEquals(counterAtFork, memory.read(0x0300), executionEngine.name());
+            Assertions.assertEquals(memory.read(0x0207), memory.read(0x0301), executionEngine.name());
+            Assertions.assertArrayEquals(snapshot, forkedSnapshot, executionEngine.name());
+        }
+    }
+
+    @Test
+    void forkUnsupportedBusUnit() {
+
+        // Arrange
+        final MOS6502Processor processor = new MOS6502Processor(Collections.singletonList(ArrayMemory.createRAM(0x0000, 0x10000)));
+
+        // Act & Assert
+        Assertions.assertThrows(IllegalStateException.class, processor::fork);
+    }
+
+    @Test
+    void functionalTest() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            // Act
+            final FunctionalTestRunner.Result result = FunctionalTestRunner.of(ProcessorVariant.NMOS_6502).run(executionEngine);
+
+            // Assert
+            Assertions.assertEquals(FunctionalTestRunner.NMOS_SUCCESS_TRAP_ADDRESS, result.getTrapAddress(), result::toString);
+            Assertions.assertTrue(result.isSuccessful(), result::toString);
+        }
+    }
+
+    @Test
+    void functionalTestExtendedOpcodes() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            // Act
+            final FunctionalTestRunner.Result result = FunctionalTestRunner.of(ProcessorVariant.CMOS_65C02).run(executionEngine);
+
+            // Assert
+            Assertions.assertEquals(FunctionalTestRunner.CMOS_SUCCESS_TRAP_ADDRESS, result.getTrapAddress(), result::toString);
+            Assertions.assertTrue(result.isSuccessful(), result::toString);
+        }
+    }
+
+    @Test
+    void busUnitPartialPage() {
+
+        // Arrange
+        final MappedMemory lowMemory = new MappedMemory(0x0000, 0x0FFF);
+        final MappedMemory ioMemory = new MappedMemory(0x1000, 0x1003);
+        final MappedMemory highMemory = new MappedMemory(0x1004, 0xFFFF);
+
+        final int[] program = {0xA9, 0x42, 0x8D, 0x02, 0x10, 0x8D, 0x10, 0x10};
+        for (int idx = 0; idx < program.length; idx += 1) {
+            lowMemory.write(0x0200 + idx, program[idx]);
+        }
+
+        final MOS6502Processor processor = new MOS6502Processor(Arrays.asList(lowMemory, ioMemory, highMemory));
+        processor.reset(0x0200);
+
+        // Act
+        processor.step();
+        processor.step();
+        processor.step();
+
+        // Assert
+        Assertions.assertEquals(0x42, ioMemory.read(0x1002));
+        Assertions.assertEquals(0x42, highMemory.read(0x1010));
+        Assertions.assertEquals(0x00, lowMemory.read(0x0002));
+    }
+
+    @Test
+    void compiledBlockSubclass() {
+
+        // Arrange
+        final MOS6502Processor processor = new MOS6502Processor(
+            Collections.singletonList(ArrayMemory.createRAM(0x0000, 0x10000)),
+            ProcessorVariant.NMOS_6502,
+            ExecutionEngine.DYNAMIC_RECOMPILER);
+
+        // Act & Assert
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> new CompiledBlock(processor) {
+
+            @Override
+            protected void execute() {
+
+            }
+        });
+    }
+
+    @Test
+    void cyclePenalties() {
+
+        // Arrange
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+        memory.load(0x02EB, new byte[]{
+            (byte) 0xA2, 0x01,              // LDX #$01
+            (byte) 0xBD, (byte) 0xFF, 0x10, // LDA $10FF,X (page crossed)
+            (byte) 0xBD, 0x00, 0x10,        // LDA $1000,X
+            (byte) 0x9D, (byte) 0xFF, 0x10, // STA $10FF,X (page crossed)
+            (byte) 0x9D, 0x00, 0x10,        // STA $1000,X
+            (byte) 0xF0, 0x00,              // BEQ +0 (taken)
+            (byte) 0xD0, 0x00,              // BNE +0 (not taken)
+            (byte) 0xF0, 0x01});            // BEQ +1 (taken, page crossed)
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            final MOS6502Processor processor = new MOS6502Processor(Collections.singletonList(memory), executionEngine);
+            processor.reset(0x02EB);
+
+            // Act
+            final int[] cycles = new int[8];
+            for (int idx = 0; idx < cycles.length; idx += 1) {
+                cycles[idx] = processor.step();
+            }
+
+            // Assert
+            Assertions.assertArrayEquals(new int[]{7 + 2, 5, 4, 5, 5, 3, 2, 4}, cycles, executionEngine.name());
+            Assertions.assertEquals(0x0300, processor.getRegisters().programCounter);
+        }
+    }
+
+    @Test
+    void decimalMode() {
+
+        final int flagMask = MOS6502Registers.FLAG_NEGATIVE
+            | MOS6502Registers.FLAG_OVERFLOW
+            | MOS6502Registers.FLAG_ZERO
+            | MOS6502Registers.FLAG_CARRY_BIT;
+
+        for (final ProcessorVariant processorVariant : Arrays.asList(ProcessorVariant.NMOS_6502, ProcessorVariant.CMOS_65C02)) {
+            final boolean cmos = processorVariant == ProcessorVariant.CMOS_65C02;
+            for (final int opcode : new int[]{0x69, 0xE9}) {
+
+                // Arrange
+                final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+                memory.load(0x0200, new byte[]{
+                    (byte) 0xEA,                    // NOP
+                    (byte) opcode, 0x00});          // ADC #$00 or SBC #$00
+
+                final MOS6502Processor processor = new MOS6502Processor(
+                    Collections.singletonList(memory),
+                    processorVariant,
+                    ExecutionEngine.SWITCH);
+                final MOS6502Registers registers = processor.getRegisters();
+                processor.reset(0x0200);
+                processor.step();
+
+                for (int carry = 0; carry < 2; carry += 1) {
+                    for (int accumulator = 0; accumulator < 256; accumulator += 1) {
+                        for (int value = 0; value < 256; value += 1) {
+                            memory.write(0x0202, value);
+                            registers.programCounter = 0x0201;
+                            registers.accumulator = accumulator;
+                            registers.status = MOS6502Registers.FLAG_UNUSED | MOS6502Registers.FLAG_DECIMAL_MODE | carry;
+
+                            // Act
+                            final int cycles = processor.step();
+
+                            // Assert
+                            final int expected = opcode == 0x69
+                                ? decimalADC(cmos, accumulator, value, carry)
+                                : decimalSBC(cmos, accumulator, value, carry);
+                            final int actual = ((registers.status & flagMask) << 8) | registers.accumulator;
+                            if (expected != actual || cycles != (cmos ? 3 : 2)) {
+                                Assertions.fail(String.format(
+                                    "%s %02X: A=%02X M=%02X C=%d, expected %04X, got %04X in %d cycles",
+                                    processorVariant, opcode, accumulator, value, carry, expected, actual, cycles));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void deltaSnapshot() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0000, FunctionalTestRunner.of(ProcessorVariant.NMOS_6502).loadResource());
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            processor.reset(FunctionalTestRunner.START_ADDRESS);
+            processor.run(1_000_000);
+
+            final byte[] snapshot = new byte[processor.snapshotSize()];
+            processor.saveSnapshot(ByteBuffer.wrap(snapshot));
+            final int cleanDeltaSnapshotSize = processor.deltaSnapshotSize();
+
+            processor.run(100_000);
+            final byte[] firstDeltaSnapshot = new byte[processor.deltaSnapshotSize()];
+            processor.saveDeltaSnapshot(ByteBuffer.wrap(firstDeltaSnapshot));
+            processor.run(100_000);
+            final byte[] secondDeltaSnapshot = new byte[processor.deltaSnapshotSize()];
+            processor.saveDeltaSnapshot(ByteBuffer.wrap(secondDeltaSnapshot));
+            final String expectedState = describeState(processor, memory);
+
+            final ArrayMemory otherMemory = ArrayMemory.createRAM(0x0000, 0x10000);
+            final MOS6502Processor otherProcessor = new MOS6502Processor(
+                Collections.singletonList(otherMemory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+
+            // Act
+            otherProcessor.loadSnapshot(ByteBuffer.wrap(snapshot));
+            otherProcessor.loadDeltaSnapshot(ByteBuffer.wrap(firstDeltaSnapshot));
+            otherProcessor.loadDeltaSnapshot(ByteBuffer.wrap(secondDeltaSnapshot));
+
+            // Assert
+            Assertions.assertEquals(39 + 32, cleanDeltaSnapshotSize, executionEngine.name());
+            Assertions.assertTrue(firstDeltaSnapshot.length > cleanDeltaSnapshotSize, executionEngine.name());
+            Assertions.assertTrue(firstDeltaSnapshot.length < snapshot.length / 16, executionEngine.name());
+            Assertions.assertEquals(expectedState, describeState(otherProcessor, otherMemory), executionEngine.name());
+            Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> otherProcessor.loadDeltaSnapshot(ByteBuffer.wrap(snapshot)),
+                executionEngine.name());
+        }
+    }
+
+    @Test
+    void dynamicRecompilerSelfModifyingCode() {
+
+        final long[] expectedCounters = new long[2];
+        for (final ExecutionEngine executionEngine : new ExecutionEngine[]{ExecutionEngine.SWITCH, ExecutionEngine.DYNAMIC_RECOMPILER}) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0200, new byte[]{
+                (byte) 0xA0, 0x01,              // LDY #$01
+                (byte) 0xA2, (byte) 0x80,       // LDX #$80
+                (byte) 0xA9, 0x00,              // LDA #$00 (operand patched below)
+                (byte) 0x8D, 0x00, 0x03,        // STA $0300
+                0x18,                           // CLC
+                0x6D, 0x01, 0x03,               // ADC $0301
+                (byte) 0x8D, 0x01, 0x03,        // STA $0301
+                (byte) 0xE8,                    // INX
+                (byte) 0xD0, (byte) 0xF1,       // BNE $0204 (128 times, block gets hot)
+                (byte) 0x8C, 0x05, 0x02,        // STY $0205 (patches the hot block)
+                (byte) 0xC8,                    // INY
+                (byte) 0xC0, 0x03,              // CPY #$03
+                (byte) 0xD0, (byte) 0xE7,       // BNE $0202
+                0x4C, 0x1B, 0x02});             // JMP $021B
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            processor.reset(0x0200);
+
+            // Act
+            while (processor.getRegisters().programCounter != 0x021B) {
+                processor.run(1);
+            }
+
+            // Assert
+            Assertions.assertEquals(0x01, memory.read(0x0300), executionEngine.name());
+            Assertions.assertEquals(0x80, memory.read(0x0301), executionEngine.name());
+            Assertions.assertEquals(0x02, memory.read(0x0205), executionEngine.name());
+            if (executionEngine == ExecutionEngine.SWITCH) {
+                expectedCounters[0] = processor.totalCycles();
+                expectedCounters[1] = processor.totalInstructions();
+            } else {
+                Assertions.assertEquals(expectedCounters[0], processor.totalCycles());
+                Assertions.assertEquals(expectedCounters[1], processor.totalInstructions());
+            }
+        }
+    }
+
+    @Test
+    void executionEngineEquivalence() {
+
+        // Arrange
+        final Memory referenceMemory = new Memory();
+        final Memory memory = new Memory();
+
+        final MOS6502Processor referenceProcessor = new MOS6502Processor(
+            Collections.singletonList(referenceMemory),
+            ExecutionEngine.OPERATION_CODE_TABLE);
+        final MOS6502Processor processor = new MOS6502Processor(Collections.singletonList(memory), ExecutionEngine.SWITCH);
+        final MOS6502Registers referenceRegisters = referenceProcessor.getRegisters();
+        final MOS6502Registers registers = processor.getRegisters();
+
+        referenceProcessor.reset(0x400);
+        processor.reset(0x400);
+
+        // Act & Assert
+        int previousProgramCounter = -1;
+        while (previousProgramCounter != referenceRegisters.programCounter) {
+            previousProgramCounter = referenceRegisters.programCounter;
+
+            final int referenceCycles = referenceProcessor.step();
+            final int cycles = processor.step();
+
+            if (referenceCycles != cycles
+                || referenceRegisters.accumulator != registers.accumulator
+                || referenceRegisters.x != registers.x
+                || referenceRegisters.y != registers.y
+                || referenceRegisters.stackPointer != registers.stackPointer
+                || referenceRegisters.programCounter != registers.programCounter
+                || referenceRegisters.status != registers.status) {
+                Assertions.fail("Execution engines diverge after instruction at 0x"
+                    + Integer.toHexString(previousProgramCounter) + ": " + referenceRegisters + " / " + registers);
+            }
+        }
+
+        Assertions.assertArrayEquals(referenceMemory.internalMemory, memory.internalMemory);
+    }
+
+    @Test
+    void interrupts() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0200, new byte[]{
+                0x58,                           // CLI
+                0x4C, 0x01, 0x02});             // JMP $0201
+            memory.load(0x0300, new byte[]{0x40});  // RTI
+            memory.load(0x0310, new byte[]{0x40});  // RTI
+            memory.load(0xFFFA, new byte[]{0x10, 0x03, 0x00, 0x00, 0x00, 0x03});
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            final MOS6502Registers registers = processor.getRegisters();
+            processor.reset(0x0200);
+            processor.step();
+
+            // Act
+            processor.setIrqLine(true);
+            final int irqCycles = processor.step();
+            final int irqProgramCounter = registers.programCounter;
+            final boolean irqDisabled = registers.getFlag(MOS6502Registers.FLAG_DISABLE_INTERRUPTS);
+            final int pushedStatus = memory.read(0x01FB);
+            final int pushedReturnAddress = (memory.read(0x01FD) << 8) | memory.read(0x01FC);
+
+            processor.step();
+            processor.step();
+            final int levelTriggeredProgramCounter = registers.programCounter;
+
+            processor.setIrqLine(false);
+            processor.step();
+            processor.triggerNmi();
+            final int nmiCycles = processor.step();
+            final int nmiProgramCounter = registers.programCounter;
+
+            processor.step();
+            processor.step();
+            final int edgeTriggeredProgramCounter = registers.programCounter;
+
+            processor.run(10_000);
+            processor.setIrqLine(true);
+            processor.run(1);
+
+            // Assert
+            Assertions.assertEquals(7, irqCycles, executionEngine.name());
+            Assertions.assertEquals(0x0300, irqProgramCounter, executionEngine.name());
+            Assertions.assertTrue(irqDisabled, executionEngine.name());
+            Assertions.assertEquals(0, pushedStatus & (MOS6502Registers.FLAG_BREAK | MOS6502Registers.FLAG_DISABLE_INTERRUPTS), executionEngine.name());
+            Assertions.assertEquals(0x0201, pushedReturnAddress, executionEngine.name());
+            Assertions.assertEquals(0x0300, levelTriggeredProgramCounter, executionEngine.name());
+            Assertions.assertEquals(7, nmiCycles, executionEngine.name());
+            Assertions.assertEquals(0x0310, nmiProgramCounter, executionEngine.name());
+            Assertions.assertEquals(0x0201, edgeTriggeredProgramCounter, executionEngine.name());
+            Assertions.assertEquals(0x0300, registers.programCounter, executionEngine.name());
+        }
+    }
+
+    @Test
+    void interruptsRaisedByBusUnits() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            for (final int deviceValue : new int[]{InterruptingUnit.NMI, InterruptingUnit.IRQ}) {
+
+                // Arrange
+                final InterruptingUnit device = new InterruptingUnit(0x1000, 0x10FF);
+                final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+                memory.load(0x0200, new byte[]{
+                    0x58,                           // CLI
+                    (byte) 0xA2, 0x00,              // LDX #$00
+                    (byte) 0xA9, (byte) deviceValue, // LDA #deviceValue
+                    (byte) 0x8D, 0x00, 0x10,        // STA $1000
+                    (byte) 0xE8,                    // INX
+                    (byte) 0xE8,                    // INX
+                    (byte) 0xE8,                    // INX
+                    0x4C, 0x01, 0x02});             // JMP $0201
+                memory.load(0x0300, new byte[]{
+                    (byte) 0x8E, 0x00, 0x05,        // STX $0500
+                    (byte) 0xEE, 0x01, 0x05,        // INC $0501
+                    (byte) 0xA9, 0x00,              // LDA #$00
+                    (byte) 0x8D, 0x00, 0x10,        // STA $1000
+                    0x40});                         // RTI
+                memory.load(0xFFFA, new byte[]{0x00, 0x03, 0x00, 0x00, 0x00, 0x03});
+
+                final MOS6502Processor processor = new MOS6502Processor(
+                    Arrays.asList(device, memory),
+                    ProcessorVariant.NMOS_6502,
+                    executionEngine);
+                device.processor = processor;
+                processor.reset(0x0200);
+
+                // Act
+                processor.run(10_000);
+
+                // Assert
+                final String message = executionEngine.name() + " " + deviceValue;
+                Assertions.assertEquals(0x00, memory.read(0x0500), message);
+                Assertions.assertTrue(memory.read(0x0501) > BlockCompiler.COMPILE_THRESHOLD, message);
+            }
+        }
+    }
+
+    @Test
+    void nestest() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            // Act
+            final NestestRunner.Result result = NestestRunner.create().run(null, executionEngine);
+
+            // Assert
+            Assertions.assertNull(result.getDivergence(), result.toString());
+            Assertions.assertEquals(0x00, result.getOfficialErrorCode(), result.toString());
+            Assertions.assertEquals(0x00, result.getUnofficialErrorCode(), result.toString());
+            Assertions.assertEquals(26554, result.getEndCycle(), result.toString());
+            Assertions.assertEquals(8991, result.getMatchingLineCount(), result.toString());
+        }
+    }
+
+    @Test
+    void nestestDivergence() {
+
+        // Arrange
+        final String referenceLog = String.join(
+            "\n",
+            "C000  4C F5 C5  JMP $C5F5                       A:00 X:00 Y:00 P:24 SP:FD PPU:  0, 21 CYC:7",
+            "C5F5  A2 00     LDX #$00                        A:00 X:00 Y:00 P:24 SP:FD PPU:  0, 30 CYC:10",
+            "C5F7  86 00     STX $00 = 00                    A:00 X:00 Y:00 P:A4 SP:FD PPU:  0, 36 CYC:13");
+
+        // Act
+        final NestestRunner.Result result = NestestRunner.create().run(
+            new BufferedReader(new StringReader(referenceLog)),
+            ExecutionEngine.SWITCH);
+
+        // Assert
+        Assertions.assertEquals(2, result.getMatchingLineCount());
+        Assertions.assertTrue(result.getDivergence().startsWith("Divergence at line 3"), result.getDivergence());
+        Assertions.assertTrue(result.getDivergence().contains("P: expected A4, actual 26"), result.getDivergence());
+        Assertions.assertTrue(result.getDivergence().contains("CYC: expected 13, actual 12"), result.getDivergence());
+        Assertions.assertFalse(result.getDivergence().contains("PC:"), result.getDivergence());
+    }
+
+    @Test
+    void nestestReferenceExcerpt() throws IOException {
+
+        // Arrange
+        final InputStream inputStream = this.getClass().getResourceAsStream("/nestest_excerpt.log");
+
+        try (final BufferedReader referenceReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.US_ASCII))) {
+            // Act
+            final NestestRunner.Result result = NestestRunner.create().run(referenceReader, ExecutionEngine.SWITCH);
+
+            // Assert
+            Assertions.assertNull(result.getDivergence(), result.toString());
+            Assertions.assertEquals(14, result.getMatchingLineCount());
+        }
+    }
+
+    @Test
+    void nestestReferenceLog() throws IOException {
+
+        // Arrange
+        Assumptions.assumeTrue(this.getClass().getResource("/nestest.log") != null, "Reference log nestest.log is not available");
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            try (final BufferedReader referenceReader = new BufferedReader(new InputStreamReader(
+                this.getClass().getResourceAsStream("/nestest.log"),
+                StandardCharsets.US_ASCII))) {
+                // Act
+                final NestestRunner.Result result = NestestRunner.create().run(referenceReader, executionEngine);
+
+                // Assert
+                Assertions.assertNull(result.getDivergence(), result.toString());
+                Assertions.assertEquals(26554, result.getEndCycle(), result.toString());
+            }
+        }
+    }
+
+    @Test
+    void registersSeenByBusUnits() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final RegistersRecordingUnit device = new RegistersRecordingUnit(0xD000, 0xD0FF);
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0200, new byte[]{
+                (byte) 0xA9, 0x00,              // LDA #$00
+                0x38,                           // SEC
+                (byte) 0x8D, 0x00, (byte) 0xD0, // STA $D000
+                (byte) 0xA9, (byte) 0x80,       // LDA #$80
+                0x18,                           // CLC
+                (byte) 0xAE, 0x00, (byte) 0xD0, // LDX $D000
+                0x4C, 0x00, 0x02});             // JMP $0200
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Arrays.asList(device, memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            device.registers = processor.getRegisters();
+            processor.reset(0x0200);
+
+            // Act
+            processor.run(10_000);
+
+            // Assert
+            Assertions.assertTrue(device.statusList.size() > 1_000, executionEngine.name());
+            for (int idx = 0; idx < device.statusList.size(); idx += 1) {
+                final int expectedStatus = idx % 2 == 0
+                    ? MOS6502Registers.FLAG_ZERO | MOS6502Registers.FLAG_CARRY_BIT
+                    : MOS6502Registers.FLAG_NEGATIVE;
+                final int flagMask = MOS6502Registers.FLAG_NEGATIVE | MOS6502Registers.FLAG_ZERO
+                    | MOS6502Registers.FLAG_CARRY_BIT | MOS6502Registers.FLAG_OVERFLOW;
+                Assertions.assertEquals(expectedStatus, device.statusList.get(idx) & flagMask, executionEngine.name());
+                Assertions.assertEquals(idx % 2 == 0 ? 0x00 : 0x80, device.accumulatorList.get(idx), executionEngine.name());
+            }
+        }
+    }
+
+    @Test
+    void run() {
+
+        // Arrange
+        final MOS6502Processor processor = new MOS6502Processor(Collections.singletonList(new Memory()));
+        processor.reset(0x400);
+
+        // Act
+        final long cycles = processor.run(1_000);
+
+        // Assert
+        Assertions.assertTrue(cycles >= 1_000);
+        Assertions.assertTrue(cycles < 1_010);
+    }
+
+    @Test
+    void scheduledEvents() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            final byte[] program = new byte[13];
+            Arrays.fill(program, (byte) 0xEA);      // NOP
+            program[10] = 0x4C;                     // JMP $0200
+            program[11] = 0x00;
+            program[12] = 0x02;
+            memory.load(0x0200, program);
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            processor.reset(0x0200);
+
+            final EventScheduler eventScheduler = processor.getEventScheduler();
+            final long[] maximumLateness = new long[1];
+            final int[] eventCount = new int[1];
+            eventScheduler.schedule(1_000, new ScheduledEvent() {
+
+                @Override
+                public void execute(final long cycle) {
+
+                    maximumLateness[0] = Math.max(maximumLateness[0], processor.totalCycles() - cycle);
+                    eventCount[0] += 1;
+                    eventScheduler.schedule(cycle + 1_000, this);
+                }
+            });
+
+            // Act
+            processor.run(100_500);
+
+            // Assert
+            Assertions.assertEquals(100, eventCount[0], executionEngine.name());
+            Assertions.assertTrue(maximumLateness[0] < 3, executionEngine.name());
+            Assertions.assertEquals(101_000, eventScheduler.nextEventCycle(), executionEngine.name());
+        }
+    }
+
+    @Test
+    void scheduledEventsFromBusUnits() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final SchedulingUnit device = new SchedulingUnit(0x1000, 0x10FF);
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            final byte[] program = new byte[28];
+            program[0] = (byte) 0xA9;               // LDA #$01
+            program[1] = 0x01;
+            program[2] = (byte) 0x8D;               // STA $1000 (schedules an event 4 cycles ahead)
+            program[3] = 0x00;
+            program[4] = 0x10;
+            Arrays.fill(program, 5, 25, (byte) 0xE8); // INX
+            program[25] = 0x4C;                     // JMP $0200
+            program[26] = 0x00;
+            program[27] = 0x02;
+            memory.load(0x0200, program);
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Arrays.asList(device, memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            device.processor = processor;
+            processor.reset(0x0200);
+
+            // Act
+            processor.run(20_000);
+
+            // Assert
+            Assertions.assertTrue(device.eventCount > BlockCompiler.COMPILE_THRESHOLD, executionEngine.name());
+            Assertions.assertTrue(device.maximumLateness < 5, executionEngine.name());
+        }
+    }
+
+    @Test
+    void scheduledEventsWithPenaltyCycles() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            final byte[] program = new byte[29];
+            program[0] = (byte) 0xA2;               // LDX #$01
+            program[1] = 0x01;
+            for (int idx = 2; idx < 26; idx += 3) {
+                program[idx] = (byte) 0xBD;         // LDA $12FF,X (crosses a page)
+                program[idx + 1] = (byte) 0xFF;
+                program[idx + 2] = 0x12;
+            }
+            program[26] = 0x4C;                     // JMP $0202
+            program[27] = 0x02;
+            program[28] = 0x02;
+            memory.load(0x0200, program);
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            processor.reset(0x0200);
+
+            final EventScheduler eventScheduler = processor.getEventScheduler();
+            final long[] maximumLateness = new long[1];
+            eventScheduler.schedule(1_000, new ScheduledEvent() {
+
+                @Override
+                public void execute(final long cycle) {
+
+                    maximumLateness[0] = Math.max(maximumLateness[0], processor.totalCycles() - cycle);
+                    eventScheduler.schedule(cycle + 1_000, this);
+                }
+            });
+
+            // Act
+            processor.run(100_500);
+
+            // Assert
+            Assertions.assertTrue(maximumLateness[0] < 5, executionEngine.name());
+        }
+    }
+
+    @Test
+    void selfModifyingCode() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0200, new byte[]{
+                (byte) 0xA9, 0x42,              // LDA #$42
+                (byte) 0x8D, 0x06, 0x02,        // STA $0206 (operand of the next instruction)
+                (byte) 0xA2, 0x00,              // LDX #$00
+                (byte) 0xE8,                    // INX
+                (byte) 0x8D, 0x00, 0x03,        // STA $0300
+                (byte) 0x4C, 0x00, 0x02});      // JMP $0200
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            processor.reset(0x0200);
+
+            // Act
+            for (int idx = 0; idx < 4; idx += 1) {
+                processor.step();
+            }
+            final int firstX = processor.getRegisters().x;
+
+            memory.load(0x0201, new byte[]{0x10});
+            processor.remapBusUnits();
+            for (int idx = 0; idx < 6 + 4; idx += 1) {
+                processor.step();
+            }
+
+            // Assert
+            Assertions.assertEquals(0x43, firstX, executionEngine.name());
+            Assertions.assertEquals(0x11, processor.getRegisters().x, executionEngine.name());
+            Assertions.assertEquals(0x10, memory.read(0x0300), executionEngine.name());
+        }
+    }
+
+    @Test
+    void snapshot() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0000, FunctionalTestRunner.of(ProcessorVariant.NMOS_6502).loadResource());
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            processor.reset(FunctionalTestRunner.START_ADDRESS);
+            processor.run(1_000_000);
+
+            final byte[] snapshot = new byte[processor.snapshotSize()];
+            processor.saveSnapshot(ByteBuffer.wrap(snapshot));
+            processor.run(1_000_000);
+            final String expectedState = describeState(processor, memory);
+
+            final ArrayMemory otherMemory = ArrayMemory.createRAM(0x0000, 0x10000);
+            final MOS6502Processor otherProcessor = new MOS6502Processor(
+                Collections.singletonList(otherMemory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+
+            // Act
+            processor.loadSnapshot(ByteBuffer.wrap(snapshot));
+            processor.run(1_000_000);
+            otherProcessor.loadSnapshot(ByteBuffer.wrap(snapshot));
+            otherProcessor.run(1_000_000);
+
+            // Assert
+            Assertions.assertEquals(0x10000 + 47, snapshot.length, executionEngine.name());
+            Assertions.assertEquals(expectedState, describeState(processor, memory), executionEngine.name());
+            Assertions.assertEquals(expectedState, describeState(otherProcessor, otherMemory), executionEngine.name());
+        }
+    }
+
+    @Test
+    void snapshotMismatch() {
+
+        // Arrange
+        final MOS6502Processor processor = new MOS6502Processor(
+            Collections.singletonList(ArrayMemory.createRAM(0x0000, 0x10000)),
+            ProcessorVariant.NMOS_6502,
+            ExecutionEngine.SWITCH);
+        final byte[] snapshot = new byte[processor.snapshotSize()];
+        processor.saveSnapshot(ByteBuffer.wrap(snapshot));
+
+        final MOS6502Processor cmosProcessor = new MOS6502Processor(
+            Collections.singletonList(ArrayMemory.createRAM(0x0000, 0x10000)),
+            ProcessorVariant.CMOS_65C02,
+            ExecutionEngine.SWITCH);
+        final MOS6502Processor smallerProcessor = new MOS6502Processor(
+            Collections.singletonList(ArrayMemory.createRAM(0x0000, 0x8000)),
+            ProcessorVariant.NMOS_6502,
+            ExecutionEngine.SWITCH);
+
+        // Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> cmosProcessor.loadSnapshot(ByteBuffer.wrap(snapshot)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> smallerProcessor.loadSnapshot(ByteBuffer.wrap(snapshot)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> processor.loadSnapshot(ByteBuffer.wrap(new byte[64])));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> processor.loadSnapshot(ByteBuffer.wrap(snapshot, 0, 100)));
+    }
+
+    @Test
+    void statusBetweenSteps() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0200, new byte[]{
+                (byte) 0xA9, 0x00,              // LDA #$00
+                0x69, 0x00,                     // ADC #$00
+                0x08});                         // PHP
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            final MOS6502Registers registers = processor.getRegisters();
+            processor.reset(0x0200);
+
+            // Act
+            processor.step();
+            final boolean zeroAfterLoad = registers.getFlag(MOS6502Registers.FLAG_ZERO);
+
+            registers.setFlag(MOS6502Registers.FLAG_CARRY_BIT, true);
+            processor.step();
+            processor.step();
+
+            // Assert
+            Assertions.assertTrue(zeroAfterLoad, executionEngine.name());
+            Assertions.assertEquals(0x01, registers.accumulator, executionEngine.name());
+            Assertions.assertFalse(registers.getFlag(MOS6502Registers.FLAG_ZERO), executionEngine.name());
+            Assertions.assertFalse(registers.getFlag(MOS6502Registers.FLAG_CARRY_BIT), executionEngine.name());
+            Assertions.assertEquals(registers.status | MOS6502Registers.FLAG_BREAK, memory.read(0x01FD), executionEngine.name());
+        }
+    }
+
+    @Test
+    void step() {
+
+        // Arrange
         final MOS6502Processor processor = new MOS6502Processor(Collections.singletonList(new Memory()));
         processor.reset(0x400);
 
-        for (int idx = 0; idx < 1_000; idx += 1) {
+        // Act
+        final int firstCycles = processor.step();
+        final int secondCycles = processor.step();
+
+        // Assert
+        Assertions.assertEquals(7 + 2, firstCycles);
+        Assertions.assertEquals(2, secondCycles);
+    }
+
+    @Test
+    void synchronizedBusUnit() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final CycleRecordingUnit device = new CycleRecordingUnit(0xD000, 0xD0FF);
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0200, new byte[]{
+                (byte) 0x8D, 0x00, (byte) 0xD0, // STA $D000
+                (byte) 0xEA,                    // NOP
+                (byte) 0xAD, 0x00, (byte) 0xD0, // LDA $D000
+                0x4C, 0x04, 0x02});             // JMP $0204
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Arrays.asList(device, memory),
+                ProcessorVariant.NMOS_6502,
+                executionEngine);
+            processor.reset(0x0200);
+
+            // Act
+            processor.step();
+            processor.step();
+            processor.step();
+            processor.run(10_000);
+
+            // Assert
+            Assertions.assertEquals(7 + 3, device.cycleList.get(0), executionEngine.name());
+            Assertions.assertEquals(7 + 4 + 2 + 3, device.cycleList.get(1), executionEngine.name());
+            for (int idx = 2; idx < device.cycleList.size(); idx += 1) {
+                Assertions.assertEquals(7, device.cycleList.get(idx) - device.cycleList.get(idx - 1), executionEngine.name());
+            }
+            Assertions.assertTrue(device.cycleList.size() > 1_000, executionEngine.name());
+        }
+    }
+
+    @Test
+    void totalCounters() {
+
+        // Arrange
+        final MOS6502Processor processor = new MOS6502Processor(Collections.singletonList(new Memory()));
+        processor.reset(0x400);
+
+        long cycles = 0;
+        for (int idx = 0; idx < 500; idx += 1) {
             processor.clockTick();
+            cycles += 1;
+        }
+
+        // Act
+        for (int idx = 0; idx < 500; idx += 1) {
+            cycles += processor.step();
+        }
+
+        cycles += processor.run(10_000);
+
+        // Assert
+        Assertions.assertEquals(cycles, processor.totalCycles());
+        Assertions.assertTrue(processor.totalInstructions() > 500);
+        Assertions.assertTrue(processor.totalInstructions() < cycles / 2);
+    }
+
+    @Test
+    void traceSink() {
+
+        // Arrange
+        final MOS6502Processor processor = new MOS6502Processor(Collections.singletonList(new Memory()));
+        final RingBufferTraceSink traceSink = new RingBufferTraceSink(16);
+        final long[] firstRecord = new long[]{-1, -1, -1};
+
+        processor.setTraceSink(traceSink);
+        processor.reset(0x400);
+
+        // Act
+        for (int idx = 0; idx < 20; idx += 1) {
+            processor.clockTick();
+        }
+
+        traceSink.replay((pc, opcode, a, x, y, sp, p, cycle) -> {
+            if (firstRecord[0] == -1) {
+                firstRecord[0] = pc;
+                firstRecord[1] = opcode;
+                firstRecord[2] = cycle;
+            }
+        });
+
+        // Assert
+        Assertions.assertTrue(traceSink.totalCount() > 0);
+        Assertions.assertEquals(0x400, firstRecord[0]);
+        Assertions.assertEquals(0xD8, firstRecord[1]);
+        Assertions.assertEquals(7, firstRecord[2]);
+    }
+
+    @Test
+    void instructionSemantics() {
+
+        // Arrange
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+        memory.load(0x0200, new byte[]{
+            (byte) 0xA2, 0x02,              // LDX #$02
+            (byte) 0xA9, 0x7F,              // LDA #$7F
+            0x18,                           // CLC
+            0x69, 0x01,                     // ADC #$01
+            0x08,                           // PHP
+            0x68,                           // PLA
+            (byte) 0x85, 0x10,              // STA $10
+            (byte) 0xA9, 0x10,              // LDA #$10
+            (byte) 0xC9, 0x08,              // CMP #$08
+            0x08,                           // PHP
+            0x68,                           // PLA
+            (byte) 0x85, 0x11,              // STA $11
+            (byte) 0xE6, 0x12,              // INC $12
+            (byte) 0xB5, 0x0E,              // LDA $0E,X
+            (byte) 0x85, 0x13,              // STA $13
+            0x20, 0x40, 0x02,               // JSR $0240
+            (byte) 0x85, 0x14,              // STA $14
+            0x4C, 0x1E, 0x02});             // JMP $021E
+        memory.load(0x0240, new byte[]{
+            (byte) 0xA9, (byte) 0xAA,       // LDA #$AA
+            0x60});                         // RTS
+
+        final MOS6502Processor processor = new MOS6502Processor(Collections.singletonList(memory));
+        processor.reset(0x0200);
+
+        // Act
+        for (int idx = 0; idx < 20; idx += 1) {
+            processor.step();
+        }
+
+        // Assert
+        Assertions.assertEquals(0xF4, memory.read(0x0010));
+        Assertions.assertEquals(0x75, memory.read(0x0011));
+        Assertions.assertEquals(0x01, memory.read(0x0012));
+        Assertions.assertEquals(0xF4, memory.read(0x0013));
+        Assertions.assertEquals(0xAA, memory.read(0x0014));
+    }
+
+    @Test
+    void unknownOpcode() {
+
+        // Arrange
+        final Memory memory = new Memory();
+        memory.write(0x0200, 0x02);
+
+        final MOS6502Processor processor = new MOS6502Processor(Collections.singletonList(memory));
+        processor.reset(0x0200);
+
+        // Act
+        final IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class, () -> {
+            for (int idx = 0; idx < 10; idx += 1) {
+                processor.clockTick();
+            }
+        });
+
+        // Assert
+        Assertions.assertEquals("Unknown opcode 0x2", exception.getMessage());
+    }
+
+    @Test
+    void waitForInterrupt() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0200, new byte[]{
+                (byte) 0xCB,                    // WAI
+                (byte) 0xE8,                    // INX
+                (byte) 0xCB});                  // WAI
+            memory.load(0xFFFA, new byte[]{0x10, 0x03});
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.CMOS_65C02,
+                executionEngine);
+            final MOS6502Registers registers = processor.getRegisters();
+            processor.reset(0x0200);
+            processor.step();
+
+            // Act
+            final int idleCycles = processor.step();
+            final int idleProgramCounter = registers.programCounter;
+
+            processor.setIrqLine(true);
+            processor.step();
+            processor.setIrqLine(false);
+
+            processor.step();
+            processor.run(100);
+            final int waitingProgramCounter = registers.programCounter;
+
+            processor.triggerNmi();
+            processor.step();
+
+            // Assert
+            Assertions.assertEquals(1, idleCycles, executionEngine.name());
+            Assertions.assertEquals(0x0201, idleProgramCounter, executionEngine.name());
+            Assertions.assertEquals(0x01, registers.x, executionEngine.name());
+            Assertions.assertEquals(0x0203, waitingProgramCounter, executionEngine.name());
+            Assertions.assertEquals(0x0310, registers.programCounter, executionEngine.name());
+        }
+    }
+
+    /**
+     * Reference decimal mode addition, from Bruce Clark's tutorial (sequences 1 and 2).
+     *
+     * @param cmos        {@code true} for 65C02 flags, {@code false} for NMOS 6502 flags
+     * @param accumulator Accumulator value
+     * @param value       Operand value
+     * @param carry       Carry flag value
+     * @return Flags in the high byte, accumulator in the low byte
+     * @see <a href="http://www.6502.org/tutorials/decimal_mode.html">Decimal Mode - 6502.org Tutorials</a>
+     */
+    private static int decimalADC(final boolean cmos, final int accumulator, final int value, final int carry) {
+
+        int low = (accumulator & 0x0F) + (value & 0x0F) + carry;
+        if (low >= 0x0A) {
+            low = ((low + 0x06) & 0x0F) + 0x10;
+        }
+
+        int result = (accumulator & 0xF0) + (value & 0xF0) + low;
+        if (result >= 0xA0) {
+            result += 0x60;
+        }
+
+        final int signedResult = (byte) (accumulator & 0xF0) + (byte) (value & 0xF0) + low;
+        int flags = result >= 0x100 ? MOS6502Registers.FLAG_CARRY_BIT : 0;
+        if (signedResult < -128 || signedResult > 127) {
+            flags |= MOS6502Registers.FLAG_OVERFLOW;
+        }
+
+        if (cmos) {
+            flags |= (result & 0x80) | ((result & 0xFF) == 0 ? MOS6502Registers.FLAG_ZERO : 0);
+        } else {
+            flags |= (signedResult & 0x80) | (((accumulator + value + carry) & 0xFF) == 0 ? MOS6502Registers.FLAG_ZERO : 0);
+        }
+
+        return (flags << 8) | (result & 0xFF);
+    }
+
+    /**
+     * Reference decimal mode subtraction, from Bruce Clark's tutorial (sequences 3 and 4).
+     *
+     * @param cmos        {@code true} for 65C02 flags, {@code false} for NMOS 6502 flags
+     * @param accumulator Accumulator value
+     * @param value       Operand value
+     * @param carry       Carry flag value
+     * @return Flags in the high byte, accumulator in the low byte
+     * @see <a href="http://www.6502.org/tutorials/decimal_mode.html">Decimal Mode - 6502.org Tutorials</a>
+     */
+    private static int decimalSBC(final boolean cmos, final int accumulator, final int value, final int carry) {
+
+        int low = (accumulator & 0x0F) - (value & 0x0F) + carry - 1;
+        int result;
+        if (cmos) {
+            result = accumulator - value + carry - 1;
+            if (result < 0) {
+                result -= 0x60;
+            }
+            if (low < 0) {
+                result -= 0x06;
+            }
+        } else {
+            if (low < 0) {
+                low = ((low - 0x06) & 0x0F) - 0x10;
+            }
+            result = (accumulator & 0xF0) - (value & 0xF0) + low;
+            if (result < 0) {
+                result -= 0x60;
+            }
+        }
+
+        final int binaryResult = accumulator - value + carry - 1;
+        int flags = binaryResult >= 0 ? MOS6502Registers.FLAG_CARRY_BIT : 0;
+        if (((accumulator ^ value) & (accumulator ^ binaryResult) & 0x80) != 0) {
+            flags |= MOS6502Registers.FLAG_OVERFLOW;
+        }
+
+        final int negativeAndZero = cmos ? result & 0xFF : binaryResult & 0xFF;
+        flags |= (negativeAndZero & 0x80) | (negativeAndZero == 0 ? MOS6502Registers.FLAG_ZERO : 0);
+
+        return (flags << 8) | (result & 0xFF);
+    }
+
+    private static String describeState(final MOS6502Processor processor, final ArrayMemory memory) {
+
+        final MOS6502Registers registers = processor.getRegisters();
+        final byte[] content = new byte[0x10000];
+        for (int address = 0; address < content.length; address += 1) {
+            content[address] = (byte) memory.read(address);
+        }
+
+        return String.format(
+            "PC=%04X A=%02X X=%02X Y=%02X SP=%02X P=%02X CYC=%d INS=%d MEM=%d",
+            registers.programCounter,
+            registers.accumulator,
+            registers.x,
+            registers.y,
+            registers.stackPointer,
+            registers.status,
+            processor.totalCycles(),
+            processor.totalInstructions(),
+            Arrays.hashCode(content));
+    }
+
+    private static void runUntil(final MOS6502Processor processor, final long cycle) {
+
+        processor.run(cycle - processor.totalCycles() - 1_000);
+        while (processor.totalCycles() < cycle) {
+            processor.step();
         }
     }
 
@@ -69,4 +1257,220 @@ final class MOS6502ProcessorTest {
             this.internalMemory[address] = value;
         }
     }
+
+    private static class MappedMemory implements BusUnit {
+
+        private final int mappingAddressMin;
+        private final int[] internalMemory;
+
+        public MappedMemory(final int mappingAddressMin, final int mappingAddressMax) {
+
+            this.mappingAddressMin = mappingAddressMin;
+            this.internalMemory = new int[mappingAddressMax - mappingAddressMin + 1];
+        }
+
+        @Override
+        public int mappingAddressMin() {
+
+            return this.mappingAddressMin;
+        }
+
+        @Override
+        public int mappingAddressMax() {
+
+            return this.mappingAddressMin + this.internalMemory.length - 1;
+        }
+
+        @Override
+        public int read(final int address) {
+
+            return this.internalMemory[address - this.mappingAddressMin];
+        }
+
+        @Override
+        public void write(final int address, final int value) {
+
+            this.internalMemory[address - this.mappingAddressMin] = value;
+        }
+    }
+
+    private static class CycleRecordingUnit implements SynchronizedBusUnit {
+
+        private final int mappingAddressMin;
+        private final int mappingAddressMax;
+        private final List<Long> cycleList;
+
+        public CycleRecordingUnit(final int mappingAddressMin, final int mappingAddressMax) {
+
+            this.mappingAddressMin = mappingAddressMin;
+            this.mappingAddressMax = mappingAddressMax;
+            this.cycleList = new ArrayList<>();
+        }
+
+        @Override
+        public int mappingAddressMin() {
+
+            return this.mappingAddressMin;
+        }
+
+        @Override
+        public int mappingAddressMax() {
+
+            return this.mappingAddressMax;
+        }
+
+        @Override
+        public int read(final int address) {
+
+            throw new IllegalStateException("Read without cycle");
+        }
+
+        @Override
+        public void write(final int address, final int value) {
+
+            throw new IllegalStateException("Write without cycle");
+        }
+
+        @Override
+        public int read(final int address, final long cycle) {
+
+            this.cycleList.add(cycle);
+            return 0;
+        }
+
+        @Override
+        public void write(final int address, final int value, final long cycle) {
+
+            this.cycleList.add(cycle);
+        }
+    }
+
+    private static class InterruptingUnit implements BusUnit {
+
+        private static final int NMI = 1;
+        private static final int IRQ = 2;
+
+        private final int mappingAddressMin;
+        private final int mappingAddressMax;
+        private MOS6502Processor processor;
+
+        public InterruptingUnit(final int mappingAddressMin, final int mappingAddressMax) {
+
+            this.mappingAddressMin = mappingAddressMin;
+            this.mappingAddressMax = mappingAddressMax;
+        }
+
+        @Override
+        public int mappingAddressMin() {
+
+            return this.mappingAddressMin;
+        }
+
+        @Override
+        public int mappingAddressMax() {
+
+            return this.mappingAddressMax;
+        }
+
+        @Override
+        public int read(final int address) {
+
+            return 0;
+        }
+
+        @Override
+        public void write(final int address, final int value) {
+
+            if (value == NMI) {
+                this.processor.triggerNmi();
+            }
+            this.processor.setIrqLine(value == IRQ);
+        }
+    }
+
+    private static class SchedulingUnit implements BusUnit {
+
+        private final int mappingAddressMin;
+        private final int mappingAddressMax;
+        private MOS6502Processor processor;
+        private int eventCount;
+        private long maximumLateness;
+
+        public SchedulingUnit(final int mappingAddressMin, final int mappingAddressMax) {
+
+            this.mappingAddressMin = mappingAddressMin;
+            this.mappingAddressMax = mappingAddressMax;
+        }
+
+        @Override
+        public int mappingAddressMin() {
+
+            return this.mappingAddressMin;
+        }
+
+        @Override
+        public int mappingAddressMax() {
+
+            return this.mappingAddressMax;
+        }
+
+        @Override
+        public int read(final int address) {
+
+            return 0;
+        }
+
+        @Override
+        public void write(final int address, final int value) {
+
+            this.processor.getEventScheduler().schedule(this.processor.totalCycles() + 4, (final long cycle) -> {
+                this.eventCount += 1;
+                this.maximumLateness = Math.max(this.maximumLateness, this.processor.totalCycles() - cycle);
+            });
+        }
+    }
+
+    private static class RegistersRecordingUnit implements BusUnit {
+
+        private final int mappingAddressMin;
+        private final int mappingAddressMax;
+        private final List<Integer> statusList;
+        private final List<Integer> accumulatorList;
+        private MOS6502Registers registers;
+
+        public RegistersRecordingUnit(final int mappingAddressMin, final int mappingAddressMax) {
+
+            this.mappingAddressMin = mappingAddressMin;
+            this.mappingAddressMax = mappingAddressMax;
+            this.statusList = new ArrayList<>();
+            this.accumulatorList = new ArrayList<>();
+        }
+
+        @Override
+        public int mappingAddressMin() {
+
+            return this.mappingAddressMin;
+        }
+
+        @Override
+        public int mappingAddressMax() {
+
+            return this.mappingAddressMax;
+        }
+
+        @Override
+        public int read(final int address) {
+
+            this.statusList.add(this.registers.status);
+            this.accumulatorList.add(this.registers.accumulator);
+            return 0;
+        }
+
+        @Override
+        public void write(final int address, final int value) {
+
+            this.statusList.add(this.registers.status);
+            this.accumulatorList.add(this.registers.accumulator);
+        }
+    }
 }
@@ -38,6 +38,20 @@ final class MOS6502RegistersTest {
         Assertions.assertTrue(flag);
     }
 
+    @Test
+    void negativeAndZeroFlags() {
+
+        // Act
+        final int zeroFlags = MOS6502Registers.negativeAndZeroFlags(0x00);
+        final int positiveFlags = MOS6502Registers.negativeAndZeroFlags(0x7F);
+        final int negativeFlags = MOS6502Registers.negativeAndZeroFlags(0x80);
+
+        // Assert
+        Assertions.assertEquals(MOS6502Registers.FLAG_ZERO, zeroFlags);
+        Assertions.assertEquals(0, positiveFlags);
+        Assertions.assertEquals(MOS6502Registers.FLAG_NEGATIVE, negativeFlags);
+    }
+
     @Test
     void setFlag() {
 
@@ -0,0 +1,373 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the nestest ROM in automation mode (from 0xC000, without PPU) and compares the
+ * emitted trace, line by line, with a reference log in the nestest.log format. The
+ * reference is read as the processor runs, and the run stops at the first divergence.
+ * Only PC, instruction bytes, registers and cycle count are compared: the disassembly
+ * and PPU columns of the reference log are ignored. Without reference log, nestest runs
+ * until its end and only reports its own error codes.
+ *
+ * @see <a href="https://www.qmtpro.com/~nes/misc/nestest.txt">nestest documentation</a>
+ */
+final class NestestRunner {
+
+    /**
+     * Address where nestest starts in automation mode.
+     */
+    static final int START_ADDRESS = 0xC000;
+
+    /**
+     * Address of the final RTS of the automation mode, where nestest.log ends.
+     */
+    static final int END_ADDRESS = 0xC66E;
+
+    /**
+     * Names of the compared fields, in trace line order.
+     */
+    private static final String[] FIELD_NAMES = {"PC", "bytes", "A", "X", "Y", "P", "SP", "CYC"};
+
+    /**
+     * Length, in bytes, of each NMOS operation code including unofficial ones, indexed
+     * by the opcode value itself.
+     */
+    private static final int[] INSTRUCTION_LENGTH_TABLE = {
+        1, 2, 1, 2, 2, 2, 2, 2, 1, 2, 1, 2, 3, 3, 3, 3,  // 0x00
+        2, 2, 1, 2, 2, 2, 2, 2, 1, 3, 1, 3, 3, 3, 3, 3,  // 0x10
+        3, 2, 1, 2, 2, 2, 2, 2, 1, 2, 1, 2, 3, 3, 3, 3,  // 0x20
+        2, 2, 1, 2, 2, 2, 2, 2, 1, 3, 1, 3, 3, 3, 3, 3,  // 0x30
+        1, 2, 1, 2, 2, 2, 2, 2, 1, 2, 1, 2, 3, 3, 3, 3,  // 0x40
+        2, 2, 1, 2, 2, 2, 2, 2, 1, 3, 1, 3, 3, 3, 3, 3,  // 0x50
+        1, 2, 1, 2, 2, 2, 2, 2, 1, 2, 1, 2, 3, 3, 3, 3,  // 0x60
+        2, 2, 1, 2, 2, 2, 2, 2, 1, 3, 1, 3, 3, 3, 3, 3,  // 0x70
+        2, 2, 2, 2, 2, 2, 2, 2, 1, 2, 1, 2, 3, 3, 3, 3,  // 0x80
+        2, 2, 1, 2, 2, 2, 2, 2, 1, 3, 1, 3, 3, 3, 3, 3,  // 0x90
+        2, 2, 2, 2, 2, 2, 2, 2, 1, 2, 1, 2, 3, 3, 3, 3,  // 0xA0
+        2, 2, 1, 2, 2, 2, 2, 2, 1, 3, 1, 3, 3, 3, 3, 3,  // 0xB0
+        2, 2, 2, 2, 2, 2, 2, 2, 1, 2, 1, 2, 3, 3, 3, 3,  // 0xC0
+        2, 2, 1, 2, 2, 2, 2, 2, 1, 3, 1, 3, 3, 3, 3, 3,  // 0xD0
+        2, 2, 2, 2, 2, 2, 2, 2, 1, 2, 1, 2, 3, 3, 3, 3,  // 0xE0
+        2, 2, 1, 2, 2, 2, 2, 2, 1, 3, 1, 3, 3, 3, 3, 3   // 0xF0
+    };
+
+    private final List<BusUnit> busUnitList;
+    private final ArrayMemory ram;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param cartridge nestest cartridge
+     */
+    NestestRunner(final INesCartridge cartridge) {
+
+        // 2 KB of internal RAM, then a plain memory standing for the I/O registers
+        this.ram = ArrayMemory.createRAM(0x0000, 0x0800);
+        this.busUnitList = new ArrayList<>();
+        this.busUnitList.add(this.ram);
+        this.busUnitList.add(ArrayMemory.createRAM(0x0800, 0x7800));
+        this.busUnitList.addAll(cartridge.createPrgRomBusUnits());
+    }
+
+    /**
+     * Creates a runner for the nestest ROM available on the class path.
+     *
+     * @return Newly created runner
+     */
+    static NestestRunner create() {
+
+        try (final InputStream inputStream = NestestRunner.class.getResourceAsStream("/nestest.nes")) {
+            return new NestestRunner(INesCartridge.load(inputStream));
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Formats a trace line in the nestest.log format, without the disassembly
+     * and PPU columns.
+     *
+     * @param fields Trace line fields, in {@link #FIELD_NAMES} order
+     * @return The formatted line
+     */
+    static String formatLine(final String[] fields) {
+
+        return String.format(
+            "%s  %-8s  A:%s X:%s Y:%s P:%s SP:%s CYC:%s",
+            fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6], fields[7]);
+    }
+
+    /**
+     * Extracts compared fields from a nestest.log line.
+     *
+     * @param line nestest.log line
+     * @return Trace line fields, in {@link #FIELD_NAMES} order
+     */
+    static String[] parseReferenceLine(final String line) {
+
+        final int registersIndex = line.indexOf(" A:") + 1;
+        final int cycleIndex = line.indexOf("CYC:");
+        if (line.length() < 16 || registersIndex == 0 || cycleIndex == -1) {
+            throw new IllegalArgumentException("Malformed nestest.log line: " + line);
+        }
+
+        final String registers = line.substring(registersIndex);
+        return new String[]{
+            line.substring(0, 4),
+            line.substring(6, 15).trim(),
+            registers.substring(2, 4),
+            registers.substring(7, 9),
+            registers.substring(12, 14),
+            registers.substring(17, 19),
+            registers.substring(23, 25),
+            line.substring(cycleIndex + 4).trim()};
+    }
+
+    /**
+     * Runs nestest, comparing the trace with the given reference log. The run stops at
+     * the end of nestest or of the reference, at the first divergence or when the
+     * processor fails.
+     *
+     * @param referenceReader Reference log, in the nestest.log format, or {@code null} to skip comparison
+     * @param executionEngine Execution engine to use
+     * @return The result
+     */
+    Result run(final BufferedReader referenceReader, final ExecutionEngine executionEngine) {
+
+        final MOS6502Processor processor = new MOS6502Processor(this.busUnitList, ProcessorVariant.RICOH_2A03, executionEngine);
+        final ComparingTraceSink traceSink = new ComparingTraceSink(referenceReader);
+        processor.setTraceSink(traceSink);
+        processor.reset(START_ADDRESS);
+
+        String failure = null;
+        try {
+            while (!traceSink.isStopped()) {
+                processor.step();
+            }
+        } catch (final IllegalStateException exception) {
+            failure = "Processor failed at line " + traceSink.lineNumber + ": " + exception.getMessage();
+        }
+
+        return new Result(
+            traceSink.lineNumber - (traceSink.divergence == null && failure == null ? 0 : 1),
+            traceSink.divergence != null ? traceSink.divergence : failure,
+            this.ram.read(0x0002),
+            this.ram.read(0x0003),
+            traceSink.endCycle);
+    }
+
+    /**
+     * Reads memory through the bus units, without going through the processor.
+     *
+     * @param address Memory address
+     * @return Read value
+     */
+    private int readMemory(final int address) {
+
+        for (final BusUnit busUnit : this.busUnitList) {
+            if (address >= busUnit.mappingAddressMin() && address <= busUnit.mappingAddressMax()) {
+                return busUnit.read(address);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * nestest result.
+     */
+    static final class Result {
+
+        private final int matchingLineCount;
+        private final String divergence;
+        private final int officialErrorCode;
+        private final int unofficialErrorCode;
+        private final long endCycle;
+
+        private Result(final int matchingLineCount,
+                       final String divergence,
+                       final int officialErrorCode,
+                       final int unofficialErrorCode,
+                       final long endCycle) {
+
+            this.matchingLineCount = matchingLineCount;
+            this.divergence = divergence;
+            this.officialErrorCode = officialErrorCode;
+            this.unofficialErrorCode = unofficialErrorCode;
+            this.endCycle = endCycle;
+        }
+
+        /**
+         * Gets the number of traced lines, all matching the reference if one was given.
+         *
+         * @return The number of matching lines
+         */
+        int getMatchingLineCount() {
+
+            return this.matchingLineCount;
+        }
+
+        /**
+         * Gets the description of the first divergence, or of the processor failure.
+         *
+         * @return The divergence, or {@code null} if the whole reference matched
+         */
+        String getDivergence() {
+
+            return this.divergence;
+        }
+
+        /**
+         * Gets the nestest error code of official opcodes tests, stored at 0x0002.
+         *
+         * @return The error code, 0 if no test failed
+         */
+        int getOfficialErrorCode() {
+
+            return this.officialErrorCode;
+        }
+
+        /**
+         * Gets the nestest error code of unofficial opcodes tests, stored at 0x0003.
+         *
+         * @return The error code, 0 if no test failed
+         */
+        int getUnofficialErrorCode() {
+
+            return this.unofficialErrorCode;
+        }
+
+        /**
+         * Gets the cycle count when the final RTS of nestest is reached.
+         *
+         * @return The cycle count, -1 if the end of nestest was not reached
+         */
+        long getEndCycle() {
+
+            return this.endCycle;
+        }
+
+        @Override
+        public String toString() {
+
+            return String.format(
+                "nestest: %d matching lines, error codes %02X/%02X, end cycle %d%s",
+                this.matchingLineCount,
+                this.officialErrorCode,
+                this.unofficialErrorCode,
+                this.endCycle,
+                this.divergence == null ? "" : System.lineSeparator() + this.divergence);
+        }
+    }
+
+    /**
+     * Trace sink comparing each traced instruction with the next reference line.
+     */
+    private final class ComparingTraceSink implements TraceSink {
+
+        private final BufferedReader referenceReader;
+        private int lineNumber;
+        private String divergence;
+        private boolean endOfReference;
+        private long endCycle;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param referenceReader Reference log, or {@code null} to skip comparison
+         */
+        ComparingTraceSink(final BufferedReader referenceReader) {
+
+            this.referenceReader = referenceReader;
+            this.lineNumber = 0;
+            this.divergence = null;
+            this.endOfReference = false;
+            this.endCycle = -1;
+        }
+
+        /**
+         * Checks if the run must stop.
+         *
+         * @return {@code true} once nestest or the reference has ended, or has diverged
+         */
+        boolean isStopped() {
+
+            return this.endCycle != -1 || this.endOfReference || this.divergence != null;
+        }
+
+        @Override
+        public void trace(final int programCounter,
+                          final int opcode,
+                          final int accumulator,
+                          final int x,
+                          final int y,
+                          final int stackPointer,
+                          final int status,
+                          final long cycle) {
+
+            if (this.isStopped()) {
+                return;
+            }
+
+            if (programCounter == END_ADDRESS) {
+                this.endCycle = cycle;
+            }
+            if (this.referenceReader == null) {
+                this.lineNumber += 1;
+                return;
+            }
+
+            final String referenceLine;
+            try {
+                referenceLine = this.referenceReader.readLine();
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+
+            if (referenceLine == null || referenceLine.isEmpty()) {
+                this.endOfReference = true;
+                return;
+            }
+            this.lineNumber += 1;
+
+            final StringBuilder bytes = new StringBuilder(String.format("%02X", opcode));
+            for (int idx = 1; idx < INSTRUCTION_LENGTH_TABLE[opcode]; idx += 1) {
+                bytes.append(String.format(" %02X", NestestRunner.this.readMemory((programCounter + idx) & 0xFFFF)));
+            }
+
+            final String[] actual = {
+                String.format("%04X", programCounter),
+                bytes.toString(),
+                String.format("%02X", accumulator),
+                String.format("%02X", x),
+                String.format("%02X", y),
+                String.format("%02X", status),
+                String.format("%02X", stackPointer),
+                Long.toString(cycle)};
+            final String[] expected = parseReferenceLine(referenceLine);
+
+            final StringBuilder differences = new StringBuilder();
+            for (int idx = 0; idx < FIELD_NAMES.length; idx += 1) {
+                if (!expected[idx].equals(actual[idx])) {
+                    differences.append(String.format("%n  %s: expected %s, actual %s", FIELD_NAMES[idx], expected[idx], actual[idx]));
+                }
+            }
+
+            if (differences.length() > 0) {
+                this.divergence = String.format(
+                    "Divergence at line %d%n  reference: %s%n  expected:  %s%n  actual:    %s%s",
+                    this.lineNumber,
+                    referenceLine,
+                    formatLine(expected),
+                    formatLine(actual),
+                    differences);
+            }
+        }
+    }
+}
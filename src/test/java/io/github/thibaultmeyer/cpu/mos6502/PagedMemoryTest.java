@@ -0,0 +1,65 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.nio.ByteBuffer;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+final class PagedMemoryTest {
+
+    @Test
+    void createInvalidMapping() {
+
+        // Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PagedMemory(0xF000, 0x2000));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PagedMemory(0x0010, 0x0100));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new PagedMemory(0x0000, 0x0110));
+    }
+
+    @Test
+    void fork() {
+
+        // Arrange
+        final PagedMemory memory = new PagedMemory(0x1000, 0x1000);
+        memory.load(0x1010, new byte[]{0x11, 0x22});
+
+        // Act
+        final PagedMemory forkedMemory = memory.fork();
+        final int sharedPageCount = forkedMemory.ownedPageCount();
+        forkedMemory.write(0x1010, 0x33);
+        memory.write(0x1F00, 0x44);
+
+        // Assert
+        Assertions.assertEquals(0, sharedPageCount);
+        Assertions.assertEquals(1, forkedMemory.ownedPageCount());
+        Assertions.assertEquals(1, memory.ownedPageCount());
+        Assertions.assertEquals(0x11, memory.read(0x1010));
+        Assertions.assertEquals(0x33, forkedMemory.read(0x1010));
+        Assertions.assertEquals(0x22, forkedMemory.read(0x1011));
+        Assertions.assertEquals(0x44, memory.read(0x1F00));
+        Assertions.assertEquals(0x00, forkedMemory.read(0x1F00));
+        Assertions.assertEquals(0x1FFF, forkedMemory.mappingAddressMax());
+    }
+
+    @Test
+    void loadSnapshotShared() {
+
+        // Arrange
+        final PagedMemory memory = new PagedMemory(0x0000, 0x0200);
+        final ByteBuffer buffer = ByteBuffer.allocate(memory.snapshotSize());
+        memory.saveSnapshot(buffer);
+
+        memory.write(0x0100, 0x55);
+        final PagedMemory forkedMemory = memory.fork();
+
+        // Act
+        memory.loadSnapshot(ByteBuffer.wrap(buffer.array()));
+
+        // Assert
+        Assertions.assertEquals(0x00, memory.read(0x0100));
+        Assertions.assertEquals(0x55, forkedMemory.read(0x0100));
+    }
+}
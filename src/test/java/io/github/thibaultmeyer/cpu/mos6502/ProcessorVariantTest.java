@@ -0,0 +1,205 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.Collections;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+final class ProcessorVariantTest {
+
+    @Test
+    void cmosInstructions() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0010, new byte[]{(byte) 0xFF, (byte) 0xF0, (byte) 0xFF, 0x00, 0x00, 0x03});
+            memory.load(0x0300, new byte[]{0x5A});
+            memory.load(0x0200, new byte[]{
+                (byte) 0xA2, 0x11,              // LDX #$11
+                (byte) 0xA0, 0x22,              // LDY #$22
+                (byte) 0xDA,                    // PHX
+                0x5A,                           // PHY
+                (byte) 0xFA,                    // PLX
+                0x7A,                           // PLY
+                0x64, 0x10,                     // STZ $10
+                (byte) 0xA9, 0x0F,              // LDA #$0F
+                0x04, 0x11,                     // TSB $11
+                0x14, 0x12,                     // TRB $12
+                0x1A,                           // INC A
+                (byte) 0x87, 0x13,              // SMB0 $13
+                (byte) 0xB2, 0x14,              // LDA ($14)
+                (byte) 0x80, 0x02,              // BRA +2
+                (byte) 0xA9, 0x00,              // LDA #$00
+                0x0F, 0x13, 0x01,               // BBR0 $13,+1
+                (byte) 0xEA,                    // NOP
+                (byte) 0x85, 0x16,              // STA $16
+                0x4C, 0x1F, 0x02});             // JMP $021F
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                ProcessorVariant.CMOS_65C02,
+                executionEngine);
+            processor.reset(0x0200);
+
+            // Act
+            for (int idx = 0; idx < 20; idx += 1) {
+                processor.step();
+            }
+
+            // Assert
+            final MOS6502Registers registers = processor.getRegisters();
+            Assertions.assertEquals(0x22, registers.x, executionEngine.name());
+            Assertions.assertEquals(0x11, registers.y, executionEngine.name());
+            Assertions.assertEquals(0x021F, registers.programCounter, executionEngine.name());
+            Assertions.assertEquals(0x00, memory.read(0x0010), executionEngine.name());
+            Assertions.assertEquals(0xFF, memory.read(0x0011), executionEngine.name());
+            Assertions.assertEquals(0xF0, memory.read(0x0012), executionEngine.name());
+            Assertions.assertEquals(0x01, memory.read(0x0013), executionEngine.name());
+            Assertions.assertEquals(0x5A, memory.read(0x0016), executionEngine.name());
+        }
+    }
+
+    @Test
+    void decimalMode() {
+
+        for (final ProcessorVariant processorVariant : new ProcessorVariant[]{ProcessorVariant.NMOS_6502, ProcessorVariant.CMOS_65C02}) {
+
+            // Act
+            final ArrayMemory memory = runDecimalProgram(processorVariant);
+
+            // Assert
+            Assertions.assertEquals(0x47, memory.read(0x0010), processorVariant.name());
+            Assertions.assertEquals(0x00, memory.read(0x0011), processorVariant.name());
+            Assertions.assertEquals(
+                processorVariant == ProcessorVariant.CMOS_65C02 ? 0x3F : 0xBD,
+                memory.read(0x0012),
+                processorVariant.name());
+            Assertions.assertEquals(0x39, memory.read(0x0013), processorVariant.name());
+        }
+    }
+
+    @Test
+    void decimalModeDisabled() {
+
+        // Act
+        final ArrayMemory memory = runDecimalProgram(ProcessorVariant.RICOH_2A03);
+
+        // Assert
+        Assertions.assertEquals(0x41, memory.read(0x0010));
+        Assertions.assertEquals(0x9A, memory.read(0x0011));
+        Assertions.assertEquals(0xBC, memory.read(0x0012));
+        Assertions.assertEquals(0x3F, memory.read(0x0013));
+    }
+
+    @Test
+    void jumpIndirectPageBoundary() {
+
+        for (final ProcessorVariant processorVariant : ProcessorVariant.values()) {
+
+            // Arrange
+            final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+            memory.load(0x0200, new byte[]{0x06});
+            memory.load(0x02FF, new byte[]{0x00, 0x05});
+            memory.load(0x0400, new byte[]{0x6C, (byte) 0xFF, 0x02}); // JMP ($02FF)
+
+            final MOS6502Processor processor = new MOS6502Processor(
+                Collections.singletonList(memory),
+                processorVariant,
+                ExecutionEngine.SWITCH);
+            processor.reset(0x0400);
+
+            // Act
+            processor.step();
+
+            // Assert
+            Assertions.assertEquals(
+                processorVariant == ProcessorVariant.CMOS_65C02 ? 0x0500 : 0x0600,
+                processor.getRegisters().programCounter,
+                processorVariant.name());
+        }
+    }
+
+    @Test
+    void nmosUnofficialInstructions() {
+
+        for (final ProcessorVariant processorVariant : new ProcessorVariant[]{ProcessorVariant.NMOS_6502, ProcessorVariant.RICOH_2A03}) {
+            for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+                // Arrange
+                final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+                memory.load(0x0010, new byte[]{0x33, 0x00, 0x34, 0x00, 0x00, (byte) 0x81});
+                memory.load(0x0200, new byte[]{
+                    (byte) 0xA7, 0x10,              // LAX $10
+                    (byte) 0x87, 0x11,              // SAX $11
+                    (byte) 0xC7, 0x12,              // DCP $12
+                    (byte) 0xE7, 0x13,              // ISB $13
+                    (byte) 0x85, 0x14,              // STA $14
+                    0x07, 0x15,                     // SLO $15
+                    0x04, 0x10,                     // NOP zp
+                    (byte) 0xEB, 0x01,              // SBC #$01
+                    (byte) 0x85, 0x16,              // STA $16
+                    0x4C, 0x12, 0x02});             // JMP $0212
+
+                final MOS6502Processor processor = new MOS6502Processor(
+                    Collections.singletonList(memory),
+                    processorVariant,
+                    executionEngine);
+                processor.reset(0x0200);
+
+                // Act
+                for (int idx = 0; idx < 12; idx += 1) {
+                    processor.step();
+                }
+
+                // Assert
+                final String message = processorVariant.name() + " " + executionEngine.name();
+                Assertions.assertEquals(0x33, processor.getRegisters().x, message);
+                Assertions.assertEquals(0x0212, processor.getRegisters().programCounter, message);
+                Assertions.assertEquals(0x33, memory.read(0x0011), message);
+                Assertions.assertEquals(0x33, memory.read(0x0012), message);
+                Assertions.assertEquals(0x01, memory.read(0x0013), message);
+                Assertions.assertEquals(0x32, memory.read(0x0014), message);
+                Assertions.assertEquals(0x02, memory.read(0x0015), message);
+                Assertions.assertEquals(0x31, memory.read(0x0016), message);
+            }
+        }
+    }
+
+    private static ArrayMemory runDecimalProgram(final ProcessorVariant processorVariant) {
+
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+        memory.load(0x0200, new byte[]{
+            (byte) 0xF8,                    // SED
+            0x18,                           // CLC
+            (byte) 0xA9, 0x19,              // LDA #$19
+            0x69, 0x28,                     // ADC #$28
+            (byte) 0x85, 0x10,              // STA $10
+            (byte) 0xA9, (byte) 0x99,       // LDA #$99
+            0x69, 0x01,                     // ADC #$01
+            (byte) 0x85, 0x11,              // STA $11
+            0x08,                           // PHP
+            0x68,                           // PLA
+            (byte) 0x85, 0x12,              // STA $12
+            0x38,                           // SEC
+            (byte) 0xA9, 0x40,              // LDA #$40
+            (byte) 0xE9, 0x01,              // SBC #$01
+            (byte) 0x85, 0x13});            // STA $13
+
+        final MOS6502Processor processor = new MOS6502Processor(
+            Collections.singletonList(memory),
+            processorVariant,
+            ExecutionEngine.SWITCH);
+        processor.reset(0x0200);
+
+        for (int idx = 0; idx < 15; idx += 1) {
+            processor.step();
+        }
+
+        return memory;
+    }
+}
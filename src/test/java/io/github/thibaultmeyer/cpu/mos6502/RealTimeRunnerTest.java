@@ -0,0 +1,92 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.Collections;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+final class RealTimeRunnerTest {
+
+    @Test
+    void constructorInvalidFrequency() {
+
+        // Arrange
+        final MOS6502Processor processor = createProcessor();
+
+        // Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RealTimeRunner(processor, 0, 1_000));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RealTimeRunner(processor, 1_000_000, 0));
+    }
+
+    @Test
+    void run() {
+
+        // Arrange
+        final MOS6502Processor processor = createProcessor();
+        final RealTimeRunner runner = new RealTimeRunner(processor, 1_000_000, 10_000);
+
+        // Act
+        final long start = System.nanoTime();
+        final long cycles = runner.run(200_000);
+        final long elapsedNanos = System.nanoTime() - start;
+
+        // Assert
+        Assertions.assertTrue(cycles >= 200_000);
+        Assertions.assertTrue(cycles < 200_010);
+        Assertions.assertTrue(elapsedNanos >= 199_000_000L, "Elapsed " + elapsedNanos);
+        Assertions.assertTrue(runner.achievedMegahertz() <= 1.01, "Achieved " + runner.achievedMegahertz());
+        Assertions.assertTrue(runner.totalSlackNanos() > 0);
+    }
+
+    @Test
+    void runStop() {
+
+        // Arrange
+        final MOS6502Processor processor = createProcessor();
+        final RealTimeRunner runner = new RealTimeRunner(processor, 1_000_000, 10_000);
+        processor.getEventScheduler().schedule(50_000, cycle -> runner.stop());
+
+        // Act
+        final long cycles = runner.run(Long.MAX_VALUE);
+
+        // Assert
+        Assertions.assertTrue(cycles >= 50_000);
+        Assertions.assertTrue(cycles <= 60_010);
+    }
+
+    @Test
+    void runTurbo() {
+
+        // Arrange
+        final MOS6502Processor processor = createProcessor();
+        final RealTimeRunner runner = new RealTimeRunner(processor, 1_000, 1_000);
+        runner.setTurbo(true);
+
+        // Act
+        final long start = System.nanoTime();
+        runner.run(1_000_000);
+        final long elapsedNanos = System.nanoTime() - start;
+
+        // Assert
+        Assertions.assertTrue(runner.isTurbo());
+        Assertions.assertTrue(elapsedNanos < 1_000_000_000L, "Elapsed " + elapsedNanos);
+        Assertions.assertTrue(runner.achievedMegahertz() > 0.001, "Achieved " + runner.achievedMegahertz());
+        Assertions.assertEquals(0, runner.totalSlackNanos());
+    }
+
+    private static MOS6502Processor createProcessor() {
+
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+        memory.load(0x0200, new byte[]{
+            (byte) 0xEA,                    // NOP
+            0x4C, 0x00, 0x02});             // JMP $0200
+
+        final MOS6502Processor processor = new MOS6502Processor(Collections.singletonList(memory));
+        processor.reset(0x0200);
+
+        return processor;
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+final class RewindBufferTest {
+
+    @Test
+    void dirtyPagesKeptByCaptures() {
+
+        // Arrange
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+        memory.load(0x0200, new byte[]{
+            (byte) 0x8D, 0x00, 0x30,        // STA $3000
+            (byte) 0xE8,                    // INX
+            0x4C, 0x03, 0x02});             // JMP $0203
+
+        final MOS6502Processor processor = new MOS6502Processor(
+            Collections.singletonList(memory),
+            ProcessorVariant.NMOS_6502,
+            ExecutionEngine.OPERATION_CODE_TABLE);
+        processor.reset(0x0200);
+        processor.saveSnapshot(ByteBuffer.allocate(processor.snapshotSize()));
+        final int cleanDeltaSnapshotSize = processor.deltaSnapshotSize();
+
+        // Act
+        try (final RewindBuffer rewindBuffer = new RewindBuffer(processor, 1_000, 1024 * 1024)) {
+            runUntil(processor, rewindBuffer, 10_000);
+        }
+
+        // Assert
+        Assertions.assertEquals(cleanDeltaSnapshotSize + 256, processor.deltaSnapshotSize());
+    }
+
+    @Test
+    void memoryCap() {
+
+        // Arrange
+        final MOS6502Processor processor = createProcessor(ExecutionEngine.OPERATION_CODE_TABLE);
+        final long memoryCap = 16 * 1024;
+
+        // Act
+        final long oldestCycle;
+        final long memoryUsage;
+        try (final RewindBuffer rewindBuffer = new RewindBuffer(processor, 1_000, memoryCap)) {
+            for (int idx = 0; idx < 1_000; idx += 1) {
+                processor.run(1_000);
+                rewindBuffer.flush();
+            }
+            oldestCycle = rewindBuffer.oldestCycle();
+            memoryUsage = rewindBuffer.memoryUsage();
+        }
+
+        // Assert
+        Assertions.assertTrue(oldestCycle > 1_000);
+        Assertions.assertTrue(memoryUsage <= memoryCap);
+    }
+
+    @Test
+    void seek() {
+
+        for (final ExecutionEngine executionEngine : ExecutionEngine.values()) {
+
+            // Arrange
+            final MOS6502Processor processor = createProcessor(executionEngine);
+            try (final RewindBuffer rewindBuffer = new RewindBuffer(processor, 5_000, 1024 * 1024)) {
+                runUntil(processor, rewindBuffer, 123_456);
+                final byte[] expectedSnapshot = new byte[processor.snapshotSize()];
+                processor.saveSnapshot(ByteBuffer.wrap(expectedSnapshot));
+                runUntil(processor, rewindBuffer, 300_000);
+                final int sizeBeforeSeek = rewindBuffer.size();
+
+                // Act
+                rewindBuffer.seek(123_456);
+                final byte[] snapshot = new byte[processor.snapshotSize()];
+                processor.saveSnapshot(ByteBuffer.wrap(snapshot));
+                final int sizeAfterSeek = rewindBuffer.size();
+
+                runUntil(processor, rewindBuffer, 200_000);
+
+                // Assert
+                Assertions.assertEquals(59, sizeBeforeSeek, executionEngine.name());
+                Assertions.assertEquals(24, sizeAfterSeek, executionEngine.name());
+                Assertions.assertEquals(39, rewindBuffer.size(), executionEngine.name());
+                Assertions.assertEquals(0, rewindBuffer.skippedCaptureCount(), executionEngine.name());
+                Assertions.assertArrayEquals(expectedSnapshot, snapshot, executionEngine.name());
+            }
+        }
+    }
+
+    @Test
+    void seekUnavailableCycle() {
+
+        // Arrange
+        final MOS6502Processor processor = createProcessor(ExecutionEngine.OPERATION_CODE_TABLE);
+        processor.run(10_000);
+
+        try (final RewindBuffer rewindBuffer = new RewindBuffer(processor, 1_000, 1024 * 1024)) {
+            processor.run(10_000);
+
+            // Act & Assert
+            Assertions.assertThrows(IllegalArgumentException.class, () -> rewindBuffer.seek(5_000));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> rewindBuffer.seek(processor.totalCycles() + 1));
+        }
+    }
+
+    private static MOS6502Processor createProcessor(final ExecutionEngine executionEngine) {
+
+        final ArrayMemory memory = ArrayMemory.createRAM(0x0000, 0x10000);
+        memory.load(0x0200, new byte[]{
+            (byte) 0xE8,                    // INX
+            (byte) 0xD0, 0x02,              // BNE +2
+            (byte) 0xC8,                    // INY
+            (byte) 0x98,                    // TYA
+            (byte) 0x9D, 0x00, 0x10,        // STA $1000,X
+            (byte) 0x99, 0x00, 0x20,        // STA $2000,Y
+            0x4C, 0x00, 0x02});             // JMP $0200
+
+        final MOS6502Processor processor = new MOS6502Processor(
+            Collections.singletonList(memory),
+            ProcessorVariant.NMOS_6502,
+            executionEngine);
+        processor.reset(0x0200);
+
+        return processor;
+    }
+
+    private static void runUntil(final MOS6502Processor processor, final RewindBuffer rewindBuffer, final long cycle) {
+
+        // Runs frame by frame, letting the compression thread keep up
+        while (processor.totalCycles() < cycle - 2_000) {
+            processor.run(Math.min(1_000, cycle - processor.totalCycles() - 1_000));
+            rewindBuffer.flush();
+        }
+        while (processor.totalCycles() < cycle) {
+            processor.step();
+        }
+        rewindBuffer.flush();
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.thibaultmeyer.cpu.mos6502;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+final class RingBufferTraceSinkTest {
+
+    @Test
+    void constructorInvalidCapacity() {
+
+        // Act & Assert
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new RingBufferTraceSink(3));
+    }
+
+    @Test
+    void replay() {
+
+        // Arrange
+        final RingBufferTraceSink traceSink = new RingBufferTraceSink(4);
+        traceSink.trace(0xC000, 0x4C, 0x01, 0x02, 0x03, 0xFD, 0x24, 7);
+
+        final List<String> recordList = new ArrayList<>();
+
+        // Act
+        traceSink.replay((pc, opcode, a, x, y, sp, p, cycle) -> recordList.add(
+            String.format("%04X %02X %02X %02X %02X %02X %02X %d", pc, opcode, a, x, y, sp, p, cycle)));
+
+        // Assert
+        Assertions.assertEquals(1, traceSink.size());
+        Assertions.assertEquals(1, recordList.size());
+        Assertions.assertEquals("C000 4C 01 02 03 FD 24 7", recordList.get(0));
+    }
+
+    @Test
+    void replayOverwritten() {
+
+        // Arrange
+        final RingBufferTraceSink traceSink = new RingBufferTraceSink(4);
+        for (int idx = 0; idx < 10; idx += 1) {
+            traceSink.trace(idx, 0xEA, 0, 0, 0, 0xFD, 0x24, idx * 2L);
+        }
+
+        final List<Long> cycleList = new ArrayList<>();
+
+        // Act
+        traceSink.replay((pc, opcode, a, x, y, sp, p, cycle) -> cycleList.add(cycle));
+
+        // Assert
+        Assertions.assertEquals(4, traceSink.size());
+        Assertions.assertEquals(10, traceSink.totalCount());
+        Assertions.assertEquals(12L, cycleList.get(0));
+        Assertions.assertEquals(18L, cycleList.get(3));
+    }
+
+}